@@ -0,0 +1,170 @@
+import jogodomino.PecaDomino;
+import jogodomino.TabelaPecas;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Guarda as imagens das peças de dominó já decodificadas, incluindo as variações
+ * espelhada e girada de cada uma. Cada PNG é lido do classpath uma única vez;
+ * depois disso, desenhar uma peça só custa criar o {@code ImageView}.
+ * Os PNGs cobrem o duplo-seis; as peças dos conjuntos maiores, que não têm arquivo,
+ * são desenhadas na primeira vez em que são pedidas.
+ */
+public class CacheImagensPecas {
+    /** As imagens de cada peça, indexadas por {@code número * 4 + espelhada * 2 + girada}. */
+    private final Image[] imagens = new Image[TabelaPecas.TOTAL_PECAS_SUPORTADO * 4];
+    /** A largura das peças desenhadas, igual à dos PNGs. */
+    private static final int LARGURA = 48;
+    /** A altura das peças desenhadas, igual à dos PNGs. */
+    private static final int ALTURA = 32;
+    /**
+     * As casas ocupadas por cada valor numa metade da peça. Até 9, numa grade de
+     * 3 × 3 (bit {@code linha * 3 + coluna}); de 10 a 12, numa grade de 4 linhas × 3.
+     */
+    private static final int[] PONTOS = {
+        0, 0x010, 0x101, 0x111, 0x145, 0x155, 0x16D, 0x17D, 0x1EF, 0x1FF,
+        0xF6F, 0xF7F, 0xFFF
+    };
+
+    /**
+     * Decodifica de uma vez todas as peças e suas variações.
+     * Deve ser chamado na inicialização, antes da primeira partida.
+     */
+    public void aquecer() {
+        for (int n = 0; n < TabelaPecas.TOTAL_PECAS; n++) {
+            PecaDomino p = PecaDomino.porNumero(n);
+            getImagem(p.getLadoEsquerdo(), p.getLadoDireito(), false);
+            getImagem(p.getLadoEsquerdo(), p.getLadoDireito(), true);
+            getImagem(p.getLadoDireito(), p.getLadoEsquerdo(), false);
+            getImagem(p.getLadoDireito(), p.getLadoEsquerdo(), true);
+        }
+    }
+
+    /**
+     * Retorna a imagem de uma peça como deve aparecer na tela.
+     * Se {@code a > b} a imagem já vem espelhada, para manter o valor {@code a} à esquerda.
+     *
+     * @param a           O valor que deve aparecer à esquerda da peça.
+     * @param b           O valor que deve aparecer à direita da peça.
+     * @param rotacionada Se true, a imagem vem girada 90 graus no sentido horário.
+     * @return A imagem pronta para uso em um {@code ImageView}.
+     */
+    public Image getImagem(int a, int b, boolean rotacionada) {
+        int numero = TabelaPecas.numero(a, b);
+        boolean espelhada = a > b;
+        int indice = numero * 4 + (espelhada ? 2 : 0) + (rotacionada ? 1 : 0);
+        if (imagens[indice] == null) {
+            Image img = carregarOriginal(numero);
+            if (espelhada) img = espelhar(img);
+            if (rotacionada) img = girar(img);
+            imagens[indice] = img;
+        }
+        return imagens[indice];
+    }
+
+    /**
+     * Lê o PNG de uma peça do classpath, na orientação do arquivo (menor valor à esquerda).
+     *
+     * @param numero O número da peça.
+     * @return A imagem decodificada.
+     */
+    private Image carregarOriginal(int numero) {
+        int indice = numero * 4;
+        if (imagens[indice] != null) return imagens[indice];
+
+        int a = TabelaPecas.ladoMenor(numero);
+        int b = TabelaPecas.ladoMaior(numero);
+        java.net.URL recurso = getClass().getResource(String.format("/recursos/pecas/domino_%d_%d.png", a, b));
+        // Tenta encontrar a imagem com os lados invertidos se a primeira tentativa falhar
+        if (recurso == null) {
+            recurso = getClass().getResource(String.format("/recursos/pecas/domino_%d_%d.png", b, a));
+        }
+        imagens[indice] = recurso != null ? new Image(recurso.toString()) : desenhar(a, b);
+        return imagens[indice];
+    }
+
+    /**
+     * Desenha uma peça sem PNG: fundo claro, borda, divisória e os pontos de cada metade.
+     *
+     * @param a O valor da metade esquerda.
+     * @param b O valor da metade direita.
+     * @return A imagem desenhada, do mesmo tamanho dos PNGs.
+     */
+    private static Image desenhar(int a, int b) {
+        WritableImage destino = new WritableImage(LARGURA, ALTURA);
+        PixelWriter escritor = destino.getPixelWriter();
+        for (int y = 0; y < ALTURA; y++) {
+            for (int x = 0; x < LARGURA; x++) {
+                boolean borda = x == 0 || y == 0 || x == LARGURA - 1 || y == ALTURA - 1 || x == LARGURA / 2;
+                escritor.setArgb(x, y, borda ? 0xFF202020 : 0xFFF8F8F0);
+            }
+        }
+        desenharPontos(escritor, 0, a);
+        desenharPontos(escritor, LARGURA / 2, b);
+        return destino;
+    }
+
+    /**
+     * Desenha os pontos de um valor numa metade da peça.
+     *
+     * @param escritor O escritor da imagem.
+     * @param x0       A coluna onde a metade começa.
+     * @param valor    O valor a desenhar.
+     */
+    private static void desenharPontos(PixelWriter escritor, int x0, int valor) {
+        int linhas = valor > 9 ? 4 : 3;
+        int meia = LARGURA / 2;
+        for (int casa = 0; casa < linhas * 3; casa++) {
+            if ((PONTOS[valor] & (1 << casa)) == 0) continue;
+            int cx = x0 + meia * (casa % 3 + 1) / 4;
+            int cy = ALTURA * (casa / 3 + 1) / (linhas + 1);
+            for (int dy = -2; dy <= 2; dy++) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    if (dx * dx + dy * dy <= 5) escritor.setArgb(cx + dx, cy + dy, 0xFF202020);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cria uma cópia da imagem espelhada na horizontal.
+     *
+     * @param origem A imagem original.
+     * @return A imagem espelhada.
+     */
+    private static Image espelhar(Image origem) {
+        int w = (int) origem.getWidth();
+        int h = (int) origem.getHeight();
+        PixelReader leitor = origem.getPixelReader();
+        WritableImage destino = new WritableImage(w, h);
+        PixelWriter escritor = destino.getPixelWriter();
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                escritor.setArgb(x, y, leitor.getArgb(w - 1 - x, y));
+            }
+        }
+        return destino;
+    }
+
+    /**
+     * Cria uma cópia da imagem girada 90 graus no sentido horário.
+     *
+     * @param origem A imagem original.
+     * @return A imagem girada, com largura e altura trocadas.
+     */
+    private static Image girar(Image origem) {
+        int w = (int) origem.getWidth();
+        int h = (int) origem.getHeight();
+        PixelReader leitor = origem.getPixelReader();
+        WritableImage destino = new WritableImage(h, w);
+        PixelWriter escritor = destino.getPixelWriter();
+        for (int y = 0; y < w; y++) {
+            for (int x = 0; x < h; x++) {
+                escritor.setArgb(x, y, leitor.getArgb(y, h - 1 - x));
+            }
+        }
+        return destino;
+    }
+}
@@ -3,23 +3,44 @@
  * @version 12/06/2025
  */
 import jogodomino.*;
+import inteligencia.EstrategiaMCTS;
+import inteligencia.LivroAberturas;
+import inteligencia.ModeloAvaliacao;
+import listaligadapecas.PecaColocada;
+import metricas.Metricas;
+import metricas.Operacao;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Classe principal da aplicação de jogo de dominó com interface gráfica JavaFX.
  * Gerencia a interface do usuário (UI), a lógica de interação do jogador e o fluxo do jogo.
  */
 public class DominoFXApp extends Application {
+    /** O tempo de cada atualização da interface. */
+    private static final Operacao ATUALIZAR_UI = Metricas.operacao("ui.atualizarUI");
+    /** O modelo de avaliação carregado pela CPU, se existir; outro caminho pode vir em {@code -Ddomino.modelo}. */
+    private static final String MODELO_PADRAO = "modelo.dmod";
+    /** O livro de aberturas consultado pela CPU, se existir; outro caminho pode vir em {@code -Ddomino.livro}. */
+    private static final String LIVRO_PADRAO = "aberturas.dliv";
+    /** A estratégia usada pela CPU quando a busca falha ou devolve uma jogada inválida. */
+    private static final Estrategia JOGADA_RESERVA = new EstrategiaMaiorPeca();
 
     /** Flag para determinar se o modo de jogo é contra a CPU. */
     private boolean contraCPU = true;
@@ -46,6 +67,16 @@ public class DominoFXApp extends Application {
     private final ToggleGroup grupoMao = new ToggleGroup();
     /** Flag para controlar se o jogador já comprou uma peça nesta rodada. */
     private boolean comprouEstaRodada = false;
+    /** Lista que registra os eventos da partida sem bloquear a interface. */
+    private ListView<String> registroEventos;
+    /** A estratégia usada pela CPU; a busca roda fora da thread da interface. */
+    private final EstrategiaMCTS estrategiaCPU = new EstrategiaMCTS();
+    /** A decisão da CPU em andamento, ou null se a CPU não está pensando. */
+    private CompletableFuture<Jogada> decisaoCPU;
+    /** As imagens das peças, decodificadas uma única vez na inicialização. */
+    private final CacheImagensPecas cacheImagens = new CacheImagensPecas();
+    /** Os botões das peças na mão do jogador, indexados pelo número da peça. */
+    private final ToggleButton[] botoesMao = new ToggleButton[TabelaPecas.TOTAL_PECAS_SUPORTADO];
 
     /**
      * Ponto de entrada da aplicação JavaFX.
@@ -55,9 +86,40 @@ public class DominoFXApp extends Application {
      */
     @Override
     public void start(Stage stage) {
+        cacheImagens.aquecer();
+        carregarModelo();
+        carregarLivro();
         mostrarMenuInicial(stage);
     }
 
+    /**
+     * Carrega o modelo de avaliação da CPU, gerado por {@code inteligencia.PipelineTreino}.
+     * Sem o arquivo, ou se ele for inválido, a CPU busca sem modelo.
+     */
+    private void carregarModelo() {
+        Path arquivo = Paths.get(System.getProperty("domino.modelo", MODELO_PADRAO));
+        if (!Files.isRegularFile(arquivo)) return;
+        try {
+            estrategiaCPU.setModeloAvaliacao(ModeloAvaliacao.carregar(arquivo));
+        } catch (IOException ex) {
+            System.err.println("Modelo de avaliação ignorado: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Abre o livro de aberturas da CPU, gerado por {@code inteligencia.GeradorLivroAberturas}.
+     * Sem o arquivo, ou se ele for inválido, a CPU busca desde a primeira jogada.
+     */
+    private void carregarLivro() {
+        Path arquivo = Paths.get(System.getProperty("domino.livro", LIVRO_PADRAO));
+        if (!Files.isRegularFile(arquivo)) return;
+        try {
+            estrategiaCPU.setLivroAberturas(LivroAberturas.abrir(arquivo));
+        } catch (IOException ex) {
+            System.err.println("Livro de aberturas ignorado: " + ex.getMessage());
+        }
+    }
+
     /**
      * Exibe o menu inicial onde o jogador pode escolher o modo de jogo.
      * As opções são Jogador vs Jogador ou Jogador vs CPU.
@@ -65,6 +127,7 @@ public class DominoFXApp extends Application {
      * @param stage O palco onde a cena do menu será exibida.
      */
     private void mostrarMenuInicial(Stage stage) {
+        cancelarDecisaoCPU();
         this.jogo = null; // Reseta o jogo ao voltar para o menu
         VBox menu = new VBox(15);
         menu.setPadding(new Insets(30));
@@ -129,7 +192,13 @@ public class DominoFXApp extends Application {
 
         root.setBottom(bottom);
 
+        registroEventos = new ListView<>();
+        registroEventos.setPrefWidth(220);
+        root.setRight(registroEventos);
+
         configurarAcoes();
+        montarTabuleiro();
+        jogo.adicionarOuvinte(new OuvinteTabuleiro());
         atualizarUI();
 
         Scene scene = new Scene(root, 850, 600);
@@ -139,8 +208,8 @@ public class DominoFXApp extends Application {
         stage.show();
 
         if (this.contraCPU && "CPU".equals(jogo.getJogadorAtual().getNome())) {
-            turnoCPU();    // A CPU faz sua jogada
-            atualizarUI(); // A UI é atualizada para refletir a jogada da CPU
+            turnoCPU();    // A CPU começa a pensar em segundo plano
+            atualizarUI(); // A UI é atualizada para refletir as compras da CPU
         }
     }
 
@@ -153,7 +222,7 @@ public class DominoFXApp extends Application {
 
         btnBuy.setOnAction(e -> {
                     if (comprouEstaRodada) {
-                        alert("Você só pode comprar uma peça por rodada.");
+                        registrarEvento("Você só pode comprar uma peça por rodada.");
                         return;
                     }
                     if (jogo.comprarPeca(jogo.getJogadorAtual())) {
@@ -161,14 +230,21 @@ public class DominoFXApp extends Application {
                         btnBuy.setDisable(true); // Desabilita o botão após a compra na mesma rodada
                         atualizarUI();
                     } else {
-                        alert("Monte vazio.");
+                        registrarEvento("Monte vazio.");
                     }
             });
 
         btnPass.setOnAction(e -> {
+                    Jogador quemPassou = jogo.getJogadorAtual();
+                    if (quemPassou.podeJogar(jogo.getMesa().getValorEsquerdo(), jogo.getMesa().getValorDireito())) {
+                        registrarEvento("Você tem peça que encaixa; não pode passar.");
+                        return;
+                    }
                     jogo.passarTurno();
                     comprouEstaRodada = false; // Reseta a flag de compra ao passar
                     btnBuy.setDisable(false); // Habilita o botão de compra para o próximo jogador
+                    registrarEvento(quemPassou.getNome() + " passou a vez.");
+                    if (verificarFimDeJogo()) return;
                     turnoCPU();
                     atualizarUI();
             });
@@ -188,21 +264,19 @@ public class DominoFXApp extends Application {
     private void tentarJogar(boolean esquerda) {
         ToggleButton sel = (ToggleButton) grupoMao.getSelectedToggle();
         if (sel == null) {
-            alert("Selecione uma peça primeiro.");
+            registrarEvento("Selecione uma peça primeiro.");
             return;
         }
         PecaDomino p = (PecaDomino) sel.getUserData();
 
         boolean ok = jogo.realizarJogada(p, esquerda);
         if (!ok) {
-            alert("Peça não encaixa nesse lado.");
+            registrarEvento("Peça não encaixa nesse lado.");
             return;
         }
+        registrarEvento(jogo.getJogadorAtual().getNome() + " jogou " + p);
 
-        if (jogo.getJogadorAtual().getMao().isEmpty()) {
-            alert("Parabéns, você venceu!");
-            mostrarMenuInicial((Stage) btnMenu.getScene().getWindow());
-        }
+        if (verificarFimDeJogo()) return;
 
         jogo.passarTurno();
         comprouEstaRodada = false;
@@ -211,121 +285,245 @@ public class DominoFXApp extends Application {
     }
 
     /**
-     * Executa a lógica de jogada para o jogador CPU.
-     * A CPU tenta jogar qualquer peça válida. Se não puder, tenta comprar uma.
-     * Se ainda não puder jogar, passa a vez.
+     * Inicia o turno da CPU, se for a vez dela.
+     * As compras obrigatórias são feitas na hora; a escolha da peça roda em segundo
+     * plano e a jogada é aplicada depois, na thread da interface, por {@link #aplicarJogadaCPU}.
+     * Se ainda assim não puder jogar, a CPU passa a vez.
      */
     private void turnoCPU() {
         Jogador cpu = jogo.getJogadorAtual();
         if (!contraCPU || !"CPU".equals(cpu.getNome())) return;
 
-        // Tenta jogar uma peça
-        for (PecaDomino p : new ArrayList<>(cpu.getMao())) {
-            if (jogo.realizarJogada(p, true) || jogo.realizarJogada(p, false)) {
-                alert("CPU jogou " + p);
-                if (cpu.getMao().isEmpty()) {
-                    alert("CPU venceu! :(");
-                    mostrarMenuInicial((Stage) btnMenu.getScene().getWindow());
-                }
-                jogo.passarTurno();
-                return;
-            }
+        // Compra até ter uma peça que encaixe ou o monte acabar
+        while (!cpu.podeJogar(jogo.getMesa().getValorEsquerdo(), jogo.getMesa().getValorDireito())
+               && jogo.comprarPeca(cpu)) {
+            registrarEvento("CPU comprou.");
+        }
+
+        if (!cpu.podeJogar(jogo.getMesa().getValorEsquerdo(), jogo.getMesa().getValorDireito())) {
+            registrarEvento("CPU passou a vez.");
+            if (verificarFimDeJogo()) return;
+            jogo.passarTurno();
+            return;
         }
 
-        // Se não pôde jogar, tenta comprar
-        if (jogo.comprarPeca(cpu)) {
-            int e = jogo.getMesa().getValorEsquerdo();
-            int d = jogo.getMesa().getValorDireito();
-            alert("CPU Comprou");
-            if (cpu.podeJogar(e, d)) {
-                turnoCPU(); // Tenta jogar novamente com a nova peça
-                return;
+        registrarEvento("CPU está pensando...");
+        JogoDomino jogoDaDecisao = jogo;
+        decisaoCPU = estrategiaCPU.escolherJogadaAsync(jogo, cpu);
+        decisaoCPU.whenComplete((jogada, erro) ->
+            Platform.runLater(() -> aplicarJogadaCPU(jogoDaDecisao, jogada, erro)));
+    }
+
+    /**
+     * Aplica na thread da interface a jogada escolhida pela CPU.
+     * Resultados de partidas que já foram abandonadas (volta ao menu) são ignorados.
+     * Se a busca falhar ou devolver uma jogada inválida, a CPU joga a maior peça que
+     * encaixa ou, sem nenhuma, passa a vez, para que a partida nunca fique parada.
+     *
+     * @param jogoDaDecisao O jogo para o qual a jogada foi calculada.
+     * @param jogada        A jogada escolhida.
+     * @param erro          O erro da busca, ou null se ela terminou normalmente.
+     */
+    private void aplicarJogadaCPU(JogoDomino jogoDaDecisao, Jogada jogada, Throwable erro) {
+        if (jogoDaDecisao != jogo) return;
+        decisaoCPU = null;
+        if (erro != null) {
+            Throwable causa = erro instanceof CompletionException ? erro.getCause() : erro;
+            if (causa instanceof CancellationException) return;
+            registrarEvento("Erro na jogada da CPU: " + causa.getMessage());
+        }
+
+        Jogador cpu = jogo.getJogadorAtual();
+        if (erro == null && realizarJogadaCPU(cpu, jogada)) {
+            registrarEvento(String.format("CPU jogou %s (%.0f simulações/s)",
+                jogada.getPeca(), estrategiaCPU.getPlayoutsPorSegundo()));
+        } else {
+            Jogada reserva = JOGADA_RESERVA.escolherJogada(jogo, cpu);
+            if (realizarJogadaCPU(cpu, reserva)) {
+                registrarEvento("CPU jogou " + reserva.getPeca());
+            } else {
+                registrarEvento("CPU passou a vez.");
             }
         }
+        if (verificarFimDeJogo()) return;
 
-        // Se não pôde jogar nem comprar uma peça útil, passa a vez
-        alert("CPU passou a vez.");
         jogo.passarTurno();
+        atualizarUI();
     }
 
     /**
-     * Atualiza todos os componentes da interface gráfica para refletir o estado atual do jogo.
-     * Isso inclui a mesa, a mão do jogador, o indicador de turno e o estado dos botões.
+     * Coloca na mesa uma jogada da CPU, se ela for válida.
+     *
+     * @param cpu    O jogador da CPU.
+     * @param jogada A jogada, ou null.
+     * @return true se a peça estava na mão da CPU e encaixou.
      */
-    private void atualizarUI() {
-        // --- Lógica para o jogador da vez e a mesa (permanece a mesma) ---
-        Jogador jogadorDaVez = jogo.getJogadorAtual();
-        lblCurrent.setText("Vez de: " + jogadorDaVez.getNome());
+    private boolean realizarJogadaCPU(Jogador cpu, Jogada jogada) {
+        return jogada != null && cpu.contem(jogada.getPeca())
+            && jogo.realizarJogada(jogada.getPeca(), jogada.isNaEsquerda());
+    }
 
+    /**
+     * Cancela a busca da CPU em andamento, se houver.
+     */
+    private void cancelarDecisaoCPU() {
+        if (decisaoCPU != null) {
+            decisaoCPU.cancel(true);
+            decisaoCPU = null;
+        }
+    }
+
+    /**
+     * Verifica se a partida terminou, porque alguém bateu ou porque o jogo trancou.
+     * Nesse caso, registra o resultado e desabilita as jogadas, deixando apenas o Menu.
+     *
+     * @return true se a partida terminou, false caso contrário.
+     */
+    private boolean verificarFimDeJogo() {
+        if (!jogo.isFinalizado()) return false;
+
+        Jogador vencedor = jogo.getVencedor();
+        String motivo = jogo.isBloqueado() ? "Jogo trancado! " : "";
+        if (vencedor == null) {
+            registrarEvento(motivo + "Empate.");
+        } else if ("CPU".equals(vencedor.getNome())) {
+            registrarEvento(motivo + "CPU venceu! :(");
+        } else if ("Você".equals(vencedor.getNome())) {
+            registrarEvento(motivo + "Parabéns, você venceu!");
+        } else {
+            registrarEvento(motivo + vencedor.getNome() + " venceu!");
+        }
+        atualizarUI();
+        btnLeft.setDisable(true);
+        btnRight.setDisable(true);
+        btnBuy.setDisable(true);
+        btnPass.setDisable(true);
+        return true;
+    }
+
+    /**
+     * Monta a mesa e a mão do jogador a partir do estado completo do jogo.
+     * É chamado só no início da partida; depois disso, as mudanças chegam como
+     * eventos por {@link OuvinteTabuleiro}.
+     */
+    private void montarTabuleiro() {
         mesaPane.getChildren().clear();
-        for (PecaDomino p : jogo.getMesa().getPecas()) {
-            ImageView img = getImagemPeca(p, false);
-            mesaPane.getChildren().add(img);
+        for (PecaColocada c : jogo.getMesa().getInstantaneo()) {
+            mesaPane.getChildren().add(getImagemPeca(c.getLadoEsquerdo(), c.getLadoDireito(), false));
         }
 
         maoPane.getChildren().clear();
         grupoMao.getToggles().clear();
+        Arrays.fill(botoesMao, null);
+        for (PecaDomino p : jogo.getJogadores().get(0).getMao()) {
+            adicionarBotaoMao(p);
+        }
+    }
 
-        Jogador jogadorHumano = jogo.getJogadores().get(0); 
-        for (PecaDomino p : jogadorHumano.getMao()) {
-            ToggleButton tb = new ToggleButton();
-            tb.setUserData(p);
-            tb.setGraphic(getImagemPeca(p, true));
-            tb.setToggleGroup(grupoMao);
-            maoPane.getChildren().add(tb);
+    /**
+     * Cria o botão de uma peça na mão do jogador e o acrescenta ao painel.
+     *
+     * @param p A peça que entrou na mão.
+     */
+    private void adicionarBotaoMao(PecaDomino p) {
+        ToggleButton tb = new ToggleButton();
+        tb.setUserData(p);
+        tb.setGraphic(getImagemPeca(p.getLadoEsquerdo(), p.getLadoDireito(), true));
+        tb.setToggleGroup(grupoMao);
+        botoesMao[p.getNumero()] = tb;
+        maoPane.getChildren().add(tb);
+    }
+
+    /**
+     * Atualiza o indicador de turno e o estado dos botões.
+     * A mesa e a mão não são reconstruídas aqui; elas mudam só pelos eventos do jogo.
+     */
+    private void atualizarUI() {
+        long marca = ATUALIZAR_UI.iniciar();
+        try {
+            Jogador jogadorDaVez = jogo.getJogadorAtual();
+            lblCurrent.setText("Vez de: " + jogadorDaVez.getNome());
+
+            boolean turnoDoHumano = "Você".equals(jogadorDaVez.getNome()) || (!this.contraCPU);
+
+            // Habilita ou desabilita os botões com base no turno
+            btnLeft.setDisable(!turnoDoHumano);
+            btnRight.setDisable(!turnoDoHumano);
+            btnBuy.setDisable(!turnoDoHumano || comprouEstaRodada);
+            btnPass.setDisable(!turnoDoHumano);
+        } finally {
+            ATUALIZAR_UI.terminar(marca);
         }
+    }
 
-        boolean turnoDoHumano = "Você".equals(jogadorDaVez.getNome()) || (!this.contraCPU);
+    /**
+     * Aplica na tela só o que mudou a cada evento do jogo: uma peça a mais
+     * numa ponta da mesa, um botão a mais ou a menos na mão do jogador.
+     */
+    private class OuvinteTabuleiro implements OuvinteJogo {
+
+        @Override
+        public void pecaJogada(Jogador jogador, PecaColocada colocacao, boolean naEsquerda) {
+            ImageView img = getImagemPeca(colocacao.getLadoEsquerdo(), colocacao.getLadoDireito(), false);
+            if (naEsquerda) {
+                mesaPane.getChildren().add(0, img);
+            } else {
+                mesaPane.getChildren().add(img);
+            }
 
-        // Habilita ou desabilita os botões com base no turno
-        btnLeft.setDisable(!turnoDoHumano);
-        btnRight.setDisable(!turnoDoHumano);
-        btnBuy.setDisable(!turnoDoHumano || comprouEstaRodada);
-        btnPass.setDisable(!turnoDoHumano);
+            ToggleButton tb = botoesMao[colocacao.getPeca().getNumero()];
+            if (jogador == jogo.getJogadores().get(0) && tb != null) {
+                botoesMao[colocacao.getPeca().getNumero()] = null;
+                tb.setToggleGroup(null);
+                maoPane.getChildren().remove(tb);
+            }
+        }
+
+        @Override
+        public void pecaComprada(Jogador jogador, PecaDomino peca) {
+            if (jogador == jogo.getJogadores().get(0)) {
+                adicionarBotaoMao(peca);
+            }
+        }
     }
 
     /**
-     * Carrega e retorna a imagem de uma peça de dominó específica.
-     * O método lida com peças com números invertidos (ex: 1-2 e 2-1) e aplica rotação opcional.
+     * Retorna a imagem de uma peça de dominó específica, a partir do cache.
+     * As variações com números invertidos (ex: 1-2 e 2-1) e giradas já vêm prontas do cache.
      *
-     * @param peca A peça de dominó para a qual a imagem é necessária.
+     * @param a O valor que deve aparecer à esquerda da peça.
+     * @param b O valor que deve aparecer à direita da peça.
      * @param rotacionada Se true, a imagem da peça será rotacionada em 90 graus.
      * @return um ImageView contendo a imagem da peça.
      */
-    private ImageView getImagemPeca(PecaDomino peca, boolean rotacionada) {
-        int a = peca.getLadoEsquerdo();
-        int b = peca.getLadoDireito();
-        String nomeArquivo = String.format("/recursos/pecas/domino_%d_%d.png", a, b);
-        java.net.URL recurso = getClass().getResource(nomeArquivo);
-
-        // Tenta encontrar a imagem com os lados invertidos se a primeira tentativa falhar
-        if (recurso == null) {
-            nomeArquivo = String.format("/recursos/pecas/domino_%d_%d.png", b, a);
-            recurso = getClass().getResource(nomeArquivo);
+    private ImageView getImagemPeca(int a, int b, boolean rotacionada) {
+        ImageView iv = new ImageView(cacheImagens.getImagem(a, b, rotacionada));
+        if (rotacionada) {
+            iv.setFitHeight(60);
+        } else {
+            iv.setFitWidth(60);
         }
-
-        Image img = new Image(recurso.toString());
-        ImageView iv = new ImageView(img);
-        iv.setFitWidth(60);
         iv.setPreserveRatio(true);
-
-        if (a > b) {
-            iv.setScaleX(-1); // Inverte horizontalmente se a > b para manter a consistência
-        }
-
-        if (rotacionada) iv.setRotate(90);
         return iv;
     }
 
     /**
-     * Exibe uma caixa de diálogo de alerta com uma mensagem para o usuário.
+     * Acrescenta uma mensagem ao registro de eventos da partida, sem bloquear a interface.
      *
-     * @param msg A mensagem a ser exibida no alerta.
+     * @param msg A mensagem a ser registrada.
      */
-    private void alert(String msg) {
-        Alert a = new Alert(Alert.AlertType.INFORMATION, msg, ButtonType.OK);
-        a.setHeaderText(null);
-        a.showAndWait();
+    private void registrarEvento(String msg) {
+        registroEventos.getItems().add(msg);
+        registroEventos.scrollTo(registroEventos.getItems().size() - 1);
+    }
+
+    /**
+     * Chamado pelo JavaFX ao fechar a aplicação; interrompe a busca da CPU.
+     */
+    @Override
+    public void stop() {
+        cancelarDecisaoCPU();
+        estrategiaCPU.encerrar();
     }
 
     /**
@@ -0,0 +1,94 @@
+package desempenho;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import jogodomino.ConjuntoPecas;
+import jogodomino.EstadoCompacto;
+import jogodomino.GeradorDistribuicoes;
+import jogodomino.Jogador;
+import jogodomino.JogoDomino;
+import jogodomino.LoteDistribuicoes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede o custo de criar uma partida: gerar e embaralhar o monte, distribuir as
+ * peças e fazer a abertura, tanto em {@link JogoDomino} quanto em {@link EstadoCompacto}.
+ * Mede também a geração em lote de {@link GeradorDistribuicoes}, por distribuição.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkDistribuicao {
+    /** Quantas distribuições cada lote gera. */
+    private static final int TAMANHO_LOTE = 1024;
+
+    /** O gerador das distribuições. */
+    private SplittableRandom aleatorio;
+    /** Estado compacto reaproveitado a cada distribuição. */
+    private EstadoCompacto estado;
+    /** O gerador em lote. */
+    private GeradorDistribuicoes gerador;
+    /** O lote reaproveitado. */
+    private LoteDistribuicoes lote;
+    /** O número da próxima distribuição do fluxo. */
+    private long proxima;
+
+    /**
+     * Prepara o gerador e o estado reaproveitado.
+     */
+    @Setup
+    public void preparar() {
+        aleatorio = new SplittableRandom(42);
+        estado = new EstadoCompacto(2);
+        gerador = new GeradorDistribuicoes(ConjuntoPecas.DUPLO_SEIS, 2, 42);
+        lote = new LoteDistribuicoes(ConjuntoPecas.DUPLO_SEIS, 2, TAMANHO_LOTE);
+    }
+
+    /**
+     * Cria um {@link JogoDomino} completo, com objetos.
+     *
+     * @return O jogo criado.
+     */
+    @Benchmark
+    public JogoDomino distribuirJogoDomino() {
+        return new JogoDomino(Arrays.asList(new Jogador("A"), new Jogador("B")), aleatorio);
+    }
+
+    /**
+     * Redistribui o estado compacto, sem alocar.
+     *
+     * @return O estado redistribuído.
+     */
+    @Benchmark
+    public EstadoCompacto distribuirEstadoCompacto() {
+        estado.distribuir(aleatorio);
+        return estado;
+    }
+
+    /**
+     * Gera um lote inteiro de distribuições; o tempo informado é por distribuição.
+     *
+     * @return O lote preenchido.
+     */
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public LoteDistribuicoes distribuirEmLote() {
+        gerador.preencher(lote, proxima, TAMANHO_LOTE);
+        proxima += TAMANHO_LOTE;
+        return lote;
+    }
+}
@@ -0,0 +1,88 @@
+package desempenho;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jogodomino.Jogada;
+import jogodomino.Jogador;
+import jogodomino.JogoDomino;
+import jogodomino.PecaDomino;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede {@link JogoDomino#realizarJogada} isolado. Como a jogada altera o jogo, cada
+ * chamada recebe um lote de partidas novas, preparado fora da medição, e faz uma jogada
+ * em cada uma; assim o custo de preparar e cronometrar a chamada fica diluído no lote
+ * e o tempo informado é por jogada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkJogada {
+    /** Quantas partidas cada chamada recebe. */
+    private static final int TAMANHO_LOTE = 256;
+
+    /** As partidas em que as jogadas serão feitas. */
+    private final JogoDomino[] jogos = new JogoDomino[TAMANHO_LOTE];
+    /** A peça de uma jogada válida em cada partida. */
+    private final PecaDomino[] pecas = new PecaDomino[TAMANHO_LOTE];
+    /** O lado de cada jogada: true para a extremidade esquerda. */
+    private final boolean[] naEsquerda = new boolean[TAMANHO_LOTE];
+    /** Contador usado como semente das partidas preparadas. */
+    private long semente;
+
+    /**
+     * Cria um lote de partidas novas e escolhe uma jogada válida em cada uma,
+     * comprando se preciso.
+     */
+    @Setup(Level.Invocation)
+    public void preparar() {
+        for (int i = 0; i < TAMANHO_LOTE; i++) {
+            JogoDomino jogo;
+            List<Jogada> jogadas;
+            do { // raramente nem o monte inteiro dá uma jogada; essa distribuição é descartada
+                jogo = new JogoDomino(Arrays.asList(new Jogador("A"), new Jogador("B")), semente++);
+                jogo.setSaidaConsole(false);
+                Jogador jogador = jogo.getJogadorAtual();
+                jogadas = jogador.getJogadasPossiveis(jogo.getMesa().getValorEsquerdo(),
+                    jogo.getMesa().getValorDireito());
+                while (jogadas.isEmpty() && jogo.comprarPeca(jogador)) {
+                    jogadas = jogador.getJogadasPossiveis(jogo.getMesa().getValorEsquerdo(),
+                        jogo.getMesa().getValorDireito());
+                }
+            } while (jogadas.isEmpty());
+            jogos[i] = jogo;
+            pecas[i] = jogadas.get(0).getPeca();
+            naEsquerda[i] = jogadas.get(0).isNaEsquerda();
+        }
+    }
+
+    /**
+     * Coloca a peça escolhida na mesa de cada partida do lote.
+     *
+     * @return Quantas jogadas foram aceitas.
+     */
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public int realizarJogada() {
+        int aceitas = 0;
+        for (int i = 0; i < TAMANHO_LOTE; i++) {
+            if (jogos[i].realizarJogada(pecas[i], naEsquerda[i])) aceitas++;
+        }
+        return aceitas;
+    }
+}
@@ -0,0 +1,75 @@
+package desempenho;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jogodomino.ConjuntoPecas;
+import jogodomino.Jogada;
+import jogodomino.Jogador;
+import jogodomino.JogoDomino;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a consulta de jogadas na mão de um {@link Jogador}, para todas as
+ * combinações de extremidades da mesa, no duplo-seis (uma palavra de máscara)
+ * e no duplo-doze (duas palavras).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkJogador {
+    /** O conjunto de peças da partida. */
+    @Param({"DUPLO_SEIS", "DUPLO_DOZE"})
+    private ConjuntoPecas conjunto;
+    /** Um jogador com a mão recém-distribuída. */
+    private Jogador jogador;
+    /** Próximo par de extremidades consultado. */
+    private int consulta;
+    /** Quantos valores de extremidade existem no conjunto. */
+    private int valores;
+
+    /**
+     * Distribui uma mão numa partida de 4 jogadores (7 peças no duplo-seis, 15 no duplo-doze).
+     */
+    @Setup
+    public void preparar() {
+        jogador = new Jogador("A");
+        new JogoDomino(Arrays.asList(jogador, new Jogador("B"), new Jogador("C"), new Jogador("D")), conjunto, 7L);
+        valores = conjunto.getMaiorValor() + 1;
+    }
+
+    /**
+     * Verifica se o jogador tem alguma jogada.
+     *
+     * @return O resultado da consulta.
+     */
+    @Benchmark
+    public boolean podeJogar() {
+        int c = consulta++ % (valores * valores);
+        return jogador.podeJogar(c / valores, c % valores);
+    }
+
+    /**
+     * Lista todas as jogadas possíveis.
+     *
+     * @return As jogadas.
+     */
+    @Benchmark
+    public List<Jogada> getJogadasPossiveis() {
+        int c = consulta++ % (valores * valores);
+        return jogador.getJogadasPossiveis(c / valores, c % valores);
+    }
+}
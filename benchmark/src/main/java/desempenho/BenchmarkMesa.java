@@ -0,0 +1,96 @@
+package desempenho;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jogodomino.PecaDomino;
+import listaligadapecas.InstantaneoMesa;
+import listaligadapecas.ListaLigadaPecas;
+import listaligadapecas.PecaColocada;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede as leituras da mesa ({@link ListaLigadaPecas}) que a interface e as
+ * estratégias fazem a cada jogada, para mesas de tamanhos diferentes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkMesa {
+    /** Quantas peças há na mesa. */
+    @Param({"1", "14", "28"})
+    private int tamanho;
+
+    /** A mesa medida. */
+    private ListaLigadaPecas mesa;
+
+    /**
+     * Monta uma mesa com a quantidade de peças pedida.
+     * O encaixe não importa aqui; só o comprimento da lista.
+     */
+    @Setup
+    public void preparar() {
+        mesa = new ListaLigadaPecas();
+        for (int i = 0; i < tamanho; i++) {
+            mesa.adicionarNaDireita(PecaDomino.porNumero(i));
+        }
+    }
+
+    /**
+     * Copia as peças da mesa para uma lista.
+     *
+     * @return A lista de peças.
+     */
+    @Benchmark
+    public List<PecaDomino> getPecas() {
+        return mesa.getPecas();
+    }
+
+    /**
+     * Converte as peças da mesa em texto.
+     *
+     * @return A lista de textos.
+     */
+    @Benchmark
+    public List<String> toStringList() {
+        return mesa.toStringList();
+    }
+
+    /**
+     * Lê extremos, tamanho e contagem de um valor pelo retrato da mesa.
+     *
+     * @return Uma combinação dos valores lidos, para não ser descartada.
+     */
+    @Benchmark
+    public int lerInstantaneo() {
+        InstantaneoMesa retrato = mesa.getInstantaneo();
+        return retrato.getValorEsquerdo() + retrato.getValorDireito()
+            + retrato.getTamanho() + retrato.getContagemValor(6);
+    }
+
+    /**
+     * Percorre as peças pelo retrato da mesa, sem copiar a corrente.
+     *
+     * @return A soma dos pontos na mesa.
+     */
+    @Benchmark
+    public int percorrerInstantaneo() {
+        int soma = 0;
+        for (PecaColocada c : mesa.getInstantaneo()) {
+            soma += c.getLadoEsquerdo() + c.getLadoDireito();
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,101 @@
+package desempenho;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import jogodomino.Jogada;
+import jogodomino.Jogador;
+import jogodomino.PecaDomino;
+import jogodomino.TabelaPecas;
+import listaligadapecas.MesaRamificada;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a geração de jogadas numa {@link MesaRamificada} de trem mexicano com o
+ * duplo-doze, para números diferentes de ramos. O custo deve acompanhar as jogadas
+ * encontradas, não o número de ramos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkMesaRamificada {
+    /** Quantos ramos a mesa tem (jogadores mais o trem mexicano). */
+    @Param({"3", "5", "9"})
+    private int ramos;
+
+    /** A mesa medida, com algumas peças em cada ramo. */
+    private MesaRamificada mesa;
+    /** Um jogador com 15 peças que não estão na mesa. */
+    private Jogador jogador;
+
+    /**
+     * Monta a mesa com o motor [12|12] e duas peças por ramo, e a mão com peças restantes.
+     */
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        mesa = MesaRamificada.trem(ramos - 1);
+        mesa.iniciar(PecaDomino.de(12, 12));
+        for (int volta = 0; volta < 2; volta++) {
+            for (int r = 0; r < ramos; r++) {
+                for (int tentativa = 0; tentativa < 200; tentativa++) {
+                    PecaDomino p = PecaDomino.porNumero(aleatorio.nextInt(TabelaPecas.TOTAL_PECAS_SUPORTADO));
+                    if (!mesa.contem(p) && p.podeConectar(mesa.getValorPonta(r))) {
+                        mesa.colocar(r, p);
+                        break;
+                    }
+                }
+            }
+        }
+        jogador = new Jogador("A");
+        while (jogador.getMao().size() < 15) {
+            PecaDomino p = PecaDomino.porNumero(aleatorio.nextInt(TabelaPecas.TOTAL_PECAS_SUPORTADO));
+            if (!mesa.contem(p) && !jogador.contem(p)) {
+                jogador.adicionarPeca(p);
+            }
+        }
+    }
+
+    /**
+     * Verifica se o jogador tem alguma jogada.
+     *
+     * @return O resultado da consulta.
+     */
+    @Benchmark
+    public boolean podeJogar() {
+        return jogador.podeJogar(mesa);
+    }
+
+    /**
+     * Lista todas as jogadas possíveis em todos os ramos.
+     *
+     * @return As jogadas.
+     */
+    @Benchmark
+    public List<Jogada> getJogadasPossiveis() {
+        return jogador.getJogadasPossiveis(mesa);
+    }
+
+    /**
+     * Lê a soma das pontas abertas.
+     *
+     * @return A soma.
+     */
+    @Benchmark
+    public int somaPontas() {
+        return mesa.getSomaPontas();
+    }
+}
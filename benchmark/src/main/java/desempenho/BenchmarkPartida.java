@@ -0,0 +1,70 @@
+package desempenho;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import jogodomino.Estrategia;
+import jogodomino.EstrategiaMaiorPeca;
+import jogodomino.EstrategiaPrimeiraPeca;
+import jogodomino.ResultadoPartida;
+import jogodomino.SimuladorPartidas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede partidas completas, do embaralhamento ao fim, com cada estratégia nas
+ * duas posições. A simulação aleatória sobre o estado compacto, que não usa
+ * estratégia, fica em {@link BenchmarkPartidaCompacta}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkPartida {
+    /** A estratégia usada pelos dois jogadores. */
+    @Param({"PrimeiraPeca", "MaiorPeca"})
+    private String estrategia;
+
+    /** O simulador, usado aqui numa única thread. */
+    private SimuladorPartidas simulador;
+    /** O número da próxima partida. */
+    private long partida;
+
+    /**
+     * Cria o simulador com a estratégia do parâmetro.
+     */
+    @Setup
+    public void preparar() {
+        Estrategia e = "MaiorPeca".equals(estrategia) ? new EstrategiaMaiorPeca() : new EstrategiaPrimeiraPeca();
+        simulador = new SimuladorPartidas(Arrays.asList(e, e), 1, 42L);
+    }
+
+    /**
+     * Encerra as threads do simulador.
+     */
+    @TearDown
+    public void encerrar() {
+        simulador.encerrar();
+    }
+
+    /**
+     * Joga uma partida completa com objetos ({@link jogodomino.JogoDomino}).
+     *
+     * @return O resultado da partida.
+     */
+    @Benchmark
+    public ResultadoPartida partidaCompleta() {
+        return simulador.jogarPartida(partida++);
+    }
+}
@@ -0,0 +1,52 @@
+package desempenho;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import jogodomino.EstadoCompacto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mede a simulação aleatória de uma partida inteira sobre {@link EstadoCompacto},
+ * a mesma usada nas simulações da {@code EstrategiaMCTS}, para comparar com {@link BenchmarkPartida}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkPartidaCompacta {
+    /** O estado compacto reaproveitado nas simulações. */
+    private EstadoCompacto estado;
+    /** O gerador das simulações. */
+    private SplittableRandom aleatorio;
+
+    /**
+     * Prepara o estado reaproveitado e o gerador.
+     */
+    @Setup
+    public void preparar() {
+        estado = new EstadoCompacto(2);
+        aleatorio = new SplittableRandom(42);
+    }
+
+    /**
+     * Distribui e joga uma partida aleatória no estado compacto.
+     *
+     * @return O vencedor.
+     */
+    @Benchmark
+    public int partidaCompacta() {
+        estado.distribuir(aleatorio);
+        return estado.jogarAteOFim(aleatorio);
+    }
+}
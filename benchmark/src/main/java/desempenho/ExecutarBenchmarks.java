@@ -0,0 +1,36 @@
+package desempenho;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Roda todos os benchmarks com o perfilador de GC, que informa os bytes alocados
+ * por operação ({@code gc.alloc.rate.norm}), e grava o resultado em JSON.
+ * Esse arquivo serve de linha de base para comparar mudanças no motor.
+ * Uso: {@code java -cp benchmark/target/benchmarks.jar desempenho.ExecutarBenchmarks [arquivo.json] [filtro]}.
+ */
+public class ExecutarBenchmarks {
+
+    /**
+     * Ponto de entrada.
+     *
+     * @param args O arquivo de resultado (padrão: jmh-resultado.json) e uma expressão
+     *             regular para filtrar os benchmarks (padrão: todos).
+     * @throws RunnerException se o JMH falhar.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String arquivo = args.length > 0 ? args[0] : "jmh-resultado.json";
+        String filtro = args.length > 1 ? args[1] : ExecutarBenchmarks.class.getPackage().getName() + ".*";
+        Options opcoes = new OptionsBuilder()
+            .include(filtro)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(arquivo)
+            .build();
+        new Runner(opcoes).run();
+    }
+}
@@ -0,0 +1,235 @@
+package inteligencia;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jogodomino.ConjuntoPecas;
+import jogodomino.EstadoCompacto;
+import jogodomino.GeradorDistribuicoes;
+import jogodomino.LoteDistribuicoes;
+import jogodomino.SimuladorPartidas;
+import jogodomino.TabelaPecas;
+
+/**
+ * Gera amostras de treino para o {@link ModeloAvaliacao} jogando partidas de duplo-seis
+ * contra si mesmo em todos os núcleos. Depois de cada jogada, guarda as
+ * {@link Caracteristicas} da posição vistas por quem jogou; no fim da partida, cada
+ * posição recebe o resultado desse jogador (1 vitória, 0 derrota, 1/2 empate).
+ * Cada tarefa joga um trecho das partidas e grava o seu próprio
+ * {@link GravadorFragmento}, então as threads não disputam nada além do disco.
+ * As distribuições vêm de um {@link GeradorDistribuicoes}; sem política, as jogadas são
+ * sorteadas e, com um modelo, são as melhores segundo ele, com uma parcela sorteada
+ * para explorar. A partida de número {@code n} depende só da semente e de {@code n}.
+ */
+public class AutoJogo {
+    /** Quantas distribuições cada tarefa gera de uma vez. */
+    private static final int TAMANHO_LOTE = 256;
+    /** Número de códigos de jogada possíveis: cada peça em cada lado. */
+    private static final int TOTAL_CODIGOS = 2 * TabelaPecas.TOTAL_PECAS;
+
+    /** O número de jogadores das partidas. */
+    private final int numeroJogadores;
+    /** O modelo que escolhe as jogadas, ou null para sortear todas. */
+    private final ModeloAvaliacao politica;
+    /** A fração das jogadas sorteadas mesmo com política. */
+    private final double exploracao;
+    /** O número de fragmentos gravados em paralelo. */
+    private final int paralelismo;
+
+    /** Partidas jogadas na última geração. */
+    private volatile long ultimasPartidas;
+    /** Amostras gravadas na última geração. */
+    private volatile long ultimasAmostras;
+    /** Bytes gravados na última geração. */
+    private volatile long ultimosBytes;
+    /** Duração da última geração, em nanossegundos. */
+    private volatile long ultimaDuracaoNanos;
+
+    /**
+     * Constrói um gerador de amostras.
+     *
+     * @param numeroJogadores O número de jogadores (2 a 4).
+     * @param politica        O modelo que escolhe as jogadas, ou null para sorteá-las.
+     * @param exploracao      A fração das jogadas sorteadas quando há política, entre 0 e 1.
+     * @param paralelismo     O número de fragmentos gravados ao mesmo tempo.
+     */
+    public AutoJogo(int numeroJogadores, ModeloAvaliacao politica, double exploracao, int paralelismo) {
+        if (numeroJogadores < 2 || numeroJogadores > 4) {
+            throw new IllegalArgumentException("O jogo precisa de 2 a 4 jogadores.");
+        }
+        this.numeroJogadores = numeroJogadores;
+        this.politica = politica;
+        this.exploracao = exploracao;
+        this.paralelismo = Math.max(1, paralelismo);
+    }
+
+    /**
+     * Joga as partidas e grava as amostras em fragmentos num diretório.
+     *
+     * @param diretorio            O diretório dos fragmentos, criado se não existir.
+     * @param partidas             Quantas partidas jogar.
+     * @param partidasPorFragmento Quantas partidas vão para cada fragmento.
+     * @param semente              A semente das distribuições e dos sorteios.
+     * @return Os fragmentos gravados, em ordem.
+     * @throws IOException se algum fragmento não puder ser gravado.
+     * @throws CancellationException se a thread for interrompida.
+     */
+    public List<Path> gerar(Path diretorio, long partidas, int partidasPorFragmento, long semente) throws IOException {
+        Files.createDirectories(diretorio);
+        long inicio = System.nanoTime();
+        List<Path> fragmentos = new ArrayList<>();
+        List<Callable<long[]>> tarefas = new ArrayList<>();
+        for (long primeira = 0; primeira < partidas; primeira += partidasPorFragmento) {
+            Path arquivo = diretorio.resolve(String.format("amostras-%05d.damo", fragmentos.size()));
+            long inicioTrecho = primeira;
+            long quantidade = Math.min(partidasPorFragmento, partidas - primeira);
+            fragmentos.add(arquivo);
+            tarefas.add(() -> gerarFragmento(arquivo, inicioTrecho, quantidade, semente));
+        }
+
+        long amostras = 0;
+        long bytes = 0;
+        ExecutorService trabalhadores = Executors.newFixedThreadPool(paralelismo, r -> {
+            Thread t = new Thread(r, "autojogo");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (Future<long[]> f : trabalhadores.invokeAll(tarefas)) {
+                long[] parcial = f.get();
+                amostras += parcial[0];
+                bytes += parcial[1];
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Autojogo interrompido.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IllegalStateException("Falha no autojogo.", ex.getCause());
+        } finally {
+            trabalhadores.shutdownNow();
+        }
+        ultimasPartidas = partidas;
+        ultimasAmostras = amostras;
+        ultimosBytes = bytes;
+        ultimaDuracaoNanos = System.nanoTime() - inicio;
+        return fragmentos;
+    }
+
+    /**
+     * Joga um trecho das partidas e grava as suas amostras num fragmento.
+     *
+     * @param arquivo  O arquivo do fragmento.
+     * @param primeira O número da primeira partida do trecho.
+     * @param partidas Quantas partidas jogar.
+     * @param semente  A semente da geração.
+     * @return As amostras e os bytes gravados.
+     * @throws IOException se o fragmento não puder ser gravado.
+     */
+    private long[] gerarFragmento(Path arquivo, long primeira, long partidas, long semente) throws IOException {
+        GeradorDistribuicoes distribuicoes = new GeradorDistribuicoes(ConjuntoPecas.DUPLO_SEIS, numeroJogadores, semente);
+        LoteDistribuicoes lote = new LoteDistribuicoes(ConjuntoPecas.DUPLO_SEIS, numeroJogadores, TAMANHO_LOTE);
+        SplittableRandom aleatorio = new SplittableRandom(SimuladorPartidas.misturar(semente ^ primeira));
+        EstadoCompacto estado = new EstadoCompacto(numeroJogadores);
+        EstadoCompacto rascunho = new EstadoCompacto(numeroJogadores);
+        int[] codigos = new int[TOTAL_CODIGOS];
+        // Cada peça é jogada no máximo uma vez, então uma partida tem no máximo TOTAL_PECAS posições
+        float[][] posicoes = new float[TabelaPecas.TOTAL_PECAS][Caracteristicas.TOTAL];
+        int[] autores = new int[TabelaPecas.TOTAL_PECAS];
+
+        GravadorFragmento gravador = new GravadorFragmento(arquivo);
+        try (gravador) {
+            for (long feitas = 0; feitas < partidas; ) {
+                int quantidade = (int) Math.min(TAMANHO_LOTE, partidas - feitas);
+                distribuicoes.preencher(lote, primeira + feitas, quantidade);
+                for (int d = 0; d < quantidade; d++) {
+                    if (Thread.currentThread().isInterrupted()) throw new CancellationException("Autojogo interrompido.");
+                    estado.distribuir(lote, d);
+                    int lances = 0;
+                    for (long jogaveis = estado.prepararJogada(); jogaveis != 0; jogaveis = estado.prepararJogada()) {
+                        int codigo = escolher(estado, jogaveis, rascunho, posicoes[lances], codigos, aleatorio);
+                        int jogador = estado.getJogadorAtual();
+                        estado.jogar(codigo >> 1, (codigo & 1) == 1);
+                        Caracteristicas.extrair(estado, jogador, posicoes[lances]);
+                        autores[lances++] = jogador;
+                        estado.passarTurno();
+                    }
+                    int vencedor = estado.getVencedor();
+                    for (int i = 0; i < lances; i++) {
+                        gravador.registrar(posicoes[i], vencedor < 0 ? 0.5f : vencedor == autores[i] ? 1f : 0f);
+                    }
+                }
+                feitas += quantidade;
+            }
+        }
+        return new long[] {gravador.getRegistros(), gravador.getBytes()};
+    }
+
+    /**
+     * Escolhe a jogada do jogador da vez: a melhor segundo a política ou, sem política
+     * ou na fração de exploração, uma jogada sorteada.
+     *
+     * @param estado          O estado atual; não é modificado.
+     * @param jogaveis        A máscara das peças que encaixam.
+     * @param rascunho        Um estado de trabalho.
+     * @param caracteristicas Um vetor de trabalho.
+     * @param codigos         Um vetor de trabalho.
+     * @param aleatorio       O gerador desta tarefa.
+     * @return O código da jogada.
+     */
+    private int escolher(EstadoCompacto estado, long jogaveis, EstadoCompacto rascunho, float[] caracteristicas,
+                         int[] codigos, SplittableRandom aleatorio) {
+        if (politica != null && aleatorio.nextDouble() >= exploracao) {
+            return politica.escolherCodigo(estado, jogaveis, rascunho, caracteristicas, codigos);
+        }
+        int n = EstrategiaMCTS.listarJogadas(estado, jogaveis, codigos);
+        return codigos[aleatorio.nextInt(n)];
+    }
+
+    /**
+     * Retorna quantas partidas a última geração jogou.
+     *
+     * @return O número de partidas.
+     */
+    public long getUltimasPartidas() {
+        return ultimasPartidas;
+    }
+
+    /**
+     * Retorna quantas amostras a última geração gravou.
+     *
+     * @return O número de amostras.
+     */
+    public long getUltimasAmostras() {
+        return ultimasAmostras;
+    }
+
+    /**
+     * Retorna quantos bytes a última geração gravou.
+     *
+     * @return O número de bytes.
+     */
+    public long getUltimosBytes() {
+        return ultimosBytes;
+    }
+
+    /**
+     * Retorna a duração da última geração.
+     *
+     * @return A duração, em nanossegundos.
+     */
+    public long getUltimaDuracaoNanos() {
+        return ultimaDuracaoNanos;
+    }
+}
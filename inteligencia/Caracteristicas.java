@@ -0,0 +1,97 @@
+package inteligencia;
+
+import jogodomino.EstadoCompacto;
+import jogodomino.TabelaPecas;
+
+/**
+ * As características de uma posição de duplo-seis vistas por um jogador, na forma
+ * que o {@link ModeloAvaliacao} recebe. Só entra o que o jogador enxerga: a própria
+ * mão, a mesa, as extremidades, o monte e o tamanho das mãos adversárias, então a
+ * avaliação não depende das peças ocultas da determinização.
+ * Todos os valores são divididos por uma escala fixa e ficam perto do intervalo [0, 1].
+ * A ordem é:
+ * <ol>
+ *   <li>peças da mão com cada valor, de 0 a 6;</li>
+ *   <li>peças da mesa com cada valor, de 0 a 6;</li>
+ *   <li>extremidades abertas com cada valor, de 0 a 6;</li>
+ *   <li>tamanho e pontos da mão, carroças na mão e peças da mão que encaixam;</li>
+ *   <li>tamanho do monte;</li>
+ *   <li>tamanho da mão de cada adversário, a partir do próximo a jogar (0 se não houver).</li>
+ * </ol>
+ */
+public final class Caracteristicas {
+    /** Quantos valores diferentes uma ponta pode ter. */
+    private static final int VALORES = TabelaPecas.MAIOR_VALOR + 1;
+    /** Quantos adversários cabem no vetor: até 4 jogadores. */
+    private static final int ADVERSARIOS = 3;
+    /** A máscara das carroças. */
+    private static final long CARROCAS;
+
+    /** A posição das peças da mão por valor. */
+    private static final int MAO = 0;
+    /** A posição das peças da mesa por valor. */
+    private static final int MESA = MAO + VALORES;
+    /** A posição das extremidades por valor. */
+    private static final int PONTAS = MESA + VALORES;
+    /** A posição do tamanho da mão. */
+    private static final int TAMANHO_MAO = PONTAS + VALORES;
+    /** A posição dos pontos da mão. */
+    private static final int PONTOS_MAO = TAMANHO_MAO + 1;
+    /** A posição das carroças na mão. */
+    private static final int CARROCAS_MAO = PONTOS_MAO + 1;
+    /** A posição das peças da mão que encaixam. */
+    private static final int JOGAVEIS = CARROCAS_MAO + 1;
+    /** A posição do tamanho do monte. */
+    private static final int MONTE = JOGAVEIS + 1;
+    /** A posição do tamanho da mão do primeiro adversário. */
+    private static final int MAOS_ADVERSARIAS = MONTE + 1;
+
+    /** O número de características. */
+    public static final int TOTAL = MAOS_ADVERSARIAS + ADVERSARIOS;
+
+    static {
+        long carrocas = 0;
+        for (int v = 0; v < VALORES; v++) {
+            carrocas |= 1L << TabelaPecas.numero(v, v);
+        }
+        CARROCAS = carrocas;
+    }
+
+    /**
+     * Classe utilitária; não deve ser instanciada.
+     */
+    private Caracteristicas() {
+    }
+
+    /**
+     * Extrai as características de uma posição vista por um jogador, sem alocar.
+     *
+     * @param estado  O estado; não é modificado.
+     * @param jogador O jogador cujo ponto de vista é usado.
+     * @param destino O vetor que recebe as {@link #TOTAL} características.
+     */
+    public static void extrair(EstadoCompacto estado, int jogador, float[] destino) {
+        long mao = estado.getMao(jogador);
+        long mesa = estado.getMascaraMesa();
+        int esquerdo = estado.getExtremoEsquerdo();
+        int direito = estado.getExtremoDireito();
+        for (int v = 0; v < VALORES; v++) {
+            long comValor = TabelaPecas.mascaraDoValor(v);
+            destino[MAO + v] = Long.bitCount(mao & comValor) / 7f;
+            destino[MESA + v] = Long.bitCount(mesa & comValor) / 7f;
+            destino[PONTAS + v] = ((esquerdo == v ? 1 : 0) + (direito == v ? 1 : 0)) / 2f;
+        }
+        long jogaveis = esquerdo < 0 ? mao
+            : mao & (TabelaPecas.mascaraDoValor(esquerdo) | TabelaPecas.mascaraDoValor(direito));
+        destino[TAMANHO_MAO] = Long.bitCount(mao) / 7f;
+        destino[PONTOS_MAO] = TabelaPecas.somaPontos(mao) / 42f;
+        destino[CARROCAS_MAO] = Long.bitCount(mao & CARROCAS) / 7f;
+        destino[JOGAVEIS] = Long.bitCount(jogaveis) / 7f;
+        destino[MONTE] = estado.getTamanhoMonte() / 14f;
+        int jogadores = estado.getNumeroJogadores();
+        for (int i = 0; i < ADVERSARIOS; i++) {
+            destino[MAOS_ADVERSARIAS + i] = i + 1 < jogadores
+                ? Long.bitCount(estado.getMao((jogador + 1 + i) % jogadores)) / 7f : 0f;
+        }
+    }
+}
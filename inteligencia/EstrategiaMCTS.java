@@ -0,0 +1,592 @@
+package inteligencia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jogodomino.ConjuntoPecas;
+import jogodomino.EstadoCompacto;
+import jogodomino.Estrategia;
+import jogodomino.EstrategiaMaiorPeca;
+import jogodomino.Jogada;
+import jogodomino.Jogador;
+import jogodomino.JogoDomino;
+import jogodomino.PecaDomino;
+import jogodomino.TabelaPecas;
+import metricas.Metricas;
+import metricas.Operacao;
+
+/**
+ * Jogador de CPU baseado em Busca em Árvore Monte Carlo com conjuntos de informação
+ * (ISMCTS). Como as mãos dos adversários são ocultas, cada iteração sorteia uma
+ * distribuição das peças desconhecidas coerente com o que o jogador vê e percorre
+ * uma árvore única, em que cada nó conta quantas vezes esteve disponível.
+ * A busca é paralelizada pela raiz: cada thread monta a sua própria árvore e, no fim,
+ * as visitas de cada jogada são somadas. Com uma só thread de busca, a árvore é montada
+ * na thread que pediu a jogada, então a mesma instância atende várias threads ao mesmo tempo.
+ * Nos finais de dois jogadores com o monte vazio, a jogada vem do {@link SolucionadorFinal};
+ * nas primeiras posições, pode vir de um {@link LivroAberturas}. Com um
+ * {@link ModeloAvaliacao}, a recompensa de cada iteração mistura o resultado da
+ * simulação com a avaliação que o modelo dá à posição em que a árvore foi expandida.
+ * A busca usa o {@link EstadoCompacto}, que só representa o duplo-seis; nos conjuntos
+ * maiores, a jogada é a da {@link EstrategiaMaiorPeca}.
+ */
+public class EstrategiaMCTS implements Estrategia {
+    /** Constante de exploração da fórmula UCB. */
+    private static final double EXPLORACAO = 0.7;
+    /** Número de códigos de jogada possíveis: cada peça em cada lado. */
+    private static final int TOTAL_CODIGOS = 2 * TabelaPecas.TOTAL_PECAS;
+    /** A estratégia usada nos conjuntos que o estado compacto não representa. */
+    private static final Estrategia RESERVA = new EstrategiaMaiorPeca();
+    /** O tempo de cada decisão, incluindo as respondidas pelo livro ou pelo solucionador. */
+    private static final Operacao DECISAO = Metricas.operacao("ia.mcts.decisao");
+    /** O peso da avaliação do modelo na recompensa de cada iteração; o resto vem da simulação. */
+    private static final double PESO_MODELO = 0.5;
+    /** Limite de nós do solucionador de finais antes de voltar para a busca Monte Carlo. */
+    private static final long LIMITE_NOS_FINAL = 2_000_000;
+
+    /** Um solucionador de finais por thread, pois cada um tem a sua tabela de transposição. */
+    private static final ThreadLocal<SolucionadorFinal> SOLUCIONADOR =
+        ThreadLocal.withInitial(() -> new SolucionadorFinal(18, LIMITE_NOS_FINAL));
+
+    /** Tempo máximo de busca por jogada, em milissegundos (0 = sem limite de tempo). */
+    private final long tempoPorJogadaMillis;
+    /** Número máximo de iterações por jogada, somando todas as threads (0 = sem limite). */
+    private final int iteracoesPorJogada;
+    /** Número de árvores buscadas em paralelo. */
+    private final int paralelismo;
+    /** Threads que executam as buscas de cada árvore. */
+    private final ExecutorService trabalhadores;
+    /** Thread que coordena as buscas pedidas de forma assíncrona. */
+    private final ExecutorService coordenador;
+    /** Gerador do qual cada árvore recebe um gerador independente. */
+    private final SplittableRandom gerador;
+
+    /** O livro de aberturas consultado antes da busca, ou null. */
+    private volatile LivroAberturas livro;
+    /** O modelo que avalia as posições em que a árvore é expandida, ou null. */
+    private volatile ModeloAvaliacao modelo;
+
+    /** Playouts feitos na última busca. */
+    private volatile long ultimosPlayouts;
+    /** Duração da última busca, em nanossegundos. */
+    private volatile long ultimaDuracaoNanos;
+
+    /**
+     * Constrói uma estratégia que usa todos os núcleos e meio segundo por jogada.
+     */
+    public EstrategiaMCTS() {
+        this(500, 0, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constrói uma estratégia com orçamento de busca configurável.
+     * A busca para no primeiro limite atingido; pelo menos um dos dois deve ser positivo.
+     *
+     * @param tempoPorJogadaMillis O tempo máximo por jogada em milissegundos, ou 0 para não limitar.
+     * @param iteracoesPorJogada   O número máximo de iterações por jogada, ou 0 para não limitar.
+     * @param paralelismo          O número de threads de busca.
+     */
+    public EstrategiaMCTS(long tempoPorJogadaMillis, int iteracoesPorJogada, int paralelismo) {
+        this(tempoPorJogadaMillis, iteracoesPorJogada, paralelismo, new SplittableRandom());
+    }
+
+    /**
+     * Constrói uma estratégia reprodutível: com limite só de iterações, a mesma
+     * semente e a mesma sequência de posições levam às mesmas jogadas.
+     *
+     * @param tempoPorJogadaMillis O tempo máximo por jogada em milissegundos, ou 0 para não limitar.
+     * @param iteracoesPorJogada   O número máximo de iterações por jogada, ou 0 para não limitar.
+     * @param paralelismo          O número de threads de busca.
+     * @param semente              A semente dos sorteios da busca.
+     */
+    public EstrategiaMCTS(long tempoPorJogadaMillis, int iteracoesPorJogada, int paralelismo, long semente) {
+        this(tempoPorJogadaMillis, iteracoesPorJogada, paralelismo, new SplittableRandom(semente));
+    }
+
+    /**
+     * Construtor comum aos demais.
+     *
+     * @param tempoPorJogadaMillis O tempo máximo por jogada em milissegundos, ou 0 para não limitar.
+     * @param iteracoesPorJogada   O número máximo de iterações por jogada, ou 0 para não limitar.
+     * @param paralelismo          O número de threads de busca.
+     * @param gerador              O gerador do qual as árvores derivam os seus.
+     */
+    private EstrategiaMCTS(long tempoPorJogadaMillis, int iteracoesPorJogada, int paralelismo,
+                           SplittableRandom gerador) {
+        if (tempoPorJogadaMillis <= 0 && iteracoesPorJogada <= 0) {
+            throw new IllegalArgumentException("Defina um limite de tempo ou de iterações.");
+        }
+        this.tempoPorJogadaMillis = tempoPorJogadaMillis;
+        this.iteracoesPorJogada = iteracoesPorJogada;
+        this.paralelismo = Math.max(1, paralelismo);
+        this.gerador = gerador;
+        this.trabalhadores = Executors.newFixedThreadPool(this.paralelismo, r -> {
+            Thread t = new Thread(r, "mcts-busca");
+            t.setDaemon(true);
+            return t;
+        });
+        this.coordenador = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "mcts-coordenador");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Escolhe a jogada buscando a partir do estado visível para o jogador.
+     * Bloqueia a thread chamadora durante a busca; na interface gráfica,
+     * use {@link #escolherJogadaAsync(JogoDomino, Jogador)}.
+     *
+     * @param jogo    O jogo em andamento.
+     * @param jogador O jogador que vai jogar.
+     * @return A melhor jogada encontrada, ou null se nenhuma peça encaixar.
+     */
+    @Override
+    public Jogada escolherJogada(JogoDomino jogo, Jogador jogador) {
+        if (jogo.getConjunto() != ConjuntoPecas.DUPLO_SEIS) return RESERVA.escolherJogada(jogo, jogador);
+        return paraJogada(escolherCodigo(capturar(jogo, jogador)));
+    }
+
+    /**
+     * Inicia a busca em segundo plano e devolve a jogada quando ela terminar.
+     * O estado do jogo é copiado antes de retornar, então o jogo pode continuar sendo
+     * lido pela thread chamadora. Cancelar o futuro interrompe a busca.
+     *
+     * @param jogo    O jogo em andamento.
+     * @param jogador O jogador que vai jogar.
+     * @return Um futuro com a jogada escolhida, ou null se nenhuma peça encaixar.
+     */
+    public CompletableFuture<Jogada> escolherJogadaAsync(JogoDomino jogo, Jogador jogador) {
+        if (jogo.getConjunto() != ConjuntoPecas.DUPLO_SEIS) {
+            return CompletableFuture.completedFuture(RESERVA.escolherJogada(jogo, jogador));
+        }
+        EstadoCompacto estado = capturar(jogo, jogador);
+        CompletableFuture<Jogada> resultado = new CompletableFuture<>();
+        Future<?> tarefa = coordenador.submit(() -> {
+            try {
+                resultado.complete(paraJogada(escolherCodigo(estado)));
+            } catch (RuntimeException ex) {
+                resultado.completeExceptionally(ex);
+            }
+        });
+        resultado.whenComplete((j, ex) -> {
+            if (resultado.isCancelled()) tarefa.cancel(true);
+        });
+        return resultado;
+    }
+
+    /**
+     * Copia o estado do jogo do ponto de vista de um jogador.
+     *
+     * @param jogo    O jogo em andamento.
+     * @param jogador O jogador que vai jogar; deve ser o jogador da vez.
+     * @return O estado compacto com o jogador como jogador da vez.
+     */
+    private static EstadoCompacto capturar(JogoDomino jogo, Jogador jogador) {
+        if (jogo.getJogadorAtual() != jogador) {
+            throw new IllegalArgumentException("Só o jogador da vez pode escolher uma jogada.");
+        }
+        return EstadoCompacto.de(jogo);
+    }
+
+    /**
+     * Converte um código de jogada de volta para uma {@link Jogada}.
+     *
+     * @param codigo O código ({@code peça * 2 + 1} para a esquerda), ou -1.
+     * @return A jogada, ou null se o código for -1.
+     */
+    private static Jogada paraJogada(int codigo) {
+        if (codigo < 0) return null;
+        return new Jogada(PecaDomino.porNumero(codigo >> 1), (codigo & 1) == 1);
+    }
+
+    /**
+     * Busca a melhor jogada para o jogador da vez de um estado compacto.
+     * As peças que ele não vê são sorteadas a cada iteração, então o estado
+     * pode conter qualquer distribuição das mãos adversárias.
+     *
+     * @param estado O estado atual; não é modificado.
+     * @return O código da jogada ({@code peça * 2 + 1} para a esquerda, {@code peça * 2}
+     *         para a direita), ou -1 se o jogador não tiver peça que encaixe.
+     * @throws CancellationException se a thread for interrompida durante a busca.
+     */
+    public int escolherCodigo(EstadoCompacto estado) {
+        long marca = DECISAO.iniciar();
+        try {
+            return decidir(estado);
+        } finally {
+            DECISAO.terminar(marca);
+        }
+    }
+
+    /**
+     * Escolhe a jogada: direto se for forçada, pelo livro, pelo solucionador de finais
+     * ou pela busca, nessa ordem.
+     *
+     * @param estado O estado atual; não é modificado.
+     * @return O código da jogada, ou -1 se o jogador não tiver peça que encaixe.
+     */
+    private int decidir(EstadoCompacto estado) {
+        int[] codigos = new int[TOTAL_CODIGOS];
+        int n = listarJogadas(estado, estado.getPecasJogaveis(), codigos);
+        if (n <= 1) {
+            return n == 0 ? -1 : codigos[0];
+        }
+
+        // As primeiras posições costumam estar no livro, que responde sem buscar
+        LivroAberturas livroAtual = livro;
+        if (livroAtual != null) {
+            int codigo = livroAtual.buscar(estado);
+            for (int i = 0; i < n && codigo >= 0; i++) {
+                if (codigos[i] == codigo) return codigo;
+            }
+        }
+
+        // Com dois jogadores e o monte vazio, a mão do adversário são exatamente as peças
+        // que não se vê, então o final pode ser resolvido de forma exata
+        if (SolucionadorFinal.podeResolver(estado)) {
+            int codigo = SOLUCIONADOR.get().melhorJogada(estado);
+            if (codigo != SolucionadorFinal.INCONCLUSIVO) return codigo;
+        }
+
+        long inicio = System.nanoTime();
+        long prazo = tempoPorJogadaMillis > 0 ? inicio + tempoPorJogadaMillis * 1_000_000L : Long.MAX_VALUE;
+        int iteracoesPorArvore = iteracoesPorJogada > 0
+            ? Math.max(1, iteracoesPorJogada / paralelismo) : Integer.MAX_VALUE;
+
+        ModeloAvaliacao modeloAtual = modelo;
+        long[] visitas;
+        if (paralelismo == 1) {
+            // Uma árvore só: busca na própria thread, para que várias threads (as de um
+            // torneio, por exemplo) usem a mesma instância sem esperar por um único trabalhador
+            SplittableRandom aleatorio;
+            synchronized (gerador) {
+                aleatorio = gerador.split();
+            }
+            visitas = buscar(estado, prazo, iteracoesPorArvore, aleatorio, modeloAtual);
+            if (Thread.currentThread().isInterrupted()) throw new CancellationException("Busca interrompida.");
+        } else {
+            visitas = buscarEmParalelo(estado, prazo, iteracoesPorArvore, modeloAtual);
+        }
+        ultimosPlayouts = visitas[TOTAL_CODIGOS];
+        ultimaDuracaoNanos = System.nanoTime() - inicio;
+
+        int melhor = codigos[0];
+        for (int i = 1; i < n; i++) {
+            if (visitas[codigos[i]] > visitas[melhor]) melhor = codigos[i];
+        }
+        return melhor;
+    }
+
+    /**
+     * Busca com uma árvore independente em cada trabalhador e soma as visitas da raiz.
+     *
+     * @param estado             O estado da raiz.
+     * @param prazo              O instante ({@link System#nanoTime()}) em que a busca deve parar.
+     * @param iteracoesPorArvore O número máximo de iterações de cada árvore.
+     * @param modeloAtual        O modelo que avalia as posições expandidas, ou null.
+     * @return As visitas somadas de cada jogada da raiz; a última posição traz o total de playouts.
+     */
+    private long[] buscarEmParalelo(EstadoCompacto estado, long prazo, int iteracoesPorArvore,
+                                    ModeloAvaliacao modeloAtual) {
+        List<Callable<long[]>> tarefas = new ArrayList<>(paralelismo);
+        synchronized (gerador) {
+            for (int i = 0; i < paralelismo; i++) {
+                SplittableRandom aleatorio = gerador.split();
+                tarefas.add(() -> buscar(estado, prazo, iteracoesPorArvore, aleatorio, modeloAtual));
+            }
+        }
+
+        long[] visitas = new long[TOTAL_CODIGOS + 1];
+        try {
+            for (Future<long[]> f : trabalhadores.invokeAll(tarefas)) {
+                long[] parcial = f.get();
+                for (int c = 0; c < visitas.length; c++) {
+                    visitas[c] += parcial[c];
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Busca interrompida.");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Falha na busca MCTS.", ex.getCause());
+        }
+        return visitas;
+    }
+
+    /**
+     * Monta e percorre uma árvore ISMCTS até esgotar o orçamento.
+     *
+     * @param raiz       O estado real, do ponto de vista do jogador da vez.
+     * @param prazo      O instante ({@link System#nanoTime()}) em que a busca deve parar.
+     * @param iteracoes  O número máximo de iterações desta árvore.
+     * @param aleatorio  O gerador desta thread.
+     * @param modelo     O modelo que avalia as posições expandidas, ou null.
+     * @return As visitas de cada jogada da raiz; a última posição traz o total de playouts.
+     */
+    private static long[] buscar(EstadoCompacto raiz, long prazo, int iteracoes, SplittableRandom aleatorio,
+                                 ModeloAvaliacao modelo) {
+        int observador = raiz.getJogadorAtual();
+        NoBusca arvore = new NoBusca(-1, -1, null);
+        EstadoCompacto estado = new EstadoCompacto(raiz.getNumeroJogadores());
+        int[] codigos = new int[TOTAL_CODIGOS];
+        Avaliador avaliador = modelo == null ? null : new Avaliador(modelo, raiz.getNumeroJogadores());
+        long playouts = 0;
+
+        for (int it = 0; it < iteracoes; it++) {
+            // Confere o relógio a cada 64 iterações para não pesar no laço
+            if ((it & 63) == 0 && (System.nanoTime() > prazo || Thread.currentThread().isInterrupted())) break;
+
+            estado.copiarDe(raiz);
+            estado.sortearOcultas(observador, aleatorio);
+            NoBusca no = arvore;
+
+            // Seleção e expansão
+            long jogaveis = estado.getPecasJogaveis();
+            while (jogaveis != 0) {
+                int n = listarJogadas(estado, jogaveis, codigos);
+                NoBusca escolhido = no.selecionar(codigos, n, estado, aleatorio, avaliador);
+                estado.jogar(escolhido.codigo >> 1, (escolhido.codigo & 1) == 1);
+                estado.passarTurno();
+                no = escolhido;
+                if (escolhido.visitas == 0) break;
+                jogaveis = estado.prepararJogada();
+            }
+
+            // Com modelo, a posição recém-expandida também é avaliada por ele, e a recompensa
+            // de cada jogador mistura o resultado da simulação com essa avaliação
+            boolean folhaAvaliada = avaliador != null && no.pai != null && no.visitas == 0 && !estado.isFinalizado();
+            int autorFolha = no.jogador;
+            double chanceFolha = no.avaliacao;
+
+            // Simulação e retropropagação
+            int vencedor = estado.jogarAteOFim(aleatorio);
+            playouts++;
+            for (; no.pai != null; no = no.pai) {
+                no.visitas++;
+                double recompensa = vencedor == no.jogador ? 1 : vencedor < 0 ? 0.5 : 0;
+                if (folhaAvaliada) {
+                    double chance = no.jogador == autorFolha
+                        ? chanceFolha : (1 - chanceFolha) / (raiz.getNumeroJogadores() - 1);
+                    recompensa = (1 - PESO_MODELO) * recompensa + PESO_MODELO * chance;
+                }
+                no.vitorias += recompensa;
+            }
+        }
+
+        long[] visitas = new long[TOTAL_CODIGOS + 1];
+        for (NoBusca filho : arvore.filhos) {
+            if (filho.jogador == observador) visitas[filho.codigo] = filho.visitas;
+        }
+        visitas[TOTAL_CODIGOS] = playouts;
+        return visitas;
+    }
+
+    /**
+     * Lista os códigos das jogadas possíveis do jogador da vez.
+     * Quando as duas extremidades têm o mesmo valor, só o lado direito é listado,
+     * pois os dois lados levam a posições equivalentes.
+     *
+     * @param estado   O estado atual.
+     * @param jogaveis A máscara das peças que encaixam.
+     * @param destino  O vetor que recebe os códigos.
+     * @return Quantos códigos foram escritos.
+     */
+    static int listarJogadas(EstadoCompacto estado, long jogaveis, int[] destino) {
+        int n = 0;
+        boolean simetrica = estado.getExtremoEsquerdo() == estado.getExtremoDireito();
+        for (; jogaveis != 0; jogaveis &= jogaveis - 1) {
+            int peca = Long.numberOfTrailingZeros(jogaveis);
+            if (!simetrica && estado.podeJogar(peca, true)) destino[n++] = peca * 2 + 1;
+            if (estado.podeJogar(peca, false)) destino[n++] = peca * 2;
+        }
+        return n;
+    }
+
+    /**
+     * Define o livro de aberturas consultado antes de cada busca. Uma posição que está
+     * no livro é respondida na hora; as demais continuam sendo buscadas.
+     *
+     * @param livro O livro, ou null para sempre buscar.
+     */
+    public void setLivroAberturas(LivroAberturas livro) {
+        this.livro = livro;
+    }
+
+    /**
+     * Define o modelo que avalia as posições em que a árvore é expandida. A avaliação
+     * custa menos que uma simulação e reduz o ruído das recompensas; os adversários
+     * dividem igualmente a chance que o modelo não dá a quem jogou.
+     *
+     * @param modelo O modelo, ou null para buscar sem ele.
+     */
+    public void setModeloAvaliacao(ModeloAvaliacao modelo) {
+        this.modelo = modelo;
+    }
+
+    /**
+     * Retorna quantos playouts a última busca fez.
+     *
+     * @return O número de playouts.
+     */
+    public long getUltimosPlayouts() {
+        return ultimosPlayouts;
+    }
+
+    /**
+     * Calcula a vazão da última busca.
+     *
+     * @return Os playouts por segundo, ou 0 se ainda não houve busca.
+     */
+    public double getPlayoutsPorSegundo() {
+        long duracao = ultimaDuracaoNanos;
+        return duracao == 0 ? 0 : ultimosPlayouts * 1e9 / duracao;
+    }
+
+    /**
+     * Encerra as threads de busca.
+     */
+    public void encerrar() {
+        coordenador.shutdownNow();
+        trabalhadores.shutdownNow();
+    }
+
+    /**
+     * A avaliação das jogadas pelo {@link ModeloAvaliacao}, com os vetores de trabalho
+     * de uma árvore, para não alocar a cada nó.
+     */
+    private static class Avaliador {
+        /** O modelo. */
+        final ModeloAvaliacao modelo;
+        /** O estado em que a jogada avaliada é feita. */
+        final EstadoCompacto rascunho;
+        /** As características da posição depois da jogada. */
+        final float[] caracteristicas = new float[Caracteristicas.TOTAL];
+
+        /**
+         * Constrói a avaliação de uma árvore.
+         *
+         * @param modelo          O modelo.
+         * @param numeroJogadores O número de jogadores da partida.
+         */
+        Avaliador(ModeloAvaliacao modelo, int numeroJogadores) {
+            this.modelo = modelo;
+            this.rascunho = new EstadoCompacto(numeroJogadores);
+        }
+
+        /**
+         * Avalia uma jogada do jogador da vez.
+         *
+         * @param estado O estado atual; não é modificado.
+         * @param codigo O código da jogada.
+         * @return A chance de vitória de quem joga, segundo o modelo.
+         */
+        double avaliar(EstadoCompacto estado, int codigo) {
+            return modelo.avaliarJogada(estado, codigo, rascunho, caracteristicas);
+        }
+    }
+
+    /**
+     * Um nó da árvore de busca. Cada nó representa uma jogada feita por um jogador,
+     * com as estatísticas das iterações que passaram por ele.
+     */
+    private static class NoBusca {
+        /** O código da jogada que leva a este nó. */
+        final int codigo;
+        /** O jogador que fez a jogada. */
+        final int jogador;
+        /** O nó pai, ou null na raiz. */
+        final NoBusca pai;
+        /** Os nós filhos já expandidos. */
+        final List<NoBusca> filhos = new ArrayList<>();
+        /** Quantas iterações passaram por este nó. */
+        int visitas;
+        /** Quantas vezes a jogada deste nó estava disponível na seleção. */
+        int disponibilidade;
+        /** A soma das recompensas obtidas pelo jogador deste nó. */
+        double vitorias;
+        /** A chance de vitória que o modelo deu a quem fez a jogada deste nó, ou 0 sem modelo. */
+        double avaliacao;
+
+        /**
+         * Constrói um nó.
+         *
+         * @param codigo  O código da jogada.
+         * @param jogador O jogador que fez a jogada.
+         * @param pai     O nó pai.
+         */
+        NoBusca(int codigo, int jogador, NoBusca pai) {
+            this.codigo = codigo;
+            this.jogador = jogador;
+            this.pai = pai;
+        }
+
+        /**
+         * Escolhe o próximo nó entre as jogadas disponíveis nesta determinização.
+         * Se alguma jogada ainda não tem nó, ela é expandida; senão, usa a fórmula UCB
+         * com a contagem de disponibilidade no lugar das visitas do pai. Com modelo, o nó
+         * novo guarda a avaliação da jogada.
+         *
+         * @param codigos   As jogadas disponíveis.
+         * @param n         Quantas jogadas há no vetor.
+         * @param estado    O estado atual da iteração.
+         * @param aleatorio O gerador usado para escolher a jogada a expandir.
+         * @param avaliador A avaliação pelo modelo, ou null.
+         * @return O nó escolhido.
+         */
+        NoBusca selecionar(int[] codigos, int n, EstadoCompacto estado, SplittableRandom aleatorio,
+                           Avaliador avaliador) {
+            NoBusca melhor = null;
+            double melhorValor = Double.NEGATIVE_INFINITY;
+            int naoExpandidos = 0;
+            int jogador = estado.getJogadorAtual();
+            for (int i = 0; i < n; i++) {
+                NoBusca filho = buscarFilho(jogador, codigos[i]);
+                if (filho == null) {
+                    codigos[naoExpandidos++] = codigos[i];
+                    continue;
+                }
+                filho.disponibilidade++;
+                if (naoExpandidos > 0) continue;
+                double valor = filho.vitorias / filho.visitas
+                    + EXPLORACAO * Math.sqrt(Math.log(filho.disponibilidade) / filho.visitas);
+                if (valor > melhorValor) {
+                    melhorValor = valor;
+                    melhor = filho;
+                }
+            }
+            if (naoExpandidos > 0) {
+                NoBusca novo = new NoBusca(codigos[aleatorio.nextInt(naoExpandidos)], jogador, this);
+                novo.disponibilidade = 1;
+                if (avaliador != null) novo.avaliacao = avaliador.avaliar(estado, novo.codigo);
+                filhos.add(novo);
+                return novo;
+            }
+            return melhor;
+        }
+
+        /**
+         * Procura o filho de uma jogada. Compras e passes ficam implícitos e cada
+         * determinização distribui as peças ocultas de outro jeito, então a mesma jogada
+         * sob o mesmo nó pode caber a jogadores diferentes; por isso o filho é
+         * identificado pelo jogador e pelo código.
+         *
+         * @param jogador O jogador que faz a jogada.
+         * @param codigo  O código procurado.
+         * @return O filho, ou null se ainda não foi expandido.
+         */
+        private NoBusca buscarFilho(int jogador, int codigo) {
+            for (NoBusca filho : filhos) {
+                if (filho.codigo == codigo && filho.jogador == jogador) return filho;
+            }
+            return null;
+        }
+    }
+}
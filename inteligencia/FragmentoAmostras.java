@@ -0,0 +1,95 @@
+package inteligencia;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Um fragmento de amostras de treino gravado por {@link GravadorFragmento}: para cada
+ * posição, as {@link Caracteristicas} vistas por quem acabou de jogar e o resultado
+ * da partida para esse jogador.
+ * O arquivo é mapeado na memória, e as leituras são absolutas, então várias threads
+ * podem ler o mesmo fragmento. Ele começa com {@code "DAMO"}, a versão, o número de
+ * características e o de amostras; cada amostra tem as características e o rótulo
+ * em {@code float}.
+ */
+public class FragmentoAmostras {
+    /** Os bytes iniciais de todo fragmento. */
+    static final byte[] ASSINATURA = {'D', 'A', 'M', 'O'};
+    /** A versão atual do formato. */
+    static final int VERSAO = 1;
+    /** A posição, no cabeçalho, do número de amostras. */
+    static final int POSICAO_REGISTROS = 12;
+    /** O tamanho do cabeçalho, em bytes. */
+    static final int TAMANHO_CABECALHO = 16;
+    /** Quantos {@code float} cada amostra ocupa: as características e o rótulo. */
+    private static final int FLOATS_REGISTRO = Caracteristicas.TOTAL + 1;
+    /** O tamanho de cada amostra, em bytes. */
+    static final int TAMANHO_REGISTRO = FLOATS_REGISTRO * Float.BYTES;
+
+    /** As amostras, logo depois do cabeçalho. */
+    private final FloatBuffer amostras;
+    /** Quantas amostras o fragmento tem. */
+    private final int registros;
+
+    /**
+     * Constrói um fragmento sobre um arquivo já conferido.
+     *
+     * @param amostras  As amostras.
+     * @param registros Quantas amostras há.
+     */
+    private FragmentoAmostras(FloatBuffer amostras, int registros) {
+        this.amostras = amostras;
+        this.registros = registros;
+    }
+
+    /**
+     * Mapeia um fragmento na memória.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @return O fragmento pronto para leitura.
+     * @throws IOException se o arquivo não puder ser lido, não for um fragmento válido
+     *                     ou tiver sido gravado com outras características.
+     */
+    public static FragmentoAmostras abrir(Path arquivo) throws IOException {
+        MappedByteBuffer mapa;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        byte[] assinatura = new byte[ASSINATURA.length];
+        if (mapa.limit() >= TAMANHO_CABECALHO) mapa.get(0, assinatura);
+        if (!Arrays.equals(assinatura, ASSINATURA) || mapa.getInt(4) != VERSAO
+            || mapa.getInt(8) != Caracteristicas.TOTAL
+            || mapa.limit() != TAMANHO_CABECALHO + (long) mapa.getInt(POSICAO_REGISTROS) * TAMANHO_REGISTRO) {
+            throw new IOException("Arquivo não é um fragmento de amostras válido: " + arquivo);
+        }
+        FloatBuffer amostras = mapa.position(TAMANHO_CABECALHO).slice().asFloatBuffer();
+        return new FragmentoAmostras(amostras, mapa.getInt(POSICAO_REGISTROS));
+    }
+
+    /**
+     * Lê uma amostra.
+     *
+     * @param registro O índice da amostra.
+     * @param destino  O vetor que recebe as {@link Caracteristicas#TOTAL} características.
+     * @return O rótulo da amostra.
+     */
+    public float ler(int registro, float[] destino) {
+        int inicio = registro * FLOATS_REGISTRO;
+        amostras.get(inicio, destino, 0, Caracteristicas.TOTAL);
+        return amostras.get(inicio + Caracteristicas.TOTAL);
+    }
+
+    /**
+     * Retorna quantas amostras o fragmento tem.
+     *
+     * @return O número de amostras.
+     */
+    public int getRegistros() {
+        return registros;
+    }
+}
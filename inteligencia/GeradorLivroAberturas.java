@@ -0,0 +1,151 @@
+package inteligencia;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import jogodomino.EstadoCompacto;
+import jogodomino.TabelaPecas;
+
+/**
+ * Gera um {@link LivroAberturas} fora do jogo. Sorteia muitas distribuições e, em cada
+ * uma, joga os primeiros lances com a {@link EstrategiaMCTS}; cada posição com mais de
+ * uma jogada recebe um voto na jogada que a busca escolheu. Uma posição que aparece
+ * várias vezes acumula os votos, e o livro guarda a jogada mais votada.
+ */
+public class GeradorLivroAberturas {
+    /** Número de códigos de jogada possíveis: cada peça em cada lado. */
+    private static final int TOTAL_CODIGOS = 2 * TabelaPecas.TOTAL_PECAS;
+
+    /** O número de jogadores das partidas. */
+    private final int numeroJogadores;
+    /** Quantos lances depois da abertura entram no livro. */
+    private final int lances;
+    /** A busca que escolhe as jogadas. */
+    private final EstrategiaMCTS busca;
+    /** Os votos de cada jogada, indexados pela chave canônica da posição. */
+    private final Map<Long, int[]> votos = new HashMap<>();
+    /** Quantas buscas foram feitas. */
+    private long buscas;
+
+    /**
+     * Constrói um gerador.
+     *
+     * @param numeroJogadores O número de jogadores (2 a 4).
+     * @param lances          Quantos lances depois da abertura entram no livro.
+     * @param busca           A busca que escolhe as jogadas; não deve usar um livro.
+     */
+    public GeradorLivroAberturas(int numeroJogadores, int lances, EstrategiaMCTS busca) {
+        this.numeroJogadores = numeroJogadores;
+        this.lances = lances;
+        this.busca = busca;
+    }
+
+    /**
+     * Joga o começo de várias partidas e acumula os votos das posições encontradas.
+     *
+     * @param partidas Quantas distribuições sortear.
+     * @param semente  A semente das distribuições.
+     */
+    public void amostrar(long partidas, long semente) {
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        EstadoCompacto estado = new EstadoCompacto(numeroJogadores);
+        for (long p = 0; p < partidas; p++) {
+            estado.distribuir(aleatorio);
+            for (int lance = 0; lance < lances && estado.prepararJogada() != 0; lance++) {
+                int codigo = busca.escolherCodigo(estado);
+                if (temEscolha(estado)) {
+                    int canonico = LivroAberturas.espelhada(estado) ? codigo ^ 1 : codigo;
+                    votos.computeIfAbsent(LivroAberturas.chave(estado), c -> new int[TOTAL_CODIGOS])[canonico]++;
+                    buscas++;
+                }
+                estado.jogar(codigo >> 1, (codigo & 1) == 1);
+                estado.passarTurno();
+            }
+        }
+    }
+
+    /**
+     * Indica se o jogador da vez tem mais de uma jogada. Jogadas forçadas não vão para o livro.
+     *
+     * @param estado O estado atual.
+     * @return true se há pelo menos duas jogadas diferentes.
+     */
+    private static boolean temEscolha(EstadoCompacto estado) {
+        long jogaveis = estado.getPecasJogaveis();
+        if (Long.bitCount(jogaveis) > 1) return true;
+        int peca = Long.numberOfTrailingZeros(jogaveis);
+        return estado.getExtremoEsquerdo() != estado.getExtremoDireito()
+            && estado.podeJogar(peca, true) && estado.podeJogar(peca, false);
+    }
+
+    /**
+     * Grava o livro com a jogada mais votada de cada posição.
+     *
+     * @param arquivo O caminho do arquivo, que é substituído.
+     * @return Quantas posições foram gravadas.
+     * @throws IOException se a escrita falhar.
+     */
+    public int gravar(Path arquivo) throws IOException {
+        int n = votos.size();
+        long[] chaves = new long[n];
+        int[] codigos = new int[n];
+        int[] pesos = new int[n];
+        int i = 0;
+        for (Map.Entry<Long, int[]> e : votos.entrySet()) {
+            int[] v = e.getValue();
+            int melhor = 0;
+            for (int c = 1; c < TOTAL_CODIGOS; c++) {
+                if (v[c] > v[melhor]) melhor = c;
+            }
+            chaves[i] = e.getKey();
+            codigos[i] = melhor;
+            pesos[i] = v[melhor];
+            i++;
+        }
+        LivroAberturas.gravar(arquivo, chaves, codigos, pesos, n);
+        return n;
+    }
+
+    /**
+     * Retorna quantas buscas foram feitas até agora.
+     *
+     * @return O número de buscas.
+     */
+    public long getBuscas() {
+        return buscas;
+    }
+
+    /**
+     * Gera um livro pela linha de comando.
+     * Uso: {@code java inteligencia.GeradorLivroAberturas arquivo [partidas] [lances] [iterações] [jogadores] [semente]}.
+     *
+     * @param args O arquivo de saída e, opcionalmente, o número de partidas (padrão: 2.000),
+     *             os lances por partida (4), as iterações por busca (5.000), os jogadores (2)
+     *             e a semente.
+     * @throws IOException se o livro não puder ser gravado.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: GeradorLivroAberturas arquivo [partidas] [lances] [iterações] [jogadores] [semente]");
+            return;
+        }
+        Path arquivo = Paths.get(args[0]);
+        long partidas = args.length > 1 ? Long.parseLong(args[1]) : 2_000L;
+        int lances = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int iteracoes = args.length > 3 ? Integer.parseInt(args[3]) : 5_000;
+        int jogadores = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+        long semente = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+
+        EstrategiaMCTS busca = new EstrategiaMCTS(0, iteracoes, Runtime.getRuntime().availableProcessors(), semente);
+        GeradorLivroAberturas gerador = new GeradorLivroAberturas(jogadores, lances, busca);
+        long inicio = System.nanoTime();
+        gerador.amostrar(partidas, semente);
+        int entradas = gerador.gravar(arquivo);
+        busca.encerrar();
+        System.out.printf("%d posições de %d buscas gravadas em %s (%.1f s)%n",
+            entradas, gerador.getBuscas(), arquivo, (System.nanoTime() - inicio) / 1e9);
+    }
+}
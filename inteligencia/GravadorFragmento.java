@@ -0,0 +1,124 @@
+package inteligencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Grava um fragmento de amostras de treino, lido depois por {@link FragmentoAmostras}.
+ * As amostras passam por um buffer direto de tamanho fixo e vão para o disco quando
+ * ele enche, então a memória usada não depende do tamanho do fragmento. O número de
+ * amostras do cabeçalho só é escrito no {@link #close()}; um fragmento que não foi
+ * fechado fica com 0 amostras e é recusado na leitura.
+ */
+public class GravadorFragmento implements Closeable {
+    /** O tamanho do buffer de escrita, em bytes. */
+    private static final int TAMANHO_BUFFER = 1 << 20;
+
+    /** O arquivo sendo gravado. */
+    private final Path arquivo;
+    /** O canal do arquivo. */
+    private final FileChannel canal;
+    /** As amostras ainda não escritas. */
+    private final ByteBuffer buffer;
+    /** Quantas amostras foram gravadas. */
+    private int registros;
+    /** Quantos bytes foram gravados, contando o cabeçalho. */
+    private long bytes;
+
+    /**
+     * Cria o arquivo do fragmento, substituindo um que já exista.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @throws IOException se o arquivo não puder ser criado.
+     */
+    public GravadorFragmento(Path arquivo) throws IOException {
+        this.arquivo = arquivo;
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        buffer.put(FragmentoAmostras.ASSINATURA).putInt(FragmentoAmostras.VERSAO)
+            .putInt(Caracteristicas.TOTAL).putInt(0);
+    }
+
+    /**
+     * Acrescenta uma amostra.
+     *
+     * @param caracteristicas As {@link Caracteristicas#TOTAL} características.
+     * @param rotulo          O resultado: 1 para vitória, 0 para derrota, 1/2 para empate.
+     * @throws IOException se a escrita falhar.
+     */
+    public void registrar(float[] caracteristicas, float rotulo) throws IOException {
+        if (buffer.remaining() < FragmentoAmostras.TAMANHO_REGISTRO) {
+            descarregar();
+        }
+        for (int i = 0; i < Caracteristicas.TOTAL; i++) {
+            buffer.putFloat(caracteristicas[i]);
+        }
+        buffer.putFloat(rotulo);
+        registros++;
+    }
+
+    /**
+     * Escreve no arquivo o que está no buffer.
+     *
+     * @throws IOException se a escrita falhar.
+     */
+    private void descarregar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytes += canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Retorna quantas amostras foram gravadas.
+     *
+     * @return O número de amostras.
+     */
+    public int getRegistros() {
+        return registros;
+    }
+
+    /**
+     * Retorna quantos bytes já foram escritos no arquivo.
+     *
+     * @return O número de bytes.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Retorna o caminho do arquivo.
+     *
+     * @return O arquivo.
+     */
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Escreve as amostras restantes, completa o cabeçalho e fecha o arquivo.
+     * Fechar de novo não faz nada.
+     *
+     * @throws IOException se a escrita falhar.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!canal.isOpen()) return;
+        try {
+            descarregar();
+            ByteBuffer total = ByteBuffer.allocate(Integer.BYTES).putInt(0, registros);
+            while (total.hasRemaining()) {
+                canal.write(total, FragmentoAmostras.POSICAO_REGISTROS + total.position());
+            }
+        } finally {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package inteligencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import jogodomino.EstadoCompacto;
+import jogodomino.SimuladorPartidas;
+import jogodomino.TabelaPecas;
+
+/**
+ * Livro de aberturas: as jogadas já calculadas para as primeiras posições de uma
+ * partida de duplo-seis, gravadas por {@link GeradorLivroAberturas}.
+ * O arquivo é uma tabela de hash com endereçamento aberto, mapeada na memória e
+ * consultada direto no mapeamento, sem carregar nada; cada consulta lê poucas
+ * posições consecutivas. A chave é um hash de Zobrist canônico de (própria mão,
+ * peças da mesa, extremidades e tamanhos das mãos e do monte a partir da vez): as
+ * extremidades entram como par ordenado, e a jogada guardada é a da mesa espelhada
+ * quando a esquerda tem o valor maior.
+ * O arquivo começa com {@code "DLIV"}, a versão, a capacidade da tabela e o número de
+ * entradas; cada entrada tem a chave (0 = vazia), o código da jogada e o seu peso.
+ */
+public class LivroAberturas {
+    /** Os bytes iniciais de todo livro de aberturas. */
+    static final byte[] ASSINATURA = {'D', 'L', 'I', 'V'};
+    /** A versão atual do formato. */
+    static final int VERSAO = 1;
+    /** O tamanho do cabeçalho, em bytes. */
+    private static final int TAMANHO_CABECALHO = 16;
+    /** O tamanho de cada entrada: chave, código e peso. */
+    private static final int TAMANHO_ENTRADA = 16;
+
+    /** Chaves de Zobrist de cada peça na mão do jogador da vez. */
+    private static final long[] ZOBRIST_MAO = new long[TabelaPecas.TOTAL_PECAS];
+    /** Chaves de Zobrist de cada peça na mesa. */
+    private static final long[] ZOBRIST_MESA = new long[TabelaPecas.TOTAL_PECAS];
+    /** Chaves de Zobrist do par de extremidades (menor, maior). */
+    private static final long[][] ZOBRIST_PONTAS = new long[TabelaPecas.MAIOR_VALOR + 1][TabelaPecas.MAIOR_VALOR + 1];
+
+    static {
+        SplittableRandom aleatorio = new SplittableRandom(0x11B40);
+        for (int i = 0; i < TabelaPecas.TOTAL_PECAS; i++) {
+            ZOBRIST_MAO[i] = aleatorio.nextLong();
+            ZOBRIST_MESA[i] = aleatorio.nextLong();
+        }
+        for (long[] linha : ZOBRIST_PONTAS) {
+            for (int i = 0; i < linha.length; i++) linha[i] = aleatorio.nextLong();
+        }
+    }
+
+    /** O arquivo mapeado na memória. */
+    private final ByteBuffer tabela;
+    /** Máscara para transformar uma chave em posição da tabela. */
+    private final int mascaraTabela;
+    /** Quantas posições o livro guarda. */
+    private final int entradas;
+
+    /**
+     * Constrói um livro sobre um buffer já conferido.
+     *
+     * @param tabela O conteúdo do arquivo.
+     */
+    private LivroAberturas(ByteBuffer tabela) {
+        this.tabela = tabela;
+        this.mascaraTabela = tabela.getInt(8) - 1;
+        this.entradas = tabela.getInt(12);
+    }
+
+    /**
+     * Mapeia um livro de aberturas na memória. O arquivo não é copiado: as páginas
+     * são lidas pelo sistema operacional à medida que as consultas as tocam, e
+     * várias estratégias (ou processos) podem compartilhar o mesmo arquivo.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @return O livro pronto para consulta.
+     * @throws IOException se o arquivo não puder ser lido ou não for um livro válido,
+     *                     inclusive se a tabela estiver mais que meio cheia.
+     */
+    public static LivroAberturas abrir(Path arquivo) throws IOException {
+        MappedByteBuffer mapa;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        byte[] assinatura = new byte[ASSINATURA.length];
+        if (mapa.limit() >= TAMANHO_CABECALHO) mapa.get(0, assinatura);
+        if (!Arrays.equals(assinatura, ASSINATURA) || mapa.getInt(4) != VERSAO
+            || mapa.getInt(8) <= 0 || Integer.bitCount(mapa.getInt(8)) != 1
+            || mapa.getInt(12) < 0 || 2L * mapa.getInt(12) > mapa.getInt(8)
+            || mapa.limit() != TAMANHO_CABECALHO + (long) mapa.getInt(8) * TAMANHO_ENTRADA) {
+            throw new IOException("Arquivo não é um livro de aberturas válido: " + arquivo);
+        }
+        return new LivroAberturas(mapa);
+    }
+
+    /**
+     * Procura a jogada guardada para a posição do jogador da vez.
+     *
+     * @param estado O estado atual; não é modificado.
+     * @return O código da jogada ({@code peça * 2 + 1} para a esquerda), ou -1 se a
+     *         posição não está no livro.
+     */
+    public int buscar(EstadoCompacto estado) {
+        long chave = chave(estado);
+        int posicao = (int) chave & mascaraTabela;
+        // Limitada à capacidade, para que uma tabela corrompida sem posições vazias não prenda a busca
+        for (int sondagens = 0; sondagens <= mascaraTabela; sondagens++, posicao = (posicao + 1) & mascaraTabela) {
+            int deslocamento = TAMANHO_CABECALHO + posicao * TAMANHO_ENTRADA;
+            long guardada = tabela.getLong(deslocamento);
+            if (guardada == 0) return -1;
+            if (guardada == chave) {
+                int codigo = tabela.getInt(deslocamento + 8);
+                return espelhada(estado) ? codigo ^ 1 : codigo;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retorna quantas posições o livro guarda.
+     *
+     * @return O número de entradas.
+     */
+    public int getEntradas() {
+        return entradas;
+    }
+
+    /**
+     * Calcula a chave canônica da posição do jogador da vez.
+     *
+     * @param estado O estado.
+     * @return A chave, nunca zero.
+     */
+    static long chave(EstadoCompacto estado) {
+        int vez = estado.getJogadorAtual();
+        int n = estado.getNumeroJogadores();
+        int esq = estado.getExtremoEsquerdo();
+        int dir = estado.getExtremoDireito();
+        long h = esq < 0 ? 0 : ZOBRIST_PONTAS[Math.min(esq, dir)][Math.max(esq, dir)];
+        for (long m = estado.getMao(vez); m != 0; m &= m - 1) {
+            h ^= ZOBRIST_MAO[Long.numberOfTrailingZeros(m)];
+        }
+        for (long m = estado.getMascaraMesa(); m != 0; m &= m - 1) {
+            h ^= ZOBRIST_MESA[Long.numberOfTrailingZeros(m)];
+        }
+        // Tamanhos das mãos dos adversários, na ordem em que jogam, e do monte
+        long tamanhos = n;
+        for (int j = 1; j < n; j++) {
+            tamanhos = tamanhos << 5 | Long.bitCount(estado.getMao((vez + j) % n));
+        }
+        tamanhos = tamanhos << 5 | estado.getTamanhoMonte();
+        h ^= SimuladorPartidas.misturar(tamanhos);
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Indica se a posição está espelhada em relação à forma canônica, em que a
+     * extremidade esquerda tem o menor valor.
+     *
+     * @param estado O estado.
+     * @return true se os lados das jogadas devem ser trocados.
+     */
+    static boolean espelhada(EstadoCompacto estado) {
+        return estado.getExtremoEsquerdo() > estado.getExtremoDireito();
+    }
+
+    /**
+     * Grava um livro de aberturas. A tabela tem pelo menos o dobro de posições das
+     * entradas, para que as sequências de sondagem fiquem curtas.
+     *
+     * @param arquivo O caminho do arquivo, que é substituído.
+     * @param chaves  As chaves canônicas, todas diferentes e não nulas.
+     * @param codigos Os códigos das jogadas, já na forma canônica.
+     * @param pesos   Quantas buscas escolheram cada jogada.
+     * @param n       Quantas entradas usar dos vetores.
+     * @throws IOException se a escrita falhar.
+     */
+    static void gravar(Path arquivo, long[] chaves, int[] codigos, int[] pesos, int n) throws IOException {
+        int capacidade = Integer.highestOneBit(Math.max(8, n) * 2 - 1) << 1;
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO + capacidade * TAMANHO_ENTRADA);
+        buffer.put(ASSINATURA).putInt(VERSAO).putInt(capacidade).putInt(n);
+        int mascara = capacidade - 1;
+        for (int i = 0; i < n; i++) {
+            int posicao = (int) chaves[i] & mascara;
+            while (buffer.getLong(TAMANHO_CABECALHO + posicao * TAMANHO_ENTRADA) != 0) {
+                posicao = (posicao + 1) & mascara;
+            }
+            int deslocamento = TAMANHO_CABECALHO + posicao * TAMANHO_ENTRADA;
+            buffer.putLong(deslocamento, chaves[i]);
+            buffer.putInt(deslocamento + 8, codigos[i]);
+            buffer.putInt(deslocamento + 12, pesos[i]);
+        }
+        buffer.clear();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package inteligencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import jogodomino.EstadoCompacto;
+
+/**
+ * Uma função de avaliação aprendida: estima a chance de um jogador vencer a partida
+ * a partir das {@link Caracteristicas} da posição logo depois da sua jogada.
+ * É uma rede minúscula, com uma camada oculta de neurônios ReLU e saída logística;
+ * sem camada oculta, vira uma regressão logística sobre as características.
+ * É treinada por {@link TreinadorModelo} com dados de {@link AutoJogo} e consultada
+ * pela {@link EstrategiaMCTS}, que mistura a sua estimativa ao resultado das simulações.
+ * O arquivo começa com {@code "DMOD"}, a versão, o número de características e o de
+ * neurônios ocultos, seguidos dos pesos em {@code float}.
+ */
+public class ModeloAvaliacao {
+    /** Os bytes iniciais de todo arquivo de modelo. */
+    static final byte[] ASSINATURA = {'D', 'M', 'O', 'D'};
+    /** A versão atual do formato. */
+    static final int VERSAO = 1;
+    /** O tamanho do cabeçalho, em bytes. */
+    private static final int TAMANHO_CABECALHO = 16;
+    /** O maior número de neurônios ocultos aceito ao carregar, para recusar arquivos corrompidos. */
+    private static final int MAXIMO_OCULTOS = 4096;
+
+    /** Quantos neurônios a camada oculta tem; 0 para uma regressão logística. */
+    final int ocultos;
+    /** Os pesos da camada oculta, {@link Caracteristicas#TOTAL} por neurônio. */
+    final float[] pesosOcultos;
+    /** O viés de cada neurônio oculto. */
+    final float[] viesOcultos;
+    /** Os pesos da saída: um por neurônio oculto ou, sem camada oculta, um por característica. */
+    final float[] pesosSaida;
+    /** O viés da saída. */
+    float viesSaida;
+
+    /**
+     * Constrói um modelo com pesos iniciais aleatórios, pronto para ser treinado.
+     *
+     * @param ocultos Quantos neurônios ocultos, ou 0 para uma regressão logística.
+     * @param semente A semente dos pesos iniciais.
+     */
+    ModeloAvaliacao(int ocultos, long semente) {
+        this(ocultos);
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        // Inicialização de He para as ReLU; a saída começa pequena para prever perto de 1/2
+        double escalaOculta = Math.sqrt(2.0 / Caracteristicas.TOTAL);
+        for (int i = 0; i < pesosOcultos.length; i++) {
+            pesosOcultos[i] = (float) (gaussiana(aleatorio) * escalaOculta);
+        }
+        double escalaSaida = 0.1 / Math.sqrt(pesosSaida.length);
+        for (int i = 0; i < pesosSaida.length; i++) {
+            pesosSaida[i] = (float) (gaussiana(aleatorio) * escalaSaida);
+        }
+    }
+
+    /**
+     * Constrói um modelo com todos os pesos zerados.
+     *
+     * @param ocultos Quantos neurônios ocultos, ou 0 para uma regressão logística.
+     */
+    private ModeloAvaliacao(int ocultos) {
+        if (ocultos < 0) {
+            throw new IllegalArgumentException("O número de neurônios ocultos não pode ser negativo.");
+        }
+        this.ocultos = ocultos;
+        this.pesosOcultos = new float[ocultos * Caracteristicas.TOTAL];
+        this.viesOcultos = new float[ocultos];
+        this.pesosSaida = new float[ocultos > 0 ? ocultos : Caracteristicas.TOTAL];
+    }
+
+    /**
+     * Sorteia um valor da distribuição normal padrão (Box-Muller).
+     *
+     * @param aleatorio O gerador.
+     * @return O valor sorteado.
+     */
+    private static double gaussiana(SplittableRandom aleatorio) {
+        return Math.sqrt(-2 * Math.log(1 - aleatorio.nextDouble())) * Math.cos(2 * Math.PI * aleatorio.nextDouble());
+    }
+
+    /**
+     * Estima a chance de vitória a partir das características, sem alocar.
+     *
+     * @param caracteristicas As {@link Caracteristicas#TOTAL} características.
+     * @return A chance de vitória, entre 0 e 1.
+     */
+    public double avaliar(float[] caracteristicas) {
+        return 1 / (1 + Math.exp(-logito(caracteristicas)));
+    }
+
+    /**
+     * Calcula a saída da rede antes da função logística.
+     *
+     * @param x As características.
+     * @return O logito da chance de vitória.
+     */
+    double logito(float[] x) {
+        float z = viesSaida;
+        if (ocultos == 0) {
+            for (int i = 0; i < Caracteristicas.TOTAL; i++) {
+                z += pesosSaida[i] * x[i];
+            }
+            return z;
+        }
+        for (int h = 0, base = 0; h < ocultos; h++, base += Caracteristicas.TOTAL) {
+            float ativacao = viesOcultos[h];
+            for (int i = 0; i < Caracteristicas.TOTAL; i++) {
+                ativacao += pesosOcultos[base + i] * x[i];
+            }
+            if (ativacao > 0) z += pesosSaida[h] * ativacao;
+        }
+        return z;
+    }
+
+    /**
+     * Avalia uma jogada: faz a jogada numa cópia do estado e estima a chance de vitória
+     * de quem jogou.
+     *
+     * @param estado          O estado; não é modificado.
+     * @param codigo          O código da jogada ({@code peça * 2 + 1} para a esquerda).
+     * @param rascunho        Um estado com o mesmo número de jogadores, sobrescrito.
+     * @param caracteristicas Um vetor de {@link Caracteristicas#TOTAL} posições, sobrescrito.
+     * @return A chance de vitória do jogador da vez depois da jogada.
+     */
+    public double avaliarJogada(EstadoCompacto estado, int codigo, EstadoCompacto rascunho, float[] caracteristicas) {
+        rascunho.copiarDe(estado);
+        rascunho.jogar(codigo >> 1, (codigo & 1) == 1);
+        Caracteristicas.extrair(rascunho, estado.getJogadorAtual(), caracteristicas);
+        return avaliar(caracteristicas);
+    }
+
+    /**
+     * Escolhe a jogada de maior chance de vitória para o jogador da vez, sem buscar.
+     *
+     * @param estado          O estado; não é modificado.
+     * @param jogaveis        A máscara das peças que encaixam (não vazia).
+     * @param rascunho        Um estado com o mesmo número de jogadores, sobrescrito.
+     * @param caracteristicas Um vetor de {@link Caracteristicas#TOTAL} posições, sobrescrito.
+     * @param codigos         Um vetor de {@code 2 * TOTAL_PECAS} posições, sobrescrito.
+     * @return O código da melhor jogada.
+     */
+    public int escolherCodigo(EstadoCompacto estado, long jogaveis, EstadoCompacto rascunho,
+                              float[] caracteristicas, int[] codigos) {
+        int n = EstrategiaMCTS.listarJogadas(estado, jogaveis, codigos);
+        if (n == 1) return codigos[0];
+        int melhor = codigos[0];
+        double melhorValor = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double valor = avaliarJogada(estado, codigos[i], rascunho, caracteristicas);
+            if (valor > melhorValor) {
+                melhorValor = valor;
+                melhor = codigos[i];
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * Retorna quantos neurônios a camada oculta tem.
+     *
+     * @return O número de neurônios ocultos, ou 0 numa regressão logística.
+     */
+    public int getOcultos() {
+        return ocultos;
+    }
+
+    /**
+     * Retorna quantos pesos o modelo tem, contando os vieses.
+     *
+     * @return O número de parâmetros.
+     */
+    public int getParametros() {
+        return pesosOcultos.length + viesOcultos.length + pesosSaida.length + 1;
+    }
+
+    /**
+     * Grava o modelo num arquivo.
+     *
+     * @param arquivo O caminho do arquivo, que é substituído.
+     * @throws IOException se a escrita falhar.
+     */
+    public void gravar(Path arquivo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO + getParametros() * Float.BYTES);
+        buffer.put(ASSINATURA).putInt(VERSAO).putInt(Caracteristicas.TOTAL).putInt(ocultos);
+        for (float p : pesosOcultos) buffer.putFloat(p);
+        for (float p : viesOcultos) buffer.putFloat(p);
+        for (float p : pesosSaida) buffer.putFloat(p);
+        buffer.putFloat(viesSaida);
+        buffer.flip();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Carrega um modelo gravado por {@link #gravar(Path)}.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @return O modelo.
+     * @throws IOException se o arquivo não puder ser lido, não for um modelo válido ou
+     *                     tiver sido treinado com outras características.
+     */
+    public static ModeloAvaliacao carregar(Path arquivo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        byte[] assinatura = new byte[ASSINATURA.length];
+        if (buffer.limit() >= TAMANHO_CABECALHO) buffer.get(0, assinatura);
+        if (!Arrays.equals(assinatura, ASSINATURA) || buffer.getInt(4) != VERSAO) {
+            throw new IOException("Arquivo não é um modelo de avaliação válido: " + arquivo);
+        }
+        if (buffer.getInt(8) != Caracteristicas.TOTAL) {
+            throw new IOException("O modelo usa " + buffer.getInt(8) + " características, e não "
+                + Caracteristicas.TOTAL + ": " + arquivo);
+        }
+        int ocultos = buffer.getInt(12);
+        if (ocultos < 0 || ocultos > MAXIMO_OCULTOS) {
+            throw new IOException("Arquivo não é um modelo de avaliação válido: " + arquivo);
+        }
+        ModeloAvaliacao modelo = new ModeloAvaliacao(ocultos);
+        if (buffer.limit() != TAMANHO_CABECALHO + (long) modelo.getParametros() * Float.BYTES) {
+            throw new IOException("Arquivo não é um modelo de avaliação válido: " + arquivo);
+        }
+        buffer.position(TAMANHO_CABECALHO);
+        buffer.asFloatBuffer().get(modelo.pesosOcultos).get(modelo.viesOcultos).get(modelo.pesosSaida);
+        modelo.viesSaida = buffer.getFloat(buffer.limit() - Float.BYTES);
+        return modelo;
+    }
+}
@@ -0,0 +1,143 @@
+package inteligencia;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import jogodomino.EstadoCompacto;
+import jogodomino.TabelaPecas;
+
+/**
+ * Treina um {@link ModeloAvaliacao} do começo ao fim, pela linha de comando:
+ * <ol>
+ *   <li>autojogo: {@link AutoJogo} joga as partidas em todos os núcleos e grava os fragmentos;</li>
+ *   <li>treino: {@link TreinadorModelo} faz as épocas sobre os fragmentos, deixando o último
+ *       de fora para a validação;</li>
+ *   <li>gravação: o modelo vai para {@code modelo.dmod} no mesmo diretório;</li>
+ *   <li>avaliação: o modelo, escolhendo as jogadas sem busca, joga contra jogadas sorteadas.</li>
+ * </ol>
+ * Cada etapa informa a sua vazão.
+ */
+public class PipelineTreino {
+    /** O nome do arquivo do modelo gravado no diretório. */
+    public static final String ARQUIVO_MODELO = "modelo.dmod";
+    /** Quantas partidas vão para cada fragmento. */
+    private static final int PARTIDAS_POR_FRAGMENTO = 5_000;
+    /** A fração das jogadas sorteadas quando o autojogo usa um modelo anterior. */
+    private static final double EXPLORACAO = 0.1;
+    /** A taxa de aprendizado. */
+    private static final double TAXA_APRENDIZADO = 0.05;
+    /** Quantas amostras entram em cada passo. */
+    private static final int TAMANHO_LOTE = 256;
+    /** O peso da regularização L2. */
+    private static final double REGULARIZACAO = 1e-5;
+    /** Quantas partidas a avaliação joga. */
+    private static final int PARTIDAS_AVALIACAO = 20_000;
+
+    /** Classe só com o ponto de entrada. */
+    private PipelineTreino() {
+    }
+
+    /**
+     * Joga partidas em que um jogador escolhe pelo modelo e os demais sorteiam as
+     * jogadas, trocando o lugar do modelo a cada partida.
+     *
+     * @param modelo          O modelo.
+     * @param numeroJogadores O número de jogadores.
+     * @param partidas        Quantas partidas jogar.
+     * @param semente         A semente das distribuições e dos sorteios.
+     * @return A fração de partidas vencidas pelo modelo; empates contam meia vitória.
+     */
+    static double avaliarContraSorteio(ModeloAvaliacao modelo, int numeroJogadores, int partidas, long semente) {
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        EstadoCompacto estado = new EstadoCompacto(numeroJogadores);
+        EstadoCompacto rascunho = new EstadoCompacto(numeroJogadores);
+        float[] caracteristicas = new float[Caracteristicas.TOTAL];
+        int[] codigos = new int[2 * TabelaPecas.TOTAL_PECAS];
+        double vitorias = 0;
+        for (int p = 0; p < partidas; p++) {
+            int lugar = p % numeroJogadores;
+            estado.distribuir(aleatorio);
+            for (long jogaveis = estado.prepararJogada(); jogaveis != 0; jogaveis = estado.prepararJogada()) {
+                int codigo;
+                if (estado.getJogadorAtual() == lugar) {
+                    codigo = modelo.escolherCodigo(estado, jogaveis, rascunho, caracteristicas, codigos);
+                } else {
+                    codigo = codigos[aleatorio.nextInt(EstrategiaMCTS.listarJogadas(estado, jogaveis, codigos))];
+                }
+                estado.jogar(codigo >> 1, (codigo & 1) == 1);
+                estado.passarTurno();
+            }
+            int vencedor = estado.getVencedor();
+            vitorias += vencedor == lugar ? 1 : vencedor < 0 ? 0.5 : 0;
+        }
+        return vitorias / partidas;
+    }
+
+    /**
+     * Roda o pipeline pela linha de comando.
+     * Uso: {@code java inteligencia.PipelineTreino diretório [partidas] [jogadores] [ocultos] [épocas] [semente] [modelo-anterior]}.
+     *
+     * @param args O diretório dos fragmentos e do modelo e, opcionalmente, o número de
+     *             partidas (padrão: 200.000), os jogadores (2), os neurônios ocultos (16;
+     *             0 para uma regressão logística), as épocas (4), a semente e um modelo
+     *             anterior que escolhe as jogadas do autojogo.
+     * @throws IOException se os fragmentos ou o modelo não puderem ser gravados ou lidos.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: PipelineTreino diretório [partidas] [jogadores] [ocultos] [épocas] [semente] [modelo-anterior]");
+            return;
+        }
+        Path diretorio = Paths.get(args[0]);
+        long partidas = args.length > 1 ? Long.parseLong(args[1]) : 200_000L;
+        int jogadores = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int ocultos = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int epocas = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        long semente = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+        ModeloAvaliacao anterior = args.length > 6 ? ModeloAvaliacao.carregar(Paths.get(args[6])) : null;
+
+        // Autojogo
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        AutoJogo autoJogo = new AutoJogo(jogadores, anterior, EXPLORACAO, nucleos);
+        List<Path> arquivos = autoJogo.gerar(diretorio, partidas, PARTIDAS_POR_FRAGMENTO, semente);
+        double segundos = autoJogo.getUltimaDuracaoNanos() / 1e9;
+        System.out.printf("autojogo: %d partidas, %d amostras em %d fragmentos, %.1f MB em %.1f s"
+                + " (%.0f partidas/s, %.0f amostras/s, %.1f MB/s, %d threads)%n",
+            autoJogo.getUltimasPartidas(), autoJogo.getUltimasAmostras(), arquivos.size(),
+            autoJogo.getUltimosBytes() / 1e6, segundos, autoJogo.getUltimasPartidas() / segundos,
+            autoJogo.getUltimasAmostras() / segundos, autoJogo.getUltimosBytes() / 1e6 / segundos, nucleos);
+
+        // Treino, com o último fragmento de fora para a validação
+        List<FragmentoAmostras> treino = new ArrayList<>();
+        for (Path arquivo : arquivos) {
+            treino.add(FragmentoAmostras.abrir(arquivo));
+        }
+        List<FragmentoAmostras> validacao = treino.size() > 1 ? List.of(treino.remove(treino.size() - 1)) : treino;
+        ModeloAvaliacao modelo = new ModeloAvaliacao(ocultos, semente);
+        TreinadorModelo treinador = new TreinadorModelo(modelo, TAXA_APRENDIZADO, TAMANHO_LOTE, REGULARIZACAO, semente);
+        for (int epoca = 1; epoca <= epocas; epoca++) {
+            treinador.treinarEpoca(treino);
+            double perdaTreino = treinador.getUltimaPerda();
+            double vazao = treinador.getAmostrasPorSegundo();
+            treinador.validar(validacao);
+            System.out.printf("época %d: perda %.4f, validação %.4f com %.1f%% de acertos (%.0f amostras/s)%n",
+                epoca, perdaTreino, treinador.getUltimaPerda(), 100 * treinador.getUltimoAcerto(), vazao);
+        }
+
+        // Gravação
+        Path arquivoModelo = diretorio.resolve(ARQUIVO_MODELO);
+        modelo.gravar(arquivoModelo);
+        System.out.printf("modelo: %d parâmetros gravados em %s%n", modelo.getParametros(), arquivoModelo);
+
+        // Avaliação
+        long inicio = System.nanoTime();
+        double taxa = avaliarContraSorteio(modelo, jogadores, PARTIDAS_AVALIACAO, ~semente);
+        segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("avaliação: %.1f%% de vitórias contra jogadas sorteadas (%.1f%% ao acaso),"
+                + " %.0f partidas/s%n",
+            100 * taxa, 100.0 / jogadores, PARTIDAS_AVALIACAO / segundos);
+    }
+}
@@ -0,0 +1,397 @@
+package inteligencia;
+
+import java.util.SplittableRandom;
+import jogodomino.EstadoCompacto;
+import jogodomino.TabelaPecas;
+
+/**
+ * Resolve de forma exata o final de uma partida de dois jogadores, quando o monte
+ * já acabou e as duas mãos são conhecidas (ou foram sorteadas).
+ * Usa negamax com poda alfa-beta, ordenação de jogadas e uma tabela de transposição
+ * de tamanho fixo indexada por hash de Zobrist de (mãos, extremidades, jogador da vez, passes).
+ * O hash é calculado uma vez na raiz e atualizado a cada jogada ou passe, trocando só
+ * as chaves da peça, das extremidades, da vez e dos passes.
+ * O valor de uma posição são os pontos que o jogador da vez ganha (positivo) ou
+ * entrega ao adversário (negativo) no fim da partida.
+ * Cada instância guarda a sua tabela e não deve ser usada por várias threads ao mesmo tempo.
+ */
+public class SolucionadorFinal {
+    /** Valor devolvido quando a busca estoura o limite de nós sem chegar a uma resposta. */
+    public static final int INCONCLUSIVO = -2;
+
+    /** Tipo de entrada da tabela: valor exato. */
+    private static final byte EXATO = 1;
+    /** Tipo de entrada da tabela: o valor real é pelo menos o guardado. */
+    private static final byte LIMITE_INFERIOR = 2;
+    /** Tipo de entrada da tabela: o valor real é no máximo o guardado. */
+    private static final byte LIMITE_SUPERIOR = 3;
+    /** Valor maior que qualquer pontuação possível. */
+    private static final int INFINITO = 10_000;
+
+    /** Chaves de Zobrist de cada peça na mão de cada jogador. */
+    private static final long[][] ZOBRIST_PECA = new long[2][TabelaPecas.TOTAL_PECAS];
+    /** Chaves de Zobrist do par de extremidades (menor, maior). */
+    private static final long[][] ZOBRIST_PONTAS = new long[TabelaPecas.MAIOR_VALOR + 1][TabelaPecas.MAIOR_VALOR + 1];
+    /** Chaves de Zobrist do jogador da vez. */
+    private static final long[] ZOBRIST_VEZ = new long[2];
+    /** Chaves de Zobrist do número de passes seguidos; o 2 só aparece no nó que encerra a partida. */
+    private static final long[] ZOBRIST_PASSES = new long[3];
+    /** A diferença entre as chaves dos dois jogadores da vez, aplicada a cada troca de vez. */
+    private static final long TROCA_VEZ;
+
+    static {
+        SplittableRandom aleatorio = new SplittableRandom(0x5EED);
+        for (long[] linha : ZOBRIST_PECA) {
+            for (int i = 0; i < linha.length; i++) linha[i] = aleatorio.nextLong();
+        }
+        for (long[] linha : ZOBRIST_PONTAS) {
+            for (int i = 0; i < linha.length; i++) linha[i] = aleatorio.nextLong();
+        }
+        for (int i = 0; i < 2; i++) {
+            ZOBRIST_VEZ[i] = aleatorio.nextLong();
+            ZOBRIST_PASSES[i] = aleatorio.nextLong();
+        }
+        ZOBRIST_PASSES[2] = aleatorio.nextLong();
+        TROCA_VEZ = ZOBRIST_VEZ[0] ^ ZOBRIST_VEZ[1];
+    }
+
+    /** As chaves completas guardadas em cada posição da tabela (0 = vazia). */
+    private final long[] chaves;
+    /** Os valores guardados. */
+    private final short[] valores;
+    /** O tipo de cada valor guardado. */
+    private final byte[] tipos;
+    /** A melhor jogada de cada posição guardada, ou -1. */
+    private final byte[] melhores;
+    /** Máscara para transformar um hash em posição da tabela. */
+    private final int mascaraTabela;
+    /** O número máximo de nós visitados por chamada (0 = sem limite). */
+    private final long limiteNos;
+
+    /** Vetores de jogadas reaproveitados, um por nível de profundidade. */
+    private final int[][] jogadasPorNivel = new int[2 * TabelaPecas.TOTAL_PECAS + 4][2 * TabelaPecas.TOTAL_PECAS];
+
+    /** Nós visitados na busca atual, ou -1 se o limite foi atingido. */
+    private long nos;
+
+    /**
+     * Constrói um solucionador com tabela de 2^20 posições e sem limite de nós.
+     */
+    public SolucionadorFinal() {
+        this(20, 0);
+    }
+
+    /**
+     * Constrói um solucionador com tabela e limite de nós configuráveis.
+     *
+     * @param bitsTabela O logaritmo na base 2 do número de posições da tabela de transposição.
+     * @param limiteNos  O número máximo de nós por chamada, ou 0 para não limitar.
+     */
+    public SolucionadorFinal(int bitsTabela, long limiteNos) {
+        int tamanho = 1 << bitsTabela;
+        this.chaves = new long[tamanho];
+        this.valores = new short[tamanho];
+        this.tipos = new byte[tamanho];
+        this.melhores = new byte[tamanho];
+        this.mascaraTabela = tamanho - 1;
+        this.limiteNos = limiteNos;
+    }
+
+    /**
+     * Verifica se um estado pode ser resolvido: dois jogadores e monte vazio.
+     *
+     * @param estado O estado a verificar.
+     * @return true se o final pode ser resolvido de forma exata.
+     */
+    public static boolean podeResolver(EstadoCompacto estado) {
+        return estado.getNumeroJogadores() == 2 && estado.getTamanhoMonte() == 0;
+    }
+
+    /**
+     * Calcula o valor exato da posição para o jogador da vez.
+     *
+     * @param estado O estado, com monte vazio e dois jogadores.
+     * @return Os pontos que o jogador da vez ganha (ou perde, se negativo) com jogo perfeito,
+     *         ou {@link #INCONCLUSIVO} se o limite de nós foi atingido.
+     */
+    public int avaliar(EstadoCompacto estado) {
+        validar(estado);
+        int vez = estado.getJogadorAtual();
+        long mao = estado.getMao(vez);
+        long outra = estado.getMao(1 - vez);
+        int esq = estado.getExtremoEsquerdo();
+        int dir = estado.getExtremoDireito();
+        nos = 0;
+        int valor = negamax(mao, outra, esq, dir, vez, 0, hash(mao, outra, esq, dir, vez, 0),
+            -INFINITO, INFINITO, 0);
+        return nos < 0 ? INCONCLUSIVO : valor;
+    }
+
+    /**
+     * Encontra a melhor jogada do jogador da vez.
+     *
+     * @param estado O estado, com monte vazio e dois jogadores.
+     * @return O código da jogada ({@code peça * 2 + 1} para a esquerda, {@code peça * 2} para a
+     *         direita), -1 se o jogador não tem jogada, ou {@link #INCONCLUSIVO} se o limite de nós foi atingido.
+     */
+    public int melhorJogada(EstadoCompacto estado) {
+        validar(estado);
+        int vez = estado.getJogadorAtual();
+        long mao = estado.getMao(vez);
+        long outra = estado.getMao(1 - vez);
+        int esq = estado.getExtremoEsquerdo();
+        int dir = estado.getExtremoDireito();
+        if ((mao & jogaveis(esq, dir)) == 0) return -1;
+
+        nos = 0;
+        long chave = hash(mao, outra, esq, dir, vez, 0);
+        int[] jogadas = new int[2 * TabelaPecas.TOTAL_PECAS];
+        int n = gerarJogadas(mao, esq, dir, -1, jogadas);
+        int melhor = jogadas[0];
+        int alfa = -INFINITO;
+        for (int i = 0; i < n; i++) {
+            int codigo = jogadas[i];
+            int peca = codigo >> 1;
+            int pontas = pontasApos(peca, (codigo & 1) == 1, esq, dir);
+            int valor = -negamax(outra, mao & ~(1L << peca), pontas >> 4, pontas & 0xF, 1 - vez, 0,
+                hashApos(chave, vez, peca, esq, dir, pontas, 0), -INFINITO, -alfa, 0);
+            if (nos < 0) return INCONCLUSIVO;
+            if (valor > alfa) {
+                alfa = valor;
+                melhor = codigo;
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * Confere se o estado pode ser resolvido.
+     *
+     * @param estado O estado.
+     */
+    private static void validar(EstadoCompacto estado) {
+        if (!podeResolver(estado)) {
+            throw new IllegalArgumentException("O solucionador exige dois jogadores e o monte vazio.");
+        }
+    }
+
+    /**
+     * Busca negamax com poda alfa-beta e tabela de transposição.
+     *
+     * @param mao    A mão do jogador da vez.
+     * @param outra  A mão do adversário.
+     * @param esq    A extremidade esquerda da mesa.
+     * @param dir    A extremidade direita da mesa.
+     * @param vez    O índice do jogador da vez.
+     * @param passes Quantos passes seguidos houve antes desta posição.
+     * @param hash   O hash de Zobrist desta posição, sem o ajuste do zero.
+     * @param alfa   O limite inferior da janela.
+     * @param beta   O limite superior da janela.
+     * @param nivel  A profundidade do nó, usada para escolher o vetor de jogadas.
+     * @return O valor da posição para o jogador da vez.
+     */
+    private int negamax(long mao, long outra, int esq, int dir, int vez, int passes, long hash, int alfa,
+                        int beta, int nivel) {
+        if (nos < 0) return 0;
+        if (++nos > limiteNos && limiteNos > 0) {
+            nos = -1;
+            return 0;
+        }
+
+        // O adversário acabou de bater
+        if (outra == 0) return -TabelaPecas.somaPontos(mao);
+        // Os dois passaram: jogo trancado, vence quem tem menos pontos
+        if (passes >= 2) {
+            int meus = TabelaPecas.somaPontos(mao);
+            int dele = TabelaPecas.somaPontos(outra);
+            return meus < dele ? dele : meus > dele ? -meus : 0;
+        }
+
+        long jogaveis = mao & jogaveis(esq, dir);
+        if (jogaveis == 0) {
+            long hashPasse = hash ^ TROCA_VEZ ^ ZOBRIST_PASSES[passes] ^ ZOBRIST_PASSES[passes + 1];
+            return -negamax(outra, mao, esq, dir, 1 - vez, passes + 1, hashPasse, -beta, -alfa, nivel + 1);
+        }
+
+        // O zero marca posição vazia na tabela
+        long chave = hash == 0 ? 1 : hash;
+        int posicao = (int) chave & mascaraTabela;
+        int melhorGuardada = -1;
+        if (chaves[posicao] == chave) {
+            int valor = valores[posicao];
+            byte tipo = tipos[posicao];
+            if (tipo == EXATO) return valor;
+            if (tipo == LIMITE_INFERIOR && valor >= beta) return valor;
+            if (tipo == LIMITE_SUPERIOR && valor <= alfa) return valor;
+            melhorGuardada = melhores[posicao];
+        }
+
+        int[] jogadas = jogadasPorNivel[nivel];
+        int n = gerarJogadas(mao, esq, dir, melhorGuardada, jogadas);
+        int alfaOriginal = alfa;
+        int melhorValor = -INFINITO;
+        int melhorCodigo = jogadas[0];
+        for (int i = 0; i < n; i++) {
+            int codigo = jogadas[i];
+            int peca = codigo >> 1;
+            int pontas = pontasApos(peca, (codigo & 1) == 1, esq, dir);
+            int valor = -negamax(outra, mao & ~(1L << peca), pontas >> 4, pontas & 0xF, 1 - vez, 0,
+                hashApos(hash, vez, peca, esq, dir, pontas, passes), -beta, -alfa, nivel + 1);
+            if (valor > melhorValor) {
+                melhorValor = valor;
+                melhorCodigo = codigo;
+            }
+            if (valor > alfa) alfa = valor;
+            if (alfa >= beta) break;
+        }
+        if (nos < 0) return 0;
+
+        chaves[posicao] = chave;
+        valores[posicao] = (short) melhorValor;
+        melhores[posicao] = (byte) melhorCodigo;
+        tipos[posicao] = melhorValor <= alfaOriginal ? LIMITE_SUPERIOR
+            : melhorValor >= beta ? LIMITE_INFERIOR : EXATO;
+        return melhorValor;
+    }
+
+    /**
+     * Lista as jogadas possíveis em ordem de prioridade: a melhor jogada guardada na
+     * tabela, depois as carroças e depois as peças mais pesadas, que convém descartar primeiro.
+     * Com as duas extremidades iguais, só o lado direito é listado.
+     *
+     * @param mao      A mão do jogador.
+     * @param esq      A extremidade esquerda.
+     * @param dir      A extremidade direita.
+     * @param primeira A jogada a testar primeiro, ou -1.
+     * @param destino  O vetor que recebe os códigos.
+     * @return Quantas jogadas foram listadas.
+     */
+    private static int gerarJogadas(long mao, int esq, int dir, int primeira, int[] destino) {
+        int n = 0;
+        long pelaEsquerda = esq == dir ? 0 : mao & TabelaPecas.mascaraDoValor(esq);
+        long pelaDireita = mao & TabelaPecas.mascaraDoValor(dir);
+        for (long m = pelaEsquerda; m != 0; m &= m - 1) {
+            destino[n++] = Long.numberOfTrailingZeros(m) * 2 + 1;
+        }
+        for (long m = pelaDireita; m != 0; m &= m - 1) {
+            destino[n++] = Long.numberOfTrailingZeros(m) * 2;
+        }
+        // Ordenação por inserção: poucas jogadas, custo desprezível
+        for (int i = 1; i < n; i++) {
+            int codigo = destino[i];
+            int prioridade = prioridade(codigo, primeira);
+            int j = i - 1;
+            while (j >= 0 && prioridade(destino[j], primeira) < prioridade) {
+                destino[j + 1] = destino[j];
+                j--;
+            }
+            destino[j + 1] = codigo;
+        }
+        return n;
+    }
+
+    /**
+     * Calcula a prioridade de uma jogada na ordenação.
+     *
+     * @param codigo   O código da jogada.
+     * @param primeira A jogada vinda da tabela de transposição.
+     * @return Quanto maior, mais cedo a jogada é testada.
+     */
+    private static int prioridade(int codigo, int primeira) {
+        if (codigo == primeira) return 1000;
+        int peca = codigo >> 1;
+        boolean carroca = TabelaPecas.ladoMenor(peca) == TabelaPecas.ladoMaior(peca);
+        return (carroca ? 100 : 0) + TabelaPecas.soma(peca);
+    }
+
+    /**
+     * Calcula as extremidades da mesa depois de uma jogada.
+     *
+     * @param peca       O número da peça jogada.
+     * @param naEsquerda true se a peça foi para a esquerda.
+     * @param esq        A extremidade esquerda antes da jogada.
+     * @param dir        A extremidade direita antes da jogada.
+     * @return As novas extremidades, com a esquerda nos bits 4 a 7 e a direita nos bits 0 a 3.
+     */
+    private static int pontasApos(int peca, boolean naEsquerda, int esq, int dir) {
+        int a = TabelaPecas.ladoMenor(peca);
+        int b = TabelaPecas.ladoMaior(peca);
+        if (naEsquerda) {
+            return (a == esq ? b : a) << 4 | dir;
+        }
+        return esq << 4 | (a == dir ? b : a);
+    }
+
+    /**
+     * Retorna a máscara das peças que encaixam em alguma das extremidades.
+     *
+     * @param esq A extremidade esquerda.
+     * @param dir A extremidade direita.
+     * @return A máscara das peças jogáveis.
+     */
+    private static long jogaveis(int esq, int dir) {
+        return TabelaPecas.mascaraDoValor(esq) | TabelaPecas.mascaraDoValor(dir);
+    }
+
+    /**
+     * Calcula do zero o hash de Zobrist de uma posição. As extremidades entram como par
+     * ordenado, pois a mesa espelhada é equivalente. Só a raiz da busca usa este
+     * cálculo; os demais nós recebem o hash atualizado por {@link #hashApos}.
+     *
+     * @param mao    A mão do jogador da vez.
+     * @param outra  A mão do adversário.
+     * @param esq    A extremidade esquerda.
+     * @param dir    A extremidade direita.
+     * @param vez    O índice do jogador da vez.
+     * @param passes Os passes seguidos.
+     * @return O hash da posição.
+     */
+    private static long hash(long mao, long outra, int esq, int dir, int vez, int passes) {
+        long h = ZOBRIST_VEZ[vez] ^ ZOBRIST_PASSES[passes] ^ chavePontas(esq, dir);
+        for (long m = mao; m != 0; m &= m - 1) {
+            h ^= ZOBRIST_PECA[vez][Long.numberOfTrailingZeros(m)];
+        }
+        for (long m = outra; m != 0; m &= m - 1) {
+            h ^= ZOBRIST_PECA[1 - vez][Long.numberOfTrailingZeros(m)];
+        }
+        return h;
+    }
+
+    /**
+     * Atualiza o hash depois de uma jogada: tira a peça da mão de quem jogou, troca as
+     * extremidades e o jogador da vez e zera os passes.
+     *
+     * @param hash   O hash antes da jogada.
+     * @param vez    O índice de quem jogou.
+     * @param peca   O número da peça jogada.
+     * @param esq    A extremidade esquerda antes da jogada.
+     * @param dir    A extremidade direita antes da jogada.
+     * @param pontas As extremidades depois da jogada, como devolvidas por {@link #pontasApos}.
+     * @param passes Os passes seguidos antes da jogada.
+     * @return O hash da posição seguinte.
+     */
+    private static long hashApos(long hash, int vez, int peca, int esq, int dir, int pontas, int passes) {
+        return hash ^ ZOBRIST_PECA[vez][peca] ^ chavePontas(esq, dir) ^ chavePontas(pontas >> 4, pontas & 0xF)
+            ^ TROCA_VEZ ^ ZOBRIST_PASSES[passes] ^ ZOBRIST_PASSES[0];
+    }
+
+    /**
+     * Retorna a chave de Zobrist de um par de extremidades, em qualquer ordem.
+     *
+     * @param esq A extremidade esquerda.
+     * @param dir A extremidade direita.
+     * @return A chave do par ordenado.
+     */
+    private static long chavePontas(int esq, int dir) {
+        return ZOBRIST_PONTAS[Math.min(esq, dir)][Math.max(esq, dir)];
+    }
+
+    /**
+     * Retorna quantos nós a última busca visitou.
+     *
+     * @return O número de nós, ou -1 se a busca estourou o limite.
+     */
+    public long getNosVisitados() {
+        return nos;
+    }
+}
@@ -0,0 +1,290 @@
+package inteligencia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Treina um {@link ModeloAvaliacao} por descida de gradiente estocástica em
+ * minilotes, minimizando a entropia cruzada entre a chance prevista e o resultado
+ * das amostras de {@link FragmentoAmostras}.
+ * Cada época percorre os fragmentos em ordem sorteada e, dentro de cada um, as
+ * amostras em ordem sorteada; só um fragmento fica em uso de cada vez, então a
+ * memória não depende do total de amostras. Os pesos também sofrem um pequeno
+ * decaimento (regularização L2) a cada passo.
+ */
+public class TreinadorModelo {
+    /** O limite da chance prevista usado no cálculo da perda, para não tirar log de 0. */
+    private static final double CHANCE_MINIMA = 1e-7;
+
+    /** O modelo treinado, alterado no lugar. */
+    private final ModeloAvaliacao modelo;
+    /** A taxa de aprendizado. */
+    private final float taxaAprendizado;
+    /** Quantas amostras entram em cada passo. */
+    private final int tamanhoLote;
+    /** O peso da regularização L2. */
+    private final float regularizacao;
+    /** O gerador da ordem das amostras. */
+    private final SplittableRandom aleatorio;
+
+    /** O gradiente dos pesos ocultos no minilote. */
+    private final float[] gradienteOcultos;
+    /** O gradiente dos vieses ocultos no minilote. */
+    private final float[] gradienteViesOcultos;
+    /** O gradiente dos pesos da saída no minilote. */
+    private final float[] gradienteSaida;
+    /** O gradiente do viés da saída no minilote. */
+    private float gradienteViesSaida;
+    /** As ativações ocultas da amostra em curso. */
+    private final float[] ativacoes;
+    /** As características da amostra em curso. */
+    private final float[] caracteristicas = new float[Caracteristicas.TOTAL];
+
+    /** A perda média da última época ou validação. */
+    private double ultimaPerda;
+    /** A fração de acertos (sem contar empates) da última época ou validação. */
+    private double ultimoAcerto;
+    /** Quantas amostras a última época ou validação leu. */
+    private long ultimasAmostras;
+    /** A duração da última época ou validação, em nanossegundos. */
+    private long ultimaDuracaoNanos;
+
+    /**
+     * Constrói um treinador.
+     *
+     * @param modelo          O modelo, alterado no lugar.
+     * @param taxaAprendizado A taxa de aprendizado.
+     * @param tamanhoLote     Quantas amostras entram em cada passo.
+     * @param regularizacao   O peso da regularização L2.
+     * @param semente         A semente da ordem das amostras.
+     */
+    public TreinadorModelo(ModeloAvaliacao modelo, double taxaAprendizado, int tamanhoLote,
+                           double regularizacao, long semente) {
+        this.modelo = modelo;
+        this.taxaAprendizado = (float) taxaAprendizado;
+        this.tamanhoLote = tamanhoLote;
+        this.regularizacao = (float) regularizacao;
+        this.aleatorio = new SplittableRandom(semente);
+        this.gradienteOcultos = new float[modelo.pesosOcultos.length];
+        this.gradienteViesOcultos = new float[modelo.viesOcultos.length];
+        this.gradienteSaida = new float[modelo.pesosSaida.length];
+        this.ativacoes = new float[modelo.ocultos];
+    }
+
+    /**
+     * Faz uma época de treino sobre os fragmentos.
+     *
+     * @param fragmentos Os fragmentos de treino.
+     */
+    public void treinarEpoca(List<FragmentoAmostras> fragmentos) {
+        long inicio = System.nanoTime();
+        List<FragmentoAmostras> ordem = new ArrayList<>(fragmentos);
+        Collections.shuffle(ordem, new Random(aleatorio.nextLong()));
+        Medidas medidas = new Medidas();
+        int[] permutacao = new int[0];
+        for (FragmentoAmostras fragmento : ordem) {
+            int n = fragmento.getRegistros();
+            if (permutacao.length < n) permutacao = new int[n];
+            for (int i = 0; i < n; i++) {
+                permutacao[i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = aleatorio.nextInt(i + 1);
+                int t = permutacao[i];
+                permutacao[i] = permutacao[j];
+                permutacao[j] = t;
+            }
+            for (int inicioLote = 0; inicioLote < n; inicioLote += tamanhoLote) {
+                int fimLote = Math.min(n, inicioLote + tamanhoLote);
+                for (int i = inicioLote; i < fimLote; i++) {
+                    float rotulo = fragmento.ler(permutacao[i], caracteristicas);
+                    double chance = propagar(caracteristicas);
+                    medidas.registrar(chance, rotulo);
+                    retropropagar(caracteristicas, (float) chance - rotulo);
+                }
+                aplicar(fimLote - inicioLote);
+            }
+        }
+        guardar(medidas, inicio);
+    }
+
+    /**
+     * Mede a perda e os acertos do modelo sobre os fragmentos, sem treinar.
+     *
+     * @param fragmentos Os fragmentos de validação.
+     */
+    public void validar(List<FragmentoAmostras> fragmentos) {
+        long inicio = System.nanoTime();
+        Medidas medidas = new Medidas();
+        for (FragmentoAmostras fragmento : fragmentos) {
+            for (int i = 0; i < fragmento.getRegistros(); i++) {
+                float rotulo = fragmento.ler(i, caracteristicas);
+                medidas.registrar(modelo.avaliar(caracteristicas), rotulo);
+            }
+        }
+        guardar(medidas, inicio);
+    }
+
+    /**
+     * Calcula a chance prevista para uma amostra, guardando as ativações ocultas.
+     *
+     * @param x As características.
+     * @return A chance de vitória prevista.
+     */
+    private double propagar(float[] x) {
+        float z = modelo.viesSaida;
+        if (modelo.ocultos == 0) {
+            for (int i = 0; i < Caracteristicas.TOTAL; i++) {
+                z += modelo.pesosSaida[i] * x[i];
+            }
+        } else {
+            for (int h = 0, base = 0; h < modelo.ocultos; h++, base += Caracteristicas.TOTAL) {
+                float ativacao = modelo.viesOcultos[h];
+                for (int i = 0; i < Caracteristicas.TOTAL; i++) {
+                    ativacao += modelo.pesosOcultos[base + i] * x[i];
+                }
+                ativacoes[h] = Math.max(0f, ativacao);
+                z += modelo.pesosSaida[h] * ativacoes[h];
+            }
+        }
+        return 1 / (1 + Math.exp(-z));
+    }
+
+    /**
+     * Acumula o gradiente de uma amostra, a partir do erro na saída.
+     *
+     * @param x    As características.
+     * @param erro A chance prevista menos o rótulo, que é a derivada da perda no logito.
+     */
+    private void retropropagar(float[] x, float erro) {
+        gradienteViesSaida += erro;
+        if (modelo.ocultos == 0) {
+            for (int i = 0; i < Caracteristicas.TOTAL; i++) {
+                gradienteSaida[i] += erro * x[i];
+            }
+            return;
+        }
+        for (int h = 0, base = 0; h < modelo.ocultos; h++, base += Caracteristicas.TOTAL) {
+            gradienteSaida[h] += erro * ativacoes[h];
+            if (ativacoes[h] <= 0) continue;
+            float erroOculto = erro * modelo.pesosSaida[h];
+            gradienteViesOcultos[h] += erroOculto;
+            for (int i = 0; i < Caracteristicas.TOTAL; i++) {
+                gradienteOcultos[base + i] += erroOculto * x[i];
+            }
+        }
+    }
+
+    /**
+     * Dá um passo na direção oposta ao gradiente médio do minilote e zera o gradiente.
+     *
+     * @param amostras Quantas amostras o minilote teve.
+     */
+    private void aplicar(int amostras) {
+        float passo = taxaAprendizado / amostras;
+        float decaimento = 1 - taxaAprendizado * regularizacao;
+        atualizar(modelo.pesosOcultos, gradienteOcultos, passo, decaimento);
+        atualizar(modelo.viesOcultos, gradienteViesOcultos, passo, 1);
+        atualizar(modelo.pesosSaida, gradienteSaida, passo, decaimento);
+        modelo.viesSaida -= passo * gradienteViesSaida;
+        gradienteViesSaida = 0;
+    }
+
+    /**
+     * Atualiza um vetor de pesos e zera o seu gradiente.
+     *
+     * @param pesos      Os pesos.
+     * @param gradiente  O gradiente somado do minilote.
+     * @param passo      A taxa de aprendizado dividida pelo tamanho do minilote.
+     * @param decaimento O fator de regularização aplicado aos pesos.
+     */
+    private static void atualizar(float[] pesos, float[] gradiente, float passo, float decaimento) {
+        for (int i = 0; i < pesos.length; i++) {
+            pesos[i] = pesos[i] * decaimento - passo * gradiente[i];
+            gradiente[i] = 0;
+        }
+    }
+
+    /**
+     * Guarda as medidas de uma época ou validação.
+     *
+     * @param medidas As medidas.
+     * @param inicio  O instante ({@link System#nanoTime()}) em que começou.
+     */
+    private void guardar(Medidas medidas, long inicio) {
+        ultimaDuracaoNanos = System.nanoTime() - inicio;
+        ultimasAmostras = medidas.amostras;
+        ultimaPerda = medidas.amostras == 0 ? 0 : medidas.perda / medidas.amostras;
+        ultimoAcerto = medidas.decididas == 0 ? 0 : (double) medidas.acertos / medidas.decididas;
+    }
+
+    /**
+     * Retorna a perda média (entropia cruzada) da última época ou validação.
+     *
+     * @return A perda média.
+     */
+    public double getUltimaPerda() {
+        return ultimaPerda;
+    }
+
+    /**
+     * Retorna a fração de partidas decididas em que o modelo apontou o resultado certo
+     * na última época ou validação.
+     *
+     * @return A fração de acertos, entre 0 e 1.
+     */
+    public double getUltimoAcerto() {
+        return ultimoAcerto;
+    }
+
+    /**
+     * Retorna quantas amostras a última época ou validação leu.
+     *
+     * @return O número de amostras.
+     */
+    public long getUltimasAmostras() {
+        return ultimasAmostras;
+    }
+
+    /**
+     * Calcula a vazão da última época ou validação.
+     *
+     * @return As amostras por segundo, ou 0 se ainda não houve nenhuma.
+     */
+    public double getAmostrasPorSegundo() {
+        return ultimaDuracaoNanos == 0 ? 0 : ultimasAmostras * 1e9 / ultimaDuracaoNanos;
+    }
+
+    /**
+     * As somas usadas para medir uma época ou validação.
+     */
+    private static class Medidas {
+        /** Quantas amostras foram medidas. */
+        long amostras;
+        /** A soma das perdas. */
+        double perda;
+        /** Quantas amostras não eram de empate. */
+        long decididas;
+        /** Quantas amostras decididas tiveram o resultado previsto certo. */
+        long acertos;
+
+        /**
+         * Registra a previsão de uma amostra.
+         *
+         * @param chance A chance de vitória prevista.
+         * @param rotulo O resultado da amostra.
+         */
+        void registrar(double chance, float rotulo) {
+            double p = Math.min(1 - CHANCE_MINIMA, Math.max(CHANCE_MINIMA, chance));
+            perda -= rotulo * Math.log(p) + (1 - rotulo) * Math.log(1 - p);
+            amostras++;
+            if (rotulo != 0.5f) {
+                decididas++;
+                if ((chance > 0.5) == (rotulo > 0.5f)) acertos++;
+            }
+        }
+    }
+}
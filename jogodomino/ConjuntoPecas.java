@@ -0,0 +1,131 @@
+package jogodomino;
+
+/**
+ * Os conjuntos de peças suportados. Pela numeração de {@link TabelaPecas}, as peças
+ * de um conjunto são sempre os números de 0 a {@code getTotalPecas() - 1}, e um
+ * conjunto menor é o começo de um maior.
+ * Cada conjunto define quantas peças cada jogador recebe, conforme o número de
+ * jogadores; o que sobra forma o monte.
+ */
+public enum ConjuntoPecas {
+    /** O conjunto padrão de 28 peças, de [0|0] a [6|6], para 2 a 4 jogadores. */
+    DUPLO_SEIS(6, new int[] {7, 7, 7}),
+    /** O conjunto de 55 peças, de [0|0] a [9|9], para 2 a 8 jogadores. */
+    DUPLO_NOVE(9, new int[] {10, 10, 10, 8, 8, 6, 6}),
+    /** O conjunto de 91 peças, de [0|0] a [12|12], para 2 a 8 jogadores. */
+    DUPLO_DOZE(12, new int[] {15, 15, 15, 12, 12, 10, 10});
+
+    /** O maior valor de um lado de peça. */
+    private final int maiorValor;
+    /** O número de peças do conjunto. */
+    private final int totalPecas;
+    /** Quantas peças cada jogador recebe, indexado pelo número de jogadores menos 2. */
+    private final int[] pecasPorJogador;
+    /** A máscara com todas as peças do conjunto, {@link TabelaPecas#PALAVRAS} palavras. */
+    private final long[] todas = new long[TabelaPecas.PALAVRAS];
+
+    /**
+     * Constrói um conjunto.
+     *
+     * @param maiorValor      O maior valor de lado.
+     * @param pecasPorJogador As peças por jogador, de 2 jogadores em diante.
+     */
+    ConjuntoPecas(int maiorValor, int[] pecasPorJogador) {
+        this.maiorValor = maiorValor;
+        this.totalPecas = TabelaPecas.totalPecas(maiorValor);
+        this.pecasPorJogador = pecasPorJogador;
+        for (int peca = 0; peca < totalPecas; peca++) {
+            todas[peca >>> 6] |= 1L << peca;
+        }
+    }
+
+    /**
+     * Retorna o conjunto cujo maior valor de lado é o informado.
+     *
+     * @param maiorValor O maior valor de lado (6, 9 ou 12).
+     * @return O conjunto correspondente.
+     * @throws IllegalArgumentException se não houver conjunto com esse valor.
+     */
+    public static ConjuntoPecas de(int maiorValor) {
+        for (ConjuntoPecas c : values()) {
+            if (c.maiorValor == maiorValor) return c;
+        }
+        throw new IllegalArgumentException("Conjunto não suportado: duplo-" + maiorValor);
+    }
+
+    /**
+     * Retorna o conjunto que tem o número de peças informado.
+     *
+     * @param totalPecas O número de peças (28, 55 ou 91).
+     * @return O conjunto correspondente.
+     * @throws IllegalArgumentException se não houver conjunto com esse tamanho.
+     */
+    public static ConjuntoPecas comTotal(int totalPecas) {
+        for (ConjuntoPecas c : values()) {
+            if (c.totalPecas == totalPecas) return c;
+        }
+        throw new IllegalArgumentException("Nenhum conjunto tem " + totalPecas + " peças.");
+    }
+
+    /**
+     * Retorna o maior valor de lado do conjunto.
+     *
+     * @return O maior valor.
+     */
+    public int getMaiorValor() {
+        return maiorValor;
+    }
+
+    /**
+     * Retorna o número de peças do conjunto.
+     *
+     * @return O número de peças.
+     */
+    public int getTotalPecas() {
+        return totalPecas;
+    }
+
+    /**
+     * Retorna o maior número de jogadores que o conjunto comporta.
+     *
+     * @return O número máximo de jogadores.
+     */
+    public int getMaximoJogadores() {
+        return pecasPorJogador.length + 1;
+    }
+
+    /**
+     * Retorna quantas peças cada jogador recebe na distribuição.
+     *
+     * @param numeroJogadores O número de jogadores.
+     * @return As peças por jogador.
+     * @throws IllegalArgumentException se o conjunto não comportar esse número de jogadores.
+     */
+    public int getPecasPorJogador(int numeroJogadores) {
+        if (numeroJogadores < 2 || numeroJogadores > getMaximoJogadores()) {
+            throw new IllegalArgumentException("O " + this + " comporta de 2 a " + getMaximoJogadores()
+                + " jogadores.");
+        }
+        return pecasPorJogador[numeroJogadores - 2];
+    }
+
+    /**
+     * Retorna uma palavra da máscara com todas as peças do conjunto.
+     *
+     * @param palavra A palavra, de 0 a {@link TabelaPecas#PALAVRAS} - 1.
+     * @return Os bits dessa palavra.
+     */
+    public long getTodas(int palavra) {
+        return todas[palavra];
+    }
+
+    /**
+     * Retorna o nome usual do conjunto, como "duplo-seis".
+     *
+     * @return O nome do conjunto.
+     */
+    @Override
+    public String toString() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
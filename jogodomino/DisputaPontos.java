@@ -0,0 +1,96 @@
+package jogodomino;
+
+/**
+ * Placar de uma disputa "até N pontos": os pontos de cada mão são somados até que
+ * alguém chegue ao alvo sozinho na liderança.
+ */
+public class DisputaPontos {
+    /** Os pontos que encerram a disputa. */
+    private final int alvo;
+    /** Os pontos acumulados por cada participante. */
+    private final int[] placar;
+    /** Quantas mãos foram registradas. */
+    private int maos;
+
+    /**
+     * Constrói uma disputa com o placar zerado.
+     *
+     * @param participantes O número de participantes.
+     * @param alvo          Os pontos que encerram a disputa.
+     */
+    public DisputaPontos(int participantes, int alvo) {
+        if (alvo <= 0) throw new IllegalArgumentException("O alvo deve ser positivo.");
+        this.alvo = alvo;
+        this.placar = new int[participantes];
+    }
+
+    /**
+     * Soma os pontos de uma mão. O participante {@code i} recebe os pontos do
+     * lugar {@code lugares[i]} da mão, o que permite trocar os lugares entre as mãos.
+     *
+     * @param mao     Os pontos de cada lugar na mão.
+     * @param lugares O lugar de cada participante.
+     */
+    public void registrar(int[] mao, int[] lugares) {
+        for (int i = 0; i < placar.length; i++) {
+            placar[i] += mao[lugares[i]];
+        }
+        maos++;
+    }
+
+    /**
+     * Indica se a disputa terminou: alguém chegou ao alvo e está sozinho na frente.
+     *
+     * @return true se há um vencedor.
+     */
+    public boolean isEncerrada() {
+        return getVencedor() >= 0;
+    }
+
+    /**
+     * Retorna o vencedor da disputa.
+     *
+     * @return O participante que chegou ao alvo na liderança, ou -1 se ainda não há.
+     */
+    public int getVencedor() {
+        int lider = -1;
+        boolean empate = false;
+        for (int i = 0; i < placar.length; i++) {
+            if (lider < 0 || placar[i] > placar[lider]) {
+                lider = i;
+                empate = false;
+            } else if (placar[i] == placar[lider]) {
+                empate = true;
+            }
+        }
+        return !empate && placar[lider] >= alvo ? lider : -1;
+    }
+
+    /**
+     * Retorna os pontos acumulados por um participante.
+     *
+     * @param participante O participante.
+     * @return Os pontos.
+     */
+    public int getPlacar(int participante) {
+        return placar[participante];
+    }
+
+    /**
+     * Retorna o alvo da disputa.
+     *
+     * @return Os pontos que encerram a disputa.
+     */
+    public int getAlvo() {
+        return alvo;
+    }
+
+    /**
+     * Retorna quantas mãos foram jogadas.
+     *
+     * @return O número de mãos.
+     */
+    public int getMaos() {
+        return maos;
+    }
+}
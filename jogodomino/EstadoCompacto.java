@@ -0,0 +1,651 @@
+package jogodomino;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import listaligadapecas.ListaLigadaPecas;
+import listaligadapecas.PecaColocada;
+
+/**
+ * Representação primitiva e compacta do estado de um jogo de dominó,
+ * pensada para simulações em massa.
+ * Cada mão é uma máscara de 28 bits (veja {@link TabelaPecas}), as extremidades
+ * da mesa são bytes e o monte é um vetor de bytes embaralhado; por isso só
+ * representa o duplo-seis ({@link ConjuntoPecas#DUPLO_SEIS}).
+ * Depois de criado, o estado pode ser copiado, jogado e simulado até o fim
+ * sem alocar nenhum objeto.
+ */
+public class EstadoCompacto {
+    /** Marca, no vetor da mesa, uma peça colocada com o maior lado à esquerda. */
+    private static final int INVERTIDA = 0x40;
+    /** O número de peças distribuídas para cada jogador. */
+    private static final int PECAS_POR_JOGADOR = 7;
+    /** Quantas vezes o sorteio com restrições é tentado antes de ignorá-las. */
+    private static final int TENTATIVAS_SORTEIO = 32;
+
+    /** A mão de cada jogador, como máscara de bits dos números das peças. */
+    private final long[] maos;
+    /** O monte; o topo é a posição {@code tamanhoMonte - 1}. */
+    private final byte[] monte;
+    /** As peças da mesa, da esquerda para a direita, entre {@code inicioMesa} e {@code fimMesa}. */
+    private final byte[] mesa;
+    /** Quantas peças ainda restam no monte. */
+    private int tamanhoMonte;
+    /** A posição da primeira peça da mesa. */
+    private int inicioMesa;
+    /** A posição seguinte à última peça da mesa. */
+    private int fimMesa;
+    /** O valor da extremidade esquerda da mesa, ou -1 se estiver vazia. */
+    private byte extremoEsquerdo;
+    /** O valor da extremidade direita da mesa, ou -1 se estiver vazia. */
+    private byte extremoDireito;
+    /** O índice do jogador da vez. */
+    private int jogadorAtual;
+    /** Quantos jogadores passaram a vez seguidos, para detectar o jogo trancado. */
+    private int passesSeguidos;
+    /**
+     * As peças que cada jogador mostrou não poder ter (veja {@link RastreadorPecas}),
+     * respeitadas por {@link #sortearOcultas}. Não são atualizadas pelas jogadas do estado.
+     */
+    private final long[] impossiveis;
+    /** Espaço de trabalho do sorteio: quantas peças cada mão oculta deve receber. */
+    private final int[] quantidades;
+
+    /**
+     * Constrói um estado vazio: mãos, mesa e monte sem peças.
+     *
+     * @param numeroJogadores O número de jogadores.
+     */
+    public EstadoCompacto(int numeroJogadores) {
+        this.maos = new long[numeroJogadores];
+        this.impossiveis = new long[numeroJogadores];
+        this.quantidades = new int[numeroJogadores];
+        this.monte = new byte[TabelaPecas.TOTAL_PECAS];
+        this.mesa = new byte[2 * TabelaPecas.TOTAL_PECAS + 1];
+        limparMesa();
+    }
+
+    /**
+     * Cria uma nova partida: embaralha as 28 peças, distribui 7 para cada jogador
+     * e coloca na mesa a peça de maior soma, como em {@link JogoDomino}.
+     * Em caso de empate na soma, a peça de maior número sai primeiro.
+     *
+     * @param numeroJogadores O número de jogadores (2 a 4).
+     * @param aleatorio       O gerador usado no embaralhamento.
+     * @return O estado pronto para a primeira jogada após a abertura.
+     */
+    public static EstadoCompacto novaPartida(int numeroJogadores, RandomGenerator aleatorio) {
+        EstadoCompacto estado = new EstadoCompacto(numeroJogadores);
+        estado.distribuir(aleatorio);
+        return estado;
+    }
+
+    /**
+     * Reembaralha e distribui as peças sobre este mesmo estado, sem alocar.
+     *
+     * @param aleatorio O gerador usado no embaralhamento.
+     */
+    public void distribuir(RandomGenerator aleatorio) {
+        for (int i = 0; i < monte.length; i++) {
+            monte[i] = (byte) i;
+        }
+        embaralharMonte(monte.length, aleatorio);
+        tamanhoMonte = monte.length;
+        for (int j = 0; j < maos.length; j++) {
+            maos[j] = 0;
+            impossiveis[j] = 0;
+            for (int i = 0; i < PECAS_POR_JOGADOR; i++) {
+                maos[j] |= 1L << monte[--tamanhoMonte];
+            }
+        }
+        abrir();
+    }
+
+    /**
+     * Carrega neste estado, sem alocar, uma distribuição gerada em lote por
+     * {@link GeradorDistribuicoes}, e faz a abertura como em {@link #distribuir(RandomGenerator)}.
+     *
+     * @param lote         O lote, do duplo-seis e com o número de jogadores deste estado.
+     * @param distribuicao A posição da distribuição no lote.
+     */
+    public void distribuir(LoteDistribuicoes lote, int distribuicao) {
+        if (lote.getConjunto() != ConjuntoPecas.DUPLO_SEIS || lote.getNumeroJogadores() != maos.length) {
+            throw new IllegalArgumentException("O lote é de outro conjunto ou número de jogadores.");
+        }
+        tamanhoMonte = monte.length - maos.length * PECAS_POR_JOGADOR;
+        for (int i = 0; i < tamanhoMonte; i++) {
+            monte[i] = (byte) lote.getPeca(distribuicao, i);
+        }
+        for (int j = 0; j < maos.length; j++) {
+            maos[j] = lote.getMao(distribuicao, j, 0);
+            impossiveis[j] = 0;
+        }
+        abrir();
+    }
+
+    /**
+     * Esvazia a mesa e faz a abertura: joga a peça de maior soma, e quem a tem
+     * passa a vez para o seguinte. Entre peças de mesma soma vale a de maior número,
+     * como em {@link JogoDomino}.
+     */
+    private void abrir() {
+        limparMesa();
+        passesSeguidos = 0;
+
+        // Abre o jogo quem tiver a peça de maior soma
+        int maiorSoma = maiorSomaDistribuida();
+        for (int peca = TabelaPecas.TOTAL_PECAS - 1; peca >= 0; peca--) {
+            if (TabelaPecas.soma(peca) != maiorSoma) continue;
+            for (int j = 0; j < maos.length; j++) {
+                if ((maos[j] & (1L << peca)) != 0) {
+                    jogadorAtual = j;
+                    jogar(peca, false);
+                    passarTurno();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula a maior soma entre todas as peças que estão nas mãos.
+     *
+     * @return A maior soma de peça distribuída.
+     */
+    private int maiorSomaDistribuida() {
+        long todas = 0;
+        for (long mao : maos) {
+            todas |= mao;
+        }
+        int maior = 0;
+        while (todas != 0) {
+            maior = Math.max(maior, TabelaPecas.soma(Long.numberOfTrailingZeros(todas)));
+            todas &= todas - 1;
+        }
+        return maior;
+    }
+
+    /**
+     * Esvazia a mesa, deixando espaço para crescer igualmente para os dois lados.
+     */
+    private void limparMesa() {
+        inicioMesa = fimMesa = TabelaPecas.TOTAL_PECAS;
+        extremoEsquerdo = extremoDireito = -1;
+    }
+
+    /**
+     * Copia para este estado todo o conteúdo de outro estado com o mesmo número
+     * de jogadores, sem alocar. Usado para reiniciar uma simulação a partir de uma posição.
+     *
+     * @param outro O estado a ser copiado.
+     */
+    public void copiarDe(EstadoCompacto outro) {
+        System.arraycopy(outro.maos, 0, maos, 0, maos.length);
+        System.arraycopy(outro.impossiveis, 0, impossiveis, 0, impossiveis.length);
+        System.arraycopy(outro.monte, 0, monte, 0, outro.tamanhoMonte);
+        System.arraycopy(outro.mesa, outro.inicioMesa, mesa, outro.inicioMesa, outro.fimMesa - outro.inicioMesa);
+        tamanhoMonte = outro.tamanhoMonte;
+        inicioMesa = outro.inicioMesa;
+        fimMesa = outro.fimMesa;
+        extremoEsquerdo = outro.extremoEsquerdo;
+        extremoDireito = outro.extremoDireito;
+        jogadorAtual = outro.jogadorAtual;
+        passesSeguidos = outro.passesSeguidos;
+    }
+
+    /**
+     * Retorna a máscara das peças do jogador da vez que encaixam em alguma extremidade.
+     *
+     * @return A máscara das peças jogáveis; com a mesa vazia, a mão inteira.
+     */
+    public long getPecasJogaveis() {
+        long mao = maos[jogadorAtual];
+        if (extremoEsquerdo < 0) return mao;
+        return mao & (TabelaPecas.mascaraDoValor(extremoEsquerdo) | TabelaPecas.mascaraDoValor(extremoDireito));
+    }
+
+    /**
+     * Verifica se uma peça pode ser colocada em uma extremidade da mesa.
+     *
+     * @param peca       O número da peça.
+     * @param naEsquerda true para a extremidade esquerda, false para a direita.
+     * @return true se a peça encaixa nessa extremidade.
+     */
+    public boolean podeJogar(int peca, boolean naEsquerda) {
+        if (extremoEsquerdo < 0) return true;
+        int valor = naEsquerda ? extremoEsquerdo : extremoDireito;
+        return (TabelaPecas.mascaraDoValor(valor) & (1L << peca)) != 0;
+    }
+
+    /**
+     * Coloca uma peça do jogador da vez na mesa, virando-a conforme a extremidade.
+     * Não valida a jogada nem passa o turno; use {@link #podeJogar(int, boolean)} antes.
+     *
+     * @param peca       O número da peça.
+     * @param naEsquerda true para a extremidade esquerda, false para a direita.
+     */
+    public void jogar(int peca, boolean naEsquerda) {
+        maos[jogadorAtual] &= ~(1L << peca);
+        passesSeguidos = 0;
+        int menor = TabelaPecas.ladoMenor(peca);
+        int maior = TabelaPecas.ladoMaior(peca);
+        if (extremoEsquerdo < 0) {
+            mesa[fimMesa++] = (byte) peca;
+            extremoEsquerdo = (byte) menor;
+            extremoDireito = (byte) maior;
+        } else if (naEsquerda) {
+            // Na esquerda, o lado que encaixa fica à direita da peça
+            boolean invertida = maior != extremoEsquerdo;
+            mesa[--inicioMesa] = (byte) (invertida ? peca | INVERTIDA : peca);
+            extremoEsquerdo = (byte) (invertida ? maior : menor);
+        } else {
+            boolean invertida = menor != extremoDireito;
+            mesa[fimMesa++] = (byte) (invertida ? peca | INVERTIDA : peca);
+            extremoDireito = (byte) (invertida ? menor : maior);
+        }
+    }
+
+    /**
+     * O jogador da vez compra a peça do topo do monte.
+     *
+     * @return true se comprou, false se o monte estava vazio.
+     */
+    public boolean comprar() {
+        if (tamanhoMonte == 0) return false;
+        maos[jogadorAtual] |= 1L << monte[--tamanhoMonte];
+        return true;
+    }
+
+    /**
+     * Registra que o jogador da vez passou sem jogar e passa o turno.
+     */
+    public void passar() {
+        passesSeguidos++;
+        passarTurno();
+    }
+
+    /**
+     * Passa o turno para o próximo jogador na ordem cíclica.
+     */
+    public void passarTurno() {
+        jogadorAtual = (jogadorAtual + 1) % maos.length;
+    }
+
+    /**
+     * Verifica se a partida terminou: alguém bateu ou todos passaram seguidos.
+     *
+     * @return true se a partida acabou.
+     */
+    public boolean isFinalizado() {
+        if (passesSeguidos >= maos.length) return true;
+        for (long mao : maos) {
+            if (mao == 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Verifica se a partida terminou trancada.
+     *
+     * @return true se todos os jogadores passaram seguidos.
+     */
+    public boolean isBloqueado() {
+        return passesSeguidos >= maos.length;
+    }
+
+    /**
+     * Determina o vencedor: quem bateu ou, no jogo trancado, quem tem menos pontos na mão.
+     *
+     * @return O índice do vencedor, ou -1 se houve empate ou a partida não terminou.
+     */
+    public int getVencedor() {
+        for (int j = 0; j < maos.length; j++) {
+            if (maos[j] == 0) return j;
+        }
+        if (!isBloqueado()) return -1;
+        int vencedor = -1;
+        int menor = Integer.MAX_VALUE;
+        boolean empate = false;
+        for (int j = 0; j < maos.length; j++) {
+            int pontos = TabelaPecas.somaPontos(maos[j]);
+            if (pontos < menor) {
+                menor = pontos;
+                vencedor = j;
+                empate = false;
+            } else if (pontos == menor) {
+                empate = true;
+            }
+        }
+        return empate ? -1 : vencedor;
+    }
+
+    /**
+     * Leva o jogo até o próximo momento de decisão: o jogador da vez compra
+     * até ter peça que encaixe ou o monte acabar e, se ainda assim não puder jogar,
+     * passa. Repete com os próximos jogadores até alguém ter jogada ou a partida acabar.
+     *
+     * @return A máscara das peças jogáveis do jogador da vez, ou 0 se a partida terminou.
+     */
+    public long prepararJogada() {
+        while (!isFinalizado()) {
+            long jogaveis = getPecasJogaveis();
+            while (jogaveis == 0 && comprar()) {
+                jogaveis = getPecasJogaveis();
+            }
+            if (jogaveis != 0) return jogaveis;
+            passar();
+        }
+        return 0;
+    }
+
+    /**
+     * Simula o restante da partida com jogadas aleatórias, sem alocar.
+     * Quem não tem peça que encaixe compra até poder jogar ou o monte acabar.
+     *
+     * @param aleatorio O gerador usado para sortear as jogadas.
+     * @return O índice do vencedor, ou -1 em caso de empate.
+     */
+    public int jogarAteOFim(RandomGenerator aleatorio) {
+        for (long jogaveis = prepararJogada(); jogaveis != 0; jogaveis = prepararJogada()) {
+            int peca = sortearBit(jogaveis, aleatorio);
+            boolean esquerda = podeJogar(peca, true);
+            if (esquerda && podeJogar(peca, false)) {
+                esquerda = aleatorio.nextBoolean();
+            }
+            jogar(peca, esquerda);
+            passarTurno();
+        }
+        return getVencedor();
+    }
+
+    /**
+     * Sorteia de novo as peças que o observador não conhece (mãos dos adversários
+     * e monte), mantendo o tamanho de cada mão. Cada chamada produz uma
+     * "determinização" do jogo, coerente com o que o observador vê; se algum adversário
+     * mostrou não ter certos valores, ele não recebe peças com esses valores. Não aloca.
+     *
+     * @param observador O índice do jogador cujo ponto de vista é mantido.
+     * @param aleatorio  O gerador usado no sorteio.
+     */
+    public void sortearOcultas(int observador, RandomGenerator aleatorio) {
+        long restritos = 0;
+        for (int j = 0; j < maos.length; j++) {
+            if (j != observador) restritos |= impossiveis[j];
+        }
+        if (restritos == 0 || !sortearComRestricoes(observador, aleatorio)) {
+            sortearSemRestricoes(observador, aleatorio);
+        }
+    }
+
+    /**
+     * Embaralha todas as peças ocultas e as redistribui, ignorando as restrições.
+     *
+     * @param observador O índice do jogador cujo ponto de vista é mantido.
+     * @param aleatorio  O gerador usado no sorteio.
+     */
+    private void sortearSemRestricoes(int observador, RandomGenerator aleatorio) {
+        // Junta no vetor do monte todas as peças ocultas
+        int ocultas = tamanhoMonte;
+        for (int j = 0; j < maos.length; j++) {
+            if (j == observador) continue;
+            for (long mao = maos[j]; mao != 0; mao &= mao - 1) {
+                monte[ocultas++] = (byte) Long.numberOfTrailingZeros(mao);
+            }
+        }
+        embaralharMonte(ocultas, aleatorio);
+        // Devolve a cada adversário a mesma quantidade de peças; o que sobra é o monte
+        for (int j = 0; j < maos.length; j++) {
+            if (j == observador) continue;
+            int quantidade = Long.bitCount(maos[j]);
+            maos[j] = 0;
+            for (int i = 0; i < quantidade; i++) {
+                maos[j] |= 1L << monte[--ocultas];
+            }
+        }
+        tamanhoMonte = ocultas;
+    }
+
+    /**
+     * Sorteia as mãos ocultas respeitando as peças impossíveis de cada adversário.
+     * A cada passo, o adversário com menos folga recebe as suas peças, sorteadas entre
+     * as livres que ele pode ter; o resto vai para o monte. Se as restrições não couberem (por
+     * exemplo, depois de uma compra voluntária), nada é alterado.
+     *
+     * @param observador O índice do jogador cujo ponto de vista é mantido.
+     * @param aleatorio  O gerador usado no sorteio.
+     * @return true se o sorteio foi feito, false se as restrições não puderam ser atendidas.
+     */
+    private boolean sortearComRestricoes(int observador, RandomGenerator aleatorio) {
+        long livres = 0;
+        for (int i = 0; i < tamanhoMonte; i++) {
+            livres |= 1L << monte[i];
+        }
+        for (int j = 0; j < maos.length; j++) {
+            quantidades[j] = Long.bitCount(maos[j]);
+            if (j != observador) livres |= maos[j];
+        }
+        for (int tentativa = 0; tentativa < TENTATIVAS_SORTEIO; tentativa++) {
+            long restantes = livres;
+            boolean coube = true;
+            int sorteadas = 0; // bit j ligado quando a mão j já foi sorteada
+            for (int vez = 1; vez < maos.length && coube; vez++) {
+                // Escolhe o adversário com menos folga entre as peças que ainda pode receber
+                int escolhido = -1;
+                int menorFolga = Integer.MAX_VALUE;
+                for (int j = 0; j < maos.length; j++) {
+                    if (j == observador || (sorteadas & (1 << j)) != 0) continue;
+                    int folga = Long.bitCount(restantes & ~impossiveis[j]) - quantidades[j];
+                    if (folga < menorFolga) {
+                        menorFolga = folga;
+                        escolhido = j;
+                    }
+                }
+                if (menorFolga < 0) {
+                    coube = false;
+                    break;
+                }
+                long permitidas = restantes & ~impossiveis[escolhido];
+                long mao = 0;
+                for (int i = 0; i < quantidades[escolhido]; i++) {
+                    long bit = 1L << sortearBit(permitidas, aleatorio);
+                    permitidas &= ~bit;
+                    mao |= bit;
+                }
+                restantes &= ~mao;
+                maos[escolhido] = mao;
+                sorteadas |= 1 << escolhido;
+            }
+            if (coube) {
+                tamanhoMonte = 0;
+                for (long m = restantes; m != 0; m &= m - 1) {
+                    monte[tamanhoMonte++] = (byte) Long.numberOfTrailingZeros(m);
+                }
+                embaralharMonte(tamanhoMonte, aleatorio);
+                return true;
+            }
+        }
+        // Não coube: devolve às mãos ocultas tamanhos coerentes para o sorteio sem restrições
+        long restantes = livres;
+        for (int j = 0; j < maos.length; j++) {
+            if (j == observador) continue;
+            long mao = 0;
+            for (int i = 0; i < quantidades[j]; i++) {
+                long bit = Long.lowestOneBit(restantes);
+                restantes &= ~bit;
+                mao |= bit;
+            }
+            maos[j] = mao;
+        }
+        tamanhoMonte = 0;
+        for (long m = restantes; m != 0; m &= m - 1) {
+            monte[tamanhoMonte++] = (byte) Long.numberOfTrailingZeros(m);
+        }
+        return false;
+    }
+
+    /**
+     * Embaralha (Fisher-Yates) as primeiras posições do vetor do monte.
+     *
+     * @param quantidade Quantas posições embaralhar.
+     * @param aleatorio  O gerador usado no embaralhamento.
+     */
+    private void embaralharMonte(int quantidade, RandomGenerator aleatorio) {
+        for (int i = quantidade - 1; i > 0; i--) {
+            int k = aleatorio.nextInt(i + 1);
+            byte t = monte[i];
+            monte[i] = monte[k];
+            monte[k] = t;
+        }
+    }
+
+    /**
+     * Sorteia, com probabilidade uniforme, um dos bits ligados de uma máscara.
+     *
+     * @param mascara   A máscara, que não pode ser zero.
+     * @param aleatorio O gerador usado no sorteio.
+     * @return A posição do bit sorteado.
+     */
+    static int sortearBit(long mascara, RandomGenerator aleatorio) {
+        for (int n = aleatorio.nextInt(Long.bitCount(mascara)); n > 0; n--) {
+            mascara &= mascara - 1;
+        }
+        return Long.numberOfTrailingZeros(mascara);
+    }
+
+    /**
+     * Converte um jogo em andamento para a forma compacta.
+     *
+     * @param jogo O jogo a ser convertido.
+     * @return O estado compacto equivalente.
+     * @throws IllegalArgumentException se o jogo não usar o duplo-seis.
+     */
+    public static EstadoCompacto de(JogoDomino jogo) {
+        if (jogo.getConjunto() != ConjuntoPecas.DUPLO_SEIS) {
+            throw new IllegalArgumentException("O estado compacto só representa o duplo-seis, não o "
+                + jogo.getConjunto() + ".");
+        }
+        List<Jogador> jogadores = jogo.getJogadores();
+        EstadoCompacto estado = new EstadoCompacto(jogadores.size());
+        for (int j = 0; j < jogadores.size(); j++) {
+            estado.maos[j] = jogadores.get(j).getMascaraMao();
+            estado.impossiveis[j] = jogo.getRastreador().getPecasImpossiveis(j);
+        }
+        for (PecaColocada c : jogo.getMesa().getInstantaneo()) {
+            int peca = c.getPeca().getNumero();
+            estado.mesa[estado.fimMesa++] = (byte) (c.isInvertida() ? peca | INVERTIDA : peca);
+        }
+        estado.extremoEsquerdo = (byte) jogo.getMesa().getValorEsquerdo();
+        estado.extremoDireito = (byte) jogo.getMesa().getValorDireito();
+        PilhaPecas monteJogo = jogo.getMonte();
+        for (int i = 0; i < monteJogo.getTamanho(); i++) {
+            estado.monte[estado.tamanhoMonte++] = (byte) monteJogo.getNumero(i);
+        }
+        estado.jogadorAtual = jogo.getIndiceJogadorAtual();
+        return estado;
+    }
+
+    /**
+     * Converte este estado de volta para um {@link JogoDomino}, com peças na mesma
+     * posição e orientação.
+     *
+     * @param jogadores Os jogadores, com as mãos vazias, na mesma ordem deste estado.
+     * @return O jogo equivalente a este estado.
+     */
+    public JogoDomino paraJogoDomino(List<Jogador> jogadores) {
+        if (jogadores.size() != maos.length) {
+            throw new IllegalArgumentException("Esperados " + maos.length + " jogadores.");
+        }
+        for (int j = 0; j < maos.length; j++) {
+            for (long mao = maos[j]; mao != 0; mao &= mao - 1) {
+                jogadores.get(j).adicionarPeca(PecaDomino.porNumero(Long.numberOfTrailingZeros(mao)));
+            }
+        }
+        ListaLigadaPecas mesaLigada = new ListaLigadaPecas();
+        for (int i = inicioMesa; i < fimMesa; i++) {
+            PecaDomino p = PecaDomino.porNumero(mesa[i] & ~INVERTIDA);
+            mesaLigada.adicionarNaDireita(PecaColocada.de(p, (mesa[i] & INVERTIDA) != 0));
+        }
+        PilhaPecas pilha = new PilhaPecas(ConjuntoPecas.DUPLO_SEIS.getTotalPecas());
+        for (int i = 0; i < tamanhoMonte; i++) {
+            pilha.empilhar(monte[i]);
+        }
+        return new JogoDomino(new ArrayList<>(jogadores), mesaLigada, pilha, jogadorAtual);
+    }
+
+    /**
+     * Retorna a mão de um jogador como máscara de bits.
+     *
+     * @param jogador O índice do jogador.
+     * @return A máscara das peças na mão.
+     */
+    public long getMao(int jogador) {
+        return maos[jogador];
+    }
+
+    /**
+     * Retorna o número de jogadores.
+     *
+     * @return O número de jogadores.
+     */
+    public int getNumeroJogadores() {
+        return maos.length;
+    }
+
+    /**
+     * Retorna o índice do jogador da vez.
+     *
+     * @return O jogador atual.
+     */
+    public int getJogadorAtual() {
+        return jogadorAtual;
+    }
+
+    /**
+     * Retorna o valor da extremidade esquerda da mesa.
+     *
+     * @return O valor, ou -1 se a mesa estiver vazia.
+     */
+    public int getExtremoEsquerdo() {
+        return extremoEsquerdo;
+    }
+
+    /**
+     * Retorna o valor da extremidade direita da mesa.
+     *
+     * @return O valor, ou -1 se a mesa estiver vazia.
+     */
+    public int getExtremoDireito() {
+        return extremoDireito;
+    }
+
+    /**
+     * Retorna quantas peças restam no monte.
+     *
+     * @return O tamanho do monte.
+     */
+    public int getTamanhoMonte() {
+        return tamanhoMonte;
+    }
+
+    /**
+     * Retorna as peças da mesa como máscara de bits.
+     *
+     * @return A máscara das peças jogadas.
+     */
+    public long getMascaraMesa() {
+        long mascara = 0;
+        for (int i = inicioMesa; i < fimMesa; i++) {
+            mascara |= 1L << (mesa[i] & ~INVERTIDA);
+        }
+        return mascara;
+    }
+
+    /**
+     * Retorna quantas peças estão na mesa.
+     *
+     * @return O número de peças jogadas.
+     */
+    public int getTamanhoMesa() {
+        return fimMesa - inicioMesa;
+    }
+}
@@ -0,0 +1,18 @@
+package jogodomino;
+
+/**
+ * Define como um jogador controlado pelo computador escolhe suas jogadas.
+ * As implementações não devem guardar estado entre chamadas, pois uma mesma
+ * estratégia pode ser usada por várias partidas ao mesmo tempo.
+ */
+public interface Estrategia {
+
+    /**
+     * Escolhe a próxima jogada do jogador com base no estado atual do jogo.
+     *
+     * @param jogo    O jogo em andamento.
+     * @param jogador O jogador que vai jogar.
+     * @return A jogada escolhida, ou null se o jogador não tiver peça que encaixe.
+     */
+    Jogada escolherJogada(JogoDomino jogo, Jogador jogador);
+}
@@ -0,0 +1,35 @@
+package jogodomino;
+
+/**
+ * Estratégia gulosa: entre as peças que encaixam, joga a de maior soma,
+ * para se livrar logo dos pontos caso o jogo tranque.
+ */
+public class EstrategiaMaiorPeca implements Estrategia {
+
+    /**
+     * Retorna a jogada válida com a peça de maior soma na mão.
+     *
+     * @param jogo    O jogo em andamento.
+     * @param jogador O jogador que vai jogar.
+     * @return A jogada com a maior peça, ou null se nenhuma peça encaixar.
+     */
+    @Override
+    public Jogada escolherJogada(JogoDomino jogo, Jogador jogador) {
+        int e = jogo.getMesa().getValorEsquerdo();
+        int d = jogo.getMesa().getValorDireito();
+        PecaDomino melhor = null;
+        boolean naEsquerda = false;
+        for (PecaDomino p : jogador.getMao()) {
+            int soma = p.getLadoEsquerdo() + p.getLadoDireito();
+            if (melhor != null && soma <= melhor.getLadoEsquerdo() + melhor.getLadoDireito()) continue;
+            if (p.podeConectar(e)) {
+                melhor = p;
+                naEsquerda = true;
+            } else if (p.podeConectar(d)) {
+                melhor = p;
+                naEsquerda = false;
+            }
+        }
+        return melhor == null ? null : new Jogada(melhor, naEsquerda);
+    }
+}
@@ -0,0 +1,27 @@
+package jogodomino;
+
+/**
+ * Estratégia mais simples: joga a primeira peça da mão que encaixar,
+ * tentando primeiro a esquerda e depois a direita da mesa.
+ * É o comportamento original da CPU.
+ */
+public class EstrategiaPrimeiraPeca implements Estrategia {
+
+    /**
+     * Percorre a mão em ordem e retorna a primeira jogada válida.
+     *
+     * @param jogo    O jogo em andamento.
+     * @param jogador O jogador que vai jogar.
+     * @return A primeira jogada válida, ou null se nenhuma peça encaixar.
+     */
+    @Override
+    public Jogada escolherJogada(JogoDomino jogo, Jogador jogador) {
+        int e = jogo.getMesa().getValorEsquerdo();
+        int d = jogo.getMesa().getValorDireito();
+        for (PecaDomino p : jogador.getMao()) {
+            if (p.podeConectar(e)) return new Jogada(p, true);
+            if (p.podeConectar(d)) return new Jogada(p, false);
+        }
+        return null;
+    }
+}
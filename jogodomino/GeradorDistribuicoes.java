@@ -0,0 +1,158 @@
+package jogodomino;
+
+import java.util.function.Consumer;
+
+/**
+ * Gera distribuições em massa, direto em {@link LoteDistribuicoes} reaproveitados.
+ * Cada distribuição é um Fisher-Yates sobre um trecho do vetor de bytes do lote,
+ * alimentado por um gerador no estilo wyrand guardado numa variável local (cada número
+ * de 64 bits rende dois sorteios), e as mãos saem do topo do monte como máscaras;
+ * nada é alocado por distribuição.
+ * A distribuição de número {@code n} depende só da semente e de {@code n}, então
+ * várias threads podem gerar trechos diferentes do mesmo fluxo, cada uma com o seu
+ * lote, e o resultado não depende da divisão.
+ */
+public class GeradorDistribuicoes {
+    /** O passo que separa as sementes de distribuições vizinhas. */
+    private static final long PASSO = 0x9E3779B97F4A7C15L;
+    /** O incremento do estado do gerador a cada número sorteado (wyrand). */
+    private static final long INCREMENTO = 0xA0761D6478BD642FL;
+    /** A constante que mistura o estado na multiplicação de 128 bits (wyrand). */
+    private static final long MISTURA = 0xE7037ED1A0B428DBL;
+
+    /** O conjunto de peças. */
+    private final ConjuntoPecas conjunto;
+    /** O número de jogadores. */
+    private final int numeroJogadores;
+    /** A semente do fluxo de distribuições. */
+    private final long semente;
+    /** As peças em ordem, copiadas para o lote antes de cada embaralhamento. */
+    private final byte[] identidade;
+
+    /**
+     * Constrói um gerador.
+     *
+     * @param conjunto        O conjunto de peças.
+     * @param numeroJogadores O número de jogadores.
+     * @param semente         A semente do fluxo.
+     * @throws IllegalArgumentException se o conjunto não comportar esse número de jogadores.
+     */
+    public GeradorDistribuicoes(ConjuntoPecas conjunto, int numeroJogadores, long semente) {
+        conjunto.getPecasPorJogador(numeroJogadores);
+        this.conjunto = conjunto;
+        this.numeroJogadores = numeroJogadores;
+        this.semente = semente;
+        this.identidade = new byte[conjunto.getTotalPecas()];
+        for (int i = 0; i < identidade.length; i++) {
+            identidade[i] = (byte) i;
+        }
+    }
+
+    /**
+     * Preenche um lote com distribuições consecutivas do fluxo.
+     *
+     * @param lote       O lote, do mesmo conjunto e número de jogadores.
+     * @param primeira   O número da primeira distribuição.
+     * @param quantidade Quantas distribuições gerar (no máximo a capacidade do lote).
+     */
+    public void preencher(LoteDistribuicoes lote, long primeira, int quantidade) {
+        if (lote.getConjunto() != conjunto || lote.getNumeroJogadores() != numeroJogadores) {
+            throw new IllegalArgumentException("O lote é de outro conjunto ou número de jogadores.");
+        }
+        if (quantidade > lote.getCapacidade()) {
+            throw new IllegalArgumentException("O lote comporta só " + lote.getCapacidade() + " distribuições.");
+        }
+        int total = identidade.length;
+        int pecasPorJogador = conjunto.getPecasPorJogador(numeroJogadores);
+        byte[] ordens = lote.ordens;
+        long[] maos = lote.maos;
+        for (int d = 0; d < quantidade; d++) {
+            int base = d * total;
+            System.arraycopy(identidade, 0, ordens, base, total);
+            long estado = SimuladorPartidas.misturar(semente + (primeira + d) * PASSO);
+            // Cada número de 64 bits rende dois sorteios de 32 bits
+            for (int i = total - 1; i > 0; i -= 2) {
+                estado += INCREMENTO;
+                long outro = estado ^ MISTURA;
+                long z = Math.multiplyHigh(estado, outro) ^ estado * outro;
+                trocar(ordens, base, i, (int) (((z >>> 32) * (i + 1)) >>> 32));
+                if (i > 1) trocar(ordens, base, i - 1, (int) (((z & 0xFFFFFFFFL) * i) >>> 32));
+            }
+            // Cada jogador recebe as peças do topo, na ordem em que o JogoDomino as tira
+            int topo = base + total;
+            int mao = d * numeroJogadores * TabelaPecas.PALAVRAS;
+            for (int jogador = 0; jogador < numeroJogadores; jogador++, mao += TabelaPecas.PALAVRAS) {
+                for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+                    maos[mao + p] = 0;
+                }
+                for (int k = 0; k < pecasPorJogador; k++) {
+                    int peca = ordens[--topo];
+                    maos[mao + (peca >>> 6)] |= 1L << peca;
+                }
+            }
+        }
+        lote.tamanho = quantidade;
+        lote.primeira = primeira;
+    }
+
+    /**
+     * Troca duas posições de uma distribuição do lote.
+     *
+     * @param ordens O vetor das ordens do lote.
+     * @param base   O início da distribuição no vetor.
+     * @param i      Uma posição.
+     * @param j      A outra posição.
+     */
+    private static void trocar(byte[] ordens, int base, int i, int j) {
+        byte t = ordens[base + i];
+        ordens[base + i] = ordens[base + j];
+        ordens[base + j] = t;
+    }
+
+    /**
+     * Gera um trecho do fluxo em sequência, entregando ao consumidor um lote cheio
+     * de cada vez. O mesmo lote é reaproveitado, então o consumidor não deve guardá-lo.
+     * Para gerar em paralelo, cada trabalhador chama este método com o seu próprio
+     * lote e um trecho diferente do fluxo.
+     *
+     * @param primeira   O número da primeira distribuição.
+     * @param partidas   Quantas distribuições gerar.
+     * @param lote       O lote reaproveitado.
+     * @param consumidor Quem recebe cada lote preenchido.
+     */
+    public void transmitir(long primeira, long partidas, LoteDistribuicoes lote, Consumer<LoteDistribuicoes> consumidor) {
+        for (long feitas = 0; feitas < partidas; ) {
+            int quantidade = (int) Math.min(lote.getCapacidade(), partidas - feitas);
+            preencher(lote, primeira + feitas, quantidade);
+            consumidor.accept(lote);
+            feitas += quantidade;
+        }
+    }
+
+    /**
+     * Retorna o conjunto de peças.
+     *
+     * @return O conjunto.
+     */
+    public ConjuntoPecas getConjunto() {
+        return conjunto;
+    }
+
+    /**
+     * Retorna o número de jogadores.
+     *
+     * @return O número de jogadores.
+     */
+    public int getNumeroJogadores() {
+        return numeroJogadores;
+    }
+
+    /**
+     * Retorna a semente do fluxo.
+     *
+     * @return A semente.
+     */
+    public long getSemente() {
+        return semente;
+    }
+}
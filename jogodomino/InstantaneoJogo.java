@@ -0,0 +1,211 @@
+package jogodomino;
+
+import java.util.ArrayList;
+import java.util.List;
+import listaligadapecas.InstantaneoMesa;
+
+/**
+ * Retrato imutável de uma partida num dado momento, publicado por
+ * {@link JogoConcorrente} depois de cada comando aplicado. Qualquer thread pode
+ * lê-lo sem trava; a versão cresce de um em um a cada mudança de estado.
+ */
+public final class InstantaneoJogo {
+    /** O número da versão; 0 é o estado logo após a distribuição. */
+    private final long versao;
+    /** O retrato da mesa, com as peças, os extremos e as contagens. */
+    private final InstantaneoMesa mesa;
+    /** As peças restantes no monte. */
+    private final int tamanhoMonte;
+    /** A posição do jogador da vez. */
+    private final int jogadorAtual;
+    /** A máscara da mão de cada jogador, {@link TabelaPecas#PALAVRAS} palavras por jogador. */
+    private final long[] maos;
+    /** Indica se a partida terminou. */
+    private final boolean finalizado;
+    /** A posição do vencedor, ou -1 se a partida não terminou ou empatou. */
+    private final int vencedor;
+    /** Os pontos ganhos pelo vencedor. */
+    private final int pontos;
+
+    /**
+     * Tira o retrato de uma partida. Deve ser chamado pela única thread que altera o jogo.
+     *
+     * @param versao O número da versão.
+     * @param jogo   A partida.
+     */
+    InstantaneoJogo(long versao, JogoDomino jogo) {
+        this.versao = versao;
+        this.mesa = jogo.getMesa().getInstantaneo();
+        this.tamanhoMonte = jogo.getQuantidadeMonte();
+        this.jogadorAtual = jogo.getIndiceJogadorAtual();
+        List<Jogador> jogadores = jogo.getJogadores();
+        this.maos = new long[jogadores.size() * TabelaPecas.PALAVRAS];
+        for (int j = 0; j < jogadores.size(); j++) {
+            for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+                maos[j * TabelaPecas.PALAVRAS + p] = jogadores.get(j).getMascaraMao(p);
+            }
+        }
+        this.finalizado = jogo.isFinalizado();
+        Jogador v = finalizado ? jogo.getVencedor() : null;
+        this.vencedor = v == null ? -1 : jogadores.indexOf(v);
+        this.pontos = v == null ? 0 : jogo.calcularPontuacao();
+    }
+
+    /**
+     * Retorna o número da versão.
+     *
+     * @return A versão, que cresce a cada comando aplicado.
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Retorna o retrato da mesa; as peças podem ser percorridas sem cópia.
+     *
+     * @return O retrato da mesa.
+     */
+    public InstantaneoMesa getMesa() {
+        return mesa;
+    }
+
+    /**
+     * Retorna o valor da extremidade esquerda.
+     *
+     * @return O valor, ou -1 com a mesa vazia.
+     */
+    public int getValorEsquerdo() {
+        return mesa.getValorEsquerdo();
+    }
+
+    /**
+     * Retorna o valor da extremidade direita.
+     *
+     * @return O valor, ou -1 com a mesa vazia.
+     */
+    public int getValorDireito() {
+        return mesa.getValorDireito();
+    }
+
+    /**
+     * Retorna quantas peças restam no monte.
+     *
+     * @return O tamanho do monte.
+     */
+    public int getTamanhoMonte() {
+        return tamanhoMonte;
+    }
+
+    /**
+     * Retorna a posição do jogador da vez.
+     *
+     * @return O índice do jogador.
+     */
+    public int getJogadorAtual() {
+        return jogadorAtual;
+    }
+
+    /**
+     * Retorna o número de jogadores.
+     *
+     * @return O número de jogadores.
+     */
+    public int getNumeroJogadores() {
+        return maos.length / TabelaPecas.PALAVRAS;
+    }
+
+    /**
+     * Retorna a máscara da mão de um jogador. É a primeira palavra, que basta para o duplo-seis.
+     *
+     * @param jogador A posição do jogador.
+     * @return A máscara de bits das peças na mão.
+     */
+    public long getMascaraMao(int jogador) {
+        return maos[jogador * TabelaPecas.PALAVRAS];
+    }
+
+    /**
+     * Retorna uma palavra da máscara da mão de um jogador.
+     *
+     * @param jogador A posição do jogador.
+     * @param palavra A palavra da máscara.
+     * @return Os bits das peças {@code 64 * palavra} a {@code 64 * palavra + 63}.
+     */
+    public long getMascaraMao(int jogador, int palavra) {
+        return maos[jogador * TabelaPecas.PALAVRAS + palavra];
+    }
+
+    /**
+     * Retorna as peças na mão de um jogador, em ordem de número.
+     *
+     * @param jogador A posição do jogador.
+     * @return Uma lista nova com as peças.
+     */
+    public List<PecaDomino> getMao(int jogador) {
+        List<PecaDomino> mao = new ArrayList<>(getQuantidadePecas(jogador));
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            for (long m = maos[jogador * TabelaPecas.PALAVRAS + p]; m != 0; m &= m - 1) {
+                mao.add(PecaDomino.porNumero((p << 6) + Long.numberOfTrailingZeros(m)));
+            }
+        }
+        return mao;
+    }
+
+    /**
+     * Retorna quantas peças um jogador tem na mão.
+     *
+     * @param jogador A posição do jogador.
+     * @return O número de peças.
+     */
+    public int getQuantidadePecas(int jogador) {
+        int total = 0;
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            total += Long.bitCount(maos[jogador * TabelaPecas.PALAVRAS + p]);
+        }
+        return total;
+    }
+
+    /**
+     * Verifica se um jogador tem alguma peça que encaixe nas extremidades deste retrato.
+     *
+     * @param jogador A posição do jogador.
+     * @return true se houver uma jogada possível.
+     */
+    public boolean podeJogar(int jogador) {
+        int esquerdo = getValorEsquerdo();
+        if (esquerdo < 0) return getQuantidadePecas(jogador) > 0;
+        int direito = getValorDireito();
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            long jogaveis = TabelaPecas.mascaraDoValor(esquerdo, p) | TabelaPecas.mascaraDoValor(direito, p);
+            if ((maos[jogador * TabelaPecas.PALAVRAS + p] & jogaveis) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Indica se a partida terminou.
+     *
+     * @return true se a partida acabou.
+     */
+    public boolean isFinalizado() {
+        return finalizado;
+    }
+
+    /**
+     * Retorna a posição do vencedor.
+     *
+     * @return O índice do vencedor, ou -1 se a partida não terminou ou empatou.
+     */
+    public int getVencedor() {
+        return vencedor;
+    }
+
+    /**
+     * Retorna os pontos ganhos pelo vencedor.
+     *
+     * @return Os pontos da partida, ou 0 sem vencedor.
+     */
+    public int getPontos() {
+        return pontos;
+    }
+}
@@ -0,0 +1,73 @@
+package jogodomino;
+
+/**
+ * Representa uma jogada escolhida por um jogador: qual peça colocar
+ * e em qual extremidade da mesa. Nas mesas com vários ramos
+ * ({@link listaligadapecas.MesaRamificada}), a extremidade é o número do ramo;
+ * na mesa de duas pontas, o ramo 0 é a esquerda e o ramo 1 a direita.
+ */
+public class Jogada {
+    /** A peça que será colocada na mesa. */
+    private final PecaDomino peca;
+    /** O ramo onde a peça vai: 0 para a extremidade esquerda, 1 para a direita. */
+    private final int ramo;
+
+    /**
+     * Constrói uma nova jogada.
+     *
+     * @param peca       A peça a ser jogada.
+     * @param naEsquerda true para jogar na extremidade esquerda, false para a direita.
+     */
+    public Jogada(PecaDomino peca, boolean naEsquerda) {
+        this(peca, naEsquerda ? 0 : 1);
+    }
+
+    /**
+     * Constrói uma jogada num ramo de uma mesa com vários ramos.
+     *
+     * @param peca A peça a ser jogada.
+     * @param ramo O ramo onde a peça vai.
+     */
+    public Jogada(PecaDomino peca, int ramo) {
+        this.peca = peca;
+        this.ramo = ramo;
+    }
+
+    /**
+     * Retorna a peça desta jogada.
+     *
+     * @return A peça a ser jogada.
+     */
+    public PecaDomino getPeca() {
+        return peca;
+    }
+
+    /**
+     * Indica em qual extremidade a peça será colocada.
+     *
+     * @return true se for na esquerda, false se for na direita.
+     */
+    public boolean isNaEsquerda() {
+        return ramo == 0;
+    }
+
+    /**
+     * Retorna o ramo onde a peça será colocada.
+     *
+     * @return O número do ramo (0 = esquerda, 1 = direita na mesa de duas pontas).
+     */
+    public int getRamo() {
+        return ramo;
+    }
+
+    /**
+     * Retorna uma representação em String da jogada, como "[2|5] à esquerda".
+     *
+     * @return A string formatada da jogada.
+     */
+    @Override
+    public String toString() {
+        if (ramo > 1) return peca + " no ramo " + ramo;
+        return peca + (ramo == 0 ? " à esquerda" : " à direita");
+    }
+}
@@ -2,6 +2,7 @@ package jogodomino;
 
 import java.util.ArrayList;
 import java.util.List;
+import listaligadapecas.MesaRamificada;
 
 /**
  * Representa um jogador no jogo de dominó.
@@ -10,8 +11,10 @@ import java.util.List;
 public class Jogador {
     /** O nome do jogador. */
     private String nome;
-    /** A lista de peças de dominó que o jogador possui. */
-    private List<PecaDomino> mao;
+    /** As peças que o jogador possui, com a máscara de bits e a ordem de chegada. */
+    private final MaoPecas mao = new MaoPecas();
+    /** A soma dos pontos das peças na mão, atualizada a cada peça que entra ou sai. */
+    private int totalPontos;
 
     /**
      * Constrói um novo jogador com um nome e uma mão vazia.
@@ -20,7 +23,6 @@ public class Jogador {
      */
     public Jogador(String nome) {
         this.nome = nome;
-        this.mao = new ArrayList<>();
     }
 
     /**
@@ -34,20 +36,55 @@ public class Jogador {
 
     /**
      * Retorna a lista de peças na mão do jogador.
+     * A lista não pode ser alterada; use {@link #adicionarPeca} e {@link #removerPeca}.
+     * Ela acompanha as mudanças da mão e a percorre na ordem em que as peças chegaram.
      *
-     * @return Uma lista de {@code PecaDomino}.
+     * @return Uma lista somente leitura de {@code PecaDomino}.
      */
     public List<PecaDomino> getMao() {
         return mao;
     }
 
+    /**
+     * Retorna as peças na mão como máscara de bits dos seus números.
+     * É a primeira palavra da máscara, que basta para o duplo-seis; com conjuntos
+     * maiores, use {@link #getMascaraMao(int)}.
+     *
+     * @return A máscara da mão (peças 0 a 63).
+     */
+    public long getMascaraMao() {
+        return mao.getMascara(0);
+    }
+
+    /**
+     * Retorna uma palavra da máscara da mão.
+     *
+     * @param palavra A palavra, de 0 a {@link TabelaPecas#PALAVRAS} - 1.
+     * @return Os bits das peças {@code 64 * palavra} a {@code 64 * palavra + 63}.
+     */
+    public long getMascaraMao(int palavra) {
+        return mao.getMascara(palavra);
+    }
+
+    /**
+     * Indica se a peça está na mão do jogador, sem percorrer a lista.
+     *
+     * @param peca A peça procurada.
+     * @return true se a peça estiver na mão.
+     */
+    public boolean contem(PecaDomino peca) {
+        return mao.contem(peca.getNumero());
+    }
+
     /**
      * Adiciona uma peça à mão do jogador.
      *
      * @param peca A peça a ser adicionada.
      */
     public void adicionarPeca(PecaDomino peca) {
-        mao.add(peca);
+        if (mao.adicionar(peca.getNumero())) {
+            totalPontos += peca.getLadoEsquerdo() + peca.getLadoDireito();
+        }
     }
 
     /**
@@ -56,7 +93,9 @@ public class Jogador {
      * @param peca A peça a ser removida.
      */
     public void removerPeca(PecaDomino peca) {
-        mao.remove(peca);
+        if (mao.remover(peca.getNumero())) {
+            totalPontos -= peca.getLadoEsquerdo() + peca.getLadoDireito();
+        }
     }
 
     /**
@@ -68,11 +107,115 @@ public class Jogador {
      * @return true se o jogador tiver uma jogada possível, false caso contrário.
      */
     public boolean podeJogar(int valorEsquerdo, int valorDireito) {
-        for (PecaDomino p : mao) {
-            if (p.podeConectar(valorEsquerdo) || p.podeConectar(valorDireito)) {
-                return true;
+        if (valorEsquerdo < 0) return !mao.isEmpty();
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            long jogaveis = TabelaPecas.mascaraDoValor(valorEsquerdo, p) | TabelaPecas.mascaraDoValor(valorDireito, p);
+            if ((mao.getMascara(p) & jogaveis) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lista todas as jogadas válidas (peça e lado) para as extremidades livres da mesa,
+     * consultando o índice por valor em vez de testar cada peça.
+     * Com a mesa vazia, qualquer peça pode ser jogada à direita.
+     *
+     * @param valorEsquerdo O valor na extremidade esquerda da mesa, ou -1 se vazia.
+     * @param valorDireito  O valor na extremidade direita da mesa, ou -1 se vazia.
+     * @return As jogadas possíveis; a lista fica vazia se não houver nenhuma.
+     */
+    public List<Jogada> getJogadasPossiveis(int valorEsquerdo, int valorDireito) {
+        List<Jogada> jogadas = new ArrayList<>();
+        if (valorEsquerdo < 0) {
+            for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+                acrescentarJogadas(jogadas, p, mao.getMascara(p), false);
             }
+            return jogadas;
+        }
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            acrescentarJogadas(jogadas, p, mao.getMascara(p) & TabelaPecas.mascaraDoValor(valorEsquerdo, p), true);
+        }
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            acrescentarJogadas(jogadas, p, mao.getMascara(p) & TabelaPecas.mascaraDoValor(valorDireito, p), false);
+        }
+        return jogadas;
+    }
+
+    /**
+     * Acrescenta uma jogada para cada peça de uma palavra da máscara.
+     *
+     * @param jogadas    A lista de destino.
+     * @param palavra    A palavra da máscara.
+     * @param mascara    Os bits das peças dessa palavra.
+     * @param naEsquerda O lado das jogadas.
+     */
+    private void acrescentarJogadas(List<Jogada> jogadas, int palavra, long mascara, boolean naEsquerda) {
+        for (long m = mascara; m != 0; m &= m - 1) {
+            jogadas.add(new Jogada(PecaDomino.porNumero((palavra << 6) + Long.numberOfTrailingZeros(m)), naEsquerda));
+        }
+    }
+
+    /**
+     * Verifica se o jogador tem alguma peça que encaixe em algum ramo de uma mesa com vários ramos.
+     *
+     * @param mesa A mesa.
+     * @return true se houver jogada possível.
+     */
+    public boolean podeJogar(MesaRamificada mesa) {
+        if (!mesa.isIniciada()) return !mao.isEmpty();
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            if ((mao.getMascara(p) & mesa.getMascaraJogavel(p)) != 0) return true;
         }
         return false;
     }
+
+    /**
+     * Lista as jogadas válidas (peça e ramo) numa mesa com vários ramos. As peças vêm
+     * da máscara dos valores abertos e os ramos do índice por valor da mesa, então o
+     * custo depende das jogadas encontradas, não do número de ramos.
+     * Com a mesa vazia, cada peça aparece uma vez, no ramo 0.
+     *
+     * @param mesa A mesa.
+     * @return As jogadas possíveis; a lista fica vazia se não houver nenhuma.
+     */
+    public List<Jogada> getJogadasPossiveis(MesaRamificada mesa) {
+        List<Jogada> jogadas = new ArrayList<>();
+        boolean vazia = !mesa.isIniciada();
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            long pecas = vazia ? mao.getMascara(p) : mao.getMascara(p) & mesa.getMascaraJogavel(p);
+            for (long m = pecas; m != 0; m &= m - 1) {
+                PecaDomino peca = PecaDomino.porNumero((p << 6) + Long.numberOfTrailingZeros(m));
+                if (vazia) {
+                    jogadas.add(new Jogada(peca, 0));
+                    continue;
+                }
+                for (long r = mesa.getRamosQueAceitam(peca); r != 0; r &= r - 1) {
+                    jogadas.add(new Jogada(peca, Long.numberOfTrailingZeros(r)));
+                }
+            }
+        }
+        return jogadas;
+    }
+
+    /**
+     * Retorna as peças da mão que têm o valor informado em algum dos lados.
+     * Como {@link #getMascaraMao()}, considera só a primeira palavra.
+     *
+     * @param valor O valor procurado.
+     * @return A máscara das peças da mão com esse valor.
+     */
+    public long getPecasComValor(int valor) {
+        return mao.getMascara(0) & TabelaPecas.mascaraDoValor(valor, 0);
+    }
+
+    /**
+     * Soma os pontos de todas as peças na mão do jogador.
+     * Usado para decidir o vencedor de um jogo trancado e para a pontuação.
+     * A soma é mantida a cada compra e jogada, então a consulta não percorre a mão.
+     *
+     * @return A soma dos valores de todas as peças na mão.
+     */
+    public int getTotalPontos() {
+        return totalPontos;
+    }
 }
\ No newline at end of file
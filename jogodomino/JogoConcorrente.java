@@ -0,0 +1,288 @@
+package jogodomino;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fachada segura para threads sobre um {@link JogoDomino}.
+ * Os comandos (jogar, comprar, passar) entram numa fila sem trava com vários
+ * produtores e são aplicados um de cada vez por um único consumidor, agendado no
+ * executor só enquanto há comandos pendentes; assim muitas mesas dividem poucas
+ * threads e cada partida só é alterada por uma thread de cada vez.
+ * Depois de cada comando é publicado um {@link InstantaneoJogo} imutável com uma
+ * nova versão; leitores (espectadores, IA, interface) usam {@link #getInstantaneo()}
+ * ou {@link #aguardarVersao(long)} e nunca bloqueiam as jogadas.
+ * Com um executor direto ({@code Runnable::run}) quem envia o comando e encontra a
+ * fila parada a drena na própria thread, o que evita uma troca de thread por jogada.
+ * O jogo entregue ao construtor passa a pertencer à fachada e não deve mais ser
+ * usado diretamente.
+ */
+public class JogoConcorrente {
+    /** Comando de jogar uma peça. */
+    private static final int JOGAR = 0;
+    /** Comando de comprar uma peça do monte. */
+    private static final int COMPRAR = 1;
+    /** Comando de passar a vez. */
+    private static final int PASSAR = 2;
+
+    /** A partida; só é tocada pela thread que está drenando a fila. */
+    private final JogoDomino jogo;
+    /** O executor que drena a fila de comandos. */
+    private final Executor executor;
+    /** Os comandos ainda não aplicados. */
+    private final Queue<Comando> comandos = new ConcurrentLinkedQueue<>();
+    /** Indica se já há uma drenagem da fila agendada ou em andamento. */
+    private final AtomicBoolean agendado = new AtomicBoolean();
+    /** Os leitores esperando por uma versão mais nova que a que conhecem. */
+    private final Queue<Espera> esperas = new ConcurrentLinkedQueue<>();
+    /** O último retrato publicado. */
+    private volatile InstantaneoJogo instantaneo;
+
+    /**
+     * Cria a fachada de uma nova partida, drenada pelo pool comum.
+     *
+     * @param jogadores Os jogadores, na ordem da mesa.
+     */
+    public JogoConcorrente(List<Jogador> jogadores) {
+        this(new JogoDomino(jogadores), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cria a fachada de uma partida já distribuída.
+     *
+     * @param jogo     A partida, que passa a pertencer à fachada.
+     * @param executor O executor que aplica os comandos.
+     */
+    public JogoConcorrente(JogoDomino jogo, Executor executor) {
+        this.jogo = jogo;
+        this.executor = executor;
+        jogo.setSaidaConsole(false);
+        this.instantaneo = new InstantaneoJogo(0, jogo);
+    }
+
+    /**
+     * Pede para jogar uma peça.
+     *
+     * @param jogador    A posição de quem joga.
+     * @param peca       A peça.
+     * @param naEsquerda true para a extremidade esquerda.
+     * @return O retrato logo após a jogada; completa com {@link IllegalStateException}
+     *         se não for a vez do jogador, se a peça for nula ou de outro conjunto, se não
+     *         estiver na mão dele ou não encaixar.
+     */
+    public CompletableFuture<InstantaneoJogo> jogar(int jogador, PecaDomino peca, boolean naEsquerda) {
+        return enviar(new Comando(JOGAR, jogador, peca, naEsquerda));
+    }
+
+    /**
+     * Pede para comprar uma peça do monte. O turno continua com o mesmo jogador.
+     *
+     * @param jogador A posição de quem compra.
+     * @return O retrato logo após a compra; completa com {@link IllegalStateException}
+     *         se não for a vez do jogador ou se o monte estiver vazio.
+     */
+    public CompletableFuture<InstantaneoJogo> comprar(int jogador) {
+        return enviar(new Comando(COMPRAR, jogador, null, false));
+    }
+
+    /**
+     * Pede para passar a vez.
+     *
+     * @param jogador A posição de quem passa.
+     * @return O retrato logo após passar; completa com {@link IllegalStateException}
+     *         se não for a vez do jogador ou se ele tiver peça que encaixe.
+     */
+    public CompletableFuture<InstantaneoJogo> passar(int jogador) {
+        return enviar(new Comando(PASSAR, jogador, null, false));
+    }
+
+    /**
+     * Retorna o último retrato publicado, sem bloquear.
+     *
+     * @return O retrato mais recente.
+     */
+    public InstantaneoJogo getInstantaneo() {
+        return instantaneo;
+    }
+
+    /**
+     * Espera por um retrato mais novo que uma versão conhecida.
+     *
+     * @param versao A versão que o leitor já conhece.
+     * @return Um futuro que completa com o primeiro retrato de versão maior.
+     */
+    public CompletableFuture<InstantaneoJogo> aguardarVersao(long versao) {
+        Espera espera = new Espera(versao);
+        esperas.add(espera);
+        // Confere depois de se registrar: se a publicação veio antes, ninguém mais avisaria.
+        InstantaneoJogo atual = instantaneo;
+        if (atual.getVersao() > versao && esperas.remove(espera)) {
+            espera.futuro.complete(atual);
+        }
+        espera.futuro.whenComplete((r, e) -> esperas.remove(espera));
+        return espera.futuro;
+    }
+
+    /**
+     * Coloca um comando na fila e garante que alguém vai drená-la.
+     *
+     * @param comando O comando.
+     * @return O futuro do comando.
+     */
+    private CompletableFuture<InstantaneoJogo> enviar(Comando comando) {
+        comandos.add(comando);
+        agendar();
+        return comando.resposta;
+    }
+
+    /**
+     * Agenda a drenagem da fila, se ainda não houver uma.
+     */
+    private void agendar() {
+        if (agendado.compareAndSet(false, true)) {
+            executor.execute(this::drenar);
+        }
+    }
+
+    /**
+     * Aplica os comandos pendentes em ordem. Só uma thread por vez executa este método.
+     */
+    private void drenar() {
+        do {
+            try {
+                Comando c;
+                while ((c = comandos.poll()) != null) {
+                    processar(c);
+                }
+            } finally {
+                // Liberada mesmo se algo escapar, senão a mesa nunca mais seria drenada.
+                agendado.set(false);
+            }
+            // Um comando pode ter chegado entre o último poll e a liberação da flag.
+        } while (!comandos.isEmpty() && agendado.compareAndSet(false, true));
+    }
+
+    /**
+     * Aplica um comando e completa o seu futuro. Uma falha inesperada ao aplicá-lo
+     * só rejeita o próprio comando; os seguintes continuam sendo processados.
+     *
+     * @param c O comando.
+     */
+    private void processar(Comando c) {
+        try {
+            String erro = aplicar(c);
+            if (erro != null) {
+                c.resposta.completeExceptionally(new IllegalStateException(erro));
+            } else {
+                InstantaneoJogo novo = new InstantaneoJogo(instantaneo.getVersao() + 1, jogo);
+                instantaneo = novo;
+                c.resposta.complete(novo);
+                avisarLeitores(novo);
+            }
+        } catch (RuntimeException ex) {
+            c.resposta.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Aplica um comando na partida.
+     *
+     * @param c O comando.
+     * @return A mensagem de erro, ou null se o comando foi aplicado.
+     */
+    private String aplicar(Comando c) {
+        if (jogo.isFinalizado()) return "partida encerrada";
+        if (jogo.getIndiceJogadorAtual() != c.jogador) return "não é a sua vez";
+        switch (c.tipo) {
+            case JOGAR:
+                if (c.peca == null || c.peca.getNumero() >= jogo.getConjunto().getTotalPecas()) {
+                    return "peça inválida";
+                }
+                if (!jogo.getJogadorAtual().contem(c.peca)) {
+                    return "peça fora da mão";
+                }
+                if (!jogo.realizarJogada(c.peca, c.naEsquerda)) return "peça não encaixa";
+                if (!jogo.isFinalizado()) jogo.passarTurno();
+                return null;
+            case COMPRAR:
+                return jogo.comprarPeca(jogo.getJogadorAtual()) ? null : "monte vazio";
+            default:
+                if (jogo.getJogadorAtual().podeJogar(jogo.getMesa().getValorEsquerdo(), jogo.getMesa().getValorDireito())) {
+                    return "há peça que encaixa";
+                }
+                jogo.passarTurno();
+                return null;
+        }
+    }
+
+    /**
+     * Completa as esperas de versões anteriores ao retrato publicado.
+     *
+     * @param novo O retrato recém-publicado.
+     */
+    private void avisarLeitores(InstantaneoJogo novo) {
+        for (Iterator<Espera> it = esperas.iterator(); it.hasNext();) {
+            Espera e = it.next();
+            if (e.versao < novo.getVersao()) {
+                it.remove();
+                e.futuro.complete(novo);
+            }
+        }
+    }
+
+    /**
+     * Um pedido de alteração da partida, com o futuro da sua resposta.
+     */
+    private static final class Comando {
+        /** O tipo: {@link #JOGAR}, {@link #COMPRAR} ou {@link #PASSAR}. */
+        final int tipo;
+        /** A posição de quem pediu. */
+        final int jogador;
+        /** A peça jogada, ou null. */
+        final PecaDomino peca;
+        /** true para jogar na extremidade esquerda. */
+        final boolean naEsquerda;
+        /** O futuro completado quando o comando é aplicado ou rejeitado. */
+        final CompletableFuture<InstantaneoJogo> resposta = new CompletableFuture<>();
+
+        /**
+         * Constrói um comando.
+         *
+         * @param tipo       O tipo do comando.
+         * @param jogador    A posição de quem pediu.
+         * @param peca       A peça jogada, ou null.
+         * @param naEsquerda true para a extremidade esquerda.
+         */
+        Comando(int tipo, int jogador, PecaDomino peca, boolean naEsquerda) {
+            this.tipo = tipo;
+            this.jogador = jogador;
+            this.peca = peca;
+            this.naEsquerda = naEsquerda;
+        }
+    }
+
+    /**
+     * Um leitor esperando por uma versão maior que a que conhece.
+     */
+    private static final class Espera {
+        /** A versão que o leitor já conhece. */
+        final long versao;
+        /** O futuro completado com o retrato mais novo. */
+        final CompletableFuture<InstantaneoJogo> futuro = new CompletableFuture<>();
+
+        /**
+         * Constrói uma espera.
+         *
+         * @param versao A versão conhecida.
+         */
+        Espera(long versao) {
+            this.versao = versao;
+        }
+    }
+}
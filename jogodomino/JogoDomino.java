@@ -1,21 +1,44 @@
 package jogodomino;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import listaligadapecas.ListaLigadaPecas;
+import listaligadapecas.PecaColocada;
+import metricas.Metricas;
+import metricas.Operacao;
 
 /**
  * Classe principal que gerencia a lógica e o fluxo de um jogo de dominó.
  * Controla os jogadores, a mesa, o monte de peças e os turnos.
  */
 public class JogoDomino {
+    /** Uma em cada quantas jogadas e compras é cronometrada; todas são contadas. */
+    private static final int AMOSTRAGEM = 64;
+    /** O tempo de cada jogada. */
+    private static final Operacao JOGADA = Metricas.operacao("jogo.realizarJogada", AMOSTRAGEM);
+    /** O tempo de cada compra. */
+    private static final Operacao COMPRA = Metricas.operacao("jogo.comprarPeca", AMOSTRAGEM);
+
     /** A lista de jogadores participantes. */
     private List<Jogador> jogadores;
+    /** O conjunto de peças usado na partida. */
+    private final ConjuntoPecas conjunto;
     /** A mesa do jogo, implementada como uma lista ligada de peças. */
     public ListaLigadaPecas mesa;
-    /** O "monte", de onde os jogadores compram peças, implementado como uma pilha. */
-    private Stack<PecaDomino> monte;
+    /** O "monte", de onde os jogadores compram peças, implementado como uma pilha de números. */
+    private PilhaPecas monte;
     /** O índice do jogador atual na lista de jogadores. */
     private int indiceJogadorAtual;
+    /** Os números das peças do monte logo após o embaralhamento, da base para o topo. */
+    private byte[] ordemInicialMonte;
+    /** Indica se as compras devem ser registradas no console (desligado em simulações). */
+    private boolean saidaConsole = true;
+    /** Os ouvintes notificados a cada jogada, compra e troca de turno. */
+    private final List<OuvinteJogo> ouvintes = new ArrayList<>();
+    /** A contagem de peças jogadas e dos valores que cada jogador mostrou não ter. */
+    private final RastreadorPecas rastreador;
+    /** Indica se o jogador da vez já jogou uma peça; se não, passar o turno é um passe. */
+    private boolean jogouNaVez;
 
     /**
      * Constrói uma nova instância do jogo de dominó.
@@ -24,71 +47,206 @@ public class JogoDomino {
      * @param jogadores A lista de jogadores que participarão do jogo.
      */
     public JogoDomino(List<Jogador> jogadores) {
+        this(jogadores, new SplittableRandom());
+    }
+
+    /**
+     * Constrói um jogo cuja distribuição é determinada por uma semente.
+     * A mesma semente, com o mesmo número de jogadores, sempre gera a mesma partida.
+     *
+     * @param jogadores A lista de jogadores que participarão do jogo.
+     * @param semente   A semente do embaralhamento.
+     */
+    public JogoDomino(List<Jogador> jogadores, long semente) {
+        this(jogadores, new SplittableRandom(semente));
+    }
+
+    /**
+     * Constrói um jogo embaralhando o monte com o gerador informado.
+     * Simulações paralelas devem passar um gerador próprio para cada thread
+     * (por exemplo, um {@link SplittableRandom} dividido), evitando disputa por um gerador comum.
+     *
+     * @param jogadores A lista de jogadores que participarão do jogo.
+     * @param aleatorio O gerador usado no embaralhamento.
+     */
+    public JogoDomino(List<Jogador> jogadores, RandomGenerator aleatorio) {
+        this(jogadores, ConjuntoPecas.DUPLO_SEIS, aleatorio);
+    }
+
+    /**
+     * Constrói um jogo com outro conjunto de peças, determinado por uma semente.
+     *
+     * @param jogadores A lista de jogadores que participarão do jogo.
+     * @param conjunto  O conjunto de peças.
+     * @param semente   A semente do embaralhamento.
+     */
+    public JogoDomino(List<Jogador> jogadores, ConjuntoPecas conjunto, long semente) {
+        this(jogadores, conjunto, new SplittableRandom(semente));
+    }
+
+    /**
+     * Constrói um jogo com outro conjunto de peças, embaralhando o monte com o gerador informado.
+     * Cada jogador recebe o número de peças que o conjunto define para essa quantidade de jogadores.
+     *
+     * @param jogadores A lista de jogadores que participarão do jogo.
+     * @param conjunto  O conjunto de peças.
+     * @param aleatorio O gerador usado no embaralhamento.
+     * @throws IllegalArgumentException se o conjunto não comportar esse número de jogadores.
+     */
+    public JogoDomino(List<Jogador> jogadores, ConjuntoPecas conjunto, RandomGenerator aleatorio) {
+        conjunto.getPecasPorJogador(jogadores.size());
         this.jogadores = jogadores;
+        this.conjunto = conjunto;
         this.mesa = new ListaLigadaPecas();
-        this.monte = new Stack<>();
+        this.rastreador = new RastreadorPecas(mesa, conjunto, jogadores.size());
+        this.monte = new PilhaPecas(conjunto.getTotalPecas());
         this.indiceJogadorAtual = 0;
-        gerarMonte();
+        gerarMonte(aleatorio);
         distribuirPecas();
         iniciarPrimeiraJogada();
     }
 
     /**
-     * Gera o conjunto padrão de 28 peças de dominó e as embaralha no monte.
+     * Constrói um jogo com o monte numa ordem predeterminada, em vez de embaralhado.
+     * Com a mesma ordem e o mesmo número de jogadores, a distribuição e a abertura
+     * são sempre as mesmas; é o que permite reproduzir uma partida registrada.
+     *
+     * O conjunto de peças é deduzido do tamanho da ordem.
+     *
+     * @param jogadores  A lista de jogadores que participarão do jogo.
+     * @param ordemMonte Os números de todas as peças do conjunto, da base para o topo do monte.
+     * @throws IllegalArgumentException se nenhum conjunto tiver esse número de peças.
      */
-    private void gerarMonte() {
-        for (int i = 0; i <= 6; i++) {
-            for (int j = i; j <= 6; j++) {
-                monte.push(new PecaDomino(i, j));
-            }
+    public JogoDomino(List<Jogador> jogadores, byte[] ordemMonte) {
+        this.conjunto = ConjuntoPecas.comTotal(ordemMonte.length);
+        conjunto.getPecasPorJogador(jogadores.size());
+        this.jogadores = jogadores;
+        this.mesa = new ListaLigadaPecas();
+        this.rastreador = new RastreadorPecas(mesa, conjunto, jogadores.size());
+        this.monte = new PilhaPecas(ordemMonte.length);
+        this.indiceJogadorAtual = 0;
+        for (byte numero : ordemMonte) {
+            monte.empilhar(numero);
         }
-        Collections.shuffle(monte);
+        this.ordemInicialMonte = ordemMonte.clone();
+        distribuirPecas();
+        iniciarPrimeiraJogada();
     }
 
     /**
-     * Distribui 7 peças do monte para cada jogador.
+     * Constrói um jogo já em andamento a partir de um estado pronto, sem
+     * embaralhar nem distribuir. Usado na conversão de {@link EstadoCompacto}.
+     *
+     * @param jogadores          Os jogadores, com as mãos já preenchidas.
+     * @param mesa               A mesa com as peças já jogadas.
+     * @param monte              O monte restante.
+     * @param indiceJogadorAtual O índice do jogador da vez.
+     */
+    JogoDomino(List<Jogador> jogadores, ListaLigadaPecas mesa, PilhaPecas monte, int indiceJogadorAtual) {
+        this.jogadores = jogadores;
+        this.conjunto = ConjuntoPecas.DUPLO_SEIS;
+        this.mesa = mesa;
+        this.rastreador = new RastreadorPecas(mesa, conjunto, jogadores.size());
+        this.monte = monte;
+        this.indiceJogadorAtual = indiceJogadorAtual;
+    }
+
+    /**
+     * Gera as peças do conjunto da partida e as embaralha no monte.
+     * O embaralhamento (Fisher-Yates) é feito sobre os números das peças, usando só o gerador recebido.
+     *
+     * @param aleatorio O gerador usado no embaralhamento.
+     */
+    private void gerarMonte(RandomGenerator aleatorio) {
+        ordemInicialMonte = new byte[conjunto.getTotalPecas()];
+        for (int i = 0; i < ordemInicialMonte.length; i++) {
+            ordemInicialMonte[i] = (byte) i;
+        }
+        for (int i = ordemInicialMonte.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            byte t = ordemInicialMonte[i];
+            ordemInicialMonte[i] = ordemInicialMonte[j];
+            ordemInicialMonte[j] = t;
+        }
+        for (byte numero : ordemInicialMonte) {
+            monte.empilhar(numero);
+        }
+    }
+
+    /**
+     * Distribui as peças do monte para cada jogador: 7 no duplo-seis, e nos conjuntos
+     * maiores o que {@link ConjuntoPecas#getPecasPorJogador(int)} define.
      */
     private void distribuirPecas() {
+        int pecasPorJogador = conjunto.getPecasPorJogador(jogadores.size());
         for (Jogador j : jogadores) {
-            for (int i = 0; i < 7; i++) {
-                j.adicionarPeca(monte.pop());
+            for (int i = 0; i < pecasPorJogador; i++) {
+                j.adicionarPeca(PecaDomino.porNumero(monte.desempilhar()));
             }
         }
     }
 
     /**
      * Tenta realizar uma jogada, colocando uma peça na mesa.
-     * A peça é invertida se necessário para conectar corretamente.
+     * A mesa registra a orientação da peça; a peça em si nunca é alterada.
      *
      * @param peca A peça a ser jogada.
      * @param naEsquerda true para jogar na extremidade esquerda, false para a direita.
      * @return true se a jogada foi bem-sucedida, false caso contrário.
      */
     public boolean realizarJogada(PecaDomino peca, boolean naEsquerda) {
-        int valorReferencia = naEsquerda ? mesa.getValorEsquerdo() : mesa.getValorDireito();
-        if (mesa.getValorEsquerdo() == -1 || peca.podeConectar(valorReferencia)) { // Se a mesa está vazia ou a peça conecta
-            // Inverte a peça se a orientação estiver errada para o encaixe
-            if ((peca.getLadoDireito() == valorReferencia && !naEsquerda) ||
-                (peca.getLadoEsquerdo() == valorReferencia && naEsquerda)) {
-                peca.inverter();
-            }
-            
-            if (naEsquerda) {
-                mesa.adicionarNaEsquerda(peca);
-            } else {
-                mesa.adicionarNaDireita(peca);
+        long marca = JOGADA.iniciar();
+        try {
+            int valorReferencia = naEsquerda ? mesa.getValorEsquerdo() : mesa.getValorDireito();
+            if (mesa.getValorEsquerdo() == -1 || peca.podeConectar(valorReferencia)) { // Se a mesa está vazia ou a peça conecta
+                PecaColocada colocacao = naEsquerda ? mesa.adicionarNaEsquerda(peca) : mesa.adicionarNaDireita(peca);
+                Jogador jogador = getJogadorAtual();
+                jogador.removerPeca(peca);
+                jogouNaVez = true;
+                for (OuvinteJogo o : ouvintes) {
+                    o.pecaJogada(jogador, colocacao, naEsquerda);
+                }
+                return true;
             }
-            getJogadorAtual().removerPeca(peca);
-            return true;
+            return false;
+        } finally {
+            JOGADA.terminar(marca);
         }
-        return false;
     }
 
     /**
      * Passa o turno para o próximo jogador na ordem cíclica.
+     * Pela regra, quem não jogou na vez só passa quando não tem peça que encaixe; o
+     * passe é registrado como falta dos valores das pontas sem olhar a mão, que é secreta.
      */
     public void passarTurno() {
+        if (!jogouNaVez) {
+            rastreador.registrarPasse(indiceJogadorAtual, mesa.getValorEsquerdo(), mesa.getValorDireito());
+        }
+        jogouNaVez = false;
         indiceJogadorAtual = (indiceJogadorAtual + 1) % jogadores.size();
+        for (OuvinteJogo o : ouvintes) {
+            o.turnoPassado(getJogadorAtual());
+        }
+    }
+
+    /**
+     * Registra um ouvinte para ser avisado das jogadas, compras e trocas de turno.
+     * A abertura do jogo acontece no construtor, antes de qualquer ouvinte ser registrado.
+     *
+     * @param ouvinte O ouvinte a ser registrado.
+     */
+    public void adicionarOuvinte(OuvinteJogo ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    /**
+     * Remove um ouvinte registrado anteriormente.
+     *
+     * @param ouvinte O ouvinte a ser removido.
+     */
+    public void removerOuvinte(OuvinteJogo ouvinte) {
+        ouvintes.remove(ouvinte);
     }
 
     /**
@@ -100,6 +258,15 @@ public class JogoDomino {
         return jogadores.get(indiceJogadorAtual);
     }
 
+    /**
+     * Retorna a posição do jogador da vez na lista de jogadores.
+     *
+     * @return O índice do jogador atual.
+     */
+    public int getIndiceJogadorAtual() {
+        return indiceJogadorAtual;
+    }
+
     /**
      * Imprime o estado atual da mesa no console (para depuração).
      */
@@ -108,8 +275,10 @@ public class JogoDomino {
     }
 
     /**
-     * Identifica qual jogador tem a maior peça (carroça mais alta ou peça de maior soma)
-     * e inicia o jogo com essa peça na mesa. O turno é então passado para o próximo jogador.
+     * Identifica qual jogador tem a maior peça e inicia o jogo com essa peça na mesa.
+     * A maior peça é a de maior soma; entre peças de mesma soma, a de maior número
+     * (a que tem o maior valor num dos lados, como [4|6] diante de [5|5]), a mesma
+     * regra de {@link EstadoCompacto}. O turno é então passado para o próximo jogador.
      */
     private void iniciarPrimeiraJogada() {
         PecaDomino maiorPeca = null;
@@ -118,8 +287,9 @@ public class JogoDomino {
         // Encontra a peça de maior soma na mão de todos os jogadores
         for (Jogador jogador : jogadores) {
             for (PecaDomino peca : jogador.getMao()) {
-                if (maiorPeca == null || (peca.getLadoEsquerdo() + peca.getLadoDireito() >
-                    maiorPeca.getLadoEsquerdo() + maiorPeca.getLadoDireito())) {
+                int soma = peca.getLadoEsquerdo() + peca.getLadoDireito();
+                int maiorSoma = maiorPeca == null ? -1 : maiorPeca.getLadoEsquerdo() + maiorPeca.getLadoDireito();
+                if (soma > maiorSoma || (soma == maiorSoma && peca.getNumero() > maiorPeca.getNumero())) {
                     maiorPeca = peca;
                     jogadorQueComeca = jogador;
                 }
@@ -143,15 +313,156 @@ public class JogoDomino {
      * @return true se uma peça foi comprada, false se o monte estava vazio.
      */
     public boolean comprarPeca(Jogador jogador) {
-        if (!monte.isEmpty()) {
-            PecaDomino comprada = monte.pop();
-            jogador.adicionarPeca(comprada);
-            System.out.println(jogador.getNome() + " comprou a peça " + comprada);
-            return true;
-        } else {
-            System.out.println("Monte vazio! Não há mais peças para comprar.");
-            return false;
+        long marca = COMPRA.iniciar();
+        try {
+            if (!monte.isVazia()) {
+                rastreador.registrarCompra(jogadores.indexOf(jogador));
+                PecaDomino comprada = PecaDomino.porNumero(monte.desempilhar());
+                jogador.adicionarPeca(comprada);
+                for (OuvinteJogo o : ouvintes) {
+                    o.pecaComprada(jogador, comprada);
+                }
+                if (saidaConsole) {
+                    System.out.println(jogador.getNome() + " comprou a peça " + comprada);
+                }
+                return true;
+            } else {
+                if (saidaConsole) {
+                    System.out.println("Monte vazio! Não há mais peças para comprar.");
+                }
+                return false;
+            }
+        } finally {
+            COMPRA.terminar(marca);
+        }
+    }
+
+    /**
+     * Liga ou desliga as mensagens de compra no console.
+     * Simulações sem interface devem desligá-las.
+     *
+     * @param saidaConsole true para imprimir as compras, false para jogar em silêncio.
+     */
+    public void setSaidaConsole(boolean saidaConsole) {
+        this.saidaConsole = saidaConsole;
+    }
+
+    /**
+     * Retorna a quantidade de peças que ainda restam no monte.
+     *
+     * @return O número de peças no monte.
+     */
+    public int getQuantidadeMonte() {
+        return monte.getTamanho();
+    }
+
+    /**
+     * Retorna a ordem em que o monte ficou logo após o embaralhamento.
+     * Passada ao construtor, recria exatamente a mesma distribuição.
+     *
+     * @return Uma cópia dos números das peças, da base para o topo, ou null se o
+     *         jogo foi criado a partir de um {@link EstadoCompacto}.
+     */
+    public byte[] getOrdemInicialMonte() {
+        return ordemInicialMonte == null ? null : ordemInicialMonte.clone();
+    }
+
+    /**
+     * Retorna o monte. Usado na conversão para {@link EstadoCompacto}.
+     *
+     * @return A pilha com os números das peças do monte.
+     */
+    PilhaPecas getMonte() {
+        return monte;
+    }
+
+    /**
+     * Verifica se o jogo está trancado: o monte acabou e nenhum jogador
+     * tem peça que encaixe em qualquer das extremidades da mesa.
+     *
+     * @return true se ninguém mais pode jogar, false caso contrário.
+     */
+    public boolean isBloqueado() {
+        if (!monte.isVazia()) return false;
+        int e = mesa.getValorEsquerdo();
+        int d = mesa.getValorDireito();
+        for (Jogador j : jogadores) {
+            if (j.podeJogar(e, d)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se a partida terminou, seja porque um jogador bateu
+     * (ficou sem peças) ou porque o jogo trancou.
+     *
+     * @return true se a partida acabou, false caso contrário.
+     */
+    public boolean isFinalizado() {
+        for (Jogador j : jogadores) {
+            if (j.getMao().isEmpty()) return true;
+        }
+        return isBloqueado();
+    }
+
+    /**
+     * Determina o vencedor da partida. Quem bate vence; num jogo trancado,
+     * vence quem tem a menor soma de pontos na mão.
+     *
+     * @return O jogador vencedor, ou null se a partida não terminou ou se houve empate no jogo trancado.
+     */
+    public Jogador getVencedor() {
+        for (Jogador j : jogadores) {
+            if (j.getMao().isEmpty()) return j;
+        }
+        if (!isBloqueado()) return null;
+
+        Jogador vencedor = null;
+        boolean empate = false;
+        for (Jogador j : jogadores) {
+            if (vencedor == null || j.getTotalPontos() < vencedor.getTotalPontos()) {
+                vencedor = j;
+                empate = false;
+            } else if (j.getTotalPontos() == vencedor.getTotalPontos()) {
+                empate = true;
+            }
         }
+        return empate ? null : vencedor;
+    }
+
+    /**
+     * Calcula os pontos ganhos pelo vencedor: a soma dos pontos que
+     * ficaram nas mãos dos adversários.
+     *
+     * @return Os pontos da partida, ou 0 se não houver vencedor.
+     */
+    public int calcularPontuacao() {
+        Jogador vencedor = getVencedor();
+        if (vencedor == null) return 0;
+        int pontos = 0;
+        for (Jogador j : jogadores) {
+            if (j != vencedor) pontos += j.getTotalPontos();
+        }
+        return pontos;
+    }
+
+    /**
+     * Retorna o conjunto de peças da partida.
+     *
+     * @return O conjunto usado.
+     */
+    public ConjuntoPecas getConjunto() {
+        return conjunto;
+    }
+
+    /**
+     * Retorna a contagem de peças da partida: o que já foi jogado e os valores
+     * que cada jogador mostrou não ter.
+     *
+     * @return O rastreador da partida.
+     */
+    public RastreadorPecas getRastreador() {
+        return rastreador;
     }
 
     /**
@@ -0,0 +1,125 @@
+package jogodomino;
+
+/**
+ * Um lote de distribuições guardado só em vetores primitivos, preenchido por
+ * {@link GeradorDistribuicoes} e reaproveitado de lote em lote.
+ * Para cada distribuição guarda a ordem do monte embaralhado (da base para o topo,
+ * como em {@link JogoDomino#getOrdemInicialMonte()}) e a mão de cada jogador como
+ * máscara de {@link TabelaPecas#PALAVRAS} palavras. As mãos são as peças do topo,
+ * tiradas na ordem em que {@link JogoDomino} as distribui.
+ */
+public class LoteDistribuicoes {
+    /** O conjunto de peças das distribuições. */
+    private final ConjuntoPecas conjunto;
+    /** O número de jogadores de cada distribuição. */
+    private final int numeroJogadores;
+    /** Quantas distribuições cabem no lote. */
+    private final int capacidade;
+    /** As ordens dos montes, uma depois da outra, com {@code totalPecas} bytes cada. */
+    final byte[] ordens;
+    /** As mãos, com {@code numeroJogadores * PALAVRAS} palavras por distribuição. */
+    final long[] maos;
+    /** Quantas distribuições estão preenchidas. */
+    int tamanho;
+    /** O número da primeira distribuição do lote. */
+    long primeira;
+
+    /**
+     * Constrói um lote vazio.
+     *
+     * @param conjunto        O conjunto de peças.
+     * @param numeroJogadores O número de jogadores.
+     * @param capacidade      Quantas distribuições o lote comporta.
+     * @throws IllegalArgumentException se o conjunto não comportar esse número de jogadores.
+     */
+    public LoteDistribuicoes(ConjuntoPecas conjunto, int numeroJogadores, int capacidade) {
+        conjunto.getPecasPorJogador(numeroJogadores);
+        this.conjunto = conjunto;
+        this.numeroJogadores = numeroJogadores;
+        this.capacidade = capacidade;
+        this.ordens = new byte[capacidade * conjunto.getTotalPecas()];
+        this.maos = new long[capacidade * numeroJogadores * TabelaPecas.PALAVRAS];
+    }
+
+    /**
+     * Retorna a mão de um jogador numa distribuição.
+     *
+     * @param distribuicao A posição da distribuição no lote.
+     * @param jogador      O índice do jogador.
+     * @param palavra      A palavra da máscara.
+     * @return A máscara das peças da mão.
+     */
+    public long getMao(int distribuicao, int jogador, int palavra) {
+        return maos[(distribuicao * numeroJogadores + jogador) * TabelaPecas.PALAVRAS + palavra];
+    }
+
+    /**
+     * Retorna a peça numa posição do monte embaralhado de uma distribuição.
+     *
+     * @param distribuicao A posição da distribuição no lote.
+     * @param posicao      A posição no monte, de 0 (base) a {@code totalPecas - 1} (topo).
+     * @return O número da peça.
+     */
+    public int getPeca(int distribuicao, int posicao) {
+        return ordens[distribuicao * conjunto.getTotalPecas() + posicao];
+    }
+
+    /**
+     * Retorna uma cópia da ordem do monte de uma distribuição, que recria a mesma
+     * partida em {@link JogoDomino#JogoDomino(java.util.List, byte[])}.
+     *
+     * @param distribuicao A posição da distribuição no lote.
+     * @return Os números das peças, da base para o topo.
+     */
+    public byte[] getOrdem(int distribuicao) {
+        int total = conjunto.getTotalPecas();
+        byte[] ordem = new byte[total];
+        System.arraycopy(ordens, distribuicao * total, ordem, 0, total);
+        return ordem;
+    }
+
+    /**
+     * Retorna o conjunto de peças.
+     *
+     * @return O conjunto.
+     */
+    public ConjuntoPecas getConjunto() {
+        return conjunto;
+    }
+
+    /**
+     * Retorna o número de jogadores.
+     *
+     * @return O número de jogadores.
+     */
+    public int getNumeroJogadores() {
+        return numeroJogadores;
+    }
+
+    /**
+     * Retorna quantas distribuições cabem no lote.
+     *
+     * @return A capacidade.
+     */
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Retorna quantas distribuições estão preenchidas.
+     *
+     * @return O tamanho.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna o número, no fluxo do gerador, da primeira distribuição do lote.
+     *
+     * @return O número da primeira distribuição.
+     */
+    public long getPrimeira() {
+        return primeira;
+    }
+}
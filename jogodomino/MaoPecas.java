@@ -0,0 +1,147 @@
+package jogodomino;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A mão de um jogador: um conjunto de peças de capacidade fixa, indexado pelo número
+ * da peça. Uma máscara de bits responde se a peça está na mão, e uma lista duplamente
+ * ligada guardada em dois vetores de bytes mantém a ordem de chegada; assim adicionar,
+ * remover e consultar custam O(1), e a mão continua sendo percorrida na mesma ordem
+ * de uma {@code ArrayList}.
+ * Para quem está de fora é uma lista somente leitura; só o {@link Jogador} altera a
+ * mão. O acesso por posição ({@link #get(int)}) percorre a lista; prefira o iterador.
+ */
+public class MaoPecas extends AbstractList<PecaDomino> {
+    /** Marca a ausência de vizinho na lista ligada. */
+    private static final byte NENHUMA = -1;
+
+    /** As peças na mão como máscara de bits dos seus números, {@link TabelaPecas#PALAVRAS} palavras. */
+    private final long[] mascara = new long[TabelaPecas.PALAVRAS];
+    /** A peça seguinte a cada peça na ordem de chegada, ou {@link #NENHUMA}. */
+    private final byte[] proxima = new byte[TabelaPecas.TOTAL_PECAS_SUPORTADO];
+    /** A peça anterior a cada peça na ordem de chegada, ou {@link #NENHUMA}. */
+    private final byte[] anterior = new byte[TabelaPecas.TOTAL_PECAS_SUPORTADO];
+    /** A peça que chegou primeiro, ou {@link #NENHUMA}. */
+    private int primeira = NENHUMA;
+    /** A peça que chegou por último, ou {@link #NENHUMA}. */
+    private int ultima = NENHUMA;
+    /** Quantas peças estão na mão. */
+    private int tamanho;
+
+    /**
+     * Adiciona uma peça ao fim da mão.
+     *
+     * @param numero O número da peça.
+     * @return true se a peça entrou, false se já estava na mão.
+     */
+    boolean adicionar(int numero) {
+        if (contem(numero)) return false;
+        mascara[numero >>> 6] |= 1L << numero;
+        proxima[numero] = NENHUMA;
+        anterior[numero] = (byte) ultima;
+        if (ultima == NENHUMA) {
+            primeira = numero;
+        } else {
+            proxima[ultima] = (byte) numero;
+        }
+        ultima = numero;
+        tamanho++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Remove uma peça da mão, mantendo a ordem das demais.
+     *
+     * @param numero O número da peça.
+     * @return true se a peça estava na mão.
+     */
+    boolean remover(int numero) {
+        if (!contem(numero)) return false;
+        mascara[numero >>> 6] &= ~(1L << numero);
+        int antes = anterior[numero];
+        int depois = proxima[numero];
+        if (antes == NENHUMA) {
+            primeira = depois;
+        } else {
+            proxima[antes] = (byte) depois;
+        }
+        if (depois == NENHUMA) {
+            ultima = antes;
+        } else {
+            anterior[depois] = (byte) antes;
+        }
+        tamanho--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Indica se uma peça está na mão.
+     *
+     * @param numero O número da peça.
+     * @return true se a peça estiver na mão.
+     */
+    public boolean contem(int numero) {
+        return (mascara[numero >>> 6] & (1L << numero)) != 0;
+    }
+
+    /**
+     * Retorna uma palavra da máscara da mão.
+     *
+     * @param palavra A palavra, de 0 a {@link TabelaPecas#PALAVRAS} - 1.
+     * @return Os bits das peças {@code 64 * palavra} a {@code 64 * palavra + 63}.
+     */
+    public long getMascara(int palavra) {
+        return mascara[palavra];
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof PecaDomino && contem(((PecaDomino) o).getNumero());
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+
+    @Override
+    public PecaDomino get(int indice) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException(indice);
+        }
+        int numero = primeira;
+        for (int i = 0; i < indice; i++) {
+            numero = proxima[numero];
+        }
+        return PecaDomino.porNumero(numero);
+    }
+
+    @Override
+    public Iterator<PecaDomino> iterator() {
+        return new Iterator<PecaDomino>() {
+            /** A próxima peça a devolver, ou {@link #NENHUMA}. */
+            private int atual = primeira;
+            /** O {@code modCount} esperado, para detectar alterações durante o percurso. */
+            private final int esperado = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return atual != NENHUMA;
+            }
+
+            @Override
+            public PecaDomino next() {
+                if (modCount != esperado) throw new ConcurrentModificationException();
+                if (atual == NENHUMA) throw new NoSuchElementException();
+                PecaDomino peca = PecaDomino.porNumero(atual);
+                atual = proxima[atual];
+                return peca;
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package jogodomino;
+
+import listaligadapecas.PecaColocada;
+
+/**
+ * Recebe os eventos de um {@link JogoDomino} à medida que eles acontecem.
+ * Permite que a interface, registros e observadores acompanhem o jogo aplicando
+ * apenas as mudanças, sem reler a mesa e as mãos inteiras.
+ * Todos os métodos têm implementação vazia; basta sobrescrever os de interesse.
+ */
+public interface OuvinteJogo {
+
+    /**
+     * Chamado quando um jogador coloca uma peça na mesa.
+     * A peça já saiu da mão do jogador quando este método é chamado.
+     *
+     * @param jogador    O jogador que jogou.
+     * @param colocacao  A peça com a orientação em que ficou na mesa.
+     * @param naEsquerda true se a peça foi para a extremidade esquerda, false para a direita.
+     */
+    default void pecaJogada(Jogador jogador, PecaColocada colocacao, boolean naEsquerda) {
+    }
+
+    /**
+     * Chamado quando um jogador compra uma peça do monte.
+     *
+     * @param jogador O jogador que comprou.
+     * @param peca    A peça comprada.
+     */
+    default void pecaComprada(Jogador jogador, PecaDomino peca) {
+    }
+
+    /**
+     * Chamado quando o turno passa para o próximo jogador.
+     *
+     * @param proximo O jogador que agora está na vez.
+     */
+    default void turnoPassado(Jogador proximo) {
+    }
+}
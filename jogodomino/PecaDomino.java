@@ -3,24 +3,64 @@ package jogodomino;
 /**
  * Representa uma única peça de dominó, com um lado esquerdo e um lado direito.
  * Cada lado tem um valor numérico.
+ * As peças são imutáveis e existe uma única instância de cada uma das 91 peças
+ * suportadas (do duplo-seis ao duplo-doze, veja {@link ConjuntoPecas}),
+ * obtida por {@link #de(int, int)} ou {@link #porNumero(int)}; por isso podem ser
+ * compartilhadas entre partidas e threads e comparadas por identidade.
+ * O lado esquerdo é sempre o menor; a orientação de uma peça na mesa é guardada
+ * pela própria mesa.
  */
 public class PecaDomino {
+    /** Todas as peças suportadas, indexadas pelo seu número. */
+    private static final PecaDomino[] TODAS = new PecaDomino[TabelaPecas.TOTAL_PECAS_SUPORTADO];
+
+    static {
+        for (int n = 0; n < TODAS.length; n++) {
+            TODAS[n] = new PecaDomino(n, TabelaPecas.ladoMenor(n), TabelaPecas.ladoMaior(n));
+        }
+    }
+
+    /** O número da peça, de 0 a 90 (0 a 27 no duplo-seis). */
+    private final int numero;
     /** O valor numérico do lado esquerdo da peça. */
-    private int ladoEsquerdo;
+    private final int ladoEsquerdo;
     /** O valor numérico do lado direito da peça. */
-    private int ladoDireito;
+    private final int ladoDireito;
 
     /**
-     * Constrói uma nova peça de dominó com os valores especificados.
+     * Constrói uma peça do conjunto. Só é chamado na criação das instâncias canônicas.
      *
+     * @param numero       O número da peça.
      * @param ladoEsquerdo O valor do lado esquerdo.
      * @param ladoDireito  O valor do lado direito.
      */
-    public PecaDomino(int ladoEsquerdo, int ladoDireito) {
+    private PecaDomino(int numero, int ladoEsquerdo, int ladoDireito) {
+        this.numero = numero;
         this.ladoEsquerdo = ladoEsquerdo;
         this.ladoDireito = ladoDireito;
     }
 
+    /**
+     * Retorna a peça com os valores especificados, em qualquer ordem.
+     *
+     * @param a O valor de um dos lados.
+     * @param b O valor do outro lado.
+     * @return A instância única dessa peça.
+     */
+    public static PecaDomino de(int a, int b) {
+        return TODAS[TabelaPecas.numero(a, b)];
+    }
+
+    /**
+     * Retorna a peça com o número especificado.
+     *
+     * @param numero O número da peça, de 0 a 90.
+     * @return A instância única dessa peça.
+     */
+    public static PecaDomino porNumero(int numero) {
+        return TODAS[numero];
+    }
+
     /**
      * Verifica se esta peça pode se conectar a um determinado valor na mesa.
      * Uma conexão é possível se um dos lados da peça for igual ao valor fornecido.
@@ -33,13 +73,12 @@ public class PecaDomino {
     }
 
     /**
-     * Inverte os valores dos lados da peça.
-     * O lado esquerdo se torna o direito e vice-versa.
+     * Retorna o número da peça no conjunto, usado em máscaras de bits.
+     *
+     * @return O número da peça, de 0 a 90 (0 a 27 no duplo-seis).
      */
-    public void inverter() {
-        int temp = ladoEsquerdo;
-        ladoEsquerdo = ladoDireito;
-        ladoDireito = temp;
+    public int getNumero() {
+        return numero;
     }
 
     /**
@@ -60,6 +99,15 @@ public class PecaDomino {
         return ladoDireito;
     }
 
+    /**
+     * Indica se a peça é uma carroça (os dois lados iguais).
+     *
+     * @return true se os dois lados forem iguais.
+     */
+    public boolean isCarroca() {
+        return ladoEsquerdo == ladoDireito;
+    }
+
     /**
      * Retorna uma representação em String da peça no formato "[X|Y]".
      *
@@ -69,4 +117,4 @@ public class PecaDomino {
     public String toString() {
         return "[" + ladoEsquerdo + "|" + ladoDireito + "]";
     }
-}
\ No newline at end of file
+}
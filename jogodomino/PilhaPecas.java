@@ -0,0 +1,80 @@
+package jogodomino;
+
+/**
+ * Uma pilha de peças guardada como vetor de bytes com os seus números, usada como
+ * monte. Ao contrário de {@link java.util.Stack}, não é sincronizada e não guarda
+ * objetos: empilhar e desempilhar só mexem num índice.
+ * A posição 0 é a base; o topo é a posição {@code getTamanho() - 1}.
+ */
+public class PilhaPecas {
+    /** Os números das peças, da base para o topo. */
+    private final byte[] numeros;
+    /** Quantas peças estão na pilha. */
+    private int tamanho;
+
+    /**
+     * Constrói uma pilha vazia.
+     *
+     * @param capacidade Quantas peças cabem na pilha.
+     */
+    public PilhaPecas(int capacidade) {
+        this.numeros = new byte[capacidade];
+    }
+
+    /**
+     * Coloca uma peça no topo.
+     *
+     * @param numero O número da peça.
+     * @throws IllegalStateException se a pilha estiver cheia.
+     */
+    public void empilhar(int numero) {
+        if (tamanho == numeros.length) {
+            throw new IllegalStateException("A pilha comporta só " + numeros.length + " peças.");
+        }
+        numeros[tamanho++] = (byte) numero;
+    }
+
+    /**
+     * Retira a peça do topo.
+     *
+     * @return O número da peça retirada.
+     * @throws IllegalStateException se a pilha estiver vazia.
+     */
+    public int desempilhar() {
+        if (tamanho == 0) {
+            throw new IllegalStateException("A pilha está vazia.");
+        }
+        return numeros[--tamanho];
+    }
+
+    /**
+     * Retorna a peça numa posição, sem retirá-la.
+     *
+     * @param posicao A posição, de 0 (base) a {@code getTamanho() - 1} (topo).
+     * @return O número da peça.
+     */
+    public int getNumero(int posicao) {
+        if (posicao >= tamanho) {
+            throw new IndexOutOfBoundsException(posicao);
+        }
+        return numeros[posicao];
+    }
+
+    /**
+     * Retorna quantas peças estão na pilha.
+     *
+     * @return O tamanho.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Indica se a pilha está vazia.
+     *
+     * @return true se não houver peças.
+     */
+    public boolean isVazia() {
+        return tamanho == 0;
+    }
+}
@@ -0,0 +1,105 @@
+package jogodomino;
+
+import java.util.List;
+import listaligadapecas.PecaColocada;
+
+/**
+ * Pontua uma mão à medida que ela é jogada, segundo uma {@link RegraPontuacao}.
+ * Ouve o {@link JogoDomino} e, a cada peça colocada, lê a soma das pontas que a mesa
+ * mantém; no fim, usa os totais de pontos que cada {@link Jogador} mantém na mão.
+ * Nada é recalculado percorrendo a mesa ou as mãos, então o custo por jogada é
+ * constante e uma simulação pode pontuar milhões de mãos.
+ */
+public class PlacarMao implements OuvinteJogo {
+    /** O jogo pontuado. */
+    private final JogoDomino jogo;
+    /** A regra de pontuação. */
+    private final RegraPontuacao regra;
+    /** Os pontos de cada jogador nesta mão. */
+    private final int[] pontos;
+    /** Indica se os pontos do fim da mão já foram somados. */
+    private boolean encerrada;
+
+    /**
+     * Começa a pontuar um jogo recém-criado. A abertura, feita no construtor do jogo,
+     * também é pontuada para quem a jogou.
+     *
+     * @param jogo  O jogo, ainda sem nenhuma jogada além da abertura.
+     * @param regra A regra de pontuação.
+     */
+    public PlacarMao(JogoDomino jogo, RegraPontuacao regra) {
+        this.jogo = jogo;
+        this.regra = regra;
+        int n = jogo.getJogadores().size();
+        this.pontos = new int[n];
+        if (jogo.getMesa().getTamanho() == 1) {
+            int abriu = (jogo.getIndiceJogadorAtual() + n - 1) % n;
+            pontos[abriu] += regra.pontosDaJogada(jogo.getMesa().getSomaPontas());
+        }
+        jogo.adicionarOuvinte(this);
+    }
+
+    @Override
+    public void pecaJogada(Jogador jogador, PecaColocada colocacao, boolean naEsquerda) {
+        pontos[jogo.getIndiceJogadorAtual()] += regra.pontosDaJogada(jogo.getMesa().getSomaPontas());
+    }
+
+    /**
+     * Soma os pontos do fim da mão para o vencedor e para de ouvir o jogo.
+     * Chamadas repetidas não têm efeito.
+     *
+     * @throws IllegalStateException se a partida ainda não terminou.
+     */
+    public void encerrar() {
+        if (encerrada) return;
+        if (!jogo.isFinalizado()) throw new IllegalStateException("A mão ainda não terminou.");
+        encerrada = true;
+        jogo.removerOuvinte(this);
+        Jogador vencedor = jogo.getVencedor();
+        if (vencedor == null) return;
+        List<Jogador> jogadores = jogo.getJogadores();
+        int adversarios = 0;
+        for (Jogador j : jogadores) {
+            if (j != vencedor) adversarios += j.getTotalPontos();
+        }
+        pontos[jogadores.indexOf(vencedor)] +=
+            regra.pontosDoFim(adversarios, vencedor.getTotalPontos(), jogo.isBloqueado());
+    }
+
+    /**
+     * Retorna a regra de pontuação.
+     *
+     * @return A regra.
+     */
+    public RegraPontuacao getRegra() {
+        return regra;
+    }
+
+    /**
+     * Retorna os pontos de um jogador nesta mão até agora.
+     *
+     * @param jogador A posição do jogador.
+     * @return Os pontos; os do fim da mão só entram depois de {@link #encerrar()}.
+     */
+    public int getPontos(int jogador) {
+        return pontos[jogador];
+    }
+
+    /**
+     * Retorna os pontos de todos os jogadores nesta mão.
+     *
+     * @return Uma cópia dos pontos, na ordem dos jogadores.
+     */
+    public int[] getPontos() {
+        return pontos.clone();
+    }
+
+    /**
+     * Indica se os pontos do fim da mão já foram somados.
+     *
+     * @return true depois de {@link #encerrar()}.
+     */
+    public boolean isEncerrada() {
+        return encerrada;
+    }
+}
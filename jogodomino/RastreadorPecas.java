@@ -0,0 +1,182 @@
+package jogodomino;
+
+import listaligadapecas.ListaLigadaPecas;
+
+/**
+ * Contagem de peças de uma partida, mantida pelo {@link JogoDomino} a cada jogada,
+ * compra e passe. Responde em tempo constante quantas peças de cada valor já foram
+ * jogadas, quais um observador ainda não viu e quais valores cada jogador mostrou
+ * não ter.
+ * Só o que é público entra aqui, nunca a mão de ninguém. Pela regra só se passa sem
+ * peça que encaixe, então todo passe é uma falta dos dois valores das pontas. A compra
+ * pode ser voluntária na interface, então não mostra falta nenhuma; como as peças
+ * compradas podem trazer valores que o jogador tinha mostrado não ter, ela apaga as
+ * faltas anteriores dele.
+ * As máscaras têm {@link TabelaPecas#PALAVRAS} palavras; os métodos sem o parâmetro
+ * {@code palavra} devolvem só a primeira, que basta para o duplo-seis.
+ */
+public class RastreadorPecas {
+    /** A mesa da partida, de onde vêm as peças já jogadas. */
+    private final ListaLigadaPecas mesa;
+    /** O conjunto de peças da partida. */
+    private final ConjuntoPecas conjunto;
+    /** Os valores que cada jogador mostrou não ter (bit {@code v} = valor {@code v}). */
+    private final int[] faltas;
+    /** As peças que cada jogador não pode ter, {@link TabelaPecas#PALAVRAS} palavras por jogador. */
+    private final long[] impossiveis;
+
+    /**
+     * Constrói o rastreador de uma partida.
+     *
+     * @param mesa            A mesa da partida.
+     * @param conjunto        O conjunto de peças da partida.
+     * @param numeroJogadores O número de jogadores.
+     */
+    RastreadorPecas(ListaLigadaPecas mesa, ConjuntoPecas conjunto, int numeroJogadores) {
+        this.mesa = mesa;
+        this.conjunto = conjunto;
+        this.faltas = new int[numeroJogadores];
+        this.impossiveis = new long[numeroJogadores * TabelaPecas.PALAVRAS];
+    }
+
+    /**
+     * Registra que um jogador comprou uma peça, esquecendo as faltas que ele tinha mostrado.
+     *
+     * @param jogador A posição do jogador.
+     */
+    void registrarCompra(int jogador) {
+        faltas[jogador] = 0;
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            impossiveis[jogador * TabelaPecas.PALAVRAS + p] = 0;
+        }
+    }
+
+    /**
+     * Registra que um jogador passou a vez com as pontas indicadas na mesa.
+     *
+     * @param jogador        A posição do jogador.
+     * @param valorEsquerdo  O valor da ponta esquerda, ou -1 com a mesa vazia.
+     * @param valorDireito   O valor da ponta direita.
+     */
+    void registrarPasse(int jogador, int valorEsquerdo, int valorDireito) {
+        if (valorEsquerdo < 0) return;
+        faltas[jogador] |= (1 << valorEsquerdo) | (1 << valorDireito);
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            impossiveis[jogador * TabelaPecas.PALAVRAS + p] |=
+                TabelaPecas.mascaraDoValor(valorEsquerdo, p) | TabelaPecas.mascaraDoValor(valorDireito, p);
+        }
+    }
+
+    /**
+     * Retorna as peças que já estão na mesa.
+     *
+     * @return A máscara das peças jogadas.
+     */
+    public long getMascaraMesa() {
+        return mesa.getMascaraPecas();
+    }
+
+    /**
+     * Retorna uma palavra da máscara das peças que já estão na mesa.
+     *
+     * @param palavra A palavra da máscara.
+     * @return Os bits dessa palavra.
+     */
+    public long getMascaraMesa(int palavra) {
+        return mesa.getMascaraPecas(palavra);
+    }
+
+    /**
+     * Retorna quantas peças com um valor já foram jogadas.
+     *
+     * @param valor O valor, até o maior valor do conjunto.
+     * @return O número de peças na mesa com esse valor em algum lado.
+     */
+    public int getJogadasComValor(int valor) {
+        int total = 0;
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            total += Long.bitCount(mesa.getMascaraPecas(p) & TabelaPecas.mascaraDoValor(valor, p));
+        }
+        return total;
+    }
+
+    /**
+     * Retorna as peças que um observador ainda não viu: nem na mesa, nem na própria mão.
+     * São as que podem estar nas mãos dos adversários ou no monte.
+     *
+     * @param maoObservador A máscara da mão do observador.
+     * @return A máscara das peças não vistas.
+     */
+    public long getNaoVistas(long maoObservador) {
+        return getNaoVistas(maoObservador, 0);
+    }
+
+    /**
+     * Retorna uma palavra da máscara das peças que um observador ainda não viu.
+     *
+     * @param maoObservador A palavra correspondente da mão do observador.
+     * @param palavra       A palavra da máscara.
+     * @return Os bits das peças não vistas nessa palavra.
+     */
+    public long getNaoVistas(long maoObservador, int palavra) {
+        return conjunto.getTodas(palavra) & ~(mesa.getMascaraPecas(palavra) | maoObservador);
+    }
+
+    /**
+     * Retorna quantas peças com um valor o observador ainda não viu.
+     *
+     * @param observador O jogador que observa.
+     * @param valor      O valor, até o maior valor do conjunto.
+     * @return O número de peças não vistas com esse valor.
+     */
+    public int getNaoVistasComValor(Jogador observador, int valor) {
+        int total = 0;
+        for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+            total += Long.bitCount(getNaoVistas(observador.getMascaraMao(p), p) & TabelaPecas.mascaraDoValor(valor, p));
+        }
+        return total;
+    }
+
+    /**
+     * Retorna os valores que um jogador mostrou não ter.
+     *
+     * @param jogador A posição do jogador.
+     * @return A máscara dos valores (bit {@code v} = valor {@code v}).
+     */
+    public int getFaltas(int jogador) {
+        return faltas[jogador];
+    }
+
+    /**
+     * Retorna as peças que, pelas faltas mostradas, um jogador não pode ter.
+     *
+     * @param jogador A posição do jogador.
+     * @return A máscara das peças impossíveis para ele.
+     */
+    public long getPecasImpossiveis(int jogador) {
+        return impossiveis[jogador * TabelaPecas.PALAVRAS];
+    }
+
+    /**
+     * Retorna uma palavra da máscara das peças que um jogador não pode ter.
+     *
+     * @param jogador A posição do jogador.
+     * @param palavra A palavra da máscara.
+     * @return Os bits das peças impossíveis nessa palavra.
+     */
+    public long getPecasImpossiveis(int jogador, int palavra) {
+        return impossiveis[jogador * TabelaPecas.PALAVRAS + palavra];
+    }
+
+    /**
+     * Indica se um jogador ainda pode ter uma peça, pelo que mostrou até agora.
+     *
+     * @param jogador A posição do jogador.
+     * @param peca    A peça.
+     * @return false se o jogador mostrou não ter um dos valores da peça.
+     */
+    public boolean podeTer(int jogador, PecaDomino peca) {
+        int numero = peca.getNumero();
+        return (impossiveis[jogador * TabelaPecas.PALAVRAS + (numero >>> 6)] & (1L << numero)) == 0;
+    }
+}
@@ -0,0 +1,45 @@
+package jogodomino;
+
+/**
+ * As regras de pontuação de uma mão, aplicadas por {@link PlacarMao}.
+ */
+public enum RegraPontuacao {
+    /**
+     * Só se pontua no fim da mão: quem bate ganha a soma das mãos dos adversários;
+     * no jogo trancado, vence quem tem menos pontos na mão e ganha a soma dos outros.
+     * É a pontuação de {@link JogoDomino#calcularPontuacao()}.
+     */
+    TRADICIONAL,
+    /**
+     * "All Fives" (ou "Muggins"): cada peça que deixa a soma das pontas num múltiplo
+     * de 5 vale essa soma para quem a jogou. No fim, o vencedor ganha a soma das mãos
+     * dos adversários arredondada para o múltiplo de 5 mais próximo; no jogo trancado,
+     * descontada a sua própria mão.
+     */
+    ALL_FIVES;
+
+    /**
+     * Calcula os pontos de uma peça colocada na mesa.
+     *
+     * @param somaPontas A soma das pontas logo depois da peça.
+     * @return Os pontos ganhos por quem jogou.
+     */
+    public int pontosDaJogada(int somaPontas) {
+        if (this == TRADICIONAL) return 0;
+        return somaPontas % 5 == 0 ? somaPontas : 0;
+    }
+
+    /**
+     * Calcula os pontos que o vencedor ganha no fim da mão.
+     *
+     * @param somaAdversarios A soma dos pontos nas mãos dos adversários.
+     * @param propria         A soma dos pontos na mão do vencedor.
+     * @param bloqueado       true se o jogo trancou.
+     * @return Os pontos do vencedor.
+     */
+    public int pontosDoFim(int somaAdversarios, int propria, boolean bloqueado) {
+        if (this == TRADICIONAL) return somaAdversarios;
+        int total = bloqueado ? somaAdversarios - propria : somaAdversarios;
+        return (total + 2) / 5 * 5;
+    }
+}
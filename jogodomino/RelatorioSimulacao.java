@@ -0,0 +1,155 @@
+package jogodomino;
+
+import java.util.Arrays;
+
+/**
+ * Acumula os resultados de um lote de partidas simuladas e calcula
+ * as estatísticas finais, como vitórias por jogador e partidas por segundo.
+ */
+public class RelatorioSimulacao {
+    /** Vitórias de cada posição da mesa. */
+    private final long[] vitorias;
+    /** Pontos somados por cada posição da mesa. */
+    private final long[] pontos;
+    /** Total de partidas acumuladas. */
+    private long partidas;
+    /** Partidas que terminaram empatadas. */
+    private long empates;
+    /** Partidas que terminaram trancadas. */
+    private long bloqueadas;
+    /** Total de peças jogadas em todas as partidas. */
+    private long jogadas;
+    /** Tempo total da simulação, em nanossegundos. */
+    private long duracaoNanos;
+
+    /**
+     * Constrói um relatório vazio.
+     *
+     * @param numeroJogadores O número de jogadores em cada partida.
+     */
+    public RelatorioSimulacao(int numeroJogadores) {
+        this.vitorias = new long[numeroJogadores];
+        this.pontos = new long[numeroJogadores];
+    }
+
+    /**
+     * Acrescenta o resultado de uma partida ao relatório.
+     *
+     * @param resultado O resultado da partida.
+     */
+    public void registrar(ResultadoPartida resultado) {
+        partidas++;
+        jogadas += resultado.getJogadas();
+        if (resultado.isBloqueado()) bloqueadas++;
+        int v = resultado.getIndiceVencedor();
+        if (v < 0) {
+            empates++;
+        } else {
+            vitorias[v]++;
+        }
+        for (int i = 0; i < pontos.length; i++) {
+            pontos[i] += resultado.getPontos(i);
+        }
+    }
+
+    /**
+     * Soma a este relatório os números de outro relatório parcial.
+     *
+     * @param outro O relatório a ser incorporado.
+     */
+    public void juntar(RelatorioSimulacao outro) {
+        partidas += outro.partidas;
+        empates += outro.empates;
+        bloqueadas += outro.bloqueadas;
+        jogadas += outro.jogadas;
+        for (int i = 0; i < vitorias.length; i++) {
+            vitorias[i] += outro.vitorias[i];
+            pontos[i] += outro.pontos[i];
+        }
+    }
+
+    /**
+     * Define o tempo total gasto na simulação.
+     *
+     * @param duracaoNanos A duração em nanossegundos.
+     */
+    public void setDuracaoNanos(long duracaoNanos) {
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    /**
+     * Retorna o total de partidas simuladas.
+     *
+     * @return O número de partidas.
+     */
+    public long getPartidas() {
+        return partidas;
+    }
+
+    /**
+     * Retorna quantas partidas cada posição venceu.
+     *
+     * @param indiceJogador A posição do jogador.
+     * @return O número de vitórias.
+     */
+    public long getVitorias(int indiceJogador) {
+        return vitorias[indiceJogador];
+    }
+
+    /**
+     * Retorna os pontos somados por uma posição.
+     *
+     * @param indiceJogador A posição do jogador.
+     * @return O total de pontos.
+     */
+    public long getPontos(int indiceJogador) {
+        return pontos[indiceJogador];
+    }
+
+    /**
+     * Retorna o número de partidas empatadas.
+     *
+     * @return O número de empates.
+     */
+    public long getEmpates() {
+        return empates;
+    }
+
+    /**
+     * Retorna o número de partidas que trancaram.
+     *
+     * @return O número de jogos trancados.
+     */
+    public long getBloqueadas() {
+        return bloqueadas;
+    }
+
+    /**
+     * Retorna a média de peças jogadas por partida.
+     *
+     * @return As jogadas por partida, ou 0 se não houve partidas.
+     */
+    public double getJogadasPorPartida() {
+        return partidas == 0 ? 0 : (double) jogadas / partidas;
+    }
+
+    /**
+     * Calcula a vazão da simulação.
+     *
+     * @return As partidas simuladas por segundo, ou 0 se a duração não foi definida.
+     */
+    public double getPartidasPorSegundo() {
+        return duracaoNanos == 0 ? 0 : partidas * 1e9 / duracaoNanos;
+    }
+
+    /**
+     * Retorna um resumo do relatório em uma linha.
+     *
+     * @return O resumo formatado.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d partidas em %.2f s (%.0f partidas/s), vitórias=%s, empates=%d, trancadas=%d",
+            partidas, duracaoNanos / 1e9, getPartidasPorSegundo(), Arrays.toString(vitorias), empates, bloqueadas);
+    }
+}
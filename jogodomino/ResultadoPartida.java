@@ -0,0 +1,95 @@
+package jogodomino;
+
+/**
+ * Guarda o resultado de uma partida simulada: quem venceu, quantos pontos
+ * fez, se o jogo trancou e quantas jogadas foram feitas.
+ */
+public class ResultadoPartida {
+    /** A posição do jogador vencedor, ou -1 em caso de empate. */
+    private final int indiceVencedor;
+    /** Os pontos ganhos pelo vencedor (soma das mãos dos adversários). */
+    private final int pontos;
+    /** Indica se a partida terminou trancada. */
+    private final boolean bloqueado;
+    /** O número de peças colocadas na mesa pelos jogadores. */
+    private final int jogadas;
+    /** Os pontos de cada jogador na mão, ou null se só os do vencedor são conhecidos. */
+    private final int[] pontosJogadores;
+
+    /**
+     * Constrói o resultado de uma partida.
+     *
+     * @param indiceVencedor A posição do vencedor, ou -1 para empate.
+     * @param pontos         Os pontos ganhos pelo vencedor.
+     * @param bloqueado      true se o jogo trancou.
+     * @param jogadas        O número de peças jogadas.
+     */
+    public ResultadoPartida(int indiceVencedor, int pontos, boolean bloqueado, int jogadas) {
+        this(indiceVencedor, pontos, bloqueado, jogadas, null);
+    }
+
+    /**
+     * Constrói o resultado de uma partida pontuada por um {@link PlacarMao}.
+     *
+     * @param indiceVencedor  A posição do vencedor, ou -1 para empate.
+     * @param pontos          Os pontos ganhos pelo vencedor.
+     * @param bloqueado       true se o jogo trancou.
+     * @param jogadas         O número de peças jogadas.
+     * @param pontosJogadores Os pontos de cada jogador na mão.
+     */
+    public ResultadoPartida(int indiceVencedor, int pontos, boolean bloqueado, int jogadas, int[] pontosJogadores) {
+        this.indiceVencedor = indiceVencedor;
+        this.pontos = pontos;
+        this.bloqueado = bloqueado;
+        this.jogadas = jogadas;
+        this.pontosJogadores = pontosJogadores;
+    }
+
+    /**
+     * Retorna a posição do jogador vencedor.
+     *
+     * @return O índice do vencedor, ou -1 se a partida empatou.
+     */
+    public int getIndiceVencedor() {
+        return indiceVencedor;
+    }
+
+    /**
+     * Retorna os pontos ganhos pelo vencedor.
+     *
+     * @return Os pontos da partida.
+     */
+    public int getPontos() {
+        return pontos;
+    }
+
+    /**
+     * Retorna os pontos de um jogador na mão. Sem pontos por jogador, o vencedor
+     * fica com os pontos da partida e os demais com 0.
+     *
+     * @param jogador A posição do jogador.
+     * @return Os pontos do jogador.
+     */
+    public int getPontos(int jogador) {
+        if (pontosJogadores != null) return pontosJogadores[jogador];
+        return jogador == indiceVencedor ? pontos : 0;
+    }
+
+    /**
+     * Indica se a partida terminou trancada.
+     *
+     * @return true se o jogo trancou, false se alguém bateu.
+     */
+    public boolean isBloqueado() {
+        return bloqueado;
+    }
+
+    /**
+     * Retorna o número de peças jogadas na partida.
+     *
+     * @return O número de jogadas.
+     */
+    public int getJogadas() {
+        return jogadas;
+    }
+}
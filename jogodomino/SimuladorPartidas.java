@@ -0,0 +1,266 @@
+package jogodomino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import metricas.Metricas;
+import metricas.Operacao;
+
+/**
+ * Executa partidas completas de dominó sem interface gráfica e sem saída no console.
+ * Cada posição da mesa é controlada por uma {@link Estrategia}, e os lotes de
+ * partidas são divididos entre todos os núcleos com um {@link ForkJoinPool}.
+ * Cada partida tem o seu próprio gerador, derivado da semente do simulador e do
+ * número da partida; assim, um lote é reprodutível qualquer que seja a divisão entre
+ * threads, e duas estratégias podem ser comparadas nas mesmas distribuições.
+ */
+public class SimuladorPartidas {
+    /** O tempo de cada partida simulada. */
+    private static final Operacao PARTIDA = Metricas.operacao("simulacao.partida", 16);
+    /** Partidas por tarefa abaixo das quais o lote não é mais dividido. */
+    private static final int LIMIAR_DIVISAO = 256;
+
+    /** As estratégias de cada posição da mesa, na ordem dos jogadores. */
+    private final List<Estrategia> estrategias;
+    /** O pool de threads usado para rodar os lotes. */
+    private final ForkJoinPool pool;
+    /** A semente da qual saem as distribuições de todas as partidas. */
+    private final long semente;
+
+    /**
+     * Constrói um simulador que usa todos os núcleos disponíveis.
+     *
+     * @param estrategias As estratégias de cada jogador, na ordem da mesa.
+     */
+    public SimuladorPartidas(List<Estrategia> estrategias) {
+        this(estrategias, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constrói um simulador com um número fixo de threads.
+     *
+     * @param estrategias As estratégias de cada jogador, na ordem da mesa.
+     * @param paralelismo O número de threads de trabalho.
+     */
+    public SimuladorPartidas(List<Estrategia> estrategias, int paralelismo) {
+        this(estrategias, paralelismo, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constrói um simulador reprodutível: a partida de número {@code i} tem sempre a
+     * mesma distribuição para a mesma semente.
+     *
+     * @param estrategias As estratégias de cada jogador, na ordem da mesa.
+     * @param paralelismo O número de threads de trabalho.
+     * @param semente     A semente das distribuições.
+     */
+    public SimuladorPartidas(List<Estrategia> estrategias, int paralelismo, long semente) {
+        if (estrategias.size() < 2 || estrategias.size() > 4) {
+            throw new IllegalArgumentException("O jogo precisa de 2 a 4 jogadores.");
+        }
+        this.estrategias = new ArrayList<>(estrategias);
+        this.pool = new ForkJoinPool(paralelismo);
+        this.semente = semente;
+    }
+
+    /**
+     * Joga uma partida completa, do embaralhamento até alguém bater ou o jogo trancar.
+     *
+     * @param indicePartida O número da partida dentro do lote, que define a sua distribuição.
+     * @return O resultado da partida.
+     */
+    public ResultadoPartida jogarPartida(long indicePartida) {
+        return jogarPartida(estrategias, sementeDaPartida(indicePartida));
+    }
+
+    /**
+     * Joga uma partida completa com as estratégias e a distribuição indicadas.
+     * Usado também por quem organiza as próprias partidas, como os torneios.
+     *
+     * @param estrategias As estratégias de cada jogador, na ordem da mesa.
+     * @param semente     A semente da distribuição.
+     * @return O resultado da partida.
+     */
+    public static ResultadoPartida jogarPartida(List<Estrategia> estrategias, long semente) {
+        return jogarPartida(estrategias, semente, RegraPontuacao.TRADICIONAL);
+    }
+
+    /**
+     * Joga uma partida completa e a pontua com a regra indicada.
+     *
+     * @param estrategias As estratégias de cada jogador, na ordem da mesa.
+     * @param semente     A semente da distribuição.
+     * @param regra       A regra de pontuação.
+     * @return O resultado da partida, com os pontos de cada jogador.
+     */
+    public static ResultadoPartida jogarPartida(List<Estrategia> estrategias, long semente, RegraPontuacao regra) {
+        long marca = PARTIDA.iniciar();
+        try {
+            List<Jogador> jogadores = new ArrayList<>(estrategias.size());
+            for (int i = 0; i < estrategias.size(); i++) {
+                jogadores.add(new Jogador("Jogador " + (i + 1)));
+            }
+            JogoDomino jogo = new JogoDomino(jogadores, semente);
+            jogo.setSaidaConsole(false);
+            PlacarMao placar = new PlacarMao(jogo, regra);
+
+            int jogadas = 0;
+            while (!jogo.isFinalizado()) {
+                if (jogarTurno(jogo, estrategias.get(jogo.getIndiceJogadorAtual()))) jogadas++;
+                jogo.passarTurno();
+            }
+
+            placar.encerrar();
+            Jogador vencedor = jogo.getVencedor();
+            int indiceVencedor = vencedor == null ? -1 : jogadores.indexOf(vencedor);
+            int pontos = vencedor == null ? 0 : placar.getPontos(indiceVencedor);
+            return new ResultadoPartida(indiceVencedor, pontos, jogo.isBloqueado(), jogadas, placar.getPontos());
+        } finally {
+            PARTIDA.terminar(marca);
+        }
+    }
+
+    /**
+     * Deriva a semente de uma partida, espalhando os bits para que partidas vizinhas
+     * tenham sequências aleatórias independentes (mistura final do MurmurHash3).
+     *
+     * @param indicePartida O número da partida.
+     * @return A semente da partida.
+     */
+    public long sementeDaPartida(long indicePartida) {
+        return misturar(semente + indicePartida * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Espalha os bits de um número (mistura final do MurmurHash3), para que
+     * entradas vizinhas deem sementes independentes.
+     *
+     * @param z O número a misturar.
+     * @return O número misturado.
+     */
+    public static long misturar(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Retorna a semente do simulador.
+     *
+     * @return A semente das distribuições.
+     */
+    public long getSemente() {
+        return semente;
+    }
+
+    /**
+     * Executa o turno do jogador da vez: pede uma jogada à estratégia e,
+     * enquanto não houver peça que encaixe, compra do monte.
+     *
+     * @param jogo       O jogo em andamento.
+     * @param estrategia A estratégia do jogador da vez.
+     * @return true se o jogador colocou uma peça, false se passou a vez.
+     */
+    private static boolean jogarTurno(JogoDomino jogo, Estrategia estrategia) {
+        Jogador jogador = jogo.getJogadorAtual();
+
+        Jogada jogada = estrategia.escolherJogada(jogo, jogador);
+        while (jogada == null && jogo.comprarPeca(jogador)) {
+            jogada = estrategia.escolherJogada(jogo, jogador);
+        }
+        if (jogada == null) {
+            int e = jogo.getMesa().getValorEsquerdo();
+            int d = jogo.getMesa().getValorDireito();
+            if (jogador.podeJogar(e, d)) {
+                throw new IllegalStateException("A estratégia passou a vez tendo jogada possível.");
+            }
+            return false;
+        }
+        if (!jogo.realizarJogada(jogada.getPeca(), jogada.isNaEsquerda())) {
+            throw new IllegalStateException("A estratégia escolheu uma jogada inválida: " + jogada);
+        }
+        return true;
+    }
+
+    /**
+     * Simula um lote de partidas em paralelo e mede a vazão.
+     *
+     * @param partidas O número de partidas a simular.
+     * @return O relatório com as estatísticas do lote.
+     */
+    public RelatorioSimulacao simular(long partidas) {
+        long inicio = System.nanoTime();
+        RelatorioSimulacao relatorio = pool.invoke(new TarefaLote(0, partidas));
+        relatorio.setDuracaoNanos(System.nanoTime() - inicio);
+        return relatorio;
+    }
+
+    /**
+     * Encerra as threads do simulador.
+     */
+    public void encerrar() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tarefa que divide um lote de partidas ao meio até ficar pequeno
+     * o bastante para ser jogado em sequência por uma única thread.
+     */
+    private class TarefaLote extends RecursiveTask<RelatorioSimulacao> {
+        /** Versão da serialização, exigida porque {@link RecursiveTask} é serializável. */
+        private static final long serialVersionUID = 1L;
+        /** O número da primeira partida desta tarefa. */
+        private final long inicio;
+        /** Quantas partidas esta tarefa deve jogar. */
+        private final long partidas;
+
+        /**
+         * Constrói uma tarefa para um lote de partidas.
+         *
+         * @param inicio   O número da primeira partida do lote.
+         * @param partidas O tamanho do lote.
+         */
+        TarefaLote(long inicio, long partidas) {
+            this.inicio = inicio;
+            this.partidas = partidas;
+        }
+
+        @Override
+        protected RelatorioSimulacao compute() {
+            if (partidas <= LIMIAR_DIVISAO) {
+                RelatorioSimulacao parcial = new RelatorioSimulacao(estrategias.size());
+                for (long i = inicio; i < inicio + partidas; i++) {
+                    parcial.registrar(jogarPartida(i));
+                }
+                return parcial;
+            }
+            long metade = partidas / 2;
+            TarefaLote esquerda = new TarefaLote(inicio, metade);
+            esquerda.fork();
+            RelatorioSimulacao resultado = new TarefaLote(inicio + metade, partidas - metade).compute();
+            resultado.juntar(esquerda.join());
+            return resultado;
+        }
+    }
+
+    /**
+     * Roda uma simulação pela linha de comando e imprime o relatório.
+     * Uso: {@code java jogodomino.SimuladorPartidas [partidas] [semente]}.
+     *
+     * @param args O número de partidas (padrão: 1.000.000) e, opcionalmente, a semente.
+     */
+    public static void main(String[] args) {
+        long partidas = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        List<Estrategia> estrategias = Arrays.asList(new EstrategiaPrimeiraPeca(), new EstrategiaMaiorPeca());
+        int paralelismo = Runtime.getRuntime().availableProcessors();
+        SimuladorPartidas simulador = args.length > 1
+            ? new SimuladorPartidas(estrategias, paralelismo, Long.parseLong(args[1]))
+            : new SimuladorPartidas(estrategias, paralelismo);
+        simulador.simular(Math.min(partidas, 10_000L)); // aquecimento da JVM
+        System.out.println(simulador.simular(partidas));
+        simulador.encerrar();
+    }
+}
@@ -0,0 +1,139 @@
+package jogodomino;
+
+/**
+ * Tabelas pré-calculadas das peças de todos os conjuntos suportados, do duplo-seis
+ * (28 peças) ao duplo-doze (91 peças). Cada peça recebe um número ordenado pelo
+ * maior lado ([0|0], [0|1], [1|1], [0|2], ...), de modo que as 28 peças do
+ * duplo-seis ficam nos números 0 a 27 e cabem num único {@code long}; os
+ * conjuntos maiores usam {@link #PALAVRAS} palavras.
+ */
+public final class TabelaPecas {
+    /** O maior valor de um lado de peça no conjunto padrão (duplo-seis). */
+    public static final int MAIOR_VALOR = 6;
+    /** O número de peças do conjunto padrão (duplo-seis). */
+    public static final int TOTAL_PECAS = 28;
+    /** A máscara com todas as peças do conjunto padrão. */
+    public static final long TODAS = (1L << TOTAL_PECAS) - 1;
+    /** O maior valor de lado suportado (duplo-doze). */
+    public static final int MAIOR_VALOR_SUPORTADO = 12;
+    /** O número de peças do maior conjunto suportado. */
+    public static final int TOTAL_PECAS_SUPORTADO = 91;
+    /** Quantas palavras de 64 bits cabem todas as peças suportadas. */
+    public static final int PALAVRAS = 2;
+
+    /** O menor lado de cada peça, indexado pelo número da peça. */
+    private static final byte[] LADO_MENOR = new byte[TOTAL_PECAS_SUPORTADO];
+    /** O maior lado de cada peça, indexado pelo número da peça. */
+    private static final byte[] LADO_MAIOR = new byte[TOTAL_PECAS_SUPORTADO];
+    /** O número de cada peça, indexado pelos seus dois lados. */
+    private static final byte[][] NUMERO = new byte[MAIOR_VALOR_SUPORTADO + 1][MAIOR_VALOR_SUPORTADO + 1];
+    /** Para cada valor, a máscara das peças que têm esse valor, {@link #PALAVRAS} palavras por valor. */
+    private static final long[] MASCARA_VALOR = new long[(MAIOR_VALOR_SUPORTADO + 1) * PALAVRAS];
+
+    static {
+        // Ordenadas pelo maior lado: as peças de um conjunto menor são sempre o começo
+        // da numeração de um maior, e o duplo-seis continua usando só a primeira palavra
+        int id = 0;
+        for (int maior = 0; maior <= MAIOR_VALOR_SUPORTADO; maior++) {
+            for (int menor = 0; menor <= maior; menor++) {
+                LADO_MENOR[id] = (byte) menor;
+                LADO_MAIOR[id] = (byte) maior;
+                NUMERO[menor][maior] = NUMERO[maior][menor] = (byte) id;
+                MASCARA_VALOR[menor * PALAVRAS + (id >>> 6)] |= 1L << id;
+                MASCARA_VALOR[maior * PALAVRAS + (id >>> 6)] |= 1L << id;
+                id++;
+            }
+        }
+    }
+
+    /** Classe utilitária; não deve ser instanciada. */
+    private TabelaPecas() {
+    }
+
+    /**
+     * Retorna o número da peça com os dois lados informados, em qualquer ordem.
+     *
+     * @param a O valor de um dos lados.
+     * @param b O valor do outro lado.
+     * @return O número da peça: {@code maior * (maior + 1) / 2 + menor}.
+     */
+    public static int numero(int a, int b) {
+        return NUMERO[a][b];
+    }
+
+    /**
+     * Retorna o menor lado de uma peça.
+     *
+     * @param peca O número da peça.
+     * @return O menor valor da peça.
+     */
+    public static int ladoMenor(int peca) {
+        return LADO_MENOR[peca];
+    }
+
+    /**
+     * Retorna o maior lado de uma peça.
+     *
+     * @param peca O número da peça.
+     * @return O maior valor da peça.
+     */
+    public static int ladoMaior(int peca) {
+        return LADO_MAIOR[peca];
+    }
+
+    /**
+     * Retorna a soma dos dois lados de uma peça.
+     *
+     * @param peca O número da peça.
+     * @return A soma dos pontos da peça.
+     */
+    public static int soma(int peca) {
+        return LADO_MENOR[peca] + LADO_MAIOR[peca];
+    }
+
+    /**
+     * Retorna a máscara de todas as peças do duplo-seis que têm o valor informado em algum lado.
+     *
+     * @param valor O valor procurado, de 0 a 6.
+     * @return A máscara de bits das peças com esse valor.
+     */
+    public static long mascaraDoValor(int valor) {
+        return MASCARA_VALOR[valor * PALAVRAS];
+    }
+
+    /**
+     * Retorna uma palavra da máscara de todas as peças que têm o valor informado.
+     *
+     * @param valor   O valor procurado, de 0 a 12.
+     * @param palavra A palavra (0 para as peças 0 a 63, 1 para as peças 64 a 127).
+     * @return Os bits dessa palavra das peças com esse valor.
+     */
+    public static long mascaraDoValor(int valor, int palavra) {
+        return MASCARA_VALOR[valor * PALAVRAS + palavra];
+    }
+
+    /**
+     * Retorna o número de peças de um conjunto que vai até o valor informado.
+     *
+     * @param maiorValor O maior valor de lado do conjunto.
+     * @return O número de peças: {@code (maiorValor + 1) * (maiorValor + 2) / 2}.
+     */
+    public static int totalPecas(int maiorValor) {
+        return (maiorValor + 1) * (maiorValor + 2) / 2;
+    }
+
+    /**
+     * Soma os pontos de todas as peças de uma máscara.
+     *
+     * @param mascara O conjunto de peças.
+     * @return A soma dos pontos das peças.
+     */
+    public static int somaPontos(long mascara) {
+        int total = 0;
+        while (mascara != 0) {
+            total += soma(Long.numberOfTrailingZeros(mascara));
+            mascara &= mascara - 1;
+        }
+        return total;
+    }
+}
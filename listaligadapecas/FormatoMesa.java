@@ -0,0 +1,23 @@
+package listaligadapecas;
+
+/**
+ * Os formatos de mesa de uma {@link MesaRamificada}.
+ */
+public enum FormatoMesa {
+    /**
+     * A mesa usual, com duas pontas: o ramo 0 é a esquerda e o ramo 1 a direita,
+     * como em {@link ListaLigadaPecas}.
+     */
+    DUAS_PONTAS,
+    /**
+     * Mesa com giro ("spinner"), como no "All Fives": a primeira carroça da mesa
+     * abre os ramos 2 e 3 assim que os seus dois lados originais estiverem cobertos,
+     * chegando a quatro pontas.
+     */
+    GIRO,
+    /**
+     * Trem mexicano: a carroça central (o motor) abre um ramo para cada jogador e
+     * mais um, o trem mexicano, todos começando no valor do motor.
+     */
+    TREM
+}
@@ -0,0 +1,168 @@
+package listaligadapecas;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import jogodomino.PecaDomino;
+
+/**
+ * Retrato imutável da mesa, obtido em tempo constante por
+ * {@link ListaLigadaPecas#getInstantaneo()}.
+ * Como a corrente só cresce pelas pontas e os nós nunca são removidos, basta guardar
+ * o primeiro e o último nó do momento: a corrente entre eles não muda mais, e as peças
+ * colocadas depois ficam fora do retrato. Extremos, tamanho, contagem de cada valor e
+ * a máscara das peças são guardados prontos; a corrente só é percorrida se o leitor
+ * iterar sobre ela.
+ */
+public final class InstantaneoMesa implements Iterable<PecaColocada> {
+    /** Bits usados por valor em {@link #contagens}. */
+    static final int BITS_CONTAGEM = 4;
+
+    /** O primeiro nó da corrente no momento do retrato, ou null com a mesa vazia. */
+    private final NoPeca primeiro;
+    /** O último nó da corrente no momento do retrato, ou null com a mesa vazia. */
+    private final NoPeca ultimo;
+    /** O número de peças na mesa. */
+    private final int tamanho;
+    /** Quantas vezes cada valor aparece na mesa, 4 bits por valor (uma carroça conta duas vezes). */
+    private final long contagens;
+    /** A máscara das peças na mesa, uma palavra para cada 64 peças; nunca é alterada. */
+    private final long[] mascaraPecas;
+
+    /**
+     * Constrói um retrato. Só é chamado por {@link ListaLigadaPecas}.
+     *
+     * @param primeiro     O primeiro nó.
+     * @param ultimo       O último nó.
+     * @param tamanho      O número de peças.
+     * @param contagens    As contagens empacotadas de cada valor.
+     * @param mascaraPecas A máscara das peças na mesa, já copiada.
+     */
+    InstantaneoMesa(NoPeca primeiro, NoPeca ultimo, int tamanho, long contagens, long[] mascaraPecas) {
+        this.primeiro = primeiro;
+        this.ultimo = ultimo;
+        this.tamanho = tamanho;
+        this.contagens = contagens;
+        this.mascaraPecas = mascaraPecas;
+    }
+
+    /**
+     * Retorna o valor da extremidade esquerda.
+     *
+     * @return O valor, ou -1 com a mesa vazia.
+     */
+    public int getValorEsquerdo() {
+        return primeiro == null ? -1 : primeiro.getColocacao().getLadoEsquerdo();
+    }
+
+    /**
+     * Retorna o valor da extremidade direita.
+     *
+     * @return O valor, ou -1 com a mesa vazia.
+     */
+    public int getValorDireito() {
+        return ultimo == null ? -1 : ultimo.getColocacao().getLadoDireito();
+    }
+
+    /**
+     * Retorna o número de peças na mesa.
+     *
+     * @return O tamanho da corrente.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Indica se a mesa está vazia.
+     *
+     * @return true se nenhuma peça foi jogada.
+     */
+    public boolean isVazia() {
+        return tamanho == 0;
+    }
+
+    /**
+     * Retorna quantas vezes um valor aparece nas peças da mesa.
+     * Uma carroça do valor conta duas vezes; o máximo é o maior valor do conjunto mais 2
+     * (8 no duplo-seis, 14 no duplo-doze).
+     *
+     * @param valor O valor, de 0 a 12.
+     * @return O número de metades de peça com esse valor.
+     */
+    public int getContagemValor(int valor) {
+        return (int) (contagens >>> (valor * BITS_CONTAGEM)) & ((1 << BITS_CONTAGEM) - 1);
+    }
+
+    /**
+     * Retorna a máscara das peças na mesa.
+     * É a primeira palavra, que basta para o duplo-seis.
+     *
+     * @return A máscara de bits (bit {@code n} = peça de número {@code n}).
+     */
+    public long getMascaraPecas() {
+        return mascaraPecas[0];
+    }
+
+    /**
+     * Retorna uma palavra da máscara das peças na mesa.
+     *
+     * @param palavra A palavra, de 0 a {@code TabelaPecas.PALAVRAS - 1}.
+     * @return Os bits das peças {@code 64 * palavra} a {@code 64 * palavra + 63}.
+     */
+    public long getMascaraPecas(int palavra) {
+        return mascaraPecas[palavra];
+    }
+
+    /**
+     * Indica se uma peça já está na mesa.
+     *
+     * @param peca A peça.
+     * @return true se a peça foi jogada.
+     */
+    public boolean contem(PecaDomino peca) {
+        return (mascaraPecas[peca.getNumero() >>> 6] & (1L << peca.getNumero())) != 0;
+    }
+
+    /**
+     * Percorre as peças da mesa, da esquerda para a direita, sem copiar a corrente.
+     *
+     * @return O iterador das colocações.
+     */
+    @Override
+    public Iterator<PecaColocada> iterator() {
+        return new Iterator<PecaColocada>() {
+            /** O próximo nó a devolver. */
+            private NoPeca atual = primeiro;
+            /** Quantas peças ainda faltam. */
+            private int restantes = tamanho;
+
+            @Override
+            public boolean hasNext() {
+                return restantes > 0;
+            }
+
+            @Override
+            public PecaColocada next() {
+                if (restantes == 0) throw new NoSuchElementException();
+                PecaColocada c = atual.getColocacao();
+                atual = --restantes > 0 ? atual.getProximo() : null;
+                return c;
+            }
+        };
+    }
+
+    /**
+     * Retorna a mesa no formato "[a|b] [c|d] ...".
+     *
+     * @return A representação da mesa.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (PecaColocada c : this) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
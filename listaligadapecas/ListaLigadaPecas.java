@@ -3,6 +3,7 @@ package listaligadapecas;
 import java.util.ArrayList;
 import java.util.List;
 import jogodomino.PecaDomino;
+import jogodomino.TabelaPecas;
 
 /**
  * Implementa uma lista duplamente ligada para representar a mesa de um jogo de dominó.
@@ -13,14 +14,27 @@ public class ListaLigadaPecas {
     private NoPeca cabeca;
     /** O último nó (cauda) da lista, representando a extremidade direita da mesa. */
     private NoPeca cauda;
+    /** O número de peças na mesa. */
+    private int tamanho;
+    /** Quantas vezes cada valor aparece na mesa, empacotado como em {@link InstantaneoMesa}. */
+    private long contagens;
+    /** A soma das pontas, com uma carroça na ponta contando os dois lados. */
+    private int somaPontas;
+    /** A máscara das peças na mesa (bit {@code n % 64} da palavra {@code n / 64} = peça {@code n}). */
+    private final long[] mascaraPecas = new long[TabelaPecas.PALAVRAS];
+    /** O último retrato entregue, ou null se a mesa mudou desde então. */
+    private InstantaneoMesa instantaneo;
 
     /**
      * Adiciona uma peça de dominó na extremidade esquerda da mesa.
+     * A peça é virada, se necessário, para que o lado que encaixa fique voltado para a mesa.
      *
      * @param peca A peça de dominó a ser adicionada.
+     * @return A peça com a orientação em que foi colocada.
      */
-    public void adicionarNaEsquerda(PecaDomino peca) {
-        NoPeca novo = new NoPeca(peca);
+    public PecaColocada adicionarNaEsquerda(PecaDomino peca) {
+        boolean invertida = cabeca != null && peca.getLadoDireito() != getValorEsquerdo();
+        NoPeca novo = new NoPeca(PecaColocada.de(peca, invertida));
         if (cabeca == null) {
             cabeca = cauda = novo;
         } else {
@@ -28,15 +42,20 @@ public class ListaLigadaPecas {
             cabeca.setAnterior(novo);
             cabeca = novo;
         }
+        registrar(novo.colocacao);
+        return novo.colocacao;
     }
 
     /**
      * Adiciona uma peça de dominó na extremidade direita da mesa.
+     * A peça é virada, se necessário, para que o lado que encaixa fique voltado para a mesa.
      *
      * @param peca A peça de dominó a ser adicionada.
+     * @return A peça com a orientação em que foi colocada.
      */
-    public void adicionarNaDireita(PecaDomino peca) {
-        NoPeca novo = new NoPeca(peca);
+    public PecaColocada adicionarNaDireita(PecaDomino peca) {
+        boolean invertida = cauda != null && peca.getLadoEsquerdo() != getValorDireito();
+        NoPeca novo = new NoPeca(PecaColocada.de(peca, invertida));
         if (cauda == null) {
             cabeca = cauda = novo;
         } else {
@@ -44,6 +63,107 @@ public class ListaLigadaPecas {
             cauda.setProximo(novo);
             cauda = novo;
         }
+        registrar(novo.colocacao);
+        return novo.colocacao;
+    }
+
+    /**
+     * Adiciona na extremidade direita uma peça com orientação já definida.
+     * Usado para reconstruir uma mesa exatamente como estava; não verifica o encaixe.
+     *
+     * @param colocacao A peça e sua orientação.
+     */
+    public void adicionarNaDireita(PecaColocada colocacao) {
+        NoPeca novo = new NoPeca(colocacao);
+        if (cauda == null) {
+            cabeca = cauda = novo;
+        } else {
+            novo.setAnterior(cauda);
+            cauda.setProximo(novo);
+            cauda = novo;
+        }
+        registrar(colocacao);
+    }
+
+    /**
+     * Atualiza o tamanho, as contagens e a máscara depois de uma peça entrar na mesa.
+     *
+     * @param colocacao A peça colocada.
+     */
+    private void registrar(PecaColocada colocacao) {
+        PecaDomino peca = colocacao.getPeca();
+        tamanho++;
+        contagens += (1L << (peca.getLadoEsquerdo() * InstantaneoMesa.BITS_CONTAGEM))
+                   + (1L << (peca.getLadoDireito() * InstantaneoMesa.BITS_CONTAGEM));
+        mascaraPecas[peca.getNumero() >>> 6] |= 1L << peca.getNumero();
+        somaPontas = tamanho == 1 ? peca.getLadoEsquerdo() + peca.getLadoDireito()
+                                  : valorDaPonta(cabeca.colocacao, true) + valorDaPonta(cauda.colocacao, false);
+        instantaneo = null;
+    }
+
+    /**
+     * Calcula quanto uma peça na ponta vale na soma das pontas.
+     *
+     * @param colocacao  A peça da ponta.
+     * @param naEsquerda true para a ponta esquerda.
+     * @return O valor livre da peça, ou os dois lados se ela for uma carroça.
+     */
+    private static int valorDaPonta(PecaColocada colocacao, boolean naEsquerda) {
+        int valor = naEsquerda ? colocacao.getLadoEsquerdo() : colocacao.getLadoDireito();
+        return colocacao.getPeca().isCarroca() ? 2 * valor : valor;
+    }
+
+    /**
+     * Retorna um retrato imutável da mesa em tempo constante. O retrato continua válido
+     * depois que novas peças são jogadas, e é reaproveitado enquanto a mesa não muda.
+     *
+     * @return O retrato da mesa.
+     */
+    public InstantaneoMesa getInstantaneo() {
+        if (instantaneo == null) {
+            instantaneo = new InstantaneoMesa(cabeca, cauda, tamanho, contagens, mascaraPecas.clone());
+        }
+        return instantaneo;
+    }
+
+    /**
+     * Retorna o número de peças na mesa.
+     *
+     * @return O tamanho da corrente.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna a soma das pontas da mesa, como no "All Fives": cada ponta conta o seu
+     * valor e uma carroça na ponta conta os dois lados; com uma só peça na mesa, vale
+     * a soma dela. É mantida a cada peça colocada, sem percorrer a corrente.
+     *
+     * @return A soma das pontas, ou 0 com a mesa vazia.
+     */
+    public int getSomaPontas() {
+        return somaPontas;
+    }
+
+    /**
+     * Retorna a máscara das peças na mesa, sem criar um retrato.
+     * É a primeira palavra, que basta para o duplo-seis.
+     *
+     * @return A máscara de bits (bit {@code n} = peça de número {@code n}).
+     */
+    public long getMascaraPecas() {
+        return mascaraPecas[0];
+    }
+
+    /**
+     * Retorna uma palavra da máscara das peças na mesa.
+     *
+     * @param palavra A palavra, de 0 a {@link TabelaPecas#PALAVRAS} - 1.
+     * @return Os bits das peças {@code 64 * palavra} a {@code 64 * palavra + 63}.
+     */
+    public long getMascaraPecas(int palavra) {
+        return mascaraPecas[palavra];
     }
 
     /**
@@ -52,7 +172,7 @@ public class ListaLigadaPecas {
      * @return O valor do lado esquerdo da primeira peça, ou -1 se a mesa estiver vazia.
      */
     public int getValorEsquerdo() {
-        if (cabeca != null) return cabeca.getPeca().getLadoEsquerdo();
+        if (cabeca != null) return cabeca.getColocacao().getLadoEsquerdo();
         return -1;
     }
 
@@ -62,7 +182,7 @@ public class ListaLigadaPecas {
      * @return O valor do lado direito da última peça, ou -1 se a mesa estiver vazia.
      */
     public int getValorDireito() {
-        if (cauda != null) return cauda.getPeca().getLadoDireito();
+        if (cauda != null) return cauda.getColocacao().getLadoDireito();
         return -1;
     }
 
@@ -73,7 +193,7 @@ public class ListaLigadaPecas {
     public void imprimirMesa() {
         NoPeca atual = cabeca;
         while (atual != null) {
-            System.out.print(atual.getPeca() + " ");
+            System.out.print(atual.getColocacao() + " ");
             atual = atual.getProximo();
         }
         System.out.println();
@@ -88,7 +208,7 @@ public class ListaLigadaPecas {
         java.util.List<String> lst = new java.util.ArrayList<>();
         NoPeca atual = cabeca;
         while (atual != null) {
-            lst.add(atual.getPeca().toString());
+            lst.add(atual.getColocacao().toString());
             atual = atual.getProximo();
         }
         return lst;
@@ -96,7 +216,8 @@ public class ListaLigadaPecas {
 
     /**
      * Retorna todas as peças da mesa como uma lista de objetos PecaDomino.
-     * Este método é útil para renderizar as peças na interface gráfica.
+     * As peças voltam na forma canônica; para saber a orientação, use {@link #getPecasColocadas()}.
+     * Cria uma lista nova a cada chamada; quem só precisa ler a mesa deve usar {@link #getInstantaneo()}.
      *
      * @return Uma {@code List<PecaDomino>} contendo todas as peças na ordem em que estão na mesa.
      */
@@ -110,4 +231,20 @@ public class ListaLigadaPecas {
         return lista;
     }
 
+    /**
+     * Retorna todas as peças da mesa com a orientação em que foram colocadas.
+     * Cria uma lista nova a cada chamada; para percorrer a mesa sem copiar, use {@link #getInstantaneo()}.
+     *
+     * @return Uma {@code List<PecaColocada>} na ordem em que as peças estão na mesa.
+     */
+    public List<PecaColocada> getPecasColocadas() {
+        List<PecaColocada> lista = new ArrayList<>();
+        NoPeca atual = cabeca;
+        while (atual != null) {
+            lista.add(atual.colocacao);
+            atual = atual.proximo;
+        }
+        return lista;
+    }
+
 }
\ No newline at end of file
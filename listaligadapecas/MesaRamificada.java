@@ -0,0 +1,459 @@
+package listaligadapecas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jogodomino.PecaDomino;
+import jogodomino.TabelaPecas;
+
+/**
+ * Mesa com vários ramos abertos, para as variantes em que a corrente não tem só
+ * duas pontas (veja {@link FormatoMesa}). Cada ramo é uma lista ligada que sai da
+ * peça central; as peças de um ramo ficam com o lado que encaixa voltado para o
+ * centro (lado esquerdo da {@link PecaColocada}) e o lado livre para fora.
+ * A ponta de cada ramo, o índice de quais ramos aceitam cada valor e a soma das
+ * pontas são atualizados a cada peça, então todas essas consultas custam O(1) e a
+ * geração de jogadas depende só dos valores abertos, não do número de ramos.
+ * A mesa guarda só a geometria: quais ramos um jogador pode usar (o próprio trem,
+ * um trem aberto) é decidido pelas regras de cada variante, filtrando as máscaras
+ * de ramos devolvidas aqui.
+ */
+public class MesaRamificada {
+    /** O maior número de ramos, já que os conjuntos de ramos são máscaras de um {@code long}. */
+    public static final int MAXIMO_RAMOS = 64;
+    /** Valor de {@link #giro} quando ainda não há giro. */
+    private static final int SEM_GIRO = -1;
+    /** Valor de {@link #giro} quando o giro é a peça central. */
+    private static final int GIRO_NO_CENTRO = -2;
+
+    /** O formato da mesa. */
+    private final FormatoMesa formato;
+    /** A peça central, ou null com a mesa vazia. */
+    private PecaColocada centro;
+    /** O primeiro nó de cada ramo, junto ao centro, ou null com o ramo vazio. */
+    private final NoPeca[] inicios;
+    /** O último nó de cada ramo, na ponta, ou null com o ramo vazio. */
+    private final NoPeca[] pontas;
+    /** O número de peças de cada ramo. */
+    private final int[] tamanhoRamo;
+    /** O valor aberto na ponta de cada ramo, ou -1 se o ramo não estiver disponível. */
+    private final int[] valorPonta;
+    /** Quanto cada ramo contribui para {@link #somaPontas}. */
+    private final int[] contribuicao;
+    /** Os ramos em que já se pode jogar (bit {@code r} = ramo {@code r}). */
+    private long disponiveis;
+    /** Para cada valor, os ramos disponíveis cuja ponta tem esse valor. */
+    private final long[] ramosPorValor = new long[TabelaPecas.MAIOR_VALOR_SUPORTADO + 1];
+    /** Os valores abertos em algum ramo (bit {@code v} = valor {@code v}). */
+    private int valoresAbertos;
+    /** A soma das pontas, com as carroças na ponta contando os dois lados. */
+    private int somaPontas;
+    /** O ramo onde está o giro, {@link #GIRO_NO_CENTRO} ou {@link #SEM_GIRO}. */
+    private int giro = SEM_GIRO;
+    /** O tamanho do ramo do giro logo depois de a carroça ser colocada. */
+    private int tamanhoNoGiro;
+    /** O valor da carroça do giro. */
+    private int valorGiro;
+    /** Indica se os ramos 2 e 3 do giro já foram abertos. */
+    private boolean giroAberto;
+    /** O número de peças na mesa, contando a central. */
+    private int tamanho;
+    /** A máscara das peças na mesa, {@link TabelaPecas#PALAVRAS} palavras. */
+    private final long[] mascaraPecas = new long[TabelaPecas.PALAVRAS];
+    /** As peças que encaixam em algum ramo, calculadas quando pedidas. */
+    private final long[] mascaraJogavel = new long[TabelaPecas.PALAVRAS];
+    /** Indica se {@link #mascaraJogavel} corresponde aos valores abertos atuais. */
+    private boolean jogavelValida;
+
+    /**
+     * Constrói uma mesa vazia.
+     *
+     * @param formato O formato da mesa.
+     * @param ramos   O número de ramos: 2 em {@link FormatoMesa#DUAS_PONTAS}, 4 em
+     *                {@link FormatoMesa#GIRO} e de 2 a {@link #MAXIMO_RAMOS} em {@link FormatoMesa#TREM}.
+     */
+    private MesaRamificada(FormatoMesa formato, int ramos) {
+        this.formato = formato;
+        this.inicios = new NoPeca[ramos];
+        this.pontas = new NoPeca[ramos];
+        this.tamanhoRamo = new int[ramos];
+        this.valorPonta = new int[ramos];
+        this.contribuicao = new int[ramos];
+        Arrays.fill(valorPonta, -1);
+    }
+
+    /**
+     * Cria uma mesa de duas pontas, equivalente a {@link ListaLigadaPecas}:
+     * o ramo 0 é a esquerda e o ramo 1 a direita.
+     *
+     * @return A mesa vazia.
+     */
+    public static MesaRamificada duasPontas() {
+        return new MesaRamificada(FormatoMesa.DUAS_PONTAS, 2);
+    }
+
+    /**
+     * Cria uma mesa com giro: começa com duas pontas e a primeira carroça abre mais duas.
+     *
+     * @return A mesa vazia, com quatro ramos.
+     */
+    public static MesaRamificada comGiro() {
+        return new MesaRamificada(FormatoMesa.GIRO, 4);
+    }
+
+    /**
+     * Cria uma mesa de trem mexicano: um ramo por jogador e mais o trem mexicano,
+     * que é o último ramo.
+     *
+     * @param jogadores O número de jogadores.
+     * @return A mesa vazia, com {@code jogadores + 1} ramos.
+     * @throws IllegalArgumentException se o número de ramos passar de {@link #MAXIMO_RAMOS}.
+     */
+    public static MesaRamificada trem(int jogadores) {
+        if (jogadores < 1 || jogadores + 1 > MAXIMO_RAMOS) {
+            throw new IllegalArgumentException("Número de jogadores inválido: " + jogadores);
+        }
+        return new MesaRamificada(FormatoMesa.TREM, jogadores + 1);
+    }
+
+    /**
+     * Coloca a peça central. No trem mexicano ela precisa ser uma carroça (o motor).
+     *
+     * @param peca A peça central.
+     * @return A colocação da peça.
+     * @throws IllegalStateException    se a mesa já tiver peças.
+     * @throws IllegalArgumentException se o formato exigir uma carroça e a peça não for.
+     */
+    public PecaColocada iniciar(PecaDomino peca) {
+        if (centro != null) throw new IllegalStateException("A mesa já foi iniciada.");
+        if (formato == FormatoMesa.TREM && !peca.isCarroca()) {
+            throw new IllegalArgumentException("O motor do trem precisa ser uma carroça: " + peca);
+        }
+        centro = PecaColocada.de(peca, false);
+        registrar(peca);
+        if (formato == FormatoMesa.TREM) {
+            for (int r = 0; r < valorPonta.length; r++) {
+                definirPonta(r, peca.getLadoEsquerdo());
+            }
+        } else {
+            definirPonta(0, peca.getLadoEsquerdo());
+            definirPonta(1, peca.getLadoDireito());
+            if (formato == FormatoMesa.GIRO && peca.isCarroca()) {
+                giro = GIRO_NO_CENTRO;
+                valorGiro = peca.getLadoEsquerdo();
+            }
+        }
+        for (int r = 0; r < valorPonta.length; r++) {
+            atualizarContribuicao(r);
+        }
+        return centro;
+    }
+
+    /**
+     * Coloca uma peça na ponta de um ramo, virando-a para que o lado que encaixa fique
+     * voltado para o centro. Com a mesa vazia, a peça vira o centro, qualquer que seja o ramo.
+     *
+     * @param ramo O ramo.
+     * @param peca A peça.
+     * @return A colocação da peça.
+     * @throws IllegalArgumentException se o ramo não estiver disponível ou a peça não encaixar.
+     */
+    public PecaColocada colocar(int ramo, PecaDomino peca) {
+        if (centro == null) return iniciar(peca);
+        int valor = valorPonta[ramo];
+        if (valor < 0 || !peca.podeConectar(valor)) {
+            throw new IllegalArgumentException("A peça " + peca + " não encaixa no ramo " + ramo + ".");
+        }
+        PecaColocada colocacao = PecaColocada.de(peca, peca.getLadoEsquerdo() != valor);
+        NoPeca novo = new NoPeca(colocacao);
+        if (pontas[ramo] == null) {
+            inicios[ramo] = novo;
+        } else {
+            pontas[ramo].setProximo(novo);
+            novo.setAnterior(pontas[ramo]);
+        }
+        pontas[ramo] = novo;
+        tamanhoRamo[ramo]++;
+        registrar(peca);
+        definirPonta(ramo, colocacao.getLadoDireito());
+
+        if (formato == FormatoMesa.GIRO && !giroAberto) {
+            if (giro == SEM_GIRO && peca.isCarroca()) {
+                giro = ramo;
+                tamanhoNoGiro = tamanhoRamo[ramo];
+                valorGiro = peca.getLadoEsquerdo();
+            } else if (giro == GIRO_NO_CENTRO ? tamanhoRamo[0] > 0 && tamanhoRamo[1] > 0
+                                              : giro >= 0 && tamanhoRamo[giro] > tamanhoNoGiro) {
+                abrirGiro();
+            }
+        }
+        atualizarContribuicao(ramo);
+        if (ramo < 2) atualizarContribuicao(1 - ramo);
+        return colocacao;
+    }
+
+    /**
+     * Abre os ramos 2 e 3 a partir dos lados livres da carroça do giro.
+     */
+    private void abrirGiro() {
+        giroAberto = true;
+        definirPonta(2, valorGiro);
+        definirPonta(3, valorGiro);
+        atualizarContribuicao(2);
+        atualizarContribuicao(3);
+    }
+
+    /**
+     * Atualiza a máscara e o tamanho depois de uma peça entrar na mesa.
+     *
+     * @param peca A peça colocada.
+     */
+    private void registrar(PecaDomino peca) {
+        tamanho++;
+        mascaraPecas[peca.getNumero() >>> 6] |= 1L << peca.getNumero();
+    }
+
+    /**
+     * Troca o valor aberto na ponta de um ramo, tornando-o disponível, e atualiza o índice por valor.
+     *
+     * @param ramo  O ramo.
+     * @param valor O novo valor da ponta.
+     */
+    private void definirPonta(int ramo, int valor) {
+        long bit = 1L << ramo;
+        int anterior = valorPonta[ramo];
+        if (anterior >= 0) {
+            ramosPorValor[anterior] &= ~bit;
+            if (ramosPorValor[anterior] == 0) valoresAbertos &= ~(1 << anterior);
+        }
+        valorPonta[ramo] = valor;
+        disponiveis |= bit;
+        ramosPorValor[valor] |= bit;
+        valoresAbertos |= 1 << valor;
+        jogavelValida = false;
+    }
+
+    /**
+     * Recalcula quanto um ramo contribui para a soma das pontas.
+     * Uma carroça na ponta conta os dois lados. Um ramo vazio conta o lado da peça
+     * central que está aberto para ele, exceto nos ramos do giro e do trem, que saem
+     * de uma carroça já contada; se a central é uma carroça e só um dos dois primeiros
+     * ramos está coberto, o outro conta a carroça inteira.
+     *
+     * @param ramo O ramo.
+     */
+    private void atualizarContribuicao(int ramo) {
+        int nova;
+        if (valorPonta[ramo] < 0) {
+            nova = 0;
+        } else if (pontas[ramo] != null) {
+            PecaColocada fim = pontas[ramo].getColocacao();
+            nova = fim.getPeca().isCarroca() ? 2 * fim.getLadoDireito() : fim.getLadoDireito();
+        } else if (formato == FormatoMesa.TREM || ramo >= 2) {
+            nova = 0;
+        } else if (centro.getPeca().isCarroca() && pontas[1 - ramo] != null) {
+            nova = 2 * valorPonta[ramo];
+        } else {
+            nova = valorPonta[ramo];
+        }
+        somaPontas += nova - contribuicao[ramo];
+        contribuicao[ramo] = nova;
+    }
+
+    /**
+     * Retorna o formato da mesa.
+     *
+     * @return O formato.
+     */
+    public FormatoMesa getFormato() {
+        return formato;
+    }
+
+    /**
+     * Retorna o número de ramos da mesa, disponíveis ou não.
+     *
+     * @return O número de ramos.
+     */
+    public int getNumeroRamos() {
+        return valorPonta.length;
+    }
+
+    /**
+     * Indica se a peça central já foi colocada.
+     *
+     * @return true se a mesa tiver alguma peça.
+     */
+    public boolean isIniciada() {
+        return centro != null;
+    }
+
+    /**
+     * Retorna a peça central.
+     *
+     * @return A colocação da peça central, ou null com a mesa vazia.
+     */
+    public PecaColocada getCentro() {
+        return centro;
+    }
+
+    /**
+     * Retorna o valor aberto na ponta de um ramo.
+     *
+     * @param ramo O ramo.
+     * @return O valor, ou -1 se ainda não se pode jogar no ramo.
+     */
+    public int getValorPonta(int ramo) {
+        return valorPonta[ramo];
+    }
+
+    /**
+     * Retorna a peça na ponta de um ramo.
+     *
+     * @param ramo O ramo.
+     * @return A colocação da última peça do ramo, ou null se ele estiver vazio.
+     */
+    public PecaColocada getPecaPonta(int ramo) {
+        return pontas[ramo] == null ? null : pontas[ramo].getColocacao();
+    }
+
+    /**
+     * Retorna o número de peças de um ramo, sem contar a central.
+     *
+     * @param ramo O ramo.
+     * @return O tamanho do ramo.
+     */
+    public int getTamanhoRamo(int ramo) {
+        return tamanhoRamo[ramo];
+    }
+
+    /**
+     * Retorna os ramos em que já se pode jogar.
+     *
+     * @return A máscara dos ramos disponíveis (bit {@code r} = ramo {@code r}).
+     */
+    public long getRamosDisponiveis() {
+        return disponiveis;
+    }
+
+    /**
+     * Retorna os ramos cuja ponta tem o valor informado.
+     *
+     * @param valor O valor.
+     * @return A máscara dos ramos que aceitam esse valor.
+     */
+    public long getRamosQueAceitam(int valor) {
+        return ramosPorValor[valor];
+    }
+
+    /**
+     * Retorna os ramos em que uma peça encaixa, por qualquer dos lados.
+     *
+     * @param peca A peça.
+     * @return A máscara dos ramos que aceitam a peça.
+     */
+    public long getRamosQueAceitam(PecaDomino peca) {
+        return ramosPorValor[peca.getLadoEsquerdo()] | ramosPorValor[peca.getLadoDireito()];
+    }
+
+    /**
+     * Retorna os valores abertos em algum ramo.
+     *
+     * @return A máscara dos valores (bit {@code v} = valor {@code v}).
+     */
+    public int getValoresAbertos() {
+        return valoresAbertos;
+    }
+
+    /**
+     * Retorna uma palavra da máscara das peças que encaixam em algum ramo.
+     * É recalculada só quando os valores abertos mudam.
+     *
+     * @param palavra A palavra da máscara.
+     * @return Os bits das peças jogáveis nessa palavra.
+     */
+    public long getMascaraJogavel(int palavra) {
+        if (!jogavelValida) {
+            for (int p = 0; p < TabelaPecas.PALAVRAS; p++) {
+                long m = 0;
+                for (int v = valoresAbertos; v != 0; v &= v - 1) {
+                    m |= TabelaPecas.mascaraDoValor(Integer.numberOfTrailingZeros(v), p);
+                }
+                mascaraJogavel[p] = m;
+            }
+            jogavelValida = true;
+        }
+        return mascaraJogavel[palavra];
+    }
+
+    /**
+     * Retorna a soma das pontas abertas, como no "All Fives": cada ponta conta o seu
+     * valor, e uma carroça na ponta conta os dois lados.
+     *
+     * @return A soma das pontas.
+     */
+    public int getSomaPontas() {
+        return somaPontas;
+    }
+
+    /**
+     * Retorna o número de peças na mesa, contando a central.
+     *
+     * @return O número de peças.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna uma palavra da máscara das peças na mesa.
+     *
+     * @param palavra A palavra da máscara.
+     * @return Os bits das peças {@code 64 * palavra} a {@code 64 * palavra + 63}.
+     */
+    public long getMascaraPecas(int palavra) {
+        return mascaraPecas[palavra];
+    }
+
+    /**
+     * Indica se uma peça já está na mesa.
+     *
+     * @param peca A peça.
+     * @return true se a peça foi jogada.
+     */
+    public boolean contem(PecaDomino peca) {
+        return (mascaraPecas[peca.getNumero() >>> 6] & (1L << peca.getNumero())) != 0;
+    }
+
+    /**
+     * Retorna as peças de um ramo, do centro para a ponta.
+     * Cria uma lista nova a cada chamada.
+     *
+     * @param ramo O ramo.
+     * @return As colocações do ramo.
+     */
+    public List<PecaColocada> getPecasRamo(int ramo) {
+        List<PecaColocada> lista = new ArrayList<>(tamanhoRamo[ramo]);
+        for (NoPeca no = inicios[ramo]; no != null; no = no.getProximo()) {
+            lista.add(no.getColocacao());
+        }
+        return lista;
+    }
+
+    /**
+     * Retorna a mesa no formato "centro [a|b]; 0: [b|c] ...; 1: ...".
+     *
+     * @return A representação da mesa.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("centro ").append(centro);
+        for (int r = 0; r < valorPonta.length; r++) {
+            if (valorPonta[r] < 0) continue;
+            sb.append("; ").append(r).append(':');
+            for (NoPeca no = inicios[r]; no != null; no = no.getProximo()) {
+                sb.append(' ').append(no.getColocacao());
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -9,6 +9,8 @@ import jogodomino.PecaDomino;
 public class NoPeca {
     /** A peça de dominó armazenada neste nó. */
     public PecaDomino peca;
+    /** A peça com a orientação em que foi colocada na mesa. */
+    public PecaColocada colocacao;
     /** Referência para o próximo nó na lista. */
     public NoPeca proximo;
     /** Referência para o nó anterior na lista. */
@@ -20,7 +22,17 @@ public class NoPeca {
      * @param peca A peça de dominó a ser armazenada neste nó.
      */
     public NoPeca(PecaDomino peca) {
-        this.peca = peca;
+        this(PecaColocada.de(peca, false));
+    }
+
+    /**
+     * Constrói um novo nó com a peça já orientada.
+     *
+     * @param colocacao A peça e sua orientação na mesa.
+     */
+    public NoPeca(PecaColocada colocacao) {
+        this.peca = colocacao.getPeca();
+        this.colocacao = colocacao;
     }
 
     /**
@@ -32,6 +44,15 @@ public class NoPeca {
         return peca;
     }
 
+    /**
+     * Retorna a peça com a orientação em que está na mesa.
+     *
+     * @return A colocação da peça.
+     */
+    public PecaColocada getColocacao() {
+        return colocacao;
+    }
+
     /**
      * Retorna o próximo nó na lista.
      *
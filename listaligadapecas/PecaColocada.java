@@ -0,0 +1,97 @@
+package listaligadapecas;
+
+import jogodomino.PecaDomino;
+import jogodomino.TabelaPecas;
+
+/**
+ * Representa uma peça já colocada na mesa, com a sua orientação.
+ * Como {@link PecaDomino} é imutável, a mesa guarda aqui se a peça foi virada
+ * para encaixar. Existem apenas duas instâncias por peça (normal e invertida),
+ * obtidas por {@link #de(PecaDomino, boolean)}.
+ */
+public class PecaColocada {
+    /** As colocações normais de cada peça, indexadas pelo número da peça. */
+    private static final PecaColocada[] NORMAIS = new PecaColocada[TabelaPecas.TOTAL_PECAS_SUPORTADO];
+    /** As colocações invertidas de cada peça, indexadas pelo número da peça. */
+    private static final PecaColocada[] INVERTIDAS = new PecaColocada[TabelaPecas.TOTAL_PECAS_SUPORTADO];
+
+    static {
+        for (int n = 0; n < TabelaPecas.TOTAL_PECAS_SUPORTADO; n++) {
+            NORMAIS[n] = new PecaColocada(PecaDomino.porNumero(n), false);
+            INVERTIDAS[n] = new PecaColocada(PecaDomino.porNumero(n), true);
+        }
+    }
+
+    /** A peça colocada. */
+    private final PecaDomino peca;
+    /** true se a peça foi virada, ficando com o maior lado à esquerda. */
+    private final boolean invertida;
+
+    /**
+     * Constrói uma colocação. Só é chamado na criação das instâncias canônicas.
+     *
+     * @param peca      A peça.
+     * @param invertida Se a peça está virada.
+     */
+    private PecaColocada(PecaDomino peca, boolean invertida) {
+        this.peca = peca;
+        this.invertida = invertida;
+    }
+
+    /**
+     * Retorna a colocação de uma peça com a orientação desejada.
+     *
+     * @param peca      A peça.
+     * @param invertida true se a peça está virada.
+     * @return A instância única dessa colocação.
+     */
+    public static PecaColocada de(PecaDomino peca, boolean invertida) {
+        return invertida ? INVERTIDAS[peca.getNumero()] : NORMAIS[peca.getNumero()];
+    }
+
+    /**
+     * Retorna a peça colocada.
+     *
+     * @return A peça de dominó.
+     */
+    public PecaDomino getPeca() {
+        return peca;
+    }
+
+    /**
+     * Indica se a peça foi virada ao ser colocada.
+     *
+     * @return true se a peça está invertida.
+     */
+    public boolean isInvertida() {
+        return invertida;
+    }
+
+    /**
+     * Retorna o valor que aparece à esquerda na mesa.
+     *
+     * @return O valor do lado esquerdo, já considerando a orientação.
+     */
+    public int getLadoEsquerdo() {
+        return invertida ? peca.getLadoDireito() : peca.getLadoEsquerdo();
+    }
+
+    /**
+     * Retorna o valor que aparece à direita na mesa.
+     *
+     * @return O valor do lado direito, já considerando a orientação.
+     */
+    public int getLadoDireito() {
+        return invertida ? peca.getLadoEsquerdo() : peca.getLadoDireito();
+    }
+
+    /**
+     * Retorna uma representação em String da peça como aparece na mesa, no formato "[X|Y]".
+     *
+     * @return A string formatada da peça.
+     */
+    @Override
+    public String toString() {
+        return "[" + getLadoEsquerdo() + "|" + getLadoDireito() + "]";
+    }
+}
@@ -0,0 +1,156 @@
+package metricas;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de valores não negativos (latências em nanossegundos, por exemplo) com
+ * faixas log-lineares, no estilo do HdrHistogram: os valores até 31 são exatos e cada
+ * potência de 2 acima deles é dividida em 16 faixas iguais, o que mantém o erro relativo
+ * de qualquer percentil abaixo de 1/32 para valores de 0 a {@link Long#MAX_VALUE}.
+ * Cada faixa é um {@link LongAdder}, então várias threads registram ao mesmo tempo
+ * sem trava e sem disputar a mesma linha de cache; a leitura soma as faixas e pode
+ * ver um registro pela metade, o que basta para monitoração.
+ */
+public class Histograma {
+    /** Bits de precisão dentro de cada potência de 2. */
+    private static final int BITS_SUBFAIXA = 5;
+    /** Faixas dos valores abaixo de {@code 2^BITS_SUBFAIXA}, que são exatas. */
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    /** Faixas de cada potência de 2 acima das exatas. */
+    private static final int METADE = SUBFAIXAS / 2;
+    /** O número total de faixas. */
+    private static final int TOTAL_FAIXAS = SUBFAIXAS + (63 - BITS_SUBFAIXA) * METADE;
+
+    /** A contagem de cada faixa. */
+    private final LongAdder[] faixas = new LongAdder[TOTAL_FAIXAS];
+    /** Quantos valores foram registrados. */
+    private final LongAdder quantidade = new LongAdder();
+    /** A soma dos valores registrados. */
+    private final LongAdder soma = new LongAdder();
+    /** O maior valor registrado. */
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constrói um histograma vazio.
+     */
+    public Histograma() {
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            faixas[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra um valor. Valores negativos contam como zero.
+     *
+     * @param valor O valor.
+     */
+    public void registrar(long valor) {
+        if (valor < 0) valor = 0;
+        faixas[faixa(valor)].increment();
+        quantidade.increment();
+        soma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * Calcula a faixa de um valor.
+     *
+     * @param valor O valor, não negativo.
+     * @return O índice da faixa.
+     */
+    static int faixa(long valor) {
+        int expoente = 64 - BITS_SUBFAIXA - Long.numberOfLeadingZeros(valor | (SUBFAIXAS - 1));
+        if (expoente == 0) return (int) valor;
+        return SUBFAIXAS + (expoente - 1) * METADE + (int) (valor >>> expoente) - METADE;
+    }
+
+    /**
+     * Calcula o menor valor que cai numa faixa.
+     *
+     * @param faixa O índice da faixa.
+     * @return O início da faixa.
+     */
+    static long inicioDaFaixa(int faixa) {
+        if (faixa < SUBFAIXAS) return faixa;
+        int expoente = (faixa - SUBFAIXAS) / METADE + 1;
+        long mantissa = (faixa - SUBFAIXAS) % METADE + METADE;
+        return mantissa << expoente;
+    }
+
+    /**
+     * Estima um percentil dos valores registrados.
+     *
+     * @param percentil O percentil, entre 0 e 100.
+     * @return O meio da faixa em que o percentil cai, ou 0 se nada foi registrado.
+     */
+    public long getPercentil(double percentil) {
+        long[] contagens = new long[TOTAL_FAIXAS];
+        long total = 0;
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            contagens[i] = faixas[i].sum();
+            total += contagens[i];
+        }
+        if (total == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(total * percentil / 100));
+        long acumulado = 0;
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                long inicio = inicioDaFaixa(i);
+                long fim = i + 1 < TOTAL_FAIXAS ? inicioDaFaixa(i + 1) : Long.MAX_VALUE;
+                return Math.min(inicio + (fim - 1 - inicio) / 2, getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    /**
+     * Retorna quantos valores foram registrados.
+     *
+     * @return A quantidade.
+     */
+    public long getQuantidade() {
+        return quantidade.sum();
+    }
+
+    /**
+     * Retorna a soma dos valores registrados.
+     *
+     * @return A soma.
+     */
+    public long getSoma() {
+        return soma.sum();
+    }
+
+    /**
+     * Retorna a média dos valores registrados.
+     *
+     * @return A média, ou 0 se nada foi registrado.
+     */
+    public double getMedia() {
+        long n = quantidade.sum();
+        return n == 0 ? 0 : (double) soma.sum() / n;
+    }
+
+    /**
+     * Retorna o maior valor registrado.
+     *
+     * @return O máximo, ou 0 se nada foi registrado.
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Zera o histograma. Registros feitos durante a chamada podem ser perdidos.
+     */
+    public void reiniciar() {
+        for (LongAdder f : faixas) {
+            f.reset();
+        }
+        quantidade.reset();
+        soma.reset();
+        maximo.reset();
+    }
+}
@@ -0,0 +1,312 @@
+package metricas;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * O registro das {@link Operacao operações} medidas pelo motor, pela IA e pela interface.
+ * Cada operação é registrada no servidor JMX da plataforma ao ser criada, e o conjunto
+ * pode ser despejado periodicamente em CSV ou texto, sem nenhum serviço externo.
+ * <p>
+ * As métricas começam ligadas; {@code -Ddomino.metricas=false} as desliga e
+ * {@code -Ddomino.metricas.alocacao=true} liga a medição de bytes alocados, que custa
+ * mais. Com {@code -Ddomino.metricas.csv=arquivo} o despejo em CSV começa sozinho, a cada
+ * {@code domino.metricas.periodo} segundos (padrão: 10).
+ */
+public final class Metricas {
+    /** Os nomes das colunas do CSV. */
+    private static final String CABECALHO_CSV =
+        "instante,operacao,contagem,media_ns,p50_ns,p90_ns,p99_ns,p999_ns,maximo_ns,bytes_alocados";
+
+    /** As operações já criadas, por nome. */
+    private static final ConcurrentHashMap<String, Operacao> OPERACOES = new ConcurrentHashMap<>();
+    /** A origem dos instantes medidos, para que nenhuma marca seja zero ou negativa. */
+    private static final long ORIGEM = System.nanoTime() - 1;
+    /** O acesso aos bytes alocados por thread, ou null se a JVM não o oferece. */
+    private static final com.sun.management.ThreadMXBean THREADS = threadsComAlocacao();
+
+    /** Indica se as operações estão sendo medidas. */
+    private static volatile boolean ativas = !"false".equals(System.getProperty("domino.metricas"));
+    /** Indica se os bytes alocados também estão sendo medidos. */
+    private static volatile boolean medindoAlocacao;
+    /** A thread dos despejos periódicos, criada no primeiro despejo. */
+    private static ScheduledExecutorService despejos;
+    /** O despejo periódico em andamento, ou null. */
+    private static ScheduledFuture<?> despejoAtual;
+
+    static {
+        if (Boolean.getBoolean("domino.metricas.alocacao")) setMedindoAlocacao(true);
+        String csv = System.getProperty("domino.metricas.csv");
+        if (csv != null) {
+            iniciarDespejo(Paths.get(csv), Long.getLong("domino.metricas.periodo", 10));
+        }
+    }
+
+    /**
+     * Classe só com métodos estáticos.
+     */
+    private Metricas() {
+    }
+
+    /**
+     * Retorna a operação com o nome informado, criando-a e registrando-a no JMX se
+     * ainda não existir. Toda execução é cronometrada. Guarde o resultado num campo
+     * estático: a busca pelo nome não deve ficar no caminho quente.
+     *
+     * @param nome O nome, como {@code "ia.mcts.decisao"}.
+     * @return A operação.
+     */
+    public static Operacao operacao(String nome) {
+        return operacao(nome, 1);
+    }
+
+    /**
+     * Retorna a operação com o nome informado, criando-a com a amostragem dada se
+     * ainda não existir.
+     *
+     * @param nome       O nome, como {@code "jogo.realizarJogada"}.
+     * @param amostragem Uma em cada quantas execuções é cronometrada (potência de 2);
+     *                   use 1 para operações que levam microssegundos ou mais.
+     * @return A operação.
+     */
+    public static Operacao operacao(String nome, int amostragem) {
+        return OPERACOES.computeIfAbsent(nome, n -> {
+            Operacao op = new Operacao(n, amostragem);
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(op, new ObjectName("domino:type=Operacao,name=" + n));
+            } catch (JMException | SecurityException ex) {
+                // Sem JMX as medidas continuam disponíveis pelos despejos
+            }
+            return op;
+        });
+    }
+
+    /**
+     * Retorna todas as operações criadas, em ordem de nome.
+     *
+     * @return As operações.
+     */
+    public static List<Operacao> getOperacoes() {
+        List<Operacao> lista = new ArrayList<>(OPERACOES.values());
+        lista.sort(Comparator.comparing(Operacao::getNome));
+        return lista;
+    }
+
+    /**
+     * Liga ou desliga as medições. Execuções já iniciadas terminam normalmente.
+     *
+     * @param ativas true para medir.
+     */
+    public static void setAtivas(boolean ativas) {
+        Metricas.ativas = ativas;
+    }
+
+    /**
+     * Indica se as operações estão sendo medidas.
+     *
+     * @return true se as métricas estão ligadas.
+     */
+    public static boolean isAtivas() {
+        return ativas;
+    }
+
+    /**
+     * Liga ou desliga a medição dos bytes alocados por operação. Cada medição lê o
+     * contador de alocação da thread no início e no fim, o que custa dezenas de
+     * nanossegundos; por isso começa desligada.
+     *
+     * @param medir true para medir as alocações.
+     * @throws IllegalStateException se a JVM não informa as alocações por thread.
+     */
+    public static void setMedindoAlocacao(boolean medir) {
+        if (medir && THREADS == null) {
+            throw new IllegalStateException("A JVM não informa os bytes alocados por thread.");
+        }
+        medindoAlocacao = medir;
+    }
+
+    /**
+     * Indica se os bytes alocados estão sendo medidos.
+     *
+     * @return true se a medição de alocação está ligada.
+     */
+    public static boolean isMedindoAlocacao() {
+        return medindoAlocacao;
+    }
+
+    /**
+     * Zera as medidas de todas as operações.
+     */
+    public static void reiniciar() {
+        for (Operacao op : OPERACOES.values()) {
+            op.reiniciar();
+        }
+    }
+
+    /**
+     * Retorna o instante atual, contado a partir da carga desta classe.
+     *
+     * @return O instante em nanossegundos, sempre positivo.
+     */
+    static long agora() {
+        return System.nanoTime() - ORIGEM;
+    }
+
+    /**
+     * Retorna quantos bytes a thread atual já alocou.
+     *
+     * @return O total de bytes, ou 0 se a JVM não informa.
+     */
+    static long bytesAlocadosPelaThread() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Obtém o acesso aos bytes alocados por thread, ligando a contagem na JVM.
+     *
+     * @return O bean, ou null se a JVM não o oferece.
+     */
+    private static com.sun.management.ThreadMXBean threadsComAlocacao() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) threads;
+        try {
+            if (!sun.isThreadAllocatedMemorySupported()) return null;
+            sun.setThreadAllocatedMemoryEnabled(true);
+            return sun;
+        } catch (UnsupportedOperationException | SecurityException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Monta um relatório legível com uma linha por operação já executada.
+     *
+     * @return O relatório.
+     */
+    public static String relatorio() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-28s %12s %10s %10s %10s %10s %12s %14s%n",
+            "operação", "contagem", "média µs", "p50 µs", "p99 µs", "p99,9 µs", "máx µs", "bytes"));
+        for (Operacao op : getOperacoes()) {
+            if (op.getContagem() == 0) continue;
+            sb.append(String.format("%-28s %12d %10.2f %10.2f %10.2f %10.2f %12.2f %14d%n",
+                op.getNome(), op.getContagem(), op.getMediaNanos() / 1e3, op.getP50Nanos() / 1e3,
+                op.getP99Nanos() / 1e3, op.getP999Nanos() / 1e3, op.getMaximoNanos() / 1e3,
+                op.getBytesAlocados()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Acrescenta a um arquivo CSV uma linha por operação, com o instante atual.
+     * O cabeçalho é escrito se o arquivo ainda não existe ou está vazio.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @throws IOException se a escrita falhar.
+     */
+    public static void escreverCsv(Path arquivo) throws IOException {
+        boolean novo = !Files.exists(arquivo) || Files.size(arquivo) == 0;
+        String instante = Instant.now().toString();
+        try (BufferedWriter saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (novo) {
+                saida.write(CABECALHO_CSV);
+                saida.newLine();
+            }
+            for (Operacao op : getOperacoes()) {
+                Histograma h = op.getDuracoes();
+                saida.write(String.format(Locale.ROOT, "%s,%s,%d,%.1f,%d,%d,%d,%d,%d,%d",
+                    instante, op.getNome(), op.getContagem(), h.getMedia(), h.getPercentil(50),
+                    h.getPercentil(90), h.getPercentil(99), h.getPercentil(99.9), h.getMaximo(),
+                    op.getBytesAlocados()));
+                saida.newLine();
+            }
+        }
+    }
+
+    /**
+     * Começa a acrescentar as medidas a um arquivo CSV periodicamente, substituindo
+     * o despejo anterior, se houver.
+     *
+     * @param arquivo          O caminho do arquivo.
+     * @param periodoSegundos  O intervalo entre os despejos.
+     */
+    public static void iniciarDespejo(Path arquivo, long periodoSegundos) {
+        agendar(() -> {
+            try {
+                escreverCsv(arquivo);
+            } catch (IOException ex) {
+                System.err.println("Falha ao gravar as métricas em " + arquivo + ": " + ex.getMessage());
+            }
+        }, periodoSegundos);
+    }
+
+    /**
+     * Começa a imprimir o {@link #relatorio()} periodicamente, substituindo o despejo
+     * anterior, se houver.
+     *
+     * @param saida           Onde imprimir.
+     * @param periodoSegundos O intervalo entre os despejos.
+     */
+    public static void iniciarDespejo(PrintStream saida, long periodoSegundos) {
+        agendar(() -> saida.print(relatorio()), periodoSegundos);
+    }
+
+    /**
+     * Para o despejo periódico em andamento.
+     */
+    public static synchronized void pararDespejo() {
+        if (despejoAtual != null) despejoAtual.cancel(false);
+        despejoAtual = null;
+    }
+
+    /**
+     * Agenda uma tarefa de despejo numa thread de fundo. Uma exceção que escapasse da
+     * tarefa cancelaria todas as execuções seguintes, então ela é registrada e o
+     * despejo continua no próximo período.
+     *
+     * @param tarefa          O despejo.
+     * @param periodoSegundos O intervalo entre as execuções.
+     */
+    private static synchronized void agendar(Runnable tarefa, long periodoSegundos) {
+        if (periodoSegundos <= 0) throw new IllegalArgumentException("O período deve ser positivo.");
+        pararDespejo();
+        if (despejos == null) {
+            despejos = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metricas-despejo");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        Runnable protegida = () -> {
+            try {
+                tarefa.run();
+            } catch (RuntimeException ex) {
+                System.err.println("Falha no despejo das métricas: " + ex);
+            }
+        };
+        despejoAtual = despejos.scheduleAtFixedRate(protegida, periodoSegundos, periodoSegundos, TimeUnit.SECONDS);
+    }
+}
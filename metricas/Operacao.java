@@ -0,0 +1,181 @@
+package metricas;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Uma operação medida: quantas vezes foi executada, o histograma das durações e,
+ * quando a medição de alocação está ligada, os bytes alocados.
+ * Operações de caminho quente, que levam poucas centenas de nanossegundos, podem ser
+ * amostradas: só uma em cada {@code amostragem} execuções é cronometrada e contada,
+ * valendo por {@code amostragem}, pois ler o relógio ou incrementar um contador
+ * compartilhado a cada execução custaria uma fração visível da própria operação.
+ * Nas demais o custo é uma leitura de campo e um sorteio local da thread.
+ * O uso é sempre em par, de preferência com {@code finally}:
+ * <pre>
+ *     long marca = OPERACAO.iniciar();
+ *     try {
+ *         ...
+ *     } finally {
+ *         OPERACAO.terminar(marca);
+ *     }
+ * </pre>
+ * Com as métricas desligadas, {@link #iniciar()} devolve 0 e {@link #terminar(long)}
+ * não faz nada, então o custo é uma leitura de campo por chamada.
+ * As instâncias são criadas por {@link Metricas#operacao(String)}.
+ */
+public class Operacao implements OperacaoMBean {
+    /** Quantas operações com alocação medida podem estar abertas ao mesmo tempo numa thread. */
+    private static final int PROFUNDIDADE_MAXIMA = 32;
+    /**
+     * Os bytes já alocados pela thread no início de cada operação aberta com alocação
+     * medida; a posição 0 guarda quantas estão abertas.
+     */
+    private static final ThreadLocal<long[]> ALOCADOS_NO_INICIO =
+        ThreadLocal.withInitial(() -> new long[PROFUNDIDADE_MAXIMA + 1]);
+
+    /** O nome da operação. */
+    private final String nome;
+    /** A máscara que escolhe as execuções cronometradas: uma em cada {@code mascaraAmostragem + 1}. */
+    private final int mascaraAmostragem;
+    /** Quantas execuções foram iniciadas; nas operações amostradas, uma estimativa. */
+    private final LongAdder contagem = new LongAdder();
+    /** As durações, em nanossegundos. */
+    private final Histograma duracoes = new Histograma();
+    /** Os bytes alocados durante as execuções medidas. */
+    private final LongAdder bytesAlocados = new LongAdder();
+
+    /**
+     * Constrói uma operação sem medidas.
+     *
+     * @param nome       O nome da operação.
+     * @param amostragem Uma em cada quantas execuções é cronometrada (potência de 2).
+     */
+    Operacao(String nome, int amostragem) {
+        if (Integer.bitCount(amostragem) != 1) {
+            throw new IllegalArgumentException("A amostragem deve ser uma potência de 2.");
+        }
+        this.nome = nome;
+        this.mascaraAmostragem = amostragem - 1;
+    }
+
+    /**
+     * Marca o início de uma execução.
+     *
+     * @return A marca a ser passada para {@link #terminar(long)}: 0 com as métricas
+     *         desligadas ou se a execução não foi sorteada para ser cronometrada,
+     *         negativa quando a alocação também está sendo medida.
+     */
+    public long iniciar() {
+        if (!Metricas.isAtivas()) return 0;
+        if (mascaraAmostragem == 0) {
+            contagem.increment();
+        } else if ((ThreadLocalRandom.current().nextInt() & mascaraAmostragem) != 0) {
+            return 0;
+        } else {
+            contagem.add(mascaraAmostragem + 1);
+        }
+        long agora = Metricas.agora();
+        if (Metricas.isMedindoAlocacao()) {
+            long[] pilha = ALOCADOS_NO_INICIO.get();
+            int aberta = (int) pilha[0];
+            if (aberta < PROFUNDIDADE_MAXIMA) {
+                pilha[aberta + 1] = Metricas.bytesAlocadosPelaThread();
+                pilha[0] = aberta + 1;
+                return -agora;
+            }
+        }
+        return agora;
+    }
+
+    /**
+     * Marca o fim de uma execução e registra as medidas.
+     *
+     * @param marca O valor devolvido por {@link #iniciar()}.
+     */
+    public void terminar(long marca) {
+        if (marca == 0) return;
+        long agora = Metricas.agora();
+        if (marca < 0) {
+            marca = -marca;
+            long[] pilha = ALOCADOS_NO_INICIO.get();
+            int aberta = (int) pilha[0];
+            if (aberta > 0) {
+                bytesAlocados.add(Metricas.bytesAlocadosPelaThread() - pilha[aberta]);
+                pilha[0] = aberta - 1;
+            }
+        }
+        duracoes.registrar(agora - marca);
+    }
+
+    /**
+     * Registra uma execução medida por fora, como uma duração já conhecida.
+     *
+     * @param nanos A duração, em nanossegundos.
+     */
+    public void registrar(long nanos) {
+        if (!Metricas.isAtivas()) return;
+        contagem.increment();
+        duracoes.registrar(nanos);
+    }
+
+    /**
+     * Retorna o nome da operação.
+     *
+     * @return O nome.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Retorna o histograma das durações.
+     *
+     * @return O histograma, em nanossegundos.
+     */
+    public Histograma getDuracoes() {
+        return duracoes;
+    }
+
+    @Override
+    public long getContagem() {
+        return contagem.sum();
+    }
+
+    @Override
+    public double getMediaNanos() {
+        return duracoes.getMedia();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return duracoes.getPercentil(50);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return duracoes.getPercentil(99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return duracoes.getPercentil(99.9);
+    }
+
+    @Override
+    public long getMaximoNanos() {
+        return duracoes.getMaximo();
+    }
+
+    @Override
+    public long getBytesAlocados() {
+        return bytesAlocados.sum();
+    }
+
+    @Override
+    public void reiniciar() {
+        contagem.reset();
+        duracoes.reiniciar();
+        bytesAlocados.reset();
+    }
+}
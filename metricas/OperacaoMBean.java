@@ -0,0 +1,61 @@
+package metricas;
+
+/**
+ * A interface JMX de uma {@link Operacao}: os atributos que aparecem no JConsole ou
+ * no VisualVM, sob {@code domino:type=Operacao,name=<nome>}.
+ */
+public interface OperacaoMBean {
+    /**
+     * Retorna quantas vezes a operação foi executada.
+     *
+     * @return A contagem; nas operações amostradas, estimada a partir das execuções sorteadas.
+     */
+    long getContagem();
+
+    /**
+     * Retorna a duração média da operação.
+     *
+     * @return A média, em nanossegundos.
+     */
+    double getMediaNanos();
+
+    /**
+     * Retorna a mediana da duração.
+     *
+     * @return O percentil 50, em nanossegundos.
+     */
+    long getP50Nanos();
+
+    /**
+     * Retorna o percentil 99 da duração.
+     *
+     * @return O percentil 99, em nanossegundos.
+     */
+    long getP99Nanos();
+
+    /**
+     * Retorna o percentil 99,9 da duração.
+     *
+     * @return O percentil 99,9, em nanossegundos.
+     */
+    long getP999Nanos();
+
+    /**
+     * Retorna a maior duração.
+     *
+     * @return O máximo, em nanossegundos.
+     */
+    long getMaximoNanos();
+
+    /**
+     * Retorna os bytes alocados pelas execuções cronometradas com a alocação ligada.
+     *
+     * @return O total de bytes.
+     */
+    long getBytesAlocados();
+
+    /**
+     * Zera as medidas da operação.
+     */
+    void reiniciar();
+}
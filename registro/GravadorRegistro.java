@@ -0,0 +1,156 @@
+package registro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Grava registros de partidas em arquivo binário através de um {@link FileChannel},
+ * acumulando os bytes num buffer e só escrevendo no disco quando ele enche.
+ * O arquivo começa com o cabeçalho {@code "DOMR"} e a versão do formato; depois vem
+ * cada partida: número de jogadores, quantidade de peças, ordem do monte, quantidade
+ * de eventos (inteiro de tamanho variável) e os eventos.
+ * Os métodos são sincronizados para que várias threads de simulação possam gravar no mesmo arquivo.
+ */
+public class GravadorRegistro implements Closeable {
+    /** Os bytes iniciais de todo arquivo de registro. */
+    static final byte[] ASSINATURA = {'D', 'O', 'M', 'R'};
+    /** A versão atual do formato; a 2 numera as peças até o duplo-doze (veja {@link RegistroPartida}). */
+    static final int VERSAO = 2;
+    /** O tamanho do buffer de escrita. */
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    /** O canal do arquivo de destino. */
+    private final FileChannel canal;
+    /** O buffer onde as partidas são acumuladas antes da escrita. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+    /** Quantas partidas já foram gravadas. */
+    private long partidas;
+
+    /**
+     * Abre um arquivo para gravação. Se ele já existir e tiver conteúdo, as novas
+     * partidas são acrescentadas ao fim; senão, o cabeçalho é escrito.
+     * Só se acrescenta a um arquivo da versão atual: partidas novas sob um cabeçalho
+     * antigo seriam lidas com a codificação errada por {@link LeitorRegistro}.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @throws IOException se o arquivo não puder ser aberto, ou se já tiver conteúdo e
+     *                     não for um registro da versão atual.
+     */
+    public GravadorRegistro(Path arquivo) throws IOException {
+        boolean vazio = !Files.exists(arquivo) || Files.size(arquivo) == 0;
+        if (!vazio) conferirCabecalho(arquivo);
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        if (vazio) {
+            buffer.put(ASSINATURA).put((byte) VERSAO);
+        }
+    }
+
+    /**
+     * Confere se um arquivo existente começa com a assinatura e a versão atual.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @throws IOException se o arquivo não puder ser lido ou tiver outro cabeçalho.
+     */
+    private static void conferirCabecalho(Path arquivo) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(ASSINATURA.length + 1);
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            while (cabecalho.hasRemaining() && leitura.read(cabecalho) >= 0) {
+                // lê até completar o cabeçalho ou o arquivo acabar
+            }
+        }
+        byte[] lido = cabecalho.array();
+        if (cabecalho.hasRemaining() || !Arrays.equals(lido, 0, ASSINATURA.length, ASSINATURA, 0, ASSINATURA.length)
+            || lido[ASSINATURA.length] != VERSAO) {
+            throw new IOException("Arquivo não é um registro de partidas da versão " + VERSAO + ": " + arquivo);
+        }
+    }
+
+    /**
+     * Acrescenta uma partida ao arquivo.
+     *
+     * @param registro O registro da partida.
+     * @throws IOException se a escrita falhar.
+     */
+    public synchronized void gravar(RegistroPartida registro) throws IOException {
+        byte[] ordem = registro.getOrdemMonte();
+        int tamanho = registro.getTamanho();
+        garantirEspaco(2 + ordem.length + 5);
+        buffer.put((byte) registro.getNumeroJogadores());
+        buffer.put((byte) ordem.length);
+        buffer.put(ordem);
+        escreverVarint(tamanho);
+
+        byte[] eventos = registro.getEventos();
+        for (int escritos = 0; escritos < tamanho; ) {
+            garantirEspaco(1);
+            int n = Math.min(buffer.remaining(), tamanho - escritos);
+            buffer.put(eventos, escritos, n);
+            escritos += n;
+        }
+        partidas++;
+    }
+
+    /**
+     * Escreve um inteiro não negativo usando 7 bits por byte; o bit mais alto indica
+     * que há mais bytes. Números menores que 128 ocupam um único byte.
+     *
+     * @param valor O valor a ser escrito.
+     */
+    private void escreverVarint(int valor) {
+        while ((valor & ~0x7F) != 0) {
+            buffer.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        buffer.put((byte) valor);
+    }
+
+    /**
+     * Esvazia o buffer no disco se não houver espaço para os próximos bytes.
+     *
+     * @param bytes Quantos bytes serão escritos em seguida.
+     * @throws IOException se a escrita falhar.
+     */
+    private void garantirEspaco(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) descarregar();
+    }
+
+    /**
+     * Escreve no disco tudo o que está no buffer.
+     *
+     * @throws IOException se a escrita falhar.
+     */
+    public synchronized void descarregar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Retorna quantas partidas foram gravadas por este gravador.
+     *
+     * @return O número de partidas.
+     */
+    public synchronized long getPartidas() {
+        return partidas;
+    }
+
+    /**
+     * Descarrega o buffer e fecha o arquivo.
+     *
+     * @throws IOException se a escrita falhar.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        descarregar();
+        canal.close();
+    }
+}
@@ -0,0 +1,199 @@
+package registro;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import jogodomino.TabelaPecas;
+
+/**
+ * Lê, em sequência, as partidas de um arquivo gravado por {@link GravadorRegistro}.
+ * A leitura é feita em blocos através de um {@link FileChannel}.
+ * Arquivos da versão 1 (só duplo-seis, com as peças numeradas em ordem lexicográfica
+ * e outra codificação de eventos) são convertidos para o formato atual na leitura.
+ */
+public class LeitorRegistro implements Closeable {
+    /** O tamanho do buffer de leitura. */
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    /** A primeira versão do formato, que ainda é aceita. */
+    private static final int VERSAO_1 = 1;
+    /** O número atual de cada peça, indexado pelo número que ela tinha na versão 1. */
+    private static final byte[] NUMERO_VERSAO_1 = new byte[TabelaPecas.TOTAL_PECAS];
+
+    static {
+        // Na versão 1 as peças eram numeradas [0|0], [0|1], ..., [0|6], [1|1], ..., [6|6]
+        int antigo = 0;
+        for (int a = 0; a <= TabelaPecas.MAIOR_VALOR; a++) {
+            for (int b = a; b <= TabelaPecas.MAIOR_VALOR; b++) {
+                NUMERO_VERSAO_1[antigo++] = (byte) TabelaPecas.numero(a, b);
+            }
+        }
+    }
+
+    /** O canal do arquivo de origem. */
+    private final FileChannel canal;
+    /** O buffer com os bytes lidos e ainda não consumidos. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+    /** A versão do formato do arquivo. */
+    private final int versao;
+
+    /**
+     * Abre um arquivo de registro e confere o cabeçalho.
+     *
+     * @param arquivo O caminho do arquivo.
+     * @throws IOException se o arquivo não puder ser lido ou não for um registro válido.
+     */
+    public LeitorRegistro(Path arquivo) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        try {
+            this.versao = lerCabecalho(arquivo);
+        } catch (IOException | RuntimeException e) {
+            // Quem chamou não recebe o leitor, então ninguém mais fecharia o canal
+            try {
+                canal.close();
+            } catch (IOException f) {
+                e.addSuppressed(f);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Lê e confere a assinatura e a versão no início do arquivo.
+     *
+     * @param arquivo O caminho do arquivo, para a mensagem de erro.
+     * @return A versão do formato.
+     * @throws IOException se a leitura falhar ou o cabeçalho for curto ou inválido.
+     */
+    private int lerCabecalho(Path arquivo) throws IOException {
+        buffer.flip();
+        byte[] assinatura = new byte[GravadorRegistro.ASSINATURA.length];
+        try {
+            garantir(assinatura.length + 1);
+        } catch (EOFException e) {
+            throw new IOException("Arquivo não é um registro de partidas válido: " + arquivo, e);
+        }
+        buffer.get(assinatura);
+        int lida = buffer.get();
+        if (!Arrays.equals(assinatura, GravadorRegistro.ASSINATURA)
+            || (lida != GravadorRegistro.VERSAO && lida != VERSAO_1)) {
+            throw new IOException("Arquivo não é um registro de partidas válido: " + arquivo);
+        }
+        return lida;
+    }
+
+    /**
+     * Lê a próxima partida do arquivo.
+     *
+     * @return O registro da partida, ou null se o arquivo acabou.
+     * @throws IOException se a leitura falhar ou o arquivo estiver truncado.
+     */
+    public RegistroPartida proxima() throws IOException {
+        if (!buffer.hasRemaining() && !preencher()) return null;
+
+        garantir(2);
+        // Lidos sem sinal: um byte corrompido acima de 127 não pode virar um tamanho negativo
+        int numeroJogadores = Byte.toUnsignedInt(buffer.get());
+        byte[] ordem = new byte[Byte.toUnsignedInt(buffer.get())];
+        garantir(ordem.length);
+        buffer.get(ordem);
+
+        int tamanho = lerVarint();
+        if (tamanho < 0) throw new IOException("Tamanho de partida inválido: " + tamanho);
+        byte[] eventos = new byte[tamanho];
+        for (int lidos = 0; lidos < tamanho; ) {
+            garantir(1);
+            int n = Math.min(buffer.remaining(), tamanho - lidos);
+            buffer.get(eventos, lidos, n);
+            lidos += n;
+        }
+        if (versao == VERSAO_1) converterVersao1(ordem, eventos);
+        return new RegistroPartida(numeroJogadores, ordem, eventos, tamanho);
+    }
+
+    /**
+     * Converte, no lugar, a ordem do monte e os eventos de uma partida da versão 1.
+     * Na versão 1 cada evento era {@code 00LPPPPP} (jogada da peça {@code P}, na esquerda
+     * se {@code L} = 1), {@code 01000000} (compra) ou {@code 10000000} (passagem de turno).
+     *
+     * @param ordem   A ordem do monte.
+     * @param eventos Os eventos.
+     * @throws IOException se a partida tiver um número de peça ou evento inválido.
+     */
+    private static void converterVersao1(byte[] ordem, byte[] eventos) throws IOException {
+        if (ordem.length != TabelaPecas.TOTAL_PECAS) throw new IOException("Monte inválido na versão 1.");
+        for (int i = 0; i < ordem.length; i++) {
+            int antigo = ordem[i] & 0xFF;
+            if (antigo >= TabelaPecas.TOTAL_PECAS) throw new IOException("Peça inválida na versão 1: " + antigo);
+            ordem[i] = NUMERO_VERSAO_1[antigo];
+        }
+        for (int i = 0; i < eventos.length; i++) {
+            int evento = eventos[i] & 0xFF;
+            if (evento == 0x40) {
+                eventos[i] = (byte) RegistroPartida.COMPRA;
+            } else if (evento == 0x80) {
+                eventos[i] = (byte) RegistroPartida.TURNO;
+            } else if ((evento & 0xC0) == 0 && (evento & 0x1F) < TabelaPecas.TOTAL_PECAS) {
+                int esquerda = (evento & 0x20) != 0 ? RegistroPartida.ESQUERDA : 0;
+                eventos[i] = (byte) (NUMERO_VERSAO_1[evento & 0x1F] << 1 | esquerda);
+            } else {
+                throw new IOException("Evento inválido na versão 1: " + evento);
+            }
+        }
+    }
+
+    /**
+     * Lê um inteiro gravado com 7 bits por byte.
+     *
+     * @return O valor lido.
+     * @throws IOException se o arquivo acabar no meio do número.
+     */
+    private int lerVarint() throws IOException {
+        int valor = 0;
+        for (int deslocamento = 0; ; deslocamento += 7) {
+            garantir(1);
+            int b = buffer.get();
+            valor |= (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) return valor;
+        }
+    }
+
+    /**
+     * Garante que o buffer tenha pelo menos a quantidade de bytes pedida.
+     *
+     * @param bytes Quantos bytes são necessários (no máximo o tamanho do buffer).
+     * @throws IOException se o arquivo acabar antes.
+     */
+    private void garantir(int bytes) throws IOException {
+        while (buffer.remaining() < bytes) {
+            if (!preencher()) throw new EOFException("Registro truncado.");
+        }
+    }
+
+    /**
+     * Move os bytes não consumidos para o início do buffer e lê mais do arquivo.
+     *
+     * @return true se algum byte foi lido, false no fim do arquivo.
+     * @throws IOException se a leitura falhar.
+     */
+    private boolean preencher() throws IOException {
+        buffer.compact();
+        int lidos = canal.read(buffer);
+        buffer.flip();
+        return lidos > 0;
+    }
+
+    /**
+     * Fecha o arquivo.
+     *
+     * @throws IOException se o fechamento falhar.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
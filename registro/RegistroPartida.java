@@ -0,0 +1,182 @@
+package registro;
+
+import java.util.Arrays;
+import java.util.List;
+import jogodomino.Jogador;
+import jogodomino.JogoDomino;
+import jogodomino.OuvinteJogo;
+import jogodomino.PecaDomino;
+import listaligadapecas.PecaColocada;
+
+/**
+ * Registro só de acréscimos de tudo o que acontece numa partida: a ordem do monte
+ * (que determina a distribuição) e cada jogada, compra e passagem de turno.
+ * Cada evento ocupa um único byte:
+ * <ul>
+ *   <li>{@code peça * 2 + L}: jogada da peça, na esquerda se {@code L} = 1
+ *       (até 181 no duplo-doze);</li>
+ *   <li>{@code 0xFE}: compra da peça do topo do monte;</li>
+ *   <li>{@code 0xFF}: passagem do turno para o próximo jogador.</li>
+ * </ul>
+ * O conjunto de peças é deduzido do tamanho da ordem do monte.
+ * Como o monte é conhecido, as compras não precisam dizer qual peça saiu, e a
+ * partida pode ser reproduzida exatamente com {@link #reproduzir(List)}.
+ */
+public class RegistroPartida implements OuvinteJogo {
+    /** Evento de compra do monte. */
+    static final int COMPRA = 0xFE;
+    /** Evento de passagem de turno. */
+    static final int TURNO = 0xFF;
+    /** Bit que indica uma jogada na extremidade esquerda. */
+    static final int ESQUERDA = 0x01;
+
+    /** O número de jogadores da partida. */
+    private final int numeroJogadores;
+    /** A ordem do monte após o embaralhamento, da base para o topo. */
+    private final byte[] ordemMonte;
+    /** Os eventos codificados, um byte cada. */
+    private byte[] eventos;
+    /** Quantos eventos já foram registrados. */
+    private int tamanho;
+
+    /**
+     * Começa a registrar uma partida recém-criada. O registro passa a ouvir o jogo
+     * e acumula cada evento até a partida terminar.
+     *
+     * @param jogo O jogo a ser registrado; deve ter sido criado com o monte embaralhado
+     *             ou com uma ordem de monte conhecida.
+     */
+    public RegistroPartida(JogoDomino jogo) {
+        this(jogo.getJogadores().size(), jogo.getOrdemInicialMonte(), new byte[64], 0);
+        if (ordemMonte == null) {
+            throw new IllegalArgumentException("O jogo não tem ordem de monte conhecida.");
+        }
+        jogo.adicionarOuvinte(this);
+    }
+
+    /**
+     * Constrói um registro a partir de dados já lidos.
+     *
+     * @param numeroJogadores O número de jogadores.
+     * @param ordemMonte      A ordem do monte.
+     * @param eventos         Os eventos codificados.
+     * @param tamanho         Quantos bytes de {@code eventos} são válidos.
+     */
+    RegistroPartida(int numeroJogadores, byte[] ordemMonte, byte[] eventos, int tamanho) {
+        this.numeroJogadores = numeroJogadores;
+        this.ordemMonte = ordemMonte;
+        this.eventos = eventos;
+        this.tamanho = tamanho;
+    }
+
+    @Override
+    public void pecaJogada(Jogador jogador, PecaColocada colocacao, boolean naEsquerda) {
+        acrescentar(colocacao.getPeca().getNumero() << 1 | (naEsquerda ? ESQUERDA : 0));
+    }
+
+    @Override
+    public void pecaComprada(Jogador jogador, PecaDomino peca) {
+        acrescentar(COMPRA);
+    }
+
+    @Override
+    public void turnoPassado(Jogador proximo) {
+        acrescentar(TURNO);
+    }
+
+    /**
+     * Acrescenta um evento ao fim do registro, aumentando o vetor quando necessário.
+     *
+     * @param evento O byte do evento.
+     */
+    private void acrescentar(int evento) {
+        if (tamanho == eventos.length) {
+            eventos = Arrays.copyOf(eventos, eventos.length * 2);
+        }
+        eventos[tamanho++] = (byte) evento;
+    }
+
+    /**
+     * Refaz a partida do início, aplicando cada evento registrado num jogo novo.
+     *
+     * @param jogadores Os jogadores, com as mãos vazias, na mesma ordem da partida original.
+     * @return O jogo no estado em que estava no último evento registrado.
+     * @throws IllegalStateException se o registro tiver uma jogada impossível.
+     */
+    public JogoDomino reproduzir(List<Jogador> jogadores) {
+        if (jogadores.size() != numeroJogadores) {
+            throw new IllegalArgumentException("Esperados " + numeroJogadores + " jogadores.");
+        }
+        JogoDomino jogo = new JogoDomino(jogadores, ordemMonte);
+        jogo.setSaidaConsole(false);
+        for (int i = 0; i < tamanho; i++) {
+            int evento = eventos[i] & 0xFF;
+            switch (evento) {
+                case COMPRA:
+                    if (!jogo.comprarPeca(jogo.getJogadorAtual())) {
+                        throw new IllegalStateException("Compra com o monte vazio no evento " + i);
+                    }
+                    break;
+                case TURNO:
+                    jogo.passarTurno();
+                    break;
+                default:
+                    if ((evento >> 1) >= ordemMonte.length) {
+                        throw new IllegalStateException("Evento desconhecido: " + evento);
+                    }
+                    PecaDomino peca = PecaDomino.porNumero(evento >> 1);
+                    if (!jogo.realizarJogada(peca, (evento & ESQUERDA) != 0)) {
+                        throw new IllegalStateException("Jogada inválida no evento " + i + ": " + peca);
+                    }
+            }
+        }
+        return jogo;
+    }
+
+    /**
+     * Retorna o número de jogadores da partida.
+     *
+     * @return O número de jogadores.
+     */
+    public int getNumeroJogadores() {
+        return numeroJogadores;
+    }
+
+    /**
+     * Retorna a ordem do monte que determinou a distribuição.
+     *
+     * @return Uma cópia dos números das peças, da base para o topo.
+     */
+    public byte[] getOrdemMonte() {
+        return ordemMonte.clone();
+    }
+
+    /**
+     * Retorna quantos eventos foram registrados.
+     *
+     * @return O número de eventos.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna o byte de um evento registrado.
+     *
+     * @param indice A posição do evento.
+     * @return O evento codificado, entre 0 e 255.
+     */
+    public int getEvento(int indice) {
+        if (indice >= tamanho) throw new IndexOutOfBoundsException(indice);
+        return eventos[indice] & 0xFF;
+    }
+
+    /**
+     * Retorna o vetor interno de eventos, para gravação sem cópia.
+     *
+     * @return O vetor; apenas as primeiras {@link #getTamanho()} posições são válidas.
+     */
+    byte[] getEventos() {
+        return eventos;
+    }
+}
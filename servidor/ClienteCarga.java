@@ -0,0 +1,221 @@
+package servidor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Cliente de carga do {@link ServidorDomino}. Abre muitas mesas ao mesmo tempo,
+ * conecta um cliente por lugar e joga todas as partidas até o fim com uma
+ * estratégia simples (a primeira peça que encaixa; senão compra; senão passa).
+ * No final informa as jogadas por segundo e a latência das jogadas (mediana e p99),
+ * medida do envio do comando até a chegada da resposta.
+ */
+public class ClienteCarga {
+    /** O endereço do servidor. */
+    private final String host;
+    /** A porta do servidor. */
+    private final int porta;
+
+    /**
+     * Constrói um cliente de carga.
+     *
+     * @param host  O endereço do servidor.
+     * @param porta A porta do servidor.
+     */
+    public ClienteCarga(String host, int porta) {
+        this.host = host;
+        this.porta = porta;
+    }
+
+    /**
+     * Joga uma partida em cada uma de {@code mesas} mesas simultâneas.
+     *
+     * @param mesas    O número de mesas.
+     * @param lugares  Os jogadores por mesa.
+     * @return O relatório com vazão e latências.
+     * @throws Exception se alguma conexão falhar.
+     */
+    public String executar(int mesas, int lugares) throws Exception {
+        int[] ids = new int[mesas];
+        try (Conexao controle = new Conexao()) {
+            for (int m = 0; m < mesas; m++) {
+                ids[m] = Integer.parseInt(controle.enviar("CRIAR " + lugares).substring(3));
+            }
+        }
+        ExecutorService jogadores = ServidorDomino.criarExecutorPorTarefa();
+        List<Future<long[]>> resultados = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int m = 0; m < mesas; m++) {
+            for (int l = 0; l < lugares; l++) {
+                int id = ids[m];
+                String nome = "Carga" + m + "_" + l;
+                resultados.add(jogadores.submit(() -> jogarPartida(id, nome)));
+            }
+        }
+        long[] latencias = new long[0];
+        for (Future<long[]> f : resultados) {
+            long[] parcial = f.get();
+            int anterior = latencias.length;
+            latencias = Arrays.copyOf(latencias, anterior + parcial.length);
+            System.arraycopy(parcial, 0, latencias, anterior, parcial.length);
+        }
+        long duracao = System.nanoTime() - inicio;
+        jogadores.shutdown();
+
+        Arrays.sort(latencias);
+        int n = latencias.length;
+        return String.format("%d mesas, %d jogadas em %.2f s: %.0f jogadas/s; latência mediana %.1f µs, p99 %.1f µs, máx %.1f µs",
+            mesas, n, duracao / 1e9, n * 1e9 / duracao,
+            percentil(latencias, 0.50) / 1e3, percentil(latencias, 0.99) / 1e3,
+            n == 0 ? 0.0 : latencias[n - 1] / 1e3);
+    }
+
+    /**
+     * Senta numa mesa e joga até a partida acabar.
+     *
+     * @param mesa O identificador da mesa.
+     * @param nome O nome do jogador.
+     * @return As latências, em nanossegundos, de cada jogada (JOGAR, COMPRAR ou PASSAR).
+     * @throws IOException se a conexão falhar.
+     */
+    private long[] jogarPartida(int mesa, String nome) throws IOException {
+        long[] latencias = new long[32];
+        int jogadas = 0;
+        try (Conexao c = new Conexao()) {
+            c.enviar("ENTRAR " + mesa + " " + nome);
+            while (true) {
+                String[] vez = c.enviar("AGUARDAR").split(" ");
+                if (vez[0].equals("ESPERA")) continue;
+                if (!vez[0].equals("VEZ")) break; // FIM, ABANDONO ou mesa expirada
+                String comando = escolherComando(Integer.parseInt(vez[1]), Integer.parseInt(vez[2]),
+                    Integer.parseInt(vez[3]), vez[4]);
+                long t0 = System.nanoTime();
+                String resposta = c.enviar(comando);
+                if (jogadas == latencias.length) latencias = Arrays.copyOf(latencias, jogadas * 2);
+                latencias[jogadas++] = System.nanoTime() - t0;
+                if (resposta.startsWith("ERRO")) throw new IllegalStateException(comando + " -> " + resposta);
+                if (resposta.startsWith("FIM") || resposta.startsWith("ABANDONO")) break;
+            }
+            c.enviar("SAIR");
+        }
+        return Arrays.copyOf(latencias, jogadas);
+    }
+
+    /**
+     * Escolhe a jogada: a primeira peça que encaixa, senão compra, senão passa.
+     *
+     * @param esquerdo O valor na extremidade esquerda (-1 com a mesa vazia).
+     * @param direito  O valor na extremidade direita.
+     * @param monte    As peças restantes no monte.
+     * @param mao      A mão no formato {@code a-b,c-d,...}.
+     * @return O comando a enviar.
+     */
+    private static String escolherComando(int esquerdo, int direito, int monte, String mao) {
+        if (!mao.equals("-")) {
+            for (String peca : mao.split(",")) {
+                int a = peca.charAt(0) - '0';
+                int b = peca.charAt(2) - '0';
+                if (esquerdo == -1 || a == direito || b == direito) return "JOGAR " + a + " " + b + " D";
+                if (a == esquerdo || b == esquerdo) return "JOGAR " + a + " " + b + " E";
+            }
+        }
+        return monte > 0 ? "COMPRAR" : "PASSAR";
+    }
+
+    /**
+     * Retorna o percentil de uma lista ordenada.
+     *
+     * @param ordenados Os valores em ordem crescente.
+     * @param p         O percentil, entre 0 e 1.
+     * @return O valor no percentil, ou 0 se a lista estiver vazia.
+     */
+    private static long percentil(long[] ordenados, double p) {
+        if (ordenados.length == 0) return 0;
+        return ordenados[Math.min(ordenados.length - 1, (int) Math.ceil(p * ordenados.length) - 1)];
+    }
+
+    /**
+     * Uma conexão de texto com o servidor: envia uma linha e espera a resposta.
+     */
+    private class Conexao implements AutoCloseable {
+        /** O socket da conexão. */
+        private final Socket socket;
+        /** O leitor das respostas. */
+        private final BufferedReader entrada;
+        /** O escritor dos comandos. */
+        private final BufferedWriter saida;
+
+        /**
+         * Abre a conexão com o servidor.
+         *
+         * @throws IOException se a conexão falhar.
+         */
+        Conexao() throws IOException {
+            socket = new Socket(host, porta);
+            socket.setTcpNoDelay(true);
+            entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            saida = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Envia um comando e espera a linha de resposta.
+         *
+         * @param comando O comando.
+         * @return A resposta do servidor.
+         * @throws IOException se a conexão cair.
+         */
+        String enviar(String comando) throws IOException {
+            saida.write(comando);
+            saida.newLine();
+            saida.flush();
+            String resposta = entrada.readLine();
+            if (resposta == null) throw new IOException("O servidor fechou a conexão.");
+            return resposta;
+        }
+
+        /**
+         * Fecha a conexão.
+         *
+         * @throws IOException se o fechamento falhar.
+         */
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Roda o teste de carga. Sem host, sobe um servidor local na mesma JVM.
+     *
+     * @param args Opcional: {@code [mesas] [jogadores por mesa] [host] [porta]}.
+     * @throws Exception se o teste falhar.
+     */
+    public static void main(String[] args) throws Exception {
+        int mesas = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int lugares = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        ServidorDomino local = null;
+        String host = "localhost";
+        int porta;
+        if (args.length > 2) {
+            host = args[2];
+            porta = args.length > 3 ? Integer.parseInt(args[3]) : ServidorDomino.PORTA_PADRAO;
+        } else {
+            local = new ServidorDomino(0);
+            porta = local.getPorta();
+        }
+        ClienteCarga cliente = new ClienteCarga(host, porta);
+        cliente.executar(Math.min(mesas, 100), lugares); // aquecimento da JVM
+        System.out.println(cliente.executar(mesas, lugares));
+        if (local != null) local.close();
+    }
+}
@@ -0,0 +1,278 @@
+package servidor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import jogodomino.InstantaneoJogo;
+import jogodomino.Jogador;
+import jogodomino.JogoConcorrente;
+import jogodomino.JogoDomino;
+import jogodomino.PecaDomino;
+
+/**
+ * Uma mesa hospedada pelo servidor: os jogadores sentados e a partida em andamento.
+ * As jogadas passam pela fila de comandos de um {@link JogoConcorrente}, que as
+ * aplica uma de cada vez, e as consultas leem o último retrato publicado sem trava;
+ * assim uma mesa nunca atrasa as outras.
+ * Quem sai antes da partida começar libera o lugar; quem sai no meio dela encerra a
+ * mesa, e os demais passam a receber {@code ABANDONO <posição>}. Uma mesa que não
+ * completa os lugares a tempo expira e passa a responder {@code ERRO mesa expirada}.
+ */
+public class MesaServidor {
+    /** O identificador da mesa no servidor. */
+    private final int id;
+    /** Quantos jogadores a mesa espera. */
+    private final int lugares;
+    /** O executor que aplica as jogadas desta mesa. */
+    private final Executor executor;
+    /** Os jogadores sentados, por posição; null num lugar livre. */
+    private final Jogador[] jogadores;
+    /** Quantos lugares estão ocupados por uma conexão aberta. */
+    private int presentes;
+    /** O instante de criação, em {@link System#nanoTime()}. */
+    private final long criadaEm = System.nanoTime();
+    /** A partida, completada quando todos os lugares são ocupados. */
+    private final CompletableFuture<JogoConcorrente> partida = new CompletableFuture<>();
+    /** Completado com a resposta de protocolo quando a mesa é encerrada antes do fim da partida. */
+    private final CompletableFuture<String> encerramento = new CompletableFuture<>();
+
+    /**
+     * Constrói uma mesa vazia.
+     *
+     * @param id       O identificador da mesa.
+     * @param lugares  O número de jogadores (2 a 4).
+     * @param executor O executor que aplica as jogadas.
+     */
+    public MesaServidor(int id, int lugares, Executor executor) {
+        if (lugares < 2 || lugares > 4) {
+            throw new IllegalArgumentException("A mesa precisa de 2 a 4 jogadores.");
+        }
+        this.id = id;
+        this.lugares = lugares;
+        this.executor = executor;
+        this.jogadores = new Jogador[lugares];
+    }
+
+    /**
+     * Senta um jogador no primeiro lugar livre. Quando o último lugar é ocupado, a partida começa.
+     *
+     * @param nome O nome do jogador.
+     * @return A posição do jogador na mesa.
+     * @throws IllegalStateException se a mesa já estiver cheia ou encerrada.
+     */
+    public synchronized int sentar(String nome) {
+        if (encerramento.isDone()) throw new IllegalStateException("Mesa encerrada.");
+        if (partida.isDone()) throw new IllegalStateException("Mesa cheia.");
+        int posicao = 0;
+        while (jogadores[posicao] != null) posicao++;
+        jogadores[posicao] = new Jogador(nome);
+        if (++presentes == lugares) {
+            JogoDomino jogo = new JogoDomino(List.of(jogadores));
+            partida.complete(new JogoConcorrente(jogo, executor));
+        }
+        return posicao;
+    }
+
+    /**
+     * Registra que a conexão de um jogador terminou. Antes da partida o lugar fica livre;
+     * durante ela a mesa é encerrada, pois a vez do ausente nunca mais chegaria.
+     *
+     * @param posicao A posição do jogador.
+     * @return true se a mesa deve sair do servidor: ficou vazia, foi encerrada agora ou
+     *         a partida acabou e este era o último jogador sentado.
+     */
+    public synchronized boolean sair(int posicao) {
+        if (jogadores[posicao] == null) return false;
+        jogadores[posicao] = null; // a partida guarda a sua própria cópia da lista
+        presentes--;
+        // Uma mesa vazia é encerrada para que ninguém se sente nela depois de sair do servidor.
+        if (!partida.isDone()) return presentes == 0 && encerramento.complete("ERRO mesa encerrada");
+        if (isFinalizada()) return presentes == 0;
+        return encerramento.complete("ABANDONO " + posicao);
+    }
+
+    /**
+     * Encerra a mesa se a partida ainda não começou e o prazo já passou.
+     *
+     * @param prazoNanos O tempo máximo, em nanossegundos, para completar os lugares.
+     * @return true se a mesa expirou agora.
+     */
+    public synchronized boolean expirar(long prazoNanos) {
+        if (partida.isDone() || System.nanoTime() - criadaEm < prazoNanos) return false;
+        return encerramento.complete("ERRO mesa expirada");
+    }
+
+    /**
+     * Espera até ser a vez do jogador ou a partida acabar.
+     *
+     * @param posicao     A posição do jogador.
+     * @param esperaMaxMs O tempo máximo de espera em milissegundos.
+     * @return A resposta de protocolo: {@code VEZ <esq> <dir> <monte> <mão>},
+     *         {@code FIM <vencedor> <pontos>}, {@code ESPERA} se o tempo acabou ou o
+     *         motivo do encerramento da mesa.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public String aguardarVez(int posicao, long esperaMaxMs) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMaxMs);
+        if (esperar(CompletableFuture.anyOf(partida, encerramento), limite) == null) return "ESPERA";
+        if (encerramento.isDone()) return encerramento.getNow(null);
+        JogoConcorrente jogo = partida.getNow(null);
+        InstantaneoJogo estado = jogo.getInstantaneo();
+        while (!estado.isFinalizado() && estado.getJogadorAtual() != posicao) {
+            CompletableFuture<InstantaneoJogo> proximo = jogo.aguardarVersao(estado.getVersao());
+            Object pronto = esperar(CompletableFuture.anyOf(proximo, encerramento), limite);
+            if (!proximo.isDone()) proximo.cancel(false); // libera o registro da espera
+            if (encerramento.isDone()) return encerramento.getNow(null);
+            if (pronto == null) return "ESPERA";
+            estado = proximo.getNow(null);
+        }
+        if (estado.isFinalizado()) return descreverFim(estado);
+        return "VEZ " + estado.getValorEsquerdo() + " " + estado.getValorDireito()
+            + " " + estado.getTamanhoMonte() + " " + descreverMao(estado.getMascaraMao(posicao));
+    }
+
+    /**
+     * Joga uma peça na mesa em nome de um jogador.
+     *
+     * @param posicao    A posição do jogador.
+     * @param peca       A peça jogada.
+     * @param naEsquerda true para a extremidade esquerda.
+     * @return A resposta de protocolo: {@code OK}, {@code FIM ...} ou {@code ERRO <motivo>}.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public String jogar(int posicao, PecaDomino peca, boolean naEsquerda) throws InterruptedException {
+        if (encerramento.isDone()) return encerramento.getNow(null);
+        JogoConcorrente jogo = partida.getNow(null);
+        if (jogo == null) return "ERRO partida não começou";
+        return responder(jogo.jogar(posicao, peca, naEsquerda), null);
+    }
+
+    /**
+     * Compra uma peça do monte para o jogador da vez; o turno continua com ele.
+     *
+     * @param posicao A posição do jogador.
+     * @return {@code OK <a>-<b>} com a peça comprada, ou {@code ERRO <motivo>}.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public String comprar(int posicao) throws InterruptedException {
+        if (encerramento.isDone()) return encerramento.getNow(null);
+        JogoConcorrente jogo = partida.getNow(null);
+        if (jogo == null) return "ERRO partida não começou";
+        long antes = jogo.getInstantaneo().getMascaraMao(posicao);
+        return responder(jogo.comprar(posicao), estado -> {
+            PecaDomino comprada = PecaDomino.porNumero(
+                Long.numberOfTrailingZeros(estado.getMascaraMao(posicao) & ~antes));
+            return "OK " + comprada.getLadoEsquerdo() + "-" + comprada.getLadoDireito();
+        });
+    }
+
+    /**
+     * Passa a vez do jogador sem jogar. Só é aceito quando ele não tem peça que encaixe
+     * e o monte está vazio. A conferência usa o último retrato: se nele já é a vez do
+     * jogador, só os comandos dele podem mudar a partida, então o retrato está atual.
+     *
+     * @param posicao A posição do jogador.
+     * @return {@code OK}, {@code FIM ...} se o jogo trancou, ou {@code ERRO <motivo>}.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public String passar(int posicao) throws InterruptedException {
+        if (encerramento.isDone()) return encerramento.getNow(null);
+        JogoConcorrente jogo = partida.getNow(null);
+        if (jogo == null) return "ERRO partida não começou";
+        InstantaneoJogo estado = jogo.getInstantaneo();
+        if (estado.isFinalizado()) return "ERRO partida encerrada";
+        if (estado.getJogadorAtual() != posicao) return "ERRO não é a sua vez";
+        if (estado.podeJogar(posicao)) return "ERRO há peça que encaixa";
+        if (estado.getTamanhoMonte() > 0) return "ERRO compre do monte antes de passar";
+        return responder(jogo.passar(posicao), null);
+    }
+
+    /**
+     * Espera a resposta de um comando e a traduz para o protocolo.
+     *
+     * @param resposta O futuro do comando.
+     * @param sucesso  Como descrever o sucesso, ou null para {@code OK} / {@code FIM ...}.
+     * @return A linha de resposta.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    private static String responder(Future<InstantaneoJogo> resposta,
+                                    Function<InstantaneoJogo, String> sucesso)
+            throws InterruptedException {
+        try {
+            InstantaneoJogo estado = resposta.get();
+            if (sucesso != null) return sucesso.apply(estado);
+            return estado.isFinalizado() ? descreverFim(estado) : "OK";
+        } catch (ExecutionException e) {
+            return "ERRO " + e.getCause().getMessage();
+        }
+    }
+
+    /**
+     * Espera um futuro até um instante limite.
+     *
+     * @param <T>    O tipo do resultado.
+     * @param futuro O futuro.
+     * @param limite O instante limite, em {@link System#nanoTime()}.
+     * @return O resultado, ou null se o tempo acabou.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    private static <T> T esperar(CompletableFuture<T> futuro, long limite) throws InterruptedException {
+        try {
+            return futuro.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Descreve o resultado da partida.
+     *
+     * @param estado O retrato da partida encerrada.
+     * @return {@code FIM <posição do vencedor ou -1> <pontos>}.
+     */
+    private static String descreverFim(InstantaneoJogo estado) {
+        return "FIM " + estado.getVencedor() + " " + estado.getPontos();
+    }
+
+    /**
+     * Descreve uma mão no formato {@code a-b,c-d,...}.
+     *
+     * @param mascara A máscara da mão.
+     * @return A mão formatada, ou {@code -} se estiver vazia.
+     */
+    private static String descreverMao(long mascara) {
+        StringBuilder sb = new StringBuilder();
+        for (long m = mascara; m != 0; m &= m - 1) {
+            PecaDomino p = PecaDomino.porNumero(Long.numberOfTrailingZeros(m));
+            if (sb.length() > 0) sb.append(',');
+            sb.append(p.getLadoEsquerdo()).append('-').append(p.getLadoDireito());
+        }
+        return sb.length() == 0 ? "-" : sb.toString();
+    }
+
+    /**
+     * Retorna o identificador da mesa.
+     *
+     * @return O id da mesa.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Indica se a partida desta mesa já terminou.
+     *
+     * @return true se a partida acabou.
+     */
+    public boolean isFinalizada() {
+        JogoConcorrente jogo = partida.getNow(null);
+        return jogo != null && jogo.getInstantaneo().isFinalizado();
+    }
+}
@@ -0,0 +1,188 @@
+package servidor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor TCP que hospeda muitas mesas de dominó ao mesmo tempo.
+ * Cada conexão é atendida por uma thread própria que lê comandos de texto, um por
+ * linha (veja {@link SessaoCliente}). As mesas ficam num mapa concorrente e cada uma
+ * serializa as suas jogadas na fila de comandos do seu {@link jogodomino.JogoConcorrente};
+ * não existe trava global. Uma faxina periódica tira do mapa as mesas que não
+ * completaram os lugares dentro de {@link #EXPIRACAO_MESA_MS}.
+ */
+public class ServidorDomino implements AutoCloseable {
+    /** A porta padrão do servidor. */
+    public static final int PORTA_PADRAO = 7007;
+    /** Quanto tempo uma mesa pode esperar jogadores antes de expirar. */
+    public static final long EXPIRACAO_MESA_MS = 120_000;
+
+    /** O socket que aceita as conexões. */
+    private final ServerSocket socketServidor;
+    /** O executor que roda uma tarefa por conexão. */
+    private final ExecutorService conexoes;
+    /** As mesas abertas, pelo identificador. */
+    private final ConcurrentMap<Integer, MesaServidor> mesas = new ConcurrentHashMap<>();
+    /** O próximo identificador de mesa. */
+    private final AtomicInteger proximaMesa = new AtomicInteger();
+    /** A thread que aceita as conexões. */
+    private final Thread aceitador;
+    /** Roda a faxina das mesas expiradas. */
+    private final ScheduledExecutorService faxina;
+
+    /**
+     * Abre o servidor na porta indicada e começa a aceitar conexões.
+     *
+     * @param porta A porta TCP, ou 0 para uma porta livre qualquer.
+     * @throws IOException se a porta não puder ser aberta.
+     */
+    public ServidorDomino(int porta) throws IOException {
+        socketServidor = new ServerSocket();
+        socketServidor.setReuseAddress(true);
+        socketServidor.bind(new InetSocketAddress(porta), 4096);
+        conexoes = criarExecutorPorTarefa();
+        aceitador = new Thread(this::aceitarConexoes, "servidor-domino-" + getPorta());
+        aceitador.start();
+        faxina = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread t = new Thread(tarefa, "faxina-mesas-" + getPorta());
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = EXPIRACAO_MESA_MS / 4;
+        faxina.scheduleWithFixedDelay(this::expirarMesas, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cria um executor com uma thread por tarefa. Em JVMs com threads virtuais
+     * (Java 21 ou mais novo) usa uma thread virtual por tarefa; no Java 17 cai para
+     * um pool de threads de plataforma que cresce conforme a demanda.
+     *
+     * @return O executor.
+     */
+    public static ExecutorService criarExecutorPorTarefa() {
+        try {
+            Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) fabrica.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(tarefa -> {
+                Thread t = new Thread(null, tarefa, "conexao-domino", 256 * 1024);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Laço da thread aceitadora: entrega cada nova conexão a uma {@link SessaoCliente}.
+     */
+    private void aceitarConexoes() {
+        while (!socketServidor.isClosed()) {
+            try {
+                Socket socket = socketServidor.accept();
+                socket.setTcpNoDelay(true);
+                conexoes.execute(new SessaoCliente(this, socket));
+            } catch (SocketException e) {
+                break; // o servidor foi fechado
+            } catch (IOException e) {
+                System.err.println("Falha ao aceitar conexão: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Abre uma nova mesa.
+     *
+     * @param lugares O número de jogadores da mesa.
+     * @return A mesa criada.
+     */
+    public MesaServidor criarMesa(int lugares) {
+        // Executor direto: a própria thread da conexão que envia um comando drena a fila
+        // da mesa, sem trocar de thread a cada jogada.
+        MesaServidor mesa = new MesaServidor(proximaMesa.getAndIncrement(), lugares, Runnable::run);
+        mesas.put(mesa.getId(), mesa);
+        return mesa;
+    }
+
+    /**
+     * Procura uma mesa aberta.
+     *
+     * @param id O identificador da mesa.
+     * @return A mesa, ou null se ela não existir.
+     */
+    public MesaServidor getMesa(int id) {
+        return mesas.get(id);
+    }
+
+    /**
+     * Tira uma mesa do servidor. A sessão que sai chama este método quando
+     * {@link MesaServidor#sair(int)} indica que a mesa ficou vazia ou foi abandonada.
+     *
+     * @param mesa A mesa a fechar.
+     */
+    public void fecharMesa(MesaServidor mesa) {
+        mesas.remove(mesa.getId(), mesa);
+    }
+
+    /**
+     * Fecha as mesas que passaram do prazo sem completar os lugares.
+     */
+    private void expirarMesas() {
+        long prazo = TimeUnit.MILLISECONDS.toNanos(EXPIRACAO_MESA_MS);
+        mesas.values().removeIf(mesa -> mesa.expirar(prazo));
+    }
+
+    /**
+     * Retorna quantas mesas estão abertas.
+     *
+     * @return O número de mesas.
+     */
+    public int getQuantidadeMesas() {
+        return mesas.size();
+    }
+
+    /**
+     * Retorna a porta em que o servidor escuta.
+     *
+     * @return A porta TCP.
+     */
+    public int getPorta() {
+        return socketServidor.getLocalPort();
+    }
+
+    /**
+     * Para de aceitar conexões e interrompe as sessões abertas.
+     */
+    @Override
+    public void close() {
+        try {
+            socketServidor.close();
+        } catch (IOException e) {
+            // já estava fechado
+        }
+        conexoes.shutdownNow();
+        faxina.shutdownNow();
+    }
+
+    /**
+     * Sobe o servidor e o mantém rodando até o processo ser encerrado.
+     *
+     * @param args Opcional: a porta TCP.
+     * @throws IOException se a porta não puder ser aberta.
+     */
+    public static void main(String[] args) throws IOException {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_PADRAO;
+        ServidorDomino servidor = new ServidorDomino(porta);
+        System.out.println("Servidor de dominó escutando na porta " + servidor.getPorta());
+    }
+}
@@ -0,0 +1,129 @@
+package servidor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import jogodomino.PecaDomino;
+import jogodomino.TabelaPecas;
+
+/**
+ * Atende uma conexão do {@link ServidorDomino}. O protocolo é de texto, um comando
+ * por linha, e cada comando recebe exatamente uma linha de resposta:
+ * <pre>
+ * CRIAR &lt;jogadores&gt;        OK &lt;mesa&gt;
+ * ENTRAR &lt;mesa&gt; &lt;nome&gt;      OK &lt;posição&gt;
+ * AGUARDAR                 VEZ &lt;esq&gt; &lt;dir&gt; &lt;monte&gt; &lt;a-b,c-d,...&gt; | FIM &lt;vencedor&gt; &lt;pontos&gt; | ESPERA
+ * JOGAR &lt;a&gt; &lt;b&gt; &lt;E|D&gt;      OK | FIM ...
+ * COMPRAR                  OK &lt;a-b&gt;
+ * PASSAR                   OK | FIM ... (só sem peça que encaixe e com o monte vazio)
+ * SAIR                     OK (e a conexão é fechada)
+ * </pre>
+ * Qualquer comando inválido recebe {@code ERRO <motivo>}. Se outro jogador sair no meio
+ * da partida, os comandos na mesa passam a receber {@code ABANDONO <posição>}; se a mesa
+ * expirar antes de começar, recebem {@code ERRO mesa expirada}. Sair ou perder a conexão
+ * antes da partida começar libera o lugar.
+ */
+class SessaoCliente implements Runnable {
+    /** Quanto tempo um AGUARDAR espera antes de responder ESPERA. */
+    private static final long ESPERA_MAXIMA_MS = 30_000;
+
+    /** O servidor dono das mesas. */
+    private final ServidorDomino servidor;
+    /** A conexão com o cliente. */
+    private final Socket socket;
+    /** A mesa em que o cliente está sentado, ou null. */
+    private MesaServidor mesa;
+    /** A posição do cliente na mesa. */
+    private int posicao = -1;
+
+    /**
+     * Constrói a sessão de uma conexão recém-aceita.
+     *
+     * @param servidor O servidor.
+     * @param socket   A conexão.
+     */
+    SessaoCliente(ServidorDomino servidor, Socket socket) {
+        this.servidor = servidor;
+        this.socket = socket;
+    }
+
+    /**
+     * Lê e responde comandos até o cliente sair ou a conexão cair.
+     */
+    @Override
+    public void run() {
+        try (Socket s = socket;
+             BufferedReader entrada = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter saida = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                String resposta;
+                try {
+                    resposta = executar(linha.trim().split("\\s+"));
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    resposta = "ERRO comando malformado";
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    resposta = "ERRO " + e.getMessage();
+                }
+                saida.write(resposta);
+                saida.newLine();
+                saida.flush();
+                if (resposta.startsWith("OK") && linha.trim().equals("SAIR")) break;
+            }
+        } catch (IOException e) {
+            // o cliente desconectou
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (mesa != null && mesa.sair(posicao)) servidor.fecharMesa(mesa);
+        }
+    }
+
+    /**
+     * Executa um comando do protocolo.
+     *
+     * @param partes O comando e os seus argumentos.
+     * @return A linha de resposta.
+     * @throws InterruptedException se a thread for interrompida durante um AGUARDAR.
+     */
+    private String executar(String[] partes) throws InterruptedException {
+        switch (partes[0]) {
+            case "CRIAR":
+                return "OK " + servidor.criarMesa(Integer.parseInt(partes[1])).getId();
+            case "ENTRAR":
+                if (mesa != null) return "ERRO já está sentado";
+                MesaServidor escolhida = servidor.getMesa(Integer.parseInt(partes[1]));
+                if (escolhida == null) return "ERRO mesa inexistente";
+                posicao = escolhida.sentar(partes.length > 2 ? partes[2] : "Jogador");
+                mesa = escolhida;
+                return "OK " + posicao;
+            case "SAIR":
+                return "OK";
+            default:
+                break;
+        }
+        if (mesa == null) return "ERRO sente-se numa mesa primeiro";
+        switch (partes[0]) {
+            case "AGUARDAR":
+                return mesa.aguardarVez(posicao, ESPERA_MAXIMA_MS);
+            case "JOGAR":
+                int a = Integer.parseInt(partes[1]);
+                int b = Integer.parseInt(partes[2]);
+                if (a < 0 || b < 0 || a > TabelaPecas.MAIOR_VALOR || b > TabelaPecas.MAIOR_VALOR) {
+                    return "ERRO peça inexistente";
+                }
+                PecaDomino peca = PecaDomino.de(a, b);
+                return mesa.jogar(posicao, peca, partes[3].equals("E"));
+            case "COMPRAR":
+                return mesa.comprar(posicao);
+            case "PASSAR":
+                return mesa.passar(posicao);
+            default:
+                return "ERRO comando desconhecido";
+        }
+    }
+}
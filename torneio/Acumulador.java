@@ -0,0 +1,77 @@
+package torneio;
+
+/**
+ * Média e variância de uma série de valores, atualizadas a cada novo valor em
+ * memória constante (algoritmo de Welford), sem guardar a série.
+ */
+public class Acumulador {
+    /** O quantil da normal para 95% de confiança. */
+    public static final double Z_95 = 1.959963984540054;
+
+    /** Quantos valores foram registrados. */
+    private long quantidade;
+    /** A média dos valores registrados. */
+    private double media;
+    /** A soma dos quadrados dos desvios em relação à média. */
+    private double somaQuadrados;
+
+    /**
+     * Registra um novo valor.
+     *
+     * @param valor O valor.
+     */
+    public void registrar(double valor) {
+        quantidade++;
+        double delta = valor - media;
+        media += delta / quantidade;
+        somaQuadrados += delta * (valor - media);
+    }
+
+    /**
+     * Retorna quantos valores foram registrados.
+     *
+     * @return A quantidade de valores.
+     */
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Retorna a média dos valores.
+     *
+     * @return A média, ou 0 se nada foi registrado.
+     */
+    public double getMedia() {
+        return media;
+    }
+
+    /**
+     * Retorna a variância amostral dos valores.
+     *
+     * @return A variância, ou 0 com menos de dois valores.
+     */
+    public double getVariancia() {
+        return quantidade < 2 ? 0 : somaQuadrados / (quantidade - 1);
+    }
+
+    /**
+     * Retorna a meia largura do intervalo de 95% de confiança da média
+     * (aproximação normal).
+     *
+     * @return A margem de erro, ou infinito com menos de dois valores.
+     */
+    public double getMargemErro() {
+        if (quantidade < 2) return Double.POSITIVE_INFINITY;
+        return Z_95 * Math.sqrt(getVariancia() / quantidade);
+    }
+
+    /**
+     * Retorna a média com a margem de erro, no formato "m ± e".
+     *
+     * @return O resumo formatado.
+     */
+    @Override
+    public String toString() {
+        return String.format("%.3f ± %.3f", media, getMargemErro());
+    }
+}
@@ -0,0 +1,134 @@
+package torneio;
+
+import jogodomino.Estrategia;
+
+/**
+ * Um participante de um {@link Torneio}: uma estratégia com um nome e as suas
+ * estatísticas acumuladas (Elo, placar e margem de pontos).
+ */
+public class Competidor {
+    /** O nome mostrado na classificação. */
+    private final String nome;
+    /** A estratégia que joga por este competidor. */
+    private final Estrategia estrategia;
+    /** O placar de cada confronto disputado (1 vitória, 0,5 empate, 0 derrota). */
+    private final Acumulador placar = new Acumulador();
+    /** A diferença de pontos a favor em cada confronto disputado. */
+    private final Acumulador margem = new Acumulador();
+    /** A pontuação de confrontos no sistema suíço. */
+    private double pontosSuico;
+    /** Quantas rodadas do sistema suíço o competidor ficou de folga. */
+    private int folgas;
+    /** O rating Elo, atualizado a cada confronto. */
+    private double elo = Torneio.ELO_INICIAL;
+
+    /**
+     * Constrói um competidor.
+     *
+     * @param nome       O nome do competidor.
+     * @param estrategia A sua estratégia, que não pode guardar estado entre jogadas.
+     */
+    public Competidor(String nome, Estrategia estrategia) {
+        this.nome = nome;
+        this.estrategia = estrategia;
+    }
+
+    /**
+     * Retorna o nome do competidor.
+     *
+     * @return O nome.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Retorna a estratégia do competidor.
+     *
+     * @return A estratégia.
+     */
+    public Estrategia getEstrategia() {
+        return estrategia;
+    }
+
+    /**
+     * Retorna o placar acumulado em todas as unidades disputadas.
+     *
+     * @return O acumulador do placar.
+     */
+    public Acumulador getPlacar() {
+        return placar;
+    }
+
+    /**
+     * Retorna a margem de pontos acumulada.
+     *
+     * @return O acumulador da margem.
+     */
+    public Acumulador getMargem() {
+        return margem;
+    }
+
+    /**
+     * Retorna o rating Elo atual.
+     *
+     * @return O Elo.
+     */
+    public double getElo() {
+        return elo;
+    }
+
+    /**
+     * Define o rating Elo.
+     *
+     * @param elo O novo Elo.
+     */
+    void setElo(double elo) {
+        this.elo = elo;
+    }
+
+    /**
+     * Retorna a pontuação no sistema suíço.
+     *
+     * @return Os pontos de confronto.
+     */
+    public double getPontosSuico() {
+        return pontosSuico;
+    }
+
+    /**
+     * Soma pontos de confronto no sistema suíço.
+     *
+     * @param pontos Os pontos ganhos no confronto.
+     */
+    void somarPontosSuico(double pontos) {
+        pontosSuico += pontos;
+    }
+
+    /**
+     * Retorna quantas rodadas do sistema suíço o competidor ficou de folga.
+     *
+     * @return O número de folgas.
+     */
+    public int getFolgas() {
+        return folgas;
+    }
+
+    /**
+     * Registra uma rodada de folga, que vale um ponto de confronto.
+     */
+    void registrarFolga() {
+        folgas++;
+        pontosSuico += 1;
+    }
+
+    /**
+     * Retorna o nome do competidor.
+     *
+     * @return O nome.
+     */
+    @Override
+    public String toString() {
+        return nome;
+    }
+}
@@ -0,0 +1,225 @@
+package torneio;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * O duelo entre dois competidores de um {@link Torneio}. Os resultados chegam em
+ * unidades (um par de partidas com os lugares trocados, ou uma série até N pontos)
+ * e são acumulados em memória constante; o intervalo de confiança do placar é
+ * atualizado a cada unidade, e o confronto se encerra assim que ele deixa de
+ * conter o empate (50%) ou o limite de unidades é atingido.
+ * Como o intervalo é conferido depois de cada unidade, ele não pode ser o intervalo
+ * de amostra fixa (que, olhado a cada unidade, acabaria excluindo 50% em boa parte
+ * dos duelos entre estratégias iguais): é uma sequência de confiança de mistura
+ * normal, válida em todas as unidades ao mesmo tempo, então a chance de declarar
+ * vencedor um entre dois competidores iguais fica perto de 5% por mais que se olhe.
+ * Todos os métodos que alteram o confronto são chamados com a trava do torneio.
+ */
+public class Confronto {
+    /** A chance de declarar significativo um duelo entre competidores iguais. */
+    private static final double ALFA = 0.05;
+    /**
+     * O peso da mistura da sequência de confiança, em unidades de variância: o de 30
+     * unidades com a maior variância possível (1/4), onde a sequência fica mais estreita.
+     */
+    private static final double PESO_MISTURA = 30 * 0.25;
+    /** O número do confronto no torneio, que também define as suas distribuições. */
+    private final int id;
+    /** O primeiro competidor; o placar é do ponto de vista dele. */
+    private final Competidor a;
+    /** O segundo competidor. */
+    private final Competidor b;
+    /** Unidades mínimas antes de o confronto poder parar por significância. */
+    private final int unidadesMinimas;
+    /** Unidades máximas do confronto. */
+    private final int unidadesMaximas;
+    /** O placar de {@code a} em cada unidade (1, 0,5 ou 0, ou a fração do par de partidas). */
+    private final Acumulador placar = new Acumulador();
+    /** A diferença de pontos de {@code a} sobre {@code b} em cada unidade. */
+    private final Acumulador margem = new Acumulador();
+    /** Completado quando a última unidade em andamento termina. */
+    private final CompletableFuture<Confronto> fim = new CompletableFuture<>();
+    /** Partidas vencidas por {@code a}. */
+    private long vitoriasA;
+    /** Partidas vencidas por {@code b}. */
+    private long vitoriasB;
+    /** Partidas empatadas. */
+    private long empates;
+    /** Unidades já entregues a alguma thread. */
+    private int reservadas;
+    /** Threads jogando unidades deste confronto. */
+    private int emAndamento;
+    /** Indica se o confronto já decidiu parar. */
+    private boolean encerrado;
+
+    /**
+     * Constrói um confronto.
+     *
+     * @param id              O número do confronto.
+     * @param a               O primeiro competidor.
+     * @param b               O segundo competidor.
+     * @param unidadesMinimas As unidades mínimas antes de parar por significância.
+     * @param unidadesMaximas As unidades máximas.
+     */
+    Confronto(int id, Competidor a, Competidor b, int unidadesMinimas, int unidadesMaximas) {
+        this.id = id;
+        this.a = a;
+        this.b = b;
+        this.unidadesMinimas = unidadesMinimas;
+        this.unidadesMaximas = unidadesMaximas;
+    }
+
+    /**
+     * Reserva a próxima unidade para uma thread.
+     *
+     * @return O número da unidade, ou -1 se o confronto não deve jogar mais.
+     */
+    int reservar() {
+        if (encerrado || reservadas >= unidadesMaximas) return -1;
+        emAndamento++;
+        return reservadas++;
+    }
+
+    /**
+     * Registra o resultado de uma unidade e decide se o confronto para.
+     *
+     * @param placarA   O placar de {@code a} na unidade, entre 0 e 1.
+     * @param margemA   A diferença de pontos de {@code a} na unidade.
+     * @param vitoriasA As partidas vencidas por {@code a} na unidade.
+     * @param vitoriasB As partidas vencidas por {@code b} na unidade.
+     * @param empates   As partidas empatadas na unidade.
+     */
+    void registrar(double placarA, int margemA, int vitoriasA, int vitoriasB, int empates) {
+        placar.registrar(placarA);
+        margem.registrar(margemA);
+        this.vitoriasA += vitoriasA;
+        this.vitoriasB += vitoriasB;
+        this.empates += empates;
+        emAndamento--;
+        if (placar.getQuantidade() >= unidadesMaximas
+            || (placar.getQuantidade() >= unidadesMinimas && isSignificativo())) {
+            encerrado = true;
+        }
+        if ((encerrado || reservadas >= unidadesMaximas) && emAndamento == 0) {
+            encerrado = true;
+            fim.complete(this); // a última unidade em andamento fecha o confronto
+        }
+    }
+
+    /**
+     * Indica se a sequência de confiança do placar já exclui o empate.
+     *
+     * @return true se um dos competidores é significativamente melhor.
+     */
+    public boolean isSignificativo() {
+        return Math.abs(placar.getMedia() - 0.5) > getMargemSequencial();
+    }
+
+    /**
+     * Retorna a meia largura da sequência de confiança do placar médio: com
+     * {@code V} = n × variância, {@code √((V + ρ) ln((V + ρ) / (ρ (α/2)²))) / n}.
+     * Diferente do intervalo de amostra fixa, ela vale mesmo se o placar for conferido
+     * depois de cada unidade.
+     *
+     * @return A margem, ou infinito com menos de duas unidades.
+     */
+    public double getMargemSequencial() {
+        long n = placar.getQuantidade();
+        if (n < 2) return Double.POSITIVE_INFINITY;
+        double tempo = placar.getVariancia() * n + PESO_MISTURA;
+        double alfa = ALFA / 2;
+        return Math.sqrt(tempo * Math.log(tempo / (PESO_MISTURA * alfa * alfa))) / n;
+    }
+
+    /**
+     * Converte um placar médio na diferença de Elo equivalente.
+     *
+     * @param placarMedio O placar, entre 0 e 1.
+     * @return A diferença de Elo, limitada a ±800.
+     */
+    static double diferencaElo(double placarMedio) {
+        double p = Math.min(0.99, Math.max(0.01, placarMedio));
+        return -400 * Math.log10(1 / p - 1);
+    }
+
+    /**
+     * Retorna o número do confronto.
+     *
+     * @return O id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Retorna o primeiro competidor.
+     *
+     * @return O competidor {@code a}.
+     */
+    public Competidor getA() {
+        return a;
+    }
+
+    /**
+     * Retorna o segundo competidor.
+     *
+     * @return O competidor {@code b}.
+     */
+    public Competidor getB() {
+        return b;
+    }
+
+    /**
+     * Retorna o placar acumulado de {@code a}.
+     *
+     * @return O acumulador do placar.
+     */
+    public Acumulador getPlacar() {
+        return placar;
+    }
+
+    /**
+     * Retorna a margem de pontos acumulada de {@code a}.
+     *
+     * @return O acumulador da margem.
+     */
+    public Acumulador getMargem() {
+        return margem;
+    }
+
+    /**
+     * Retorna o futuro completado quando o confronto termina.
+     *
+     * @return O futuro do fim do confronto.
+     */
+    public CompletableFuture<Confronto> getFim() {
+        return fim;
+    }
+
+    /**
+     * Indica se o confronto terminou.
+     *
+     * @return true se não serão jogadas mais unidades.
+     */
+    public boolean isEncerrado() {
+        return encerrado;
+    }
+
+    /**
+     * Resume o confronto: partidas, placar com intervalo e diferença de Elo.
+     *
+     * @return O resumo em uma linha.
+     */
+    @Override
+    public String toString() {
+        double media = placar.getMedia();
+        double erro = getMargemSequencial();
+        String intervaloElo = Double.isInfinite(erro) ? "?"
+            : String.format("%+.0f [%+.0f, %+.0f]", diferencaElo(media),
+                diferencaElo(media - erro), diferencaElo(media + erro));
+        return String.format("%s x %s: %d-%d-%d, placar %.3f ± %.3f, Elo %s, margem %.1f ± %.1f pontos%s",
+            a, b, vitoriasA, empates, vitoriasB, media, erro, intervaloElo,
+            margem.getMedia(), margem.getMargemErro(),
+            isSignificativo() && placar.getQuantidade() >= 2 ? " *" : "");
+    }
+}
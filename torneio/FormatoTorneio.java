@@ -0,0 +1,22 @@
+package torneio;
+
+/**
+ * Os formatos de disputa de um {@link Torneio}.
+ */
+public enum FormatoTorneio {
+    /**
+     * Todos contra todos. Cada confronto joga pares de partidas com a mesma distribuição
+     * e os lugares trocados, até o resultado ser significativo ou o limite de partidas.
+     */
+    TODOS_CONTRA_TODOS,
+    /**
+     * Sistema suíço: a cada rodada, competidores com pontuação parecida se enfrentam,
+     * evitando repetir confrontos. Cada confronto tem um número fixo de pares de partidas.
+     */
+    SUICO,
+    /**
+     * Todos contra todos em "partidas até N pontos": cada unidade é uma série de
+     * partidas que termina quando alguém soma N pontos.
+     */
+    ATE_N_PONTOS
+}
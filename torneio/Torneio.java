@@ -0,0 +1,468 @@
+package torneio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import inteligencia.EstrategiaMCTS;
+import jogodomino.DisputaPontos;
+import jogodomino.Estrategia;
+import jogodomino.EstrategiaMaiorPeca;
+import jogodomino.EstrategiaPrimeiraPeca;
+import jogodomino.RegraPontuacao;
+import jogodomino.ResultadoPartida;
+import jogodomino.SimuladorPartidas;
+
+/**
+ * Organiza torneios entre estratégias de dominó, sempre em duelos de dois jogadores.
+ * Os confrontos são divididos entre as threads de um {@link ForkJoinPool}; cada
+ * thread reserva uma unidade de um confronto, joga-a e registra o resultado, que
+ * atualiza na hora o placar, o intervalo de confiança, a margem de pontos e o Elo.
+ * Nada depende do número de partidas: as estatísticas são acumuladas em memória
+ * constante, e um confronto para assim que o resultado é significativo.
+ * As distribuições dependem só da semente, do número do confronto e da unidade.
+ */
+public class Torneio {
+    /** O Elo de quem ainda não jogou. */
+    public static final double ELO_INICIAL = 1500;
+    /** O fator K da atualização do Elo a cada unidade. */
+    private static final double FATOR_K = 16;
+    /** Multiplicador que separa as sementes de confrontos diferentes. */
+    private static final long PASSO_CONFRONTO = 0xBF58476D1CE4E5B9L;
+    /** Multiplicador que separa as sementes de unidades diferentes. */
+    private static final long PASSO_UNIDADE = 0x9E3779B97F4A7C15L;
+    /** Os lugares de A e B numa série, quando A senta primeiro. */
+    private static final int[] LUGARES_IDA = {0, 1};
+    /** Os lugares de A e B numa série, quando B senta primeiro. */
+    private static final int[] LUGARES_VOLTA = {1, 0};
+    /** Quantos passos a busca de um emparelhamento suíço sem revanches pode dar. */
+    private static final int LIMITE_TENTATIVAS_SUICO = 100_000;
+
+    /** Os competidores inscritos. */
+    private final List<Competidor> competidores;
+    /** O formato de disputa. */
+    private final FormatoTorneio formato;
+    /** O pool que joga as unidades. */
+    private final ForkJoinPool pool;
+    /** A semente de todas as distribuições. */
+    private final long semente;
+    /** Os confrontos criados até agora, na ordem de criação. */
+    private final List<Confronto> confrontos = new ArrayList<>();
+    /** Unidades mínimas de um confronto antes de parar por significância. */
+    private int unidadesMinimas = 30;
+    /** Unidades máximas de um confronto. */
+    private int unidadesMaximas = 2000;
+    /** O número de rodadas do sistema suíço, ou 0 para calcular pelo número de competidores. */
+    private int rodadas;
+    /** Os pontos que encerram uma série no formato {@link FormatoTorneio#ATE_N_PONTOS}. */
+    private int pontosAlvo = 100;
+    /** A regra de pontuação das partidas. */
+    private RegraPontuacao regra = RegraPontuacao.TRADICIONAL;
+
+    /**
+     * Constrói um torneio.
+     *
+     * @param competidores Os competidores (pelo menos dois).
+     * @param formato      O formato de disputa.
+     * @param paralelismo  O número de threads que jogam as unidades.
+     * @param semente      A semente das distribuições.
+     */
+    public Torneio(List<Competidor> competidores, FormatoTorneio formato, int paralelismo, long semente) {
+        if (competidores.size() < 2) {
+            throw new IllegalArgumentException("O torneio precisa de pelo menos dois competidores.");
+        }
+        this.competidores = new ArrayList<>(competidores);
+        this.formato = formato;
+        this.pool = new ForkJoinPool(paralelismo);
+        this.semente = semente;
+    }
+
+    /**
+     * Define quantas unidades cada confronto joga. No sistema suíço, cada confronto
+     * joga exatamente o máximo, sem parar por significância.
+     *
+     * @param minimas As unidades mínimas antes de parar por significância (pelo menos 2).
+     * @param maximas As unidades máximas (pelo menos {@code minimas}).
+     */
+    public void setUnidades(int minimas, int maximas) {
+        if (minimas < 2 || maximas < minimas) {
+            throw new IllegalArgumentException("É preciso 2 <= mínimas <= máximas.");
+        }
+        this.unidadesMinimas = minimas;
+        this.unidadesMaximas = maximas;
+    }
+
+    /**
+     * Define o número de rodadas do sistema suíço.
+     *
+     * @param rodadas As rodadas, ou 0 para {@code ceil(log2(n)) + 1}.
+     */
+    public void setRodadas(int rodadas) {
+        this.rodadas = rodadas;
+    }
+
+    /**
+     * Define os pontos que encerram uma série no formato {@link FormatoTorneio#ATE_N_PONTOS}.
+     *
+     * @param pontosAlvo Os pontos da série.
+     */
+    public void setPontosAlvo(int pontosAlvo) {
+        this.pontosAlvo = pontosAlvo;
+    }
+
+    /**
+     * Define a regra de pontuação das partidas, que decide a margem de pontos e,
+     * no formato {@link FormatoTorneio#ATE_N_PONTOS}, quando a série termina.
+     *
+     * @param regra A regra de pontuação.
+     */
+    public void setRegraPontuacao(RegraPontuacao regra) {
+        this.regra = regra;
+    }
+
+    /**
+     * Disputa o torneio inteiro e espera o fim de todos os confrontos.
+     * Enquanto ele roda, {@link #getRelatorio()} pode ser chamado de outra thread.
+     *
+     * @return O relatório final.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public String executar() throws InterruptedException {
+        if (formato == FormatoTorneio.SUICO) {
+            int total = rodadas > 0 ? rodadas
+                : 33 - Integer.numberOfLeadingZeros(competidores.size() - 1);
+            for (int r = 0; r < total; r++) {
+                disputar(emparelharSuico());
+            }
+        } else {
+            List<Confronto> todos = new ArrayList<>();
+            synchronized (this) {
+                for (int i = 0; i < competidores.size(); i++) {
+                    for (int j = i + 1; j < competidores.size(); j++) {
+                        todos.add(novoConfronto(competidores.get(i), competidores.get(j), unidadesMinimas));
+                    }
+                }
+            }
+            disputar(todos);
+        }
+        return getRelatorio();
+    }
+
+    /**
+     * Cria e registra um confronto. Deve ser chamado com a trava do torneio.
+     *
+     * @param a       O primeiro competidor.
+     * @param b       O segundo competidor.
+     * @param minimas As unidades mínimas antes de parar por significância.
+     * @return O confronto criado.
+     */
+    private Confronto novoConfronto(Competidor a, Competidor b, int minimas) {
+        Confronto c = new Confronto(confrontos.size(), a, b, minimas, unidadesMaximas);
+        confrontos.add(c);
+        return c;
+    }
+
+    /**
+     * Emparelha uma rodada do sistema suíço. Com um número ímpar de competidores, fica
+     * de folga (e ganha um ponto) o mais mal colocado entre os que tiveram menos folgas,
+     * então a folga passa por todos antes de se repetir. Os demais, do primeiro ao
+     * último da classificação, enfrentam o mais bem colocado que ainda não enfrentaram;
+     * se isso deixar alguém sem adversário novo, o emparelhamento volta atrás e tenta o
+     * seguinte. Só quando nenhum emparelhamento evita as revanches é que elas são aceitas.
+     *
+     * @return Os confrontos da rodada.
+     */
+    private synchronized List<Confronto> emparelharSuico() {
+        Map<Competidor, Set<Competidor>> adversarios = new IdentityHashMap<>();
+        for (Competidor cp : competidores) {
+            adversarios.put(cp, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+        for (Confronto c : confrontos) {
+            adversarios.get(c.getA()).add(c.getB());
+            adversarios.get(c.getB()).add(c.getA());
+        }
+        List<Competidor> livres = new ArrayList<>(competidores);
+        livres.sort(Comparator.comparingDouble(Competidor::getPontosSuico)
+            .thenComparingDouble(Competidor::getElo).reversed());
+
+        if (livres.size() % 2 == 1) {
+            Competidor folga = livres.get(livres.size() - 1);
+            for (int i = livres.size() - 1; i >= 0; i--) {
+                if (livres.get(i).getFolgas() < folga.getFolgas()) folga = livres.get(i);
+            }
+            livres.remove(folga);
+            folga.registrarFolga();
+        }
+
+        // Sem significância: todo confronto suíço joga o máximo de unidades
+        List<Confronto> rodada = new ArrayList<>();
+        int[] par = new int[livres.size()];
+        Arrays.fill(par, -1);
+        if (emparelhar(livres, adversarios, par, new int[] {LIMITE_TENTATIVAS_SUICO})) {
+            for (int i = 0; i < par.length; i++) {
+                if (par[i] > i) rodada.add(novoConfronto(livres.get(i), livres.get(par[i]), unidadesMaximas));
+            }
+            return rodada;
+        }
+        // Nenhum emparelhamento evita as revanches: cada um enfrenta o mais bem colocado
+        // livre que ainda não enfrentou ou, se não houver, o mais bem colocado livre
+        while (livres.size() > 1) {
+            Competidor cp = livres.remove(0);
+            int escolhido = 0;
+            for (int i = 0; i < livres.size(); i++) {
+                if (!adversarios.get(cp).contains(livres.get(i))) {
+                    escolhido = i;
+                    break;
+                }
+            }
+            rodada.add(novoConfronto(cp, livres.remove(escolhido), unidadesMaximas));
+        }
+        return rodada;
+    }
+
+    /**
+     * Procura, com retrocesso, um emparelhamento sem revanches: o primeiro competidor
+     * sem par enfrenta o mais bem colocado possível que ainda não enfrentou.
+     *
+     * @param ordem       Os competidores, do primeiro ao último da classificação.
+     * @param adversarios Quem cada competidor já enfrentou.
+     * @param par         O índice do adversário de cada um, ou -1 sem par; preenchido aqui.
+     * @param tentativas  Quantos passos a busca ainda pode dar, para não explodir com muitos competidores.
+     * @return true se todos ficaram com par sem nenhuma revanche.
+     */
+    private static boolean emparelhar(List<Competidor> ordem, Map<Competidor, Set<Competidor>> adversarios,
+                                      int[] par, int[] tentativas) {
+        int i = 0;
+        while (i < par.length && par[i] >= 0) i++;
+        if (i == par.length) return true;
+        Set<Competidor> jaEnfrentados = adversarios.get(ordem.get(i));
+        for (int j = i + 1; j < par.length; j++) {
+            if (par[j] >= 0 || jaEnfrentados.contains(ordem.get(j))) continue;
+            if (--tentativas[0] < 0) break;
+            par[i] = j;
+            par[j] = i;
+            if (emparelhar(ordem, adversarios, par, tentativas)) return true;
+            par[i] = -1;
+            par[j] = -1;
+        }
+        return false;
+    }
+
+    /**
+     * Joga uma lista de confrontos em paralelo e espera todos terminarem.
+     * Cada confronto recebe várias tarefas, para que mesmo poucos confrontos
+     * ocupem todas as threads.
+     *
+     * @param lista Os confrontos.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    private void disputar(List<Confronto> lista) throws InterruptedException {
+        int tarefasPorConfronto = Math.max(1, (pool.getParallelism() + lista.size() - 1) / lista.size());
+        for (Confronto c : lista) {
+            for (int t = 0; t < tarefasPorConfronto; t++) {
+                pool.execute(() -> jogarConfronto(c));
+            }
+        }
+        try {
+            CompletableFuture.allOf(lista.stream().map(Confronto::getFim).toArray(CompletableFuture[]::new)).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no torneio.", e.getCause());
+        }
+        if (formato == FormatoTorneio.SUICO) {
+            synchronized (this) {
+                for (Confronto c : lista) {
+                    double media = c.getPlacar().getMedia();
+                    double pontosA = media > 0.5 ? 1 : media == 0.5 ? 0.5 : 0;
+                    c.getA().somarPontosSuico(pontosA);
+                    c.getB().somarPontosSuico(1 - pontosA);
+                }
+            }
+        }
+    }
+
+    /**
+     * Joga unidades de um confronto até ele se encerrar.
+     *
+     * @param c O confronto.
+     */
+    private void jogarConfronto(Confronto c) {
+        try {
+            while (true) {
+                int unidade;
+                synchronized (this) {
+                    unidade = c.reservar();
+                }
+                if (unidade < 0) return;
+                long sementeUnidade = SimuladorPartidas.misturar(
+                    semente + c.getId() * PASSO_CONFRONTO + unidade * PASSO_UNIDADE);
+                if (formato == FormatoTorneio.ATE_N_PONTOS) {
+                    jogarSerie(c, sementeUnidade);
+                } else {
+                    jogarPar(c, sementeUnidade);
+                }
+            }
+        } catch (RuntimeException e) {
+            c.getFim().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Joga a mesma distribuição duas vezes, trocando os lugares, e registra o par.
+     * A troca anula a vantagem de uma mão boa, o que reduz bastante a variância.
+     *
+     * @param c              O confronto.
+     * @param sementeUnidade A semente da distribuição.
+     */
+    private void jogarPar(Confronto c, long sementeUnidade) {
+        Estrategia ea = c.getA().getEstrategia();
+        Estrategia eb = c.getB().getEstrategia();
+        ResultadoPartida ida = SimuladorPartidas.jogarPartida(Arrays.asList(ea, eb), sementeUnidade, regra);
+        ResultadoPartida volta = SimuladorPartidas.jogarPartida(Arrays.asList(eb, ea), sementeUnidade, regra);
+        int vitoriasA = (ida.getIndiceVencedor() == 0 ? 1 : 0) + (volta.getIndiceVencedor() == 1 ? 1 : 0);
+        int vitoriasB = (ida.getIndiceVencedor() == 1 ? 1 : 0) + (volta.getIndiceVencedor() == 0 ? 1 : 0);
+        int margem = pontosDoLugar(ida, 0) + pontosDoLugar(volta, 1);
+        registrar(c, (vitoriasA + (2 - vitoriasA - vitoriasB) * 0.5) / 2, margem,
+            vitoriasA, vitoriasB, 2 - vitoriasA - vitoriasB);
+    }
+
+    /**
+     * Joga uma série de partidas até alguém somar {@link #pontosAlvo} pontos,
+     * alternando quem senta primeiro.
+     *
+     * @param c              O confronto.
+     * @param sementeUnidade A semente da série.
+     */
+    private void jogarSerie(Confronto c, long sementeUnidade) {
+        Estrategia ea = c.getA().getEstrategia();
+        Estrategia eb = c.getB().getEstrategia();
+        DisputaPontos disputa = new DisputaPontos(2, pontosAlvo);
+        int vitoriasA = 0;
+        int vitoriasB = 0;
+        int empates = 0;
+        for (int partida = 0; !disputa.isEncerrada(); partida++) {
+            boolean aPrimeiro = (partida & 1) == 0;
+            ResultadoPartida r = SimuladorPartidas.jogarPartida(
+                aPrimeiro ? Arrays.asList(ea, eb) : Arrays.asList(eb, ea),
+                SimuladorPartidas.misturar(sementeUnidade + partida), regra);
+            int lugarA = aPrimeiro ? 0 : 1;
+            disputa.registrar(new int[] {r.getPontos(0), r.getPontos(1)}, aPrimeiro ? LUGARES_IDA : LUGARES_VOLTA);
+            if (r.getIndiceVencedor() < 0) {
+                empates++;
+            } else if (r.getIndiceVencedor() == lugarA) {
+                vitoriasA++;
+            } else {
+                vitoriasB++;
+            }
+        }
+        registrar(c, disputa.getVencedor() == 0 ? 1 : 0, disputa.getPlacar(0) - disputa.getPlacar(1),
+            vitoriasA, vitoriasB, empates);
+    }
+
+    /**
+     * Retorna os pontos de uma partida do ponto de vista de um lugar da mesa.
+     *
+     * @param r     O resultado da partida.
+     * @param lugar O lugar (0 ou 1).
+     * @return Os pontos do lugar menos os do adversário.
+     */
+    private static int pontosDoLugar(ResultadoPartida r, int lugar) {
+        return r.getPontos(lugar) - r.getPontos(1 - lugar);
+    }
+
+    /**
+     * Registra o resultado de uma unidade no confronto, nos competidores e no Elo.
+     *
+     * @param c         O confronto.
+     * @param placarA   O placar de {@code a}, entre 0 e 1.
+     * @param margemA   A diferença de pontos de {@code a}.
+     * @param vitoriasA As partidas vencidas por {@code a}.
+     * @param vitoriasB As partidas vencidas por {@code b}.
+     * @param empates   As partidas empatadas.
+     */
+    private synchronized void registrar(Confronto c, double placarA, int margemA,
+                                        int vitoriasA, int vitoriasB, int empates) {
+        Competidor a = c.getA();
+        Competidor b = c.getB();
+        a.getPlacar().registrar(placarA);
+        b.getPlacar().registrar(1 - placarA);
+        a.getMargem().registrar(margemA);
+        b.getMargem().registrar(-margemA);
+        double esperado = 1 / (1 + Math.pow(10, (b.getElo() - a.getElo()) / 400));
+        double ajuste = FATOR_K * (placarA - esperado);
+        a.setElo(a.getElo() + ajuste);
+        b.setElo(b.getElo() - ajuste);
+        c.registrar(placarA, margemA, vitoriasA, vitoriasB, empates);
+    }
+
+    /**
+     * Monta a classificação e o resumo dos confrontos, com os números até o momento.
+     * Pode ser chamado a qualquer hora, inclusive durante o torneio.
+     *
+     * @return O relatório em texto.
+     */
+    public synchronized String getRelatorio() {
+        List<Competidor> ordem = new ArrayList<>(competidores);
+        ordem.sort(Comparator.comparingDouble(Competidor::getElo).reversed());
+        StringBuilder sb = new StringBuilder("Classificação (" + formato + "):\n");
+        for (Competidor cp : ordem) {
+            sb.append(String.format("  %-14s Elo %6.0f  placar %s  margem %.1f ± %.1f  (%d unidades)%s%n",
+                cp.getNome(), cp.getElo(), cp.getPlacar(), cp.getMargem().getMedia(),
+                cp.getMargem().getMargemErro(), cp.getPlacar().getQuantidade(),
+                formato == FormatoTorneio.SUICO ? String.format("  %.1f pts", cp.getPontosSuico()) : ""));
+        }
+        sb.append("Confrontos:\n");
+        for (Confronto c : confrontos) {
+            sb.append("  ").append(c).append(c.isEncerrado() ? "" : "  (em andamento)").append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Encerra as threads do torneio.
+     */
+    public void encerrar() {
+        pool.shutdown();
+    }
+
+    /**
+     * Roda um torneio entre as estratégias do projeto e mostra o relatório parcial
+     * a cada cinco segundos.
+     * Uso: {@code java torneio.Torneio [TODOS_CONTRA_TODOS|SUICO|ATE_N_PONTOS] [unidades máximas] [semente]}.
+     *
+     * @param args O formato, o limite de unidades por confronto e a semente.
+     * @throws InterruptedException se a thread for interrompida.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        FormatoTorneio formato = args.length > 0 ? FormatoTorneio.valueOf(args[0]) : FormatoTorneio.TODOS_CONTRA_TODOS;
+        int maximas = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        long semente = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+        EstrategiaMCTS mcts = new EstrategiaMCTS(0, 300, 1, semente);
+        List<Competidor> competidores = Arrays.asList(
+            new Competidor("PrimeiraPeca", new EstrategiaPrimeiraPeca()),
+            new Competidor("MaiorPeca", new EstrategiaMaiorPeca()),
+            new Competidor("MCTS-300", mcts));
+        Torneio torneio = new Torneio(competidores, formato, Runtime.getRuntime().availableProcessors(), semente);
+        torneio.setUnidades(Math.min(30, maximas), maximas);
+
+        ScheduledExecutorService relogio = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "relatorio-torneio");
+            t.setDaemon(true);
+            return t;
+        });
+        relogio.scheduleAtFixedRate(() -> System.out.println(torneio.getRelatorio()), 5, 5, TimeUnit.SECONDS);
+        System.out.println(torneio.executar());
+        relogio.shutdownNow();
+        torneio.encerrar();
+        mcts.encerrar();
+    }
+}